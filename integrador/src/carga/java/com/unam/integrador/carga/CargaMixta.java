@@ -0,0 +1,283 @@
+package com.unam.integrador.carga;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.unam.integrador.model.Periodo;
+
+/**
+ * Envía a los controladores, por HTTP, una mezcla de operaciones con los pesos
+ * de {@code carga.mezcla.*} desde {@code carga.usuarios} hilos concurrentes.
+ *
+ * Los datos de cada operación se toman de la base al comenzar: clientes sin
+ * factura en el período a emitir, facturas impagas agrupadas por cliente y
+ * pagos existentes. La secuencia de operaciones de cada usuario depende solo
+ * de la semilla. Una solicitud es exitosa si responde 200 (consultas) o
+ * redirige al destino de éxito del formulario (altas): los formularios con
+ * error se vuelven a mostrar con 200 o redirigen a la pantalla de origen.
+ */
+class CargaMixta {
+
+    /** Facturas que se pagan juntas, como máximo, en un pago combinado. */
+    private static final int FACTURAS_POR_PAGO = 3;
+
+    /** Intentos de elegir una operación con datos disponibles antes de listar facturas. */
+    private static final int INTENTOS_ELECCION = 10;
+
+    private static final Pattern EXITO_EMISION = Pattern.compile(".*/facturas/\\d+$");
+    private static final Pattern EXITO_MASIVA = Pattern.compile(".*/facturacion-masiva/\\d+$");
+    private static final Pattern EXITO_PAGO = Pattern.compile(".*/pagos$");
+
+    private final JdbcTemplate jdbc;
+    private final ConfiguracionCarga configuracion;
+    private final String urlBase;
+    private final HttpClient http = HttpClient.newBuilder()
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+
+    private final Queue<List<FacturaImpaga>> deudas = new ConcurrentLinkedQueue<>();
+    private final List<Long> pagos = new ArrayList<>();
+    private final Queue<Long> clientesAFacturar = new ConcurrentLinkedQueue<>();
+    private Periodo periodoEmision;
+    private Periodo periodoMasivo = Periodo.actual().desplazar(12);
+
+    CargaMixta(JdbcTemplate jdbc, ConfiguracionCarga configuracion, int puerto) {
+        this.jdbc = jdbc;
+        this.configuracion = configuracion;
+        this.urlBase = "http://localhost:" + puerto;
+    }
+
+    /**
+     * Lee de la base los datos con que se arman las solicitudes.
+     */
+    void preparar() {
+        Random azar = new Random(configuracion.getSemilla());
+
+        Map<Long, List<FacturaImpaga>> porCliente = new LinkedHashMap<>();
+        jdbc.query("SELECT id_factura, cliente_id, saldo_pendiente FROM factura "
+                 + "WHERE estado IN ('PENDIENTE', 'VENCIDA') AND saldo_pendiente > 0 ORDER BY cliente_id, id_factura",
+            fila -> {
+                porCliente.computeIfAbsent(fila.getLong(2), id -> new ArrayList<>())
+                    .add(new FacturaImpaga(fila.getLong(1), fila.getLong(2), fila.getBigDecimal(3)));
+            });
+        List<List<FacturaImpaga>> grupos = new ArrayList<>();
+        for (List<FacturaImpaga> facturas : porCliente.values()) {
+            for (int desde = 0; desde < facturas.size(); desde += FACTURAS_POR_PAGO) {
+                grupos.add(facturas.subList(desde, Math.min(desde + FACTURAS_POR_PAGO, facturas.size())));
+            }
+        }
+        Collections.shuffle(grupos, azar);
+        deudas.addAll(grupos);
+
+        pagos.addAll(jdbc.queryForList("SELECT id_pago FROM pago ORDER BY id_pago", Long.class));
+    }
+
+    /**
+     * Ejecuta las operaciones de calentamiento y luego las medidas.
+     *
+     * @param registro donde se registran las operaciones medidas
+     * @return segundos que duró la fase medida
+     */
+    double ejecutar(RegistroLatencias registro) throws InterruptedException {
+        if (configuracion.getCalentamiento() > 0) {
+            correr(configuracion.getCalentamiento(), null, configuracion.getSemilla() * 31);
+        }
+        long inicio = System.nanoTime();
+        correr(configuracion.getOperaciones(), registro, configuracion.getSemilla());
+        return (System.nanoTime() - inicio) / 1e9;
+    }
+
+    private void correr(int operaciones, RegistroLatencias registro, long semilla) throws InterruptedException {
+        AtomicInteger restantes = new AtomicInteger(operaciones);
+        ExecutorService usuarios = Executors.newFixedThreadPool(configuracion.getUsuarios());
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int u = 0; u < configuracion.getUsuarios(); u++) {
+                Random azar = new Random(semilla + u);
+                tareas.add(usuarios.submit(() -> {
+                    while (restantes.getAndDecrement() > 0) {
+                        ejecutarUna(azar, registro);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                try {
+                    tarea.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Falló un usuario de la carga", e.getCause());
+                }
+            }
+        } finally {
+            usuarios.shutdownNow();
+        }
+    }
+
+    private void ejecutarUna(Random azar, RegistroLatencias registro) throws IOException, InterruptedException {
+        OperacionCarga operacion = null;
+        HttpRequest solicitud = null;
+        for (int intento = 0; intento < INTENTOS_ELECCION && solicitud == null; intento++) {
+            operacion = elegir(azar);
+            solicitud = armar(operacion, azar);
+        }
+        if (solicitud == null) {
+            operacion = OperacionCarga.LISTAR_FACTURAS;
+            solicitud = armar(operacion, azar);
+        }
+
+        long inicio = System.nanoTime();
+        HttpResponse<Void> respuesta = http.send(solicitud, HttpResponse.BodyHandlers.discarding());
+        long nanos = System.nanoTime() - inicio;
+        if (registro != null) {
+            registro.registrar(operacion, nanos, respuesta.statusCode(), exitosa(operacion, respuesta));
+        }
+    }
+
+    private OperacionCarga elegir(Random azar) {
+        Map<OperacionCarga, Integer> mezcla = configuracion.getMezcla();
+        int total = mezcla.values().stream().mapToInt(Integer::intValue).sum();
+        int valor = azar.nextInt(total);
+        for (Map.Entry<OperacionCarga, Integer> peso : mezcla.entrySet()) {
+            valor -= peso.getValue();
+            if (valor < 0) {
+                return peso.getKey();
+            }
+        }
+        throw new IllegalStateException("Mezcla de operaciones inválida");
+    }
+
+    /**
+     * Arma la solicitud de una operación.
+     *
+     * @return la solicitud, o null si no quedan datos para la operación
+     */
+    private HttpRequest armar(OperacionCarga operacion, Random azar) {
+        LocalDate hoy = LocalDate.now();
+        return switch (operacion) {
+            case LISTAR_FACTURAS -> get("/facturas");
+            case VER_RECIBO -> pagos.isEmpty() ? null
+                : get("/pagos/recibo/" + pagos.get(azar.nextInt(pagos.size())));
+            case EMITIR_FACTURA -> {
+                Object[] cliente = siguienteClienteAFacturar();
+                yield cliente == null ? null : post(operacion, Map.of(
+                    "clienteId", List.of(cliente[0].toString()),
+                    "periodo", List.of(cliente[1].toString()),
+                    "fechaEmision", List.of(hoy.toString()),
+                    "fechaVencimiento", List.of(hoy.plusDays(10).toString())));
+            }
+            case FACTURACION_MASIVA -> post(operacion, Map.of(
+                "periodo", List.of(siguientePeriodoMasivo().getEtiqueta()),
+                "fechaVencimiento", List.of(hoy.plusDays(30).toString())));
+            case PAGO_COMBINADO -> {
+                List<FacturaImpaga> facturas = deudas.poll();
+                yield facturas == null ? null : post(operacion, Map.of(
+                    "facturasIds", facturas.stream().map(f -> f.id().toString()).toList(),
+                    "montoTotal", List.of(facturas.stream().map(FacturaImpaga::saldo)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add).toPlainString()),
+                    "metodoPago", List.of("TRANSFERENCIA"),
+                    "referencia", List.of("Prueba de carga"),
+                    "clienteId", List.of(facturas.get(0).clienteId().toString())));
+            }
+        };
+    }
+
+    private boolean exitosa(OperacionCarga operacion, HttpResponse<Void> respuesta) {
+        if (operacion.getMetodo().equals("GET")) {
+            return respuesta.statusCode() == 200;
+        }
+        // Sin cookies, Tomcat agrega ;jsessionid=... a la URL de redirección
+        String destino = respuesta.headers().firstValue("Location").orElse("").replaceFirst(";.*$", "");
+        Pattern exito = switch (operacion) {
+            case EMITIR_FACTURA -> EXITO_EMISION;
+            case FACTURACION_MASIVA -> EXITO_MASIVA;
+            default -> EXITO_PAGO;
+        };
+        return respuesta.statusCode() == 302 && exito.matcher(destino).matches();
+    }
+
+    /**
+     * Próximo cliente sin factura en el período de emisión, que empieza en el
+     * mes actual (los anteriores son los generados). Cuando se agotan, pasa al
+     * mes siguiente.
+     *
+     * @return ID del cliente y etiqueta del período, o null si no hay clientes facturables
+     */
+    private synchronized Object[] siguienteClienteAFacturar() {
+        for (int intento = 0; intento < 2 && clientesAFacturar.isEmpty(); intento++) {
+            periodoEmision = periodoEmision == null ? Periodo.actual() : periodoEmision.desplazar(1);
+            clientesAFacturar.addAll(jdbc.queryForList(
+                "SELECT c.id FROM cuenta_cliente c WHERE c.estado = 'ACTIVA' "
+              + "AND EXISTS (SELECT 1 FROM servicio_contratado sc WHERE sc.cliente_id = c.id AND sc.activo = true) "
+              + "AND NOT EXISTS (SELECT 1 FROM factura f WHERE f.cliente_id = c.id AND f.periodo_activo = ?) "
+              + "ORDER BY c.id", Long.class, Date.valueOf(periodoEmision.getPrimerDia())));
+        }
+        Long cliente = clientesAFacturar.poll();
+        return cliente == null ? null : new Object[] {cliente, periodoEmision.getEtiqueta()};
+    }
+
+    /**
+     * Próximo período sin facturación masiva, desde un año adelante para no
+     * cruzarse con las emisiones individuales.
+     */
+    private synchronized Periodo siguientePeriodoMasivo() {
+        List<Date> facturados = jdbc.queryForList(
+            "SELECT periodo_fecha FROM lote_facturacion WHERE anulado = false", Date.class);
+        while (facturados.contains(Date.valueOf(periodoMasivo.getPrimerDia()))) {
+            periodoMasivo = periodoMasivo.desplazar(1);
+        }
+        Periodo periodo = periodoMasivo;
+        periodoMasivo = periodoMasivo.desplazar(1);
+        return periodo;
+    }
+
+    private HttpRequest get(String ruta) {
+        return HttpRequest.newBuilder(URI.create(urlBase + ruta)).GET().build();
+    }
+
+    private HttpRequest post(OperacionCarga operacion, Map<String, List<String>> parametros) {
+        String cuerpo = parametros.entrySet().stream()
+            .flatMap(p -> p.getValue().stream().map(v -> codificar(p.getKey()) + "=" + codificar(v)))
+            .collect(Collectors.joining("&"));
+        return HttpRequest.newBuilder(URI.create(urlBase + operacion.getRuta()))
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+            .build();
+    }
+
+    private static String codificar(String valor) {
+        return URLEncoder.encode(valor, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Factura con saldo pendiente al comenzar la carga.
+     */
+    private record FacturaImpaga(Long id, Long clienteId, BigDecimal saldo) {
+    }
+}
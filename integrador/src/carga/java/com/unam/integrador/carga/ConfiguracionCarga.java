@@ -0,0 +1,97 @@
+package com.unam.integrador.carga;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.core.env.Environment;
+
+import lombok.Getter;
+
+/**
+ * Parámetros de la prueba de carga, leídos de las propiedades {@code carga.*}
+ * (por ejemplo {@code --carga.clientes=5000} en la línea de comandos).
+ */
+@Getter
+class ConfiguracionCarga {
+
+    /** Base de datos: {@code h2} (en memoria) o {@code postgresql}. */
+    private final String base;
+
+    /** Si es false, no se generan datos y se usan los que ya tiene la base. */
+    private final boolean generar;
+
+    /** Clientes a generar. */
+    private final int clientes;
+
+    /** Servicios a generar. */
+    private final int servicios;
+
+    /** Máximo de servicios contratados por cliente (al menos uno). */
+    private final int serviciosPorCliente;
+
+    /** Meses facturados hacia atrás desde el mes anterior al actual. */
+    private final int periodos;
+
+    /** Proporción de facturas pagadas en los períodos anteriores al último. */
+    private final double proporcionPagada;
+
+    /** Semilla de los datos generados y de la secuencia de operaciones. */
+    private final long semilla;
+
+    /** Usuarios concurrentes (hilos que envían solicitudes). */
+    private final int usuarios;
+
+    /** Operaciones de calentamiento, no incluidas en el resultado. */
+    private final int calentamiento;
+
+    /** Operaciones medidas. */
+    private final int operaciones;
+
+    /** Peso relativo de cada operación en la mezcla. */
+    private final Map<OperacionCarga, Integer> mezcla;
+
+    /** Archivo JSON con el resultado. */
+    private final Path resultado;
+
+    ConfiguracionCarga(Environment entorno) {
+        this.base = entorno.getProperty("carga.base", "h2");
+        this.generar = entorno.getProperty("carga.generar", Boolean.class, true);
+        this.clientes = positivo(entorno, "carga.clientes", 2000);
+        this.servicios = positivo(entorno, "carga.servicios", 20);
+        this.serviciosPorCliente = positivo(entorno, "carga.servicios-por-cliente", 3);
+        this.periodos = positivo(entorno, "carga.periodos", 6);
+        this.proporcionPagada = entorno.getProperty("carga.proporcion-pagada", Double.class, 0.7);
+        this.semilla = entorno.getProperty("carga.semilla", Long.class, 42L);
+        this.usuarios = positivo(entorno, "carga.usuarios", 8);
+        this.calentamiento = entorno.getProperty("carga.calentamiento", Integer.class, 100);
+        this.operaciones = positivo(entorno, "carga.operaciones", 1000);
+        this.resultado = Path.of(entorno.getProperty("carga.resultado", "target/carga-resultado.json"));
+
+        this.mezcla = new EnumMap<>(OperacionCarga.class);
+        for (OperacionCarga operacion : OperacionCarga.values()) {
+            int peso = entorno.getProperty("carga.mezcla." + operacion.getNombre(), Integer.class,
+                operacion.getPesoPorDefecto());
+            if (peso < 0) {
+                throw new IllegalArgumentException("El peso de " + operacion.getNombre() + " no puede ser negativo");
+            }
+            if (peso > 0) {
+                mezcla.put(operacion, peso);
+            }
+        }
+        if (mezcla.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla de operaciones no puede estar vacía");
+        }
+        if (proporcionPagada < 0 || proporcionPagada > 1) {
+            throw new IllegalArgumentException("carga.proporcion-pagada debe estar entre 0 y 1");
+        }
+    }
+
+    private static int positivo(Environment entorno, String propiedad, int porDefecto) {
+        int valor = entorno.getProperty(propiedad, Integer.class, porDefecto);
+        if (valor <= 0) {
+            throw new IllegalArgumentException(propiedad + " debe ser mayor a cero");
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,348 @@
+package com.unam.integrador.carga;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.ItemFactura;
+import com.unam.integrador.model.Periodo;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.EstadoFactura;
+import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoCondicionIVA;
+import com.unam.integrador.model.enums.TipoFactura;
+
+/**
+ * Genera datos sintéticos para la prueba de carga con inserciones JDBC por
+ * lotes, sin pasar por Hibernate: servicios, clientes, servicios contratados y
+ * varios períodos de facturas (con sus items) y pagos.
+ *
+ * Los importes se calculan con las entidades del modelo (Factura e ItemFactura)
+ * para que coincidan con los que generaría la aplicación. La numeración de
+ * facturas y recibos continúa la existente en la base. Los datos son
+ * reproducibles: dependen solo de la configuración y de la semilla.
+ */
+class GeneradorDatos {
+
+    /** Prefijo de los CUIT generados (no se usa en CUIT reales); identifica los clientes de la carga. */
+    static final String PREFIJO_CUIT = "39";
+
+    private static final long CUIT_BASE = 39_000_000_000L;
+
+    /** Prefijo del nombre de los servicios generados. */
+    static final String PREFIJO_SERVICIO = "Servicio carga ";
+
+    private static final int TAMANIO_LOTE = 1000;
+
+    private static final TipoCondicionIVA[] CONDICIONES = {
+        TipoCondicionIVA.RESPONSABLE_INSCRIPTO, TipoCondicionIVA.RESPONSABLE_INSCRIPTO,
+        TipoCondicionIVA.CONSUMIDOR_FINAL, TipoCondicionIVA.CONSUMIDOR_FINAL,
+        TipoCondicionIVA.MONOTRIBUTISTA, TipoCondicionIVA.EXENTO
+    };
+
+    private static final MetodoPago[] METODOS = {
+        MetodoPago.TRANSFERENCIA, MetodoPago.TRANSFERENCIA, MetodoPago.TARJETA, MetodoPago.EFECTIVO
+    };
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaccion;
+    private final ConfiguracionCarga configuracion;
+    private final Random azar;
+
+    private int contratos;
+    private int facturas;
+    private int pagos;
+
+    GeneradorDatos(JdbcTemplate jdbc, TransactionTemplate transaccion, ConfiguracionCarga configuracion) {
+        this.jdbc = jdbc;
+        this.transaccion = transaccion;
+        this.configuracion = configuracion;
+        this.azar = new Random(configuracion.getSemilla());
+    }
+
+    /**
+     * Inserta todos los datos de la carga.
+     *
+     * @return cantidades generadas por tabla
+     * @throws IllegalStateException si la base ya tiene datos de una carga anterior
+     */
+    Map<String, Integer> generar() {
+        Integer existentes = jdbc.queryForObject(
+            "SELECT COUNT(*) FROM cuenta_cliente WHERE cuit_dni LIKE ?", Integer.class, PREFIJO_CUIT + "%");
+        if (existentes != null && existentes > 0) {
+            throw new IllegalStateException("La base ya tiene clientes de una carga anterior. "
+                + "Use una base vacía o --carga.generar=false para reutilizarlos.");
+        }
+
+        List<Servicio> servicios = generarServicios();
+        List<Cliente> clientes = generarClientes();
+        generarContratos(clientes, servicios);
+
+        // Períodos ya cerrados: desde hace carga.periodos meses hasta el mes anterior
+        Periodo actual = Periodo.actual();
+        for (int i = configuracion.getPeriodos(); i >= 1; i--) {
+            generarPeriodo(actual.desplazar(-i), clientes, i > 1);
+        }
+
+        Map<String, Integer> cantidades = new HashMap<>();
+        cantidades.put("servicios", servicios.size());
+        cantidades.put("clientes", clientes.size());
+        cantidades.put("contratos", contratos);
+        cantidades.put("facturas", facturas);
+        cantidades.put("pagos", pagos);
+        return cantidades;
+    }
+
+    private List<Servicio> generarServicios() {
+        TipoAlicuotaIVA[] alicuotas = TipoAlicuotaIVA.values();
+        List<Servicio> servicios = new ArrayList<>();
+        for (int i = 1; i <= configuracion.getServicios(); i++) {
+            BigDecimal precio = BigDecimal.valueOf(1000 + azar.nextInt(49_000)).setScale(2);
+            TipoAlicuotaIVA alicuota = azar.nextInt(4) == 0 ? alicuotas[azar.nextInt(alicuotas.length)]
+                : TipoAlicuotaIVA.IVA_21;
+            servicios.add(new Servicio(PREFIJO_SERVICIO + i, precio, alicuota));
+        }
+        insertar("INSERT INTO servicio (nombre, descripcion, precio, alicuotaiva, activo) VALUES (?, ?, ?, ?, true)",
+            servicios, s -> new Object[] {s.nombre, "Servicio generado para la prueba de carga", s.precio,
+                s.alicuota.name()});
+
+        Map<String, Long> ids = new HashMap<>();
+        jdbc.query("SELECT idservicio, nombre FROM servicio WHERE nombre LIKE ?",
+            fila -> { ids.put(fila.getString(2), fila.getLong(1)); }, PREFIJO_SERVICIO + "%");
+        servicios.forEach(s -> s.id = ids.get(s.nombre));
+        return servicios;
+    }
+
+    private List<Cliente> generarClientes() {
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < configuracion.getClientes(); i++) {
+            EstadoCuenta estado = azar.nextInt(100) < 5 ? EstadoCuenta.SUSPENDIDA : EstadoCuenta.ACTIVA;
+            clientes.add(new Cliente(String.valueOf(CUIT_BASE + i), "Cliente carga " + i,
+                CONDICIONES[azar.nextInt(CONDICIONES.length)], estado));
+        }
+        insertar("INSERT INTO cuenta_cliente (nombre, razon_social, cuit_dni, domicilio, email, condicion_iva, "
+               + "estado, saldo) VALUES (?, ?, ?, ?, ?, ?, ?, 0)",
+            clientes, c -> new Object[] {c.nombre, c.nombre + " S.A.", c.cuit, "Calle " + c.cuit.substring(6),
+                "cliente" + c.cuit + "@carga.local", c.condicion.name(), c.estado.name()});
+
+        Map<String, Long> ids = new HashMap<>();
+        jdbc.query("SELECT id, cuit_dni FROM cuenta_cliente WHERE cuit_dni LIKE ?",
+            fila -> { ids.put(fila.getString(2), fila.getLong(1)); }, PREFIJO_CUIT + "%");
+        clientes.forEach(c -> c.id = ids.get(c.cuit));
+        return clientes;
+    }
+
+    private void generarContratos(List<Cliente> clientes, List<Servicio> servicios) {
+        LocalDate alta = Periodo.actual().desplazar(-configuracion.getPeriodos()).getPrimerDia();
+        List<Object[]> filas = new ArrayList<>();
+        for (Cliente cliente : clientes) {
+            int cantidad = 1 + azar.nextInt(Math.min(configuracion.getServiciosPorCliente(), servicios.size()));
+            int desde = azar.nextInt(servicios.size());
+            for (int i = 0; i < cantidad; i++) {
+                Servicio servicio = servicios.get((desde + i) % servicios.size());
+                cliente.servicios.add(servicio);
+                filas.add(new Object[] {Date.valueOf(alta), servicio.precio, cliente.id, servicio.id});
+            }
+        }
+        insertar("INSERT INTO servicio_contratado (fecha_alta, precio_contratado, activo, cliente_id, servicio_id) "
+               + "VALUES (?, ?, true, ?, ?)", filas, fila -> fila);
+        contratos = filas.size();
+    }
+
+    /**
+     * Factura a todos los clientes activos en el período y, si está pagado,
+     * registra un pago por cada factura (según carga.proporcion-pagada).
+     */
+    private void generarPeriodo(Periodo periodo, List<Cliente> clientes, boolean pagado) {
+        LocalDate emision = periodo.getPrimerDia();
+        LocalDate vencimiento = emision.plusDays(10);
+        Map<Integer, Integer> proximoNumero = new HashMap<>();
+        jdbc.query("SELECT serie, MAX(nro_factura) FROM factura GROUP BY serie",
+            fila -> { proximoNumero.put(fila.getInt(1), fila.getInt(2) + 1); });
+
+        List<Factura> generadas = new ArrayList<>();
+        Map<Factura, Long> clientesFacturas = new IdentityHashMap<>();
+        for (Cliente cliente : clientes) {
+            if (cliente.estado != EstadoCuenta.ACTIVA) {
+                continue;
+            }
+            TipoFactura tipo = Factura.determinarTipoFactura(TipoCondicionIVA.RESPONSABLE_INSCRIPTO, cliente.condicion);
+            int serie = switch (tipo) {
+                case A -> 1;
+                case B -> 2;
+                case C -> 3;
+            };
+            int numero = proximoNumero.getOrDefault(serie, 1);
+            proximoNumero.put(serie, numero + 1);
+            Factura factura = new Factura(serie, numero, cliente.comoEntidad(), emision, vencimiento,
+                emision, tipo);
+            for (Servicio servicio : cliente.servicios) {
+                factura.agregarItem(new ItemFactura(servicio.nombre, servicio.precio, 1, servicio.alicuota));
+            }
+            generadas.add(factura);
+            clientesFacturas.put(factura, cliente.id);
+        }
+
+        // Pagadas o no según la proporción configurada; las impagas vencidas quedan VENCIDA
+        Map<Factura, Boolean> pagadas = new IdentityHashMap<>();
+        for (Factura factura : generadas) {
+            pagadas.put(factura, pagado && azar.nextDouble() < configuracion.getProporcionPagada());
+        }
+        boolean vencido = vencimiento.isBefore(LocalDate.now());
+        insertar("INSERT INTO factura (serie, nro_factura, cliente_id, fecha_emision, fecha_vencimiento, periodo, "
+               + "periodo_activo, tipo, estado, subtotal, descuento, total_iva, saldo_pendiente, total, "
+               + "estado_autorizacion, cae, vencimiento_cae) "
+               + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?, 'AUTORIZADA', ?, ?)",
+            generadas, f -> {
+                boolean pagada = pagadas.get(f);
+                EstadoFactura estado = pagada ? EstadoFactura.PAGADA_TOTALMENTE
+                    : vencido ? EstadoFactura.VENCIDA : EstadoFactura.PENDIENTE;
+                return new Object[] {f.getSerie(), f.getNroFactura(), clientesFacturas.get(f),
+                    Date.valueOf(f.getFechaEmision()), Date.valueOf(f.getFechaVencimiento()),
+                    Date.valueOf(f.getPeriodo()), Date.valueOf(f.getPeriodo()), f.getTipo().name(), estado.name(),
+                    f.getSubtotal(), f.getTotalIva(), pagada ? BigDecimal.ZERO : f.getTotal(), f.getTotal(),
+                    String.format("%014d", (long) f.getSerie() * 100_000_000L + f.getNroFactura()),
+                    Date.valueOf(f.getFechaEmision().plusDays(10))};
+            });
+        facturas += generadas.size();
+
+        Map<Long, Long> idsPorNumero = new HashMap<>();
+        jdbc.query("SELECT id_factura, serie, nro_factura FROM factura WHERE periodo = ?",
+            fila -> { idsPorNumero.put(clave(fila.getInt(2), fila.getInt(3)), fila.getLong(1)); },
+            Date.valueOf(periodo.getPrimerDia()));
+
+        List<Object[]> items = new ArrayList<>();
+        for (Factura factura : generadas) {
+            Long idFactura = idsPorNumero.get(clave(factura.getSerie(), factura.getNroFactura()));
+            for (ItemFactura item : factura.getDetalleFactura()) {
+                items.add(new Object[] {item.getDescripcion(), item.getPrecioUnitario(), item.getCantidad(),
+                    item.getAlicuotaIVA().name(), item.getSubtotal(), item.getMontoIva(), item.getTotal(),
+                    idFactura});
+            }
+        }
+        insertar("INSERT INTO item_factura (descripcion, precio_unitario, cantidad, alicuotaiva, subtotal, "
+               + "monto_iva, total, factura_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", items, fila -> fila);
+
+        generarPagos(generadas.stream().filter(pagadas::get).toList(), idsPorNumero);
+    }
+
+    /**
+     * Registra un pago con su recibo por cada factura pagada, continuando la
+     * numeración de recibos de la base.
+     */
+    private void generarPagos(List<Factura> pagadas, Map<Long, Long> idsFacturas) {
+        if (pagadas.isEmpty()) {
+            return;
+        }
+        Integer recibos = jdbc.queryForObject(
+            "SELECT COUNT(DISTINCT numero_recibo) FROM pago WHERE numero_recibo IS NOT NULL", Integer.class);
+        int proximoRecibo = (recibos != null ? recibos : 0) + 1;
+
+        List<Object[]> filas = new ArrayList<>();
+        List<String> numeros = new ArrayList<>();
+        for (Factura factura : pagadas) {
+            String numero = String.format("%08d", proximoRecibo++);
+            numeros.add(numero);
+            LocalDate fecha = factura.getFechaEmision().plusDays(azar.nextInt(10));
+            filas.add(new Object[] {Date.valueOf(fecha), factura.getTotal(),
+                METODOS[azar.nextInt(METODOS.length)].name(), "Pago generado para la prueba de carga", numero});
+        }
+        insertar("INSERT INTO pago (fecha_pago, monto, metodo_pago, referencia, numero_recibo) VALUES (?, ?, ?, ?, ?)",
+            filas, fila -> fila);
+
+        Map<String, Long> idsPagos = new HashMap<>();
+        jdbc.query("SELECT id_pago, numero_recibo FROM pago WHERE numero_recibo BETWEEN ? AND ?",
+            fila -> { idsPagos.put(fila.getString(2), fila.getLong(1)); },
+            numeros.get(0), numeros.get(numeros.size() - 1));
+
+        List<Object[]> detalles = new ArrayList<>();
+        for (int i = 0; i < pagadas.size(); i++) {
+            Factura factura = pagadas.get(i);
+            LocalDateTime aplicacion = ((Date) filas.get(i)[0]).toLocalDate().atTime(12, 0);
+            detalles.add(new Object[] {idsPagos.get(numeros.get(i)),
+                idsFacturas.get(clave(factura.getSerie(), factura.getNroFactura())),
+                factura.getTotal(), Timestamp.valueOf(aplicacion)});
+        }
+        insertar("INSERT INTO detalle_pago (pago_id, factura_id, monto_aplicado, fecha_aplicacion) "
+               + "VALUES (?, ?, ?, ?)", detalles, fila -> fila);
+        pagos += pagadas.size();
+    }
+
+    /**
+     * Inserta las filas en lotes JDBC de {@value #TAMANIO_LOTE}, todas en una transacción.
+     */
+    private <T> void insertar(String sql, List<T> elementos, Function<T, Object[]> valores) {
+        transaccion.executeWithoutResult(estado -> {
+            for (int desde = 0; desde < elementos.size(); desde += TAMANIO_LOTE) {
+                List<Object[]> lote = elementos.subList(desde, Math.min(desde + TAMANIO_LOTE, elementos.size()))
+                    .stream().map(valores).toList();
+                jdbc.batchUpdate(sql, lote);
+            }
+        });
+    }
+
+    private static long clave(int serie, int numero) {
+        return (long) serie << 32 | numero;
+    }
+
+    /**
+     * Servicio generado (sin pasar por la entidad, para no depender de sus validaciones).
+     */
+    private static final class Servicio {
+        private final String nombre;
+        private final BigDecimal precio;
+        private final TipoAlicuotaIVA alicuota;
+        private Long id;
+
+        Servicio(String nombre, BigDecimal precio, TipoAlicuotaIVA alicuota) {
+            this.nombre = nombre;
+            this.precio = precio;
+            this.alicuota = alicuota;
+        }
+    }
+
+    /**
+     * Cliente generado y los servicios que contrató.
+     */
+    private static final class Cliente {
+        private final String cuit;
+        private final String nombre;
+        private final TipoCondicionIVA condicion;
+        private final EstadoCuenta estado;
+        private final List<Servicio> servicios = new ArrayList<>();
+        private Long id;
+
+        Cliente(String cuit, String nombre, TipoCondicionIVA condicion, EstadoCuenta estado) {
+            this.cuit = cuit;
+            this.nombre = nombre;
+            this.condicion = condicion;
+            this.estado = estado;
+        }
+
+        /**
+         * @return una entidad con los datos necesarios para armar su factura en memoria
+         */
+        CuentaCliente comoEntidad() {
+            CuentaCliente cliente = new CuentaCliente();
+            cliente.setNombre(nombre);
+            cliente.setCondicionIva(condicion);
+            cliente.setEstado(estado);
+            return cliente;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.unam.integrador.carga;
+
+/**
+ * Operaciones de la carga mixta, con el endpoint que ejercitan y su peso por
+ * defecto en la mezcla ({@code carga.mezcla.<nombre>}).
+ */
+enum OperacionCarga {
+
+    /** Listado de facturas (GET /facturas). */
+    LISTAR_FACTURAS("listar-facturas", "GET", "/facturas", 40),
+
+    /** Emisión de una factura individual (POST /facturas/nueva-individual). */
+    EMITIR_FACTURA("emitir-factura", "POST", "/facturas/nueva-individual", 15),
+
+    /** Facturación masiva de un nuevo período (POST /facturacion-masiva/nuevo). */
+    FACTURACION_MASIVA("facturacion-masiva", "POST", "/facturacion-masiva/nuevo", 1),
+
+    /** Pago combinado de las facturas impagas de un cliente (POST /pagos/registrar-combinado). */
+    PAGO_COMBINADO("pago-combinado", "POST", "/pagos/registrar-combinado", 19),
+
+    /** Detalle de un recibo (GET /pagos/recibo/{id}). */
+    VER_RECIBO("ver-recibo", "GET", "/pagos/recibo/{id}", 25);
+
+    private final String nombre;
+    private final String metodo;
+    private final String ruta;
+    private final int pesoPorDefecto;
+
+    OperacionCarga(String nombre, String metodo, String ruta, int pesoPorDefecto) {
+        this.nombre = nombre;
+        this.metodo = metodo;
+        this.ruta = ruta;
+        this.pesoPorDefecto = pesoPorDefecto;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getMetodo() {
+        return metodo;
+    }
+
+    public String getRuta() {
+        return ruta;
+    }
+
+    public int getPesoPorDefecto() {
+        return pesoPorDefecto;
+    }
+}
@@ -0,0 +1,121 @@
+package com.unam.integrador.carga;
+
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.unam.integrador.IntegradorApplication;
+
+/**
+ * Prueba de carga reproducible: levanta la aplicación en un puerto libre,
+ * genera datos sintéticos con {@link GeneradorDatos}, ejecuta la carga mixta
+ * de {@link CargaMixta} contra los controladores y escribe en
+ * {@code carga.resultado} un JSON con las solicitudes por segundo y las
+ * latencias p50/p95/p99 de cada endpoint.
+ *
+ * Se ejecuta con el perfil {@code carga} (ver README). Con
+ * {@code --carga.base=postgresql} usa la base de {@code spring.datasource.*}
+ * (por defecto la de la aplicación, con la clave en
+ * {@code --spring.datasource.password}); con {@code h2}, una base en memoria.
+ */
+public final class PruebaCarga {
+
+    private PruebaCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // La aplicación corre con el classpath de tests: se desactiva el reinicio de devtools,
+        // el log de SQL y la facturación distribuida (cada facturación masiva se mide completa)
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        valorPorDefecto("server.port", "0");
+        valorPorDefecto("spring.jpa.show-sql", "false");
+        valorPorDefecto("logging.level.root", "WARN");
+        valorPorDefecto("facturacion.distribuida.habilitada", "false");
+        String base = new SimpleCommandLinePropertySource(args).getProperty("carga.base");
+        if ("postgresql".equals(base)) {
+            valorPorDefecto("spring.datasource.url", "jdbc:postgresql://localhost:5432/AppGestionServicio"
+                + "?reWriteBatchedInserts=true");
+            valorPorDefecto("spring.datasource.username", "postgres");
+            valorPorDefecto("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            valorPorDefecto("spring.jpa.database-platform", "org.hibernate.dialect.PostgreSQLDialect");
+            valorPorDefecto("spring.jpa.hibernate.ddl-auto", "update");
+        } else if (base == null || "h2".equals(base)) {
+            // H2 corta las esperas de bloqueo a los 2 s; PostgreSQL espera, y la contención
+            // por la numeración de facturas debe medirse como latencia y no como error
+            valorPorDefecto("spring.datasource.url", "jdbc:h2:mem:carga;DB_CLOSE_DELAY=-1;MODE=PostgreSQL"
+                + ";LOCK_TIMEOUT=60000");
+        } else {
+            throw new IllegalArgumentException("carga.base debe ser h2 o postgresql");
+        }
+
+        ConfigurableApplicationContext contexto = SpringApplication.run(IntegradorApplication.class, args);
+        try {
+            ConfiguracionCarga configuracion = new ConfiguracionCarga(contexto.getEnvironment());
+            JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+            int puerto = ((ServletWebServerApplicationContext) contexto).getWebServer().getPort();
+
+            ObjectNode resultado = new ObjectMapper().createObjectNode();
+            resultado.put("fecha", LocalDateTime.now().toString());
+            resultado.put("base", configuracion.getBase());
+
+            ObjectNode datos = resultado.putObject("datos");
+            if (configuracion.isGenerar()) {
+                long inicio = System.nanoTime();
+                Map<String, Integer> generados = new GeneradorDatos(jdbc,
+                    new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class)), configuracion)
+                    .generar();
+                new TreeMap<>(generados).forEach(datos::put);
+                datos.put("segundosGeneracion", (System.nanoTime() - inicio) / 1e9);
+                System.out.println("Datos generados: " + generados);
+            }
+
+            CargaMixta carga = new CargaMixta(jdbc, configuracion, puerto);
+            carga.preparar();
+            RegistroLatencias registro = new RegistroLatencias();
+            double segundos = carga.ejecutar(registro);
+
+            ObjectNode ejecucion = resultado.putObject("carga");
+            ejecucion.put("usuarios", configuracion.getUsuarios());
+            ejecucion.put("calentamiento", configuracion.getCalentamiento());
+            ejecucion.put("operaciones", configuracion.getOperaciones());
+            ejecucion.put("semilla", configuracion.getSemilla());
+            ejecucion.put("segundos", segundos);
+            ejecucion.put("solicitudesPorSegundo", configuracion.getOperaciones() / segundos);
+            ObjectNode mezcla = ejecucion.putObject("mezcla");
+            configuracion.getMezcla().forEach((operacion, peso) -> mezcla.put(operacion.getNombre(), peso));
+            resultado.set("endpoints", registro.resumir(segundos));
+
+            if (configuracion.getResultado().getParent() != null) {
+                Files.createDirectories(configuracion.getResultado().getParent());
+            }
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(configuracion.getResultado().toFile(), resultado);
+            System.out.println("Resultado de la carga en " + configuracion.getResultado().toAbsolutePath());
+        } finally {
+            contexto.close();
+        }
+    }
+
+    /**
+     * Fija una propiedad del sistema si no se indicó otra; las propiedades del
+     * sistema tienen prioridad sobre application.properties y los argumentos
+     * {@code --propiedad=valor}, sobre ellas.
+     */
+    private static void valorPorDefecto(String propiedad, String valor) {
+        if (System.getProperty(propiedad) == null) {
+            System.setProperty(propiedad, valor);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.unam.integrador.carga;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Latencias y errores de cada operación durante la fase medida. Es seguro
+ * para varios hilos.
+ */
+class RegistroLatencias {
+
+    private final Map<OperacionCarga, Muestras> muestras = new EnumMap<>(OperacionCarga.class);
+
+    RegistroLatencias() {
+        for (OperacionCarga operacion : OperacionCarga.values()) {
+            muestras.put(operacion, new Muestras());
+        }
+    }
+
+    /**
+     * Registra una solicitud.
+     *
+     * @param operacion operación ejecutada
+     * @param nanos latencia de la solicitud
+     * @param estado código de estado HTTP de la respuesta
+     * @param exitosa si la respuesta fue la esperada
+     */
+    void registrar(OperacionCarga operacion, long nanos, int estado, boolean exitosa) {
+        muestras.get(operacion).agregar(nanos, estado, exitosa);
+    }
+
+    /**
+     * Resume las muestras por operación: cantidad, errores, respuestas por
+     * código de estado, operaciones por segundo y latencias p50/p95/p99/máxima
+     * en milisegundos.
+     *
+     * @param segundos duración de la fase medida
+     * @return un elemento por operación ejecutada
+     */
+    ArrayNode resumir(double segundos) {
+        ArrayNode resumen = JsonNodeFactory.instance.arrayNode();
+        muestras.forEach((operacion, datos) -> {
+            long[] ordenadas = datos.ordenadas();
+            if (ordenadas.length == 0) {
+                return;
+            }
+            ObjectNode nodo = resumen.addObject();
+            nodo.put("operacion", operacion.getNombre());
+            nodo.put("metodo", operacion.getMetodo());
+            nodo.put("ruta", operacion.getRuta());
+            nodo.put("solicitudes", ordenadas.length);
+            nodo.put("errores", datos.errores());
+            ObjectNode estados = nodo.putObject("estados");
+            datos.estados().forEach((estado, cantidad) -> estados.put(String.valueOf(estado), cantidad));
+            nodo.put("solicitudesPorSegundo", redondear(ordenadas.length / segundos));
+            ObjectNode latencias = nodo.putObject("latenciaMs");
+            latencias.put("p50", milisegundos(percentil(ordenadas, 0.50)));
+            latencias.put("p95", milisegundos(percentil(ordenadas, 0.95)));
+            latencias.put("p99", milisegundos(percentil(ordenadas, 0.99)));
+            latencias.put("maxima", milisegundos(ordenadas[ordenadas.length - 1]));
+            latencias.put("promedio", milisegundos((long) Arrays.stream(ordenadas).average().orElse(0)));
+        });
+        return resumen;
+    }
+
+    /**
+     * Percentil por rango más cercano.
+     */
+    static long percentil(long[] ordenadas, double p) {
+        int rango = (int) Math.ceil(p * ordenadas.length);
+        return ordenadas[Math.max(rango, 1) - 1];
+    }
+
+    private static double milisegundos(long nanos) {
+        return redondear(nanos / 1e6);
+    }
+
+    private static double redondear(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+
+    /**
+     * Muestras de una operación.
+     */
+    private static final class Muestras {
+
+        private final List<Long> latencias = new ArrayList<>();
+        private final Map<Integer, Integer> estados = new TreeMap<>();
+        private int errores;
+
+        synchronized void agregar(long nanos, int estado, boolean exitosa) {
+            latencias.add(nanos);
+            estados.merge(estado, 1, Integer::sum);
+            if (!exitosa) {
+                errores++;
+            }
+        }
+
+        synchronized Map<Integer, Integer> estados() {
+            return new TreeMap<>(estados);
+        }
+
+        synchronized long[] ordenadas() {
+            return latencias.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+
+        synchronized int errores() {
+            return errores;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.unam.integrador.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoFactura;
+
+/**
+ * Benchmarks de los cálculos de Factura según la cantidad de items:
+ * armado de la factura, recálculo de totales y descuento.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FacturaBenchmark {
+
+    /** Cantidad de items de la factura. */
+    @Param({"1", "5", "20", "50"})
+    private int cantidadItems;
+
+    private static final TipoAlicuotaIVA[] ALICUOTAS = TipoAlicuotaIVA.values();
+
+    private BigDecimal[] precios;
+    private Factura factura;
+
+    @Setup(Level.Trial)
+    public void prepararPrecios() {
+        precios = new BigDecimal[cantidadItems];
+        for (int i = 0; i < cantidadItems; i++) {
+            precios[i] = new BigDecimal(1500 + i * 250).movePointLeft(i % 3);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void prepararFactura() {
+        factura = armarFactura();
+    }
+
+    @Benchmark
+    public Factura armarConItems() {
+        return armarFactura();
+    }
+
+    @Benchmark
+    public BigDecimal calcularTotales() {
+        factura.calcularTotales();
+        return factura.getTotal();
+    }
+
+    @Benchmark
+    public BigDecimal aplicarDescuento() {
+        factura.aplicarDescuento(12.5, "Descuento por pronto pago");
+        return factura.getTotal();
+    }
+
+    private Factura armarFactura() {
+        Factura nueva = new Factura(2, 1, null, LocalDate.of(2025, 11, 1),
+            LocalDate.of(2025, 11, 20), LocalDate.of(2025, 11, 1), TipoFactura.B);
+        for (int i = 0; i < cantidadItems; i++) {
+            nueva.agregarItem(new ItemFactura("Servicio " + i, precios[i], 1,
+                ALICUOTAS[i % ALICUOTAS.length]));
+        }
+        return nueva;
+    }
+}
@@ -0,0 +1,51 @@
+package com.unam.integrador.model;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.unam.integrador.model.enums.TipoCondicionIVA;
+import com.unam.integrador.model.enums.TipoFactura;
+
+/**
+ * Benchmarks de las operaciones de Factura que no dependen de los items:
+ * determinación del tipo de factura y formato del período.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FacturaConsultaBenchmark {
+
+    private static final TipoCondicionIVA[] CONDICIONES = TipoCondicionIVA.values();
+
+    private Factura factura;
+
+    @Setup
+    public void preparar() {
+        factura = new Factura(2, 1, null, LocalDate.of(2025, 11, 1),
+            LocalDate.of(2025, 11, 20), LocalDate.of(2025, 11, 1), TipoFactura.B);
+    }
+
+    @Benchmark
+    public void determinarTipoFactura(Blackhole bh) {
+        // Recorre todas las combinaciones para no favorecer una rama
+        for (TipoCondicionIVA emisor : CONDICIONES) {
+            for (TipoCondicionIVA cliente : CONDICIONES) {
+                bh.consume(Factura.determinarTipoFactura(emisor, cliente));
+            }
+        }
+    }
+
+    @Benchmark
+    public String getPeriodoFormateado() {
+        return factura.getPeriodoFormateado();
+    }
+}
@@ -0,0 +1,46 @@
+package com.unam.integrador.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+
+/**
+ * Benchmarks de la facturación proporcional de un item.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ItemFacturaBenchmark {
+
+    private static final BigDecimal PRECIO_MENSUAL = new BigDecimal("15000.00");
+
+    private PeriodoFacturacion periodo;
+
+    @Setup
+    public void preparar() {
+        periodo = new PeriodoFacturacion(LocalDate.of(2025, 11, 15), LocalDate.of(2025, 11, 30));
+    }
+
+    @Benchmark
+    public PeriodoFacturacion crearPeriodo() {
+        return new PeriodoFacturacion(LocalDate.of(2025, 11, 15), LocalDate.of(2025, 11, 30));
+    }
+
+    @Benchmark
+    public ItemFactura crearProporcional() {
+        ItemFactura item = ItemFactura.crearProporcional(
+            "Hosting Web", PRECIO_MENSUAL, 1, TipoAlicuotaIVA.IVA_21, periodo);
+        item.calcular();
+        return item;
+    }
+}
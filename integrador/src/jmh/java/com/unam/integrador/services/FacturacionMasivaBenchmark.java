@@ -0,0 +1,67 @@
+package com.unam.integrador.services;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.Servicio;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoCondicionIVA;
+
+/**
+ * Benchmark del cuerpo del ciclo por cliente de la facturación masiva
+ * (FacturaService.armarFacturaMasiva), sin acceso a la base de datos.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FacturacionMasivaBenchmark {
+
+    /** Cantidad de servicios contratados por el cliente. */
+    @Param({"1", "5", "20"})
+    private int serviciosPorCliente;
+
+    private static final LocalDate PERIODO = LocalDate.of(2025, 11, 1);
+    private static final LocalDate EMISION = LocalDate.of(2025, 11, 1);
+    private static final LocalDate VENCIMIENTO = LocalDate.of(2025, 11, 20);
+
+    private FacturaService facturaService;
+    private CuentaCliente cliente;
+    private TablaPrecios tablaPrecios;
+
+    @Setup
+    public void preparar() {
+        facturaService = new FacturaService();
+        tablaPrecios = TablaPrecios.vacia();
+
+        cliente = new CuentaCliente();
+        cliente.setNombre("Tecnología Global S.A.");
+        cliente.setCuitDni("30123456789");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        TipoAlicuotaIVA[] alicuotas = TipoAlicuotaIVA.values();
+        for (int i = 0; i < serviciosPorCliente; i++) {
+            Servicio servicio = new Servicio("Servicio " + i, "Servicio de prueba",
+                new BigDecimal(1000 + i * 150), alicuotas[i % alicuotas.length]);
+            servicio.setIDServicio((long) i + 1);
+            cliente.contratarServicio(servicio);
+        }
+    }
+
+    @Benchmark
+    public Factura armarFacturaCliente() {
+        return facturaService.armarFacturaMasiva(cliente, EMISION, VENCIMIENTO, PERIODO, tablaPrecios);
+    }
+}
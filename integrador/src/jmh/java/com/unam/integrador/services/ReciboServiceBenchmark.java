@@ -0,0 +1,86 @@
+package com.unam.integrador.services;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.unam.integrador.dto.ReciboDTO;
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.DetallePago;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.ItemFactura;
+import com.unam.integrador.model.Pago;
+import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoFactura;
+
+/**
+ * Benchmarks del armado de recibos a partir de entidades en memoria.
+ * Los detalles se leen de {@code pago.getDetallesPago()}, así que no se usa
+ * ningún repositorio.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReciboServiceBenchmark {
+
+    /** Cantidad de facturas a las que se aplica cada pago. */
+    @Param({"1", "10"})
+    private int facturasPorPago;
+
+    private ReciboService reciboService;
+    private List<Pago> pagos;
+
+    @Setup
+    public void preparar() throws ReflectiveOperationException {
+        CuentaCliente cliente = new CuentaCliente();
+        cliente.setNombre("Tecnología Global S.A.");
+        cliente.setCuitDni("30123456789");
+
+        pagos = new ArrayList<>();
+        long idFactura = 1;
+        for (long idPago = 1; idPago <= 3; idPago++) {
+            Pago pago = Pago.crearPago(new BigDecimal("12100.00").multiply(BigDecimal.valueOf(facturasPorPago)),
+                MetodoPago.TRANSFERENCIA, "TRF-" + idPago);
+            asignar(pago, "idPago", idPago);
+            for (int i = 0; i < facturasPorPago; i++) {
+                Factura factura = new Factura(2, (int) idFactura, cliente, LocalDate.of(2025, 11, 1),
+                    LocalDate.of(2025, 11, 20), LocalDate.of(2025, 11, 1), TipoFactura.B);
+                factura.setIdFactura(idFactura++);
+                factura.agregarItem(new ItemFactura("Hosting", new BigDecimal("10000.00"), 1, TipoAlicuotaIVA.IVA_21));
+                DetallePago.crear(pago, factura, factura.getTotal());
+            }
+            pagos.add(pago);
+        }
+
+        reciboService = new ReciboService();
+    }
+
+    @Benchmark
+    public ReciboDTO generarReciboDesdePago() {
+        return reciboService.generarReciboDesdePago(pagos.get(0));
+    }
+
+    @Benchmark
+    public ReciboDTO generarReciboDesdeMultiplesPagos() {
+        return reciboService.generarReciboDesdeMultiplesPagos(pagos, "00000001");
+    }
+
+    private static void asignar(Object destino, String campo, Object valor) throws ReflectiveOperationException {
+        Field field = destino.getClass().getDeclaredField(campo);
+        field.setAccessible(true);
+        field.set(destino, valor);
+    }
+}
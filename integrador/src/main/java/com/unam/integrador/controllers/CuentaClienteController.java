@@ -3,6 +3,9 @@ package com.unam.integrador.controllers;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -11,8 +14,12 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.unam.integrador.dto.ClienteListadoDTO;
+import com.unam.integrador.dto.ClienteSugerenciaDTO;
 import com.unam.integrador.model.CuentaCliente;
 import com.unam.integrador.model.enums.EstadoCuenta;
 import com.unam.integrador.model.enums.TipoCondicionIVA;
@@ -36,26 +43,52 @@ public class CuentaClienteController {
     private ServicioService servicioService;
     
     /**
-     * Muestra la lista de todos los clientes.
-     * Soporta búsqueda por nombre, CUIT/DNI o email mediante el parámetro 'busqueda'.
+     * Muestra la lista paginada de clientes.
+     * Soporta búsqueda por nombre, CUIT/DNI o email mediante el parámetro 'busqueda'
+     * y orden por nombre, CUIT/DNI o saldo resuelto en la base de datos.
      */
     @GetMapping
-    public String listarClientes(@org.springframework.web.bind.annotation.RequestParam(required = false) String busqueda, 
-                                  Model model) {
-        List<CuentaCliente> clientes;
+    public String listarClientes(@RequestParam(required = false) String busqueda,
+                                 @RequestParam(defaultValue = "0") int pagina,
+                                 @RequestParam(defaultValue = "20") int tamanio,
+                                 @RequestParam(defaultValue = "nombre") String orden,
+                                 @RequestParam(defaultValue = "asc") String direccion,
+                                 Model model) {
+        Pageable pageable = clienteService.crearPaginacion(pagina, tamanio, orden, direccion);
+        Page<ClienteListadoDTO> clientes;
         
         if (busqueda != null && !busqueda.trim().isEmpty()) {
-            clientes = clienteService.buscarClientes(busqueda);
+            clientes = clienteService.buscarClientes(busqueda, pageable);
             model.addAttribute("mensajeBusqueda", 
-                "Resultados de búsqueda para: '" + busqueda + "' (" + clientes.size() + " encontrados)");
+                "Resultados de búsqueda para: '" + busqueda + "' (" + clientes.getTotalElements() + " encontrados)");
         } else {
-            clientes = clienteService.obtenerTodosLosClientes();
+            clientes = clienteService.listarClientes(pageable);
         }
         
+        Sort.Order ordenActual = pageable.getSort().iterator().next();
         model.addAttribute("clientes", clientes);
+        model.addAttribute("busqueda", busqueda);
+        model.addAttribute("orden", ordenActual.getProperty());
+        model.addAttribute("direccion", ordenActual.isAscending() ? "asc" : "desc");
         return "clientes/lista";
     }
     
+    /**
+     * Endpoint JSON de autocompletado (typeahead) de clientes.
+     * Devuelve las primeras coincidencias por nombre, CUIT/DNI o email
+     * para que los formularios no tengan que cargar todos los clientes.
+     * 
+     * @param q texto ingresado por el usuario
+     * @param limite cantidad máxima de resultados (por defecto 10)
+     * @return lista de sugerencias en formato JSON
+     */
+    @GetMapping("/sugerencias")
+    @ResponseBody
+    public List<ClienteSugerenciaDTO> sugerirClientes(@RequestParam(required = false) String q,
+                                                      @RequestParam(defaultValue = "10") int limite) {
+        return clienteService.sugerirClientes(q, limite);
+    }
+    
     /**
      * Muestra el formulario para crear un nuevo cliente.
      */
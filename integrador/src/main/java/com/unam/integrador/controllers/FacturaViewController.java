@@ -1,13 +1,15 @@
 package com.unam.integrador.controllers;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,9 +19,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.unam.integrador.dto.FiltroFacturasDTO;
 import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.Periodo;
 import com.unam.integrador.services.CuentaClienteService;
+import com.unam.integrador.services.ExportacionFacturasService;
 import com.unam.integrador.services.FacturaService;
+import com.unam.integrador.services.LibroIvaVentasService;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * Controlador web para la gestión de facturas individuales.
@@ -35,6 +43,12 @@ public class FacturaViewController {
     @Autowired
     private CuentaClienteService clienteService;
     
+    @Autowired
+    private LibroIvaVentasService libroIvaVentasService;
+    
+    @Autowired
+    private ExportacionFacturasService exportacionFacturasService;
+    
     /**
      * Muestra la lista de todas las facturas.
      */
@@ -66,14 +80,97 @@ public class FacturaViewController {
         return "facturas/lista";
     }
     
+    /**
+     * Descarga el Libro IVA Ventas del período en formato CSV.
+     * El archivo se escribe directamente en la respuesta, a medida que se
+     * leen los comprobantes.
+     * 
+     * @param mes mes del período (por defecto, el actual)
+     * @param anio año del período (por defecto, el actual)
+     */
+    @GetMapping("/libro-iva")
+    public void descargarLibroIva(
+            @RequestParam(required = false) Integer mes,
+            @RequestParam(required = false) Integer anio,
+            HttpServletResponse response) throws IOException {
+        LocalDate hoy = LocalDate.now();
+        Periodo periodo = Periodo.of(YearMonth.of(
+            anio != null ? anio : hoy.getYear(),
+            mes != null ? mes : hoy.getMonthValue()));
+
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition", String.format(
+            "attachment; filename=\"libro-iva-ventas-%d-%02d.csv\"",
+            periodo.getMes().getYear(), periodo.getMes().getMonthValue()));
+
+        libroIvaVentasService.generar(periodo, response.getWriter());
+    }
+    
+    /**
+     * Exporta las facturas filtradas en CSV o JSON Lines.
+     * Acepta los mismos filtros que el listado y, opcionalmente, un rango de
+     * fechas de emisión. Las facturas se escriben en la respuesta a medida que
+     * se leen de la base.
+     * 
+     * @param formato "csv" (por defecto) o "jsonl"
+     * @param desde fecha de emisión mínima (yyyy-MM-dd)
+     * @param hasta fecha de emisión máxima (yyyy-MM-dd)
+     */
+    @GetMapping("/exportar")
+    public void exportarFacturas(
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) String tipoFactura,
+            @RequestParam(required = false) Integer mes,
+            @RequestParam(required = false) Integer anio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "csv") String formato,
+            HttpServletResponse response) throws IOException {
+        boolean jsonLines = "jsonl".equalsIgnoreCase(formato);
+        if (!jsonLines && !"csv".equalsIgnoreCase(formato)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Formato inválido: " + formato);
+            return;
+        }
+        LocalDate periodo = null;
+        if (mes != null && anio != null) {
+            try {
+                periodo = YearMonth.of(anio, mes).atDay(1);
+            } catch (DateTimeException e) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Período inválido: " + mes + "/" + anio);
+                return;
+            }
+        }
+        FiltroFacturasDTO filtro = new FiltroFacturasDTO(estado, tipoFactura, periodo, desde, hasta);
+
+        response.setContentType(jsonLines ? "application/x-ndjson" : "text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition", "attachment; filename=\"facturas."
+            + (jsonLines ? "jsonl" : "csv") + "\"");
+
+        try {
+            if (jsonLines) {
+                exportacionFacturasService.exportarJsonLines(filtro, response.getWriter());
+            } else {
+                exportacionFacturasService.exportarCsv(filtro, response.getWriter());
+            }
+        } catch (IllegalArgumentException e) {
+            // Los filtros se validan antes de escribir; si ya se envió algo, no hay vuelta atrás
+            if (response.isCommitted()) {
+                throw e;
+            }
+            response.reset();
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        }
+    }
+    
     /**
      * Muestra el formulario para emitir una factura individual.
      * La factura se generará automáticamente desde los servicios contratados del cliente.
      */
     @GetMapping("/nueva-individual")
     public String mostrarFormularioFacturaIndividual(Model model) {
-        // Cargar lista de clientes activos para el select
-        model.addAttribute("clientes", clienteService.obtenerTodosLosClientes());
+        // El cliente se busca con el autocompletado (/clientes/sugerencias)
         model.addAttribute("fechaEmision", LocalDate.now());
         model.addAttribute("periodos", generarOpcionesPeriodos());
         return "facturas/formulario-individual";
@@ -87,16 +184,11 @@ public class FacturaViewController {
      */
     private List<String> generarOpcionesPeriodos() {
         List<String> periodos = new ArrayList<>();
-        YearMonth mesActual = YearMonth.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.of("es", "ES"));
+        Periodo actual = Periodo.actual();
         
         // 2 meses hacia atrás + mes actual + 12 meses hacia adelante = 15 períodos
         for (int i = -2; i <= 12; i++) {
-            YearMonth mes = mesActual.plusMonths(i);
-            // Capitalizar primera letra del mes
-            String periodo = mes.format(formatter);
-            periodo = periodo.substring(0, 1).toUpperCase() + periodo.substring(1);
-            periodos.add(periodo);
+            periodos.add(actual.desplazar(i).getEtiqueta());
         }
         
         return periodos;
@@ -140,24 +232,9 @@ public class FacturaViewController {
         if (mes == null || anio == null) {
             return null;
         }
-        String[] nombresMeses = {"Enero", "Febrero", "Marzo", "Abril", "Mayo", "Junio",
-                                 "Julio", "Agosto", "Septiembre", "Octubre", "Noviembre", "Diciembre"};
-        return nombresMeses[mes - 1] + " " + anio;
+        return Periodo.of(YearMonth.of(anio, mes)).getEtiqueta();
     }
 
-    /**
-     * Convierte un string de período en formato "Mes Año" a LocalDate.
-     * El día siempre será 1.
-     * 
-     * @param periodoStr String del período (ej: "Noviembre 2025")
-     * @return LocalDate con el primer día del mes indicado
-     */
-    private LocalDate convertirPeriodoALocalDate(String periodoStr) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.of("es", "ES"));
-        YearMonth yearMonth = YearMonth.parse(periodoStr.toLowerCase(), formatter);
-        return yearMonth.atDay(1);
-    }
-    
     /**
      * Procesa el formulario de emisión de factura individual.
      * Los items se generan automáticamente desde los servicios contratados del cliente.
@@ -182,7 +259,7 @@ public class FacturaViewController {
         
         try {
             // Convertir el período de String a LocalDate
-            LocalDate periodoDate = convertirPeriodoALocalDate(periodo);
+            LocalDate periodoDate = Periodo.parse(periodo).getPrimerDia();
             
             // Emitir factura usando servicios contratados
             Factura factura = facturaService.emitirFacturaDesdeServiciosContratados(
@@ -204,9 +281,8 @@ public class FacturaViewController {
             
         } catch (IllegalArgumentException | IllegalStateException e) {
             model.addAttribute("error", e.getMessage());
-            model.addAttribute("clientes", clienteService.obtenerTodosLosClientes());
             model.addAttribute("periodos", generarOpcionesPeriodos());
-            model.addAttribute("clienteId", clienteId);
+            agregarClienteSeleccionado(model, clienteId);
             model.addAttribute("periodo", periodo);
             model.addAttribute("fechaEmision", fechaEmision);
             model.addAttribute("fechaVencimiento", fechaVencimiento);
@@ -245,7 +321,7 @@ public class FacturaViewController {
      */
     @GetMapping("/periodo/{periodo}")
     public String listarFacturasPorPeriodo(@PathVariable String periodo, Model model) {
-        LocalDate periodoDate = convertirPeriodoALocalDate(periodo);
+        LocalDate periodoDate = Periodo.parse(periodo).getPrimerDia();
         model.addAttribute("facturas", facturaService.listarFacturasPorPeriodo(periodoDate));
         model.addAttribute("periodo", periodo);
         return "facturas/lista";
@@ -305,7 +381,6 @@ public class FacturaViewController {
      */
     @GetMapping("/nueva-proporcional")
     public String mostrarFormularioFacturaProporcional(Model model) {
-        model.addAttribute("clientes", clienteService.obtenerTodosLosClientes());
         model.addAttribute("fechaEmision", LocalDate.now());
         return "facturas/formulario-proporcional";
     }
@@ -347,8 +422,7 @@ public class FacturaViewController {
             
         } catch (IllegalArgumentException | IllegalStateException e) {
             model.addAttribute("error", e.getMessage());
-            model.addAttribute("clientes", clienteService.obtenerTodosLosClientes());
-            model.addAttribute("clienteId", clienteId);
+            agregarClienteSeleccionado(model, clienteId);
             model.addAttribute("inicioPeriodo", inicioPeriodo);
             model.addAttribute("finPeriodo", finPeriodo);
             model.addAttribute("fechaEmision", fechaEmision);
@@ -358,4 +432,22 @@ public class FacturaViewController {
             return "facturas/formulario-proporcional";
         }
     }
+    
+    /**
+     * Agrega al modelo el cliente ya seleccionado en el formulario, para
+     * volver a mostrarlo en el autocompletado cuando hay un error de validación.
+     * Solo se carga ese cliente, nunca la lista completa.
+     */
+    private void agregarClienteSeleccionado(Model model, Long clienteId) {
+        model.addAttribute("clienteId", clienteId);
+        if (clienteId == null) {
+            return;
+        }
+        try {
+            model.addAttribute("clienteSeleccionado", clienteService.obtenerClientePorId(clienteId));
+        } catch (IllegalArgumentException e) {
+            // El cliente no existe: el formulario se muestra sin selección
+            model.addAttribute("clienteId", null);
+        }
+    }
 }
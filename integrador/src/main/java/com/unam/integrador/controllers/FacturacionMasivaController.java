@@ -1,12 +1,11 @@
 package com.unam.integrador.controllers;
 
-import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -20,7 +19,10 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.unam.integrador.dto.FacturacionMasivaDTO;
 import com.unam.integrador.model.LoteFacturacion;
+import com.unam.integrador.model.Periodo;
+import com.unam.integrador.model.enums.TipoOmisionFacturacion;
 import com.unam.integrador.services.FacturaService;
+import com.unam.integrador.services.FacturacionDistribuidaService;
 
 import jakarta.validation.Valid;
 
@@ -39,6 +41,13 @@ public class FacturacionMasivaController {
     @Autowired
     private FacturaService facturaService;
     
+    @Autowired
+    private FacturacionDistribuidaService facturacionDistribuidaService;
+    
+    /** Si es true, la facturación masiva se reparte entre las instancias en segundo plano. */
+    @Value("${facturacion.distribuida.habilitada:false}")
+    private boolean facturacionDistribuida;
+    
     /**
      * Muestra la lista de lotes de facturación masiva.
      * Implementa HU-09: Consulta de facturación masiva.
@@ -68,16 +77,11 @@ public class FacturacionMasivaController {
      */
     private List<String> generarOpcionesPeriodos() {
         List<String> periodos = new ArrayList<>();
-        YearMonth mesActual = YearMonth.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.of("es", "ES"));
+        Periodo actual = Periodo.actual();
         
         // 2 meses hacia atrás + mes actual + 12 meses hacia adelante = 15 períodos
         for (int i = -2; i <= 12; i++) {
-            YearMonth mes = mesActual.plusMonths(i);
-            // Capitalizar primera letra del mes
-            String periodo = mes.format(formatter);
-            periodo = periodo.substring(0, 1).toUpperCase() + periodo.substring(1);
-            periodos.add(periodo);
+            periodos.add(actual.desplazar(i).getEtiqueta());
         }
         
         return periodos;
@@ -106,6 +110,18 @@ public class FacturacionMasivaController {
         }
         
         try {
+            if (facturacionDistribuida) {
+                LoteFacturacion lote = facturacionDistribuidaService.iniciarFacturacionMasiva(
+                    dto.getPeriodo(),
+                    dto.getFechaVencimiento()
+                );
+                redirectAttributes.addFlashAttribute("mensaje",
+                    String.format("Facturación masiva iniciada. Se procesarán %d grupos de clientes en segundo plano.",
+                        lote.getItemsPendientes())
+                );
+                return "redirect:/facturacion-masiva/" + lote.getId();
+            }
+            
             LoteFacturacion lote = facturaService.ejecutarFacturacionMasiva(
                 dto.getPeriodo(),
                 dto.getFechaVencimiento()
@@ -131,15 +147,24 @@ public class FacturacionMasivaController {
      * Muestra el detalle de un lote de facturación masiva.
      * Implementa HU-09: Consulta de facturación masiva.
      * 
+     * Los clientes no facturados se muestran por página, con la cantidad por tipo.
+     * 
      * @param id ID del lote
+     * @param pagina página de clientes no facturados (desde 0)
      * @param model Modelo para la vista
      * @return Vista de detalle
      */
     @GetMapping("/{id}")
-    public String verDetalle(@PathVariable Long id, Model model, RedirectAttributes redirectAttributes) {
+    public String verDetalle(@PathVariable Long id, @RequestParam(defaultValue = "0") int pagina,
+                             Model model, RedirectAttributes redirectAttributes) {
         try {
             LoteFacturacion lote = facturaService.obtenerLoteConFacturas(id);
+            Map<TipoOmisionFacturacion, Long> omisionesPorTipo = facturaService.contarOmisiones(id);
+            long totalOmisiones = omisionesPorTipo.values().stream().mapToLong(Long::longValue).sum();
             model.addAttribute("lote", lote);
+            model.addAttribute("omisionesPorTipo", omisionesPorTipo);
+            model.addAttribute("totalOmisiones", totalOmisiones);
+            model.addAttribute("omisiones", facturaService.listarOmisiones(id, pagina, totalOmisiones));
             return "facturacion-masiva/detalle";
         } catch (IllegalArgumentException e) {
             redirectAttributes.addFlashAttribute("error", e.getMessage());
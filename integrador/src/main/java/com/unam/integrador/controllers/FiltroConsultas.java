@@ -0,0 +1,62 @@
+package com.unam.integrador.controllers;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.unam.integrador.services.ContadorConsultas;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Mide el acceso a la base de cada solicitud HTTP, incluida la carga perezosa
+ * durante el armado de la vista, y registra en el log las que superan los
+ * umbrales {@code monitoreo.consultas.solicitud.*}.
+ *
+ * La medición queda en el atributo {@link #ATRIBUTO_MEDICION} de la solicitud,
+ * para que los tests controlen la cantidad de consultas de cada pantalla.
+ */
+@Component
+public class FiltroConsultas extends OncePerRequestFilter {
+
+    /** Atributo de la solicitud con su {@link ContadorConsultas.Medicion}. */
+    public static final String ATRIBUTO_MEDICION = FiltroConsultas.class.getName() + ".medicion";
+
+    private static final Logger log = LoggerFactory.getLogger(FiltroConsultas.class);
+
+    /** Sentencias por solicitud a partir de las cuales se avisa. */
+    @Value("${monitoreo.consultas.solicitud.max-sentencias:100}")
+    private int maxSentencias = 100;
+
+    /** Filas leídas por solicitud a partir de las cuales se avisa. */
+    @Value("${monitoreo.consultas.solicitud.max-filas:20000}")
+    private long maxFilas = 20000;
+
+    /** Tiempo en la base por solicitud a partir del cual se avisa. */
+    @Value("${monitoreo.consultas.solicitud.max-tiempo:PT2S}")
+    private Duration maxTiempo = Duration.ofSeconds(2);
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String nombre = request.getMethod() + " " + request.getRequestURI();
+        ContadorConsultas.Medicion medicion = ContadorConsultas.iniciar(nombre);
+        request.setAttribute(ATRIBUTO_MEDICION, medicion);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            medicion.close();
+            if (medicion.excede(maxSentencias, maxFilas, maxTiempo)) {
+                log.warn("Acceso excesivo a la base en {}", medicion);
+            }
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.unam.integrador.controllers;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,11 +24,15 @@ import com.unam.integrador.model.CuentaCliente;
 import com.unam.integrador.model.Factura;
 import com.unam.integrador.model.Pago;
 import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.services.AntiguedadDeudaService;
 import com.unam.integrador.services.CuentaClienteService;
+import com.unam.integrador.services.ExportacionRecibosService;
 import com.unam.integrador.services.FacturaService;
 import com.unam.integrador.services.PagoService;
 import com.unam.integrador.services.ReciboService;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 /**
  * Controlador web para la gestión de pagos.
  * Maneja la interfaz HTML para registro de pagos.
@@ -46,6 +53,12 @@ public class PagoController {
     @Autowired
     private ReciboService reciboService;
     
+    @Autowired
+    private AntiguedadDeudaService antiguedadDeudaService;
+    
+    @Autowired
+    private ExportacionRecibosService exportacionRecibosService;
+    
     /**
      * Muestra la lista de todos los pagos.
      */
@@ -110,6 +123,53 @@ public class PagoController {
         return "pagos/lista";
     }
 
+    /**
+     * Muestra el reporte de antigüedad de deuda por cliente.
+     */
+    @GetMapping("/antiguedad-deuda")
+    public String verAntiguedadDeuda(Model model) {
+        model.addAttribute("reporte", antiguedadDeudaService.obtenerReporte());
+        return "pagos/antiguedad-deuda";
+    }
+
+    /**
+     * Exporta los recibos de un rango de fechas con su desglose por factura y
+     * método de pago, en CSV o JSON Lines. Sin fechas exporta los recibos del
+     * día; con solo "desde", hasta hoy.
+     * 
+     * @param formato "csv" (por defecto) o "jsonl"
+     */
+    @GetMapping("/exportar")
+    public void exportarRecibos(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "csv") String formato,
+            HttpServletResponse response) throws IOException {
+        boolean jsonLines = "jsonl".equalsIgnoreCase(formato);
+        if (!jsonLines && !"csv".equalsIgnoreCase(formato)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Formato inválido: " + formato);
+            return;
+        }
+        LocalDate fin = (hasta != null) ? hasta : LocalDate.now();
+        LocalDate inicio = (desde != null) ? desde : fin;
+        if (inicio.isAfter(fin)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                "La fecha desde no puede ser posterior a la fecha hasta");
+            return;
+        }
+
+        response.setContentType(jsonLines ? "application/x-ndjson" : "text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition", String.format("attachment; filename=\"recibos-%s%s.%s\"",
+            inicio, inicio.equals(fin) ? "" : "-" + fin, jsonLines ? "jsonl" : "csv"));
+
+        if (jsonLines) {
+            exportacionRecibosService.exportarJsonLines(inicio, fin, response.getWriter());
+        } else {
+            exportacionRecibosService.exportarCsv(inicio, fin, response.getWriter());
+        }
+    }
+
     @GetMapping("/recibo/{id}")
     public String verReciboDetalle(@PathVariable Long id, Model model) {
         // Generar el ReciboDTO dinámicamente desde el Pago
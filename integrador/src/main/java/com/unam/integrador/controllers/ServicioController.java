@@ -1,16 +1,26 @@
 package com.unam.integrador.controllers;
 
+import java.math.BigDecimal;
+import java.time.YearMonth;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.unam.integrador.dto.BajaServicioDTO;
+import com.unam.integrador.dto.EstadisticaCacheDTO;
+import com.unam.integrador.dto.IngresoServicioDTO;
+import com.unam.integrador.dto.ModificacionServicioDTO;
 import com.unam.integrador.model.Servicio;
 import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.services.AnaliticaIngresosService;
+import com.unam.integrador.services.CacheDatosReferencia;
 import com.unam.integrador.services.ServicioService;
 
 import jakarta.validation.Valid;
@@ -25,6 +35,12 @@ public class ServicioController {
     @Autowired
     private ServicioService servicioService;
     
+    @Autowired
+    private CacheDatosReferencia cacheDatosReferencia;
+    
+    @Autowired
+    private AnaliticaIngresosService analiticaIngresosService;
+    
     /**
      * HU-17: Listado de servicios con búsqueda opcional.
      * @param busqueda Término de búsqueda opcional
@@ -46,6 +62,53 @@ public class ServicioController {
         return "servicios/lista";
     }
     
+    /**
+     * Estadísticas del caché de segundo nivel de servicios y contratos
+     * (aciertos, fallos y escrituras por región).
+     * @return estadísticas en formato JSON
+     */
+    @GetMapping("/estadisticas-cache")
+    @ResponseBody
+    public List<EstadisticaCacheDTO> estadisticasCache() {
+        return cacheDatosReferencia.obtenerEstadisticas();
+    }
+    
+    /**
+     * Ingresos netos e IVA por servicio y período.
+     * @param desde primer período (formato yyyy-MM; por defecto, 11 meses atrás)
+     * @param hasta último período (formato yyyy-MM; por defecto, el actual)
+     * @return ingresos en formato JSON; 400 si el rango es inválido
+     */
+    @GetMapping("/analitica/ingresos")
+    @ResponseBody
+    public List<IngresoServicioDTO> analiticaIngresos(@RequestParam(required = false) YearMonth desde,
+                                                      @RequestParam(required = false) YearMonth hasta) {
+        YearMonth fin = hasta != null ? hasta : YearMonth.now();
+        try {
+            return analiticaIngresosService.ingresosPorServicio(desde != null ? desde : fin.minusMonths(11), fin);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
+    /**
+     * Contratos vigentes y bajas por servicio y período.
+     * @param desde primer período (formato yyyy-MM; por defecto, 11 meses atrás)
+     * @param hasta último período (formato yyyy-MM; por defecto, el actual)
+     * @return bajas en formato JSON; 400 si el rango es inválido
+     */
+    @GetMapping("/analitica/bajas")
+    @ResponseBody
+    public List<BajaServicioDTO> analiticaBajas(@RequestParam(required = false) YearMonth desde,
+                                                @RequestParam(required = false) YearMonth hasta) {
+        YearMonth fin = hasta != null ? hasta : YearMonth.now();
+        try {
+            return analiticaIngresosService.bajasPorServicio(desde != null ? desde : fin.minusMonths(11), fin);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
     /**
      * HU-16: Muestra el formulario para crear un nuevo servicio.
      * @param model Modelo para la vista
@@ -100,6 +163,7 @@ public class ServicioController {
         try {
             Servicio servicio = servicioService.buscarPorId(id);
             model.addAttribute("servicio", servicio);
+            model.addAttribute("historialPrecios", servicioService.obtenerHistorialPrecios(id));
             return "servicios/detalle";
         } catch (IllegalArgumentException e) {
             model.addAttribute("error", e.getMessage());
@@ -107,6 +171,31 @@ public class ServicioController {
         }
     }
     
+    /**
+     * Programa un nuevo precio del servicio a partir de un período (puede ser futuro).
+     * @param id ID del servicio
+     * @param precio nuevo precio sin IVA
+     * @param vigenciaDesde período de vigencia (formato yyyy-MM)
+     * @param redirectAttributes Atributos para redirección
+     * @return Redirección al detalle del servicio
+     */
+    @PostMapping("/{id}/precios")
+    public String programarPrecio(@PathVariable Long id,
+                                  @RequestParam BigDecimal precio,
+                                  @RequestParam YearMonth vigenciaDesde,
+                                  RedirectAttributes redirectAttributes) {
+        try {
+            servicioService.programarPrecio(id, precio, vigenciaDesde.atDay(1));
+            redirectAttributes.addFlashAttribute("mensaje", 
+                "Precio programado desde " + vigenciaDesde.getMonthValue() + "/" + vigenciaDesde.getYear());
+            redirectAttributes.addFlashAttribute("tipoMensaje", "success");
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("mensaje", e.getMessage());
+            redirectAttributes.addFlashAttribute("tipoMensaje", "danger");
+        }
+        return "redirect:/servicios/" + id;
+    }
+    
     /**
      * HU-18: Muestra el formulario para editar un servicio existente.
      * @param id ID del servicio a editar
@@ -150,9 +239,13 @@ public class ServicioController {
         }
         
         try {
-            Servicio servicioModificado = servicioService.modificarServicio(id, servicio);
-            redirectAttributes.addFlashAttribute("mensaje", 
-                "Servicio '" + servicioModificado.getNombre() + "' modificado exitosamente");
+            ModificacionServicioDTO resultado = servicioService.modificarServicio(id, servicio);
+            String mensaje = "Servicio '" + resultado.getServicio().getNombre() + "' modificado exitosamente";
+            if (resultado.getContratosAfectados() > 0) {
+                mensaje += ". El nuevo precio rige desde el período actual para "
+                    + resultado.getContratosAfectados() + " contrato(s) activo(s)";
+            }
+            redirectAttributes.addFlashAttribute("mensaje", mensaje);
             redirectAttributes.addFlashAttribute("tipoMensaje", "success");
             return "redirect:/servicios/" + id;
         } catch (IllegalArgumentException e) {
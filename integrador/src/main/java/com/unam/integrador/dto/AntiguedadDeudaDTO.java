@@ -0,0 +1,71 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con la deuda de un cliente agrupada por antigüedad: saldo pendiente de
+ * sus facturas impagas según los días transcurridos desde el vencimiento.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AntiguedadDeudaDTO {
+    
+    /**
+     * ID del cliente.
+     */
+    private Long clienteId;
+    
+    /**
+     * Nombre del cliente.
+     */
+    private String nombre;
+    
+    /**
+     * CUIT/DNI del cliente.
+     */
+    private String cuitDni;
+    
+    /**
+     * Saldo de facturas que todavía no vencieron.
+     */
+    private BigDecimal aVencer;
+    
+    /**
+     * Saldo vencido hace 0 a 30 días.
+     */
+    private BigDecimal hasta30;
+    
+    /**
+     * Saldo vencido hace 31 a 60 días.
+     */
+    private BigDecimal de31a60;
+    
+    /**
+     * Saldo vencido hace 61 a 90 días.
+     */
+    private BigDecimal de61a90;
+    
+    /**
+     * Saldo vencido hace más de 90 días.
+     */
+    private BigDecimal masDe90;
+    
+    /**
+     * Saldo pendiente total del cliente.
+     */
+    public BigDecimal getTotal() {
+        return aVencer.add(hasta30).add(de31a60).add(de61a90).add(masDe90);
+    }
+    
+    /**
+     * Saldo vencido (todos los tramos salvo "a vencer").
+     */
+    public BigDecimal getVencido() {
+        return hasta30.add(de31a60).add(de61a90).add(masDe90);
+    }
+}
@@ -0,0 +1,46 @@
+package com.unam.integrador.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las bajas de contratos de un servicio en un período.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BajaServicioDTO {
+    
+    /**
+     * ID del servicio.
+     */
+    private Long servicioId;
+    
+    /**
+     * Nombre del servicio.
+     */
+    private String servicio;
+    
+    /**
+     * Período (ej: "Noviembre 2025").
+     */
+    private String periodo;
+    
+    /**
+     * Contratos vigentes al inicio del período.
+     */
+    private int activosAlInicio;
+    
+    /**
+     * Contratos dados de baja durante el período.
+     */
+    private int bajas;
+    
+    /**
+     * Porcentaje de bajas sobre los contratos vigentes al inicio (0 si no había).
+     */
+    public double getTasaBaja() {
+        return activosAlInicio == 0 ? 0.0 : (bajas * 100.0) / activosAlInicio;
+    }
+}
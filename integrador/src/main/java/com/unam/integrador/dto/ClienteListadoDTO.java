@@ -0,0 +1,61 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.TipoCondicionIVA;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con los datos que muestra el listado de clientes.
+ * 
+ * Se obtiene con una proyección JPQL, por lo que el listado no carga
+ * entidades CuentaCliente ni sus colecciones (servicios contratados,
+ * historial de cambios de estado).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteListadoDTO {
+    
+    private Long id;
+    
+    private String nombre;
+    
+    private String cuitDni;
+    
+    private String email;
+    
+    private String telefono;
+    
+    private TipoCondicionIVA condicionIva;
+    
+    private EstadoCuenta estado;
+    
+    /**
+     * Saldo de la cuenta. Un saldo negativo indica crédito a favor del cliente.
+     */
+    private BigDecimal saldo;
+    
+    /**
+     * Obtiene el saldo a favor del cliente (mismo criterio que CuentaCliente).
+     * @return el saldo a favor (valor absoluto si es negativo, cero si no tiene)
+     */
+    public BigDecimal getSaldoAFavor() {
+        if (saldo == null) {
+            return BigDecimal.ZERO;
+        }
+        return saldo.compareTo(BigDecimal.ZERO) < 0 ? saldo.abs() : BigDecimal.ZERO;
+    }
+    
+    /**
+     * Verifica si el cliente tiene saldo a favor disponible.
+     * @return true si tiene saldo a favor, false en caso contrario
+     */
+    public boolean tieneSaldoAFavor() {
+        return saldo != null && saldo.compareTo(BigDecimal.ZERO) < 0;
+    }
+}
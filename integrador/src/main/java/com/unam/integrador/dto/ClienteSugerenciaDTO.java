@@ -0,0 +1,38 @@
+package com.unam.integrador.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO liviano para el autocompletado (typeahead) de clientes.
+ * 
+ * Contiene solo los datos necesarios para identificar y seleccionar
+ * un cliente en los formularios, sin cargar la entidad CuentaCliente
+ * ni sus colecciones asociadas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteSugerenciaDTO {
+    
+    /**
+     * ID del cliente (valor que se envía en el formulario).
+     */
+    private Long id;
+    
+    /**
+     * Nombre del cliente.
+     */
+    private String nombre;
+    
+    /**
+     * CUIT/DNI del cliente.
+     */
+    private String cuitDni;
+    
+    /**
+     * Email del cliente.
+     */
+    private String email;
+}
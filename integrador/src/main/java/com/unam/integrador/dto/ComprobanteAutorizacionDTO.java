@@ -0,0 +1,60 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.unam.integrador.model.enums.TipoComprobante;
+import com.unam.integrador.model.enums.TipoFactura;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Datos de un comprobante que se envía a autorizar al organismo fiscal.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComprobanteAutorizacionDTO {
+
+    /**
+     * Clase de comprobante (factura o nota de crédito).
+     */
+    private TipoComprobante comprobante;
+
+    /**
+     * ID del comprobante en su tabla.
+     */
+    private Long id;
+
+    /**
+     * Tipo de comprobante (A, B o C).
+     */
+    private TipoFactura tipo;
+
+    /**
+     * Serie (punto de venta).
+     */
+    private int serie;
+
+    /**
+     * Número del comprobante dentro de la serie.
+     */
+    private int numero;
+
+    /**
+     * Fecha de emisión.
+     */
+    private LocalDate fechaEmision;
+
+    /**
+     * CUIT/DNI del receptor.
+     */
+    private String cuitDni;
+
+    /**
+     * Importe total del comprobante.
+     */
+    private BigDecimal importe;
+}
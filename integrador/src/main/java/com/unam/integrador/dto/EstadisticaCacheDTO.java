@@ -0,0 +1,42 @@
+package com.unam.integrador.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las estadísticas de una región del caché de segundo nivel.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticaCacheDTO {
+    
+    /**
+     * Nombre de la región (entidad o colección cacheada).
+     */
+    private String region;
+    
+    /**
+     * Lecturas resueltas desde el caché.
+     */
+    private long aciertos;
+    
+    /**
+     * Lecturas que no encontraron el dato en el caché.
+     */
+    private long fallos;
+    
+    /**
+     * Datos agregados al caché.
+     */
+    private long escrituras;
+    
+    /**
+     * Porcentaje de aciertos sobre el total de lecturas (0 si no hubo lecturas).
+     */
+    public double getPorcentajeAciertos() {
+        long total = aciertos + fallos;
+        return total == 0 ? 0.0 : (aciertos * 100.0) / total;
+    }
+}
@@ -0,0 +1,31 @@
+package com.unam.integrador.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila de un servicio contratado, leída para calcular las bajas por servicio y período.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilaContratoDTO {
+    
+    /**
+     * ID del servicio contratado.
+     */
+    private Long servicioId;
+    
+    /**
+     * Fecha de alta del contrato.
+     */
+    private LocalDate fechaAlta;
+    
+    /**
+     * Fecha de baja del contrato (null si sigue vigente).
+     */
+    private LocalDate fechaBaja;
+}
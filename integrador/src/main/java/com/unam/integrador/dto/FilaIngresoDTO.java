@@ -0,0 +1,48 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila de un item facturado, leída para armar la instantánea de ingresos por
+ * servicio y período.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilaIngresoDTO {
+    
+    /**
+     * ID de la factura (se usa como marca para la carga incremental).
+     */
+    private Long facturaId;
+    
+    /**
+     * Período facturado (primer día del mes).
+     */
+    private LocalDate periodo;
+    
+    /**
+     * ID del servicio facturado (null en items sin servicio asociado).
+     */
+    private Long servicioId;
+    
+    /**
+     * Subtotal del item sin IVA.
+     */
+    private BigDecimal subtotal;
+    
+    /**
+     * IVA del item.
+     */
+    private BigDecimal montoIva;
+    
+    /**
+     * Porcentaje de descuento de la factura (0-100).
+     */
+    private double descuento;
+}
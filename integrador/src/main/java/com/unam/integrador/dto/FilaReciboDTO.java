@@ -0,0 +1,86 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.unam.integrador.model.enums.MetodoPago;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila de la exportación de recibos: un pago junto con uno de sus detalles
+ * aplicados a factura. Un pago sin detalles (excedente convertido en saldo a
+ * favor) llega como una sola fila con los datos de la factura en null.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilaReciboDTO {
+
+    /**
+     * Número de recibo compartido por los pagos combinados (puede ser null).
+     */
+    private String numeroRecibo;
+
+    /**
+     * ID del pago.
+     */
+    private Long pagoId;
+
+    /**
+     * Fecha del pago.
+     */
+    private LocalDate fechaPago;
+
+    /**
+     * Monto total del pago.
+     */
+    private BigDecimal montoPago;
+
+    /**
+     * Método de pago utilizado.
+     */
+    private MetodoPago metodoPago;
+
+    /**
+     * Referencia o comprobante del pago.
+     */
+    private String referencia;
+
+    /**
+     * ID de la factura a la que se aplicó el detalle.
+     */
+    private Long facturaId;
+
+    /**
+     * Serie de la factura.
+     */
+    private Integer serie;
+
+    /**
+     * Número de la factura.
+     */
+    private Integer nroFactura;
+
+    /**
+     * Monto del pago aplicado a la factura.
+     */
+    private BigDecimal montoAplicado;
+
+    /**
+     * ID del cliente de la factura.
+     */
+    private Long clienteId;
+
+    /**
+     * Nombre del cliente de la factura.
+     */
+    private String clienteNombre;
+
+    /**
+     * CUIT/DNI del cliente de la factura.
+     */
+    private String clienteCuitDni;
+}
@@ -0,0 +1,42 @@
+package com.unam.integrador.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filtros opcionales para exportar facturas.
+ * Los criterios en null (o vacíos) se ignoran.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroFacturasDTO {
+
+    /**
+     * Nombre del enum EstadoFactura (ej: PENDIENTE).
+     */
+    private String estado;
+
+    /**
+     * Nombre del enum TipoFactura (ej: A).
+     */
+    private String tipo;
+
+    /**
+     * Período facturado (primer día del mes).
+     */
+    private LocalDate periodo;
+
+    /**
+     * Fecha de emisión mínima (inclusive).
+     */
+    private LocalDate desde;
+
+    /**
+     * Fecha de emisión máxima (inclusive).
+     */
+    private LocalDate hasta;
+}
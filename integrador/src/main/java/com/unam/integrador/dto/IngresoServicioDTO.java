@@ -0,0 +1,41 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con los ingresos facturados de un servicio en un período.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngresoServicioDTO {
+    
+    /**
+     * ID del servicio (null para items sin servicio asociado).
+     */
+    private Long servicioId;
+    
+    /**
+     * Nombre del servicio.
+     */
+    private String servicio;
+    
+    /**
+     * Período facturado (ej: "Noviembre 2025").
+     */
+    private String periodo;
+    
+    /**
+     * Ingresos netos (sin IVA, con el descuento de la factura aplicado).
+     */
+    private BigDecimal neto;
+    
+    /**
+     * IVA facturado.
+     */
+    private BigDecimal iva;
+}
@@ -0,0 +1,80 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoFactura;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Línea del Libro IVA Ventas: importes de un comprobante (factura o nota de
+ * crédito) agrupados por alícuota de IVA.
+ * 
+ * Se obtiene con una consulta agregada (proyección), sin cargar las entidades
+ * Factura ni sus items.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LineaLibroIvaDTO {
+    
+    /**
+     * Fecha de emisión del comprobante.
+     */
+    private LocalDate fecha;
+    
+    /**
+     * true si el comprobante es una nota de crédito; sus importes se
+     * informan en negativo en el libro.
+     */
+    private boolean notaCredito;
+    
+    /**
+     * Tipo de comprobante (A, B o C).
+     */
+    private TipoFactura tipo;
+    
+    /**
+     * Serie del comprobante.
+     */
+    private int serie;
+    
+    /**
+     * Número del comprobante dentro de la serie.
+     */
+    private int numero;
+    
+    /**
+     * CUIT/DNI del cliente.
+     */
+    private String cuitDni;
+    
+    /**
+     * Razón social del cliente.
+     */
+    private String razonSocial;
+    
+    /**
+     * Alícuota de IVA de los items agrupados.
+     */
+    private TipoAlicuotaIVA alicuota;
+    
+    /**
+     * Suma de los subtotales (sin IVA) de los items con esta alícuota.
+     */
+    private BigDecimal neto;
+    
+    /**
+     * Suma del IVA de los items con esta alícuota.
+     */
+    private BigDecimal iva;
+    
+    /**
+     * Porcentaje de descuento de la factura (0-100), aplicado al neto.
+     */
+    private double descuento;
+}
@@ -0,0 +1,34 @@
+package com.unam.integrador.dto;
+
+import java.util.List;
+
+import com.unam.integrador.model.enums.TipoComprobante;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lote de comprobantes de una misma clase y serie, en orden de numeración,
+ * que se envía en una sola solicitud de autorización.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoteAutorizacionDTO {
+
+    /**
+     * Clase de comprobante de todo el lote.
+     */
+    private TipoComprobante comprobante;
+
+    /**
+     * Serie (punto de venta) de todo el lote.
+     */
+    private int serie;
+
+    /**
+     * Comprobantes ordenados por número.
+     */
+    private List<ComprobanteAutorizacionDTO> comprobantes;
+}
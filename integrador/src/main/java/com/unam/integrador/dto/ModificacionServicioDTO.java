@@ -0,0 +1,29 @@
+package com.unam.integrador.dto;
+
+import com.unam.integrador.model.Servicio;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el resultado de modificar un servicio (HU-18).
+ * 
+ * Incluye el servicio modificado y, si cambió el precio, la cantidad de
+ * contratos activos a los que aplica el nuevo precio, para informarla al usuario.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModificacionServicioDTO {
+    
+    /**
+     * Servicio con los datos ya modificados.
+     */
+    private Servicio servicio;
+    
+    /**
+     * Cantidad de contratos activos alcanzados por el nuevo precio (0 si el precio no cambió).
+     */
+    private long contratosAfectados;
+}
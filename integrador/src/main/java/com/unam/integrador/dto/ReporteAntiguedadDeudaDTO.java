@@ -0,0 +1,52 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * Reporte de antigüedad de deuda: una fila por cliente con saldo pendiente y
+ * los totales de cada tramo.
+ */
+@Getter
+public class ReporteAntiguedadDeudaDTO {
+    
+    /**
+     * Fecha de referencia para calcular los días de atraso.
+     */
+    private final LocalDate fecha;
+    
+    /**
+     * Momento en que se calculó la instantánea del reporte.
+     */
+    private final LocalDateTime generadoEn;
+    
+    /**
+     * Filas por cliente, ordenadas por saldo vencido descendente.
+     */
+    private final List<AntiguedadDeudaDTO> filas;
+    
+    /**
+     * Totales de todos los clientes por tramo.
+     */
+    private final AntiguedadDeudaDTO totales;
+    
+    public ReporteAntiguedadDeudaDTO(LocalDate fecha, LocalDateTime generadoEn,
+                                     List<AntiguedadDeudaDTO> filas) {
+        this.fecha = fecha;
+        this.generadoEn = generadoEn;
+        this.filas = filas;
+        this.totales = new AntiguedadDeudaDTO(null, "Total", null,
+            BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+        for (AntiguedadDeudaDTO fila : filas) {
+            totales.setAVencer(totales.getAVencer().add(fila.getAVencer()));
+            totales.setHasta30(totales.getHasta30().add(fila.getHasta30()));
+            totales.setDe31a60(totales.getDe31a60().add(fila.getDe31a60()));
+            totales.setDe61a90(totales.getDe61a90().add(fila.getDe61a90()));
+            totales.setMasDe90(totales.getMasDe90().add(fila.getMasDe90()));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.unam.integrador.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Respuesta del organismo fiscal para un comprobante de un lote.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoAutorizacionDTO {
+
+    /**
+     * ID del comprobante al que corresponde la respuesta.
+     */
+    private Long id;
+
+    /**
+     * true si el comprobante fue autorizado.
+     */
+    private boolean aprobado;
+
+    /**
+     * CAE otorgado (solo si fue aprobado).
+     */
+    private String cae;
+
+    /**
+     * Vencimiento del CAE (solo si fue aprobado).
+     */
+    private LocalDate vencimientoCae;
+
+    /**
+     * Motivo del rechazo (solo si no fue aprobado).
+     */
+    private String observacion;
+
+    /**
+     * Respuesta de comprobante autorizado.
+     */
+    public static ResultadoAutorizacionDTO aprobado(Long id, String cae, LocalDate vencimientoCae) {
+        return new ResultadoAutorizacionDTO(id, true, cae, vencimientoCae, null);
+    }
+
+    /**
+     * Respuesta de comprobante rechazado.
+     */
+    public static ResultadoAutorizacionDTO rechazado(Long id, String observacion) {
+        return new ResultadoAutorizacionDTO(id, false, null, null, observacion);
+    }
+}
@@ -0,0 +1,42 @@
+package com.unam.integrador.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una corrida de autorización de comprobantes pendientes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenAutorizacionDTO {
+
+    /**
+     * Momento en que terminó la corrida.
+     */
+    private LocalDateTime fecha;
+
+    /**
+     * Lotes enviados al organismo fiscal.
+     */
+    private int lotesEnviados;
+
+    /**
+     * Comprobantes que recibieron CAE.
+     */
+    private int autorizados;
+
+    /**
+     * Comprobantes rechazados.
+     */
+    private int rechazados;
+
+    /**
+     * Lotes sin respuesta (error de comunicación o tiempo agotado); sus
+     * comprobantes quedan pendientes para la próxima corrida.
+     */
+    private int lotesFallidos;
+}
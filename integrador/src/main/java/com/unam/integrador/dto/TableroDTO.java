@@ -0,0 +1,73 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Instantánea de los indicadores operativos que se muestran en la página de inicio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableroDTO {
+    
+    /**
+     * Momento en que se calcularon los indicadores.
+     */
+    private LocalDateTime generadoEn;
+    
+    /**
+     * Cantidad de facturas y saldo pendiente por estado.
+     */
+    private List<TotalAgrupadoDTO> facturasPorEstado;
+    
+    /**
+     * Saldo pendiente de cobro de las facturas impagas.
+     */
+    private BigDecimal montoPendiente;
+    
+    /**
+     * Cantidad e importe de los pagos del día por método de pago.
+     */
+    private List<TotalAgrupadoDTO> pagosHoyPorMetodo;
+    
+    /**
+     * Importe total cobrado en el día.
+     */
+    private BigDecimal cobradoHoy;
+    
+    /**
+     * Período del último lote de facturación masiva (null si no hay lotes).
+     */
+    private String ultimoLotePeriodo;
+    
+    /**
+     * Fecha de ejecución del último lote.
+     */
+    private LocalDateTime ultimoLoteFecha;
+    
+    /**
+     * Cantidad de facturas del último lote.
+     */
+    private int ultimoLoteFacturas;
+    
+    /**
+     * Cantidad de facturas anuladas del último lote.
+     */
+    private long ultimoLoteAnuladas;
+    
+    /**
+     * Indica si el último lote fue anulado por completo.
+     */
+    private boolean ultimoLoteAnulado;
+    
+    /**
+     * Cantidad de clientes y saldo de cuenta por estado.
+     */
+    private List<TotalAgrupadoDTO> clientesPorEstado;
+}
@@ -0,0 +1,39 @@
+package com.unam.integrador.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con la cantidad y el importe de un grupo de registros (por ejemplo,
+ * facturas por estado o pagos por método), obtenido con una consulta agrupada.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TotalAgrupadoDTO {
+    
+    /**
+     * Valor por el que se agrupó (un enum: estado, método de pago, etc.).
+     */
+    private Enum<?> clave;
+    
+    /**
+     * Cantidad de registros del grupo.
+     */
+    private long cantidad;
+    
+    /**
+     * Suma del importe del grupo (cero si no aplica).
+     */
+    private BigDecimal monto;
+    
+    /**
+     * Grupo sin importe (por ejemplo, omisiones de un lote por tipo).
+     */
+    public TotalAgrupadoDTO(Enum<?> clave, long cantidad) {
+        this(clave, cantidad, BigDecimal.ZERO);
+    }
+}
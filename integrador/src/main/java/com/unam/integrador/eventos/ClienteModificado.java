@@ -0,0 +1,19 @@
+package com.unam.integrador.eventos;
+
+import com.unam.integrador.model.CuentaCliente;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Se creó un cliente o cambiaron sus datos o el estado de su cuenta.
+ */
+@Getter
+@AllArgsConstructor
+public class ClienteModificado {
+
+    /**
+     * Cliente persistido (con ID).
+     */
+    private final CuentaCliente cliente;
+}
@@ -0,0 +1,17 @@
+package com.unam.integrador.eventos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Se creó un lote de facturación distribuida con sus grupos pendientes.
+ */
+@Getter
+@AllArgsConstructor
+public class FacturacionDistribuidaIniciada {
+
+    /**
+     * ID del lote creado.
+     */
+    private final Long loteId;
+}
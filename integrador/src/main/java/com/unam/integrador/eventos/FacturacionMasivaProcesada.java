@@ -0,0 +1,24 @@
+package com.unam.integrador.eventos;
+
+import java.time.Duration;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Terminó una facturación masiva o un grupo de una facturación distribuida.
+ */
+@Getter
+@AllArgsConstructor
+public class FacturacionMasivaProcesada {
+
+    /**
+     * Clientes procesados.
+     */
+    private final int clientes;
+
+    /**
+     * Tiempo que llevó procesarlos.
+     */
+    private final Duration duracion;
+}
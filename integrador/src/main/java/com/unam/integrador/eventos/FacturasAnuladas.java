@@ -0,0 +1,27 @@
+package com.unam.integrador.eventos;
+
+import java.util.List;
+
+import com.unam.integrador.model.Factura;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Se anularon facturas y se generaron sus notas de crédito. Se publica dentro
+ * de la transacción de la anulación.
+ */
+@Getter
+@AllArgsConstructor
+public class FacturasAnuladas {
+
+    /**
+     * Facturas anuladas.
+     */
+    private final List<Factura> facturas;
+
+    /**
+     * true si es la anulación de un lote de facturación masiva.
+     */
+    private final boolean masiva;
+}
@@ -0,0 +1,35 @@
+package com.unam.integrador.eventos;
+
+import java.util.List;
+
+import com.unam.integrador.model.Factura;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Se emitieron facturas (individual, masiva o un grupo de la facturación
+ * distribuida). Se publica dentro de la transacción que las persiste.
+ */
+@Getter
+@AllArgsConstructor
+public class FacturasEmitidas {
+
+    /**
+     * Facturas persistidas en la transacción.
+     */
+    private final List<Factura> facturas;
+
+    /**
+     * true si son de una facturación masiva: abarcan muchos clientes y los
+     * reportes se recalculan completos en lugar de por cliente.
+     */
+    private final boolean masiva;
+
+    /**
+     * Evento de una factura emitida individualmente.
+     */
+    public static FacturasEmitidas individual(Factura factura) {
+        return new FacturasEmitidas(List.of(factura), false);
+    }
+}
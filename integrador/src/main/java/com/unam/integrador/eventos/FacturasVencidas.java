@@ -0,0 +1,18 @@
+package com.unam.integrador.eventos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Facturas impagas pasaron a VENCIDA. Se publica dentro de la transacción que
+ * actualiza su estado.
+ */
+@Getter
+@AllArgsConstructor
+public class FacturasVencidas {
+
+    /**
+     * Cantidad de facturas actualizadas.
+     */
+    private final int cantidad;
+}
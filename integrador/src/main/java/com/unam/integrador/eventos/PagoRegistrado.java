@@ -0,0 +1,45 @@
+package com.unam.integrador.eventos;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.Pago;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Se registró un pago y se generó su recibo. Se publica dentro de la
+ * transacción del pago.
+ */
+@Getter
+@AllArgsConstructor
+public class PagoRegistrado {
+
+    /**
+     * Número del recibo generado.
+     */
+    private final String numeroRecibo;
+
+    /**
+     * Cliente que pagó.
+     */
+    private final CuentaCliente cliente;
+
+    /**
+     * Total del recibo.
+     */
+    private final BigDecimal monto;
+
+    /**
+     * Facturas alcanzadas por el pago.
+     */
+    private final List<Factura> facturas;
+
+    /**
+     * Pagos registrados (uno por método de pago utilizado).
+     */
+    private final List<Pago> pagos;
+}
@@ -0,0 +1,17 @@
+package com.unam.integrador.eventos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Cambiaron los datos, el estado o el precio de lista de un servicio.
+ */
+@Getter
+@AllArgsConstructor
+public class ServicioModificado {
+
+    /**
+     * ID del servicio modificado.
+     */
+    private final Long servicioId;
+}
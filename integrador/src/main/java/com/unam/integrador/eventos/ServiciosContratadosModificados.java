@@ -0,0 +1,17 @@
+package com.unam.integrador.eventos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Un cliente contrató o dio de baja un servicio.
+ */
+@Getter
+@AllArgsConstructor
+public class ServiciosContratadosModificados {
+
+    /**
+     * ID del cliente cuyos contratos cambiaron.
+     */
+    private final Long clienteId;
+}
@@ -0,0 +1,89 @@
+package com.unam.integrador.model;
+
+import java.time.LocalDate;
+
+import com.unam.integrador.model.enums.EstadoAutorizacion;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Value Object con la autorización fiscal de un comprobante: el CAE
+ * (Código de Autorización Electrónico) y su vencimiento, o el motivo del
+ * rechazo. Se embebe en {@link Factura} y {@link NotaCredito}.
+ *
+ * Un comprobante nace pendiente y solo pasa a autorizado o rechazado con la
+ * respuesta del organismo fiscal; un comprobante autorizado no cambia más.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@Embeddable
+@NoArgsConstructor
+public class AutorizacionFiscal {
+
+    /** Estado de la autorización. */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado_autorizacion", length = 20)
+    private EstadoAutorizacion estado = EstadoAutorizacion.PENDIENTE;
+
+    /** Código de Autorización Electrónico (14 dígitos). */
+    @Column(name = "cae", length = 14)
+    private String cae;
+
+    /** Fecha de vencimiento del CAE. */
+    @Column(name = "vencimiento_cae")
+    private LocalDate vencimientoCae;
+
+    /** Observación del organismo fiscal cuando el comprobante es rechazado. */
+    @Column(name = "observacion_autorizacion", length = 255)
+    private String observacion;
+
+    /**
+     * Indica si el comprobante todavía debe enviarse a autorizar.
+     */
+    public boolean isPendiente() {
+        return estado == EstadoAutorizacion.PENDIENTE;
+    }
+
+    /**
+     * Registra el CAE otorgado.
+     * @param cae código de autorización
+     * @param vencimientoCae fecha de vencimiento del código
+     * @throws IllegalArgumentException si falta el CAE o su vencimiento
+     * @throws IllegalStateException si el comprobante ya fue autorizado
+     */
+    public void autorizar(String cae, LocalDate vencimientoCae) {
+        if (cae == null || cae.isBlank() || vencimientoCae == null) {
+            throw new IllegalArgumentException("El CAE y su vencimiento son obligatorios");
+        }
+        validarNoAutorizado();
+        this.estado = EstadoAutorizacion.AUTORIZADA;
+        this.cae = cae;
+        this.vencimientoCae = vencimientoCae;
+        this.observacion = null;
+    }
+
+    /**
+     * Registra el rechazo del comprobante.
+     * @param observacion motivo informado por el organismo fiscal
+     * @throws IllegalStateException si el comprobante ya fue autorizado
+     */
+    public void rechazar(String observacion) {
+        validarNoAutorizado();
+        this.estado = EstadoAutorizacion.RECHAZADA;
+        this.observacion = observacion;
+    }
+
+    private void validarNoAutorizado() {
+        if (estado == EstadoAutorizacion.AUTORIZADA) {
+            throw new IllegalStateException("El comprobante ya tiene CAE asignado: " + cae);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.unam.integrador.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila de bloqueo de un período de facturación.
+ *
+ * Existe una fila por período. Las operaciones masivas sobre el período
+ * (facturación y anulación de lotes) la bloquean con SELECT ... FOR UPDATE
+ * NOWAIT durante su transacción, lo que las serializa entre todas las
+ * instancias de la aplicación que comparten la base de datos.
+ */
+@Getter
+@Entity
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class BloqueoPeriodo {
+
+    /**
+     * Período bloqueado (primer día del mes).
+     */
+    @Id
+    @Column(name = "periodo_fecha")
+    private LocalDate periodoFecha;
+
+    /**
+     * Última operación que tomó el bloqueo.
+     */
+    @Column(length = 100)
+    private String operacion;
+
+    /**
+     * Momento en que la última operación tomó el bloqueo.
+     */
+    private LocalDateTime fechaOperacion;
+
+    public BloqueoPeriodo(Periodo periodo) {
+        this.periodoFecha = periodo.getPrimerDia();
+    }
+
+    /**
+     * Registra la operación que tiene el bloqueo.
+     */
+    public void registrarOperacion(String operacion) {
+        this.operacion = operacion;
+        this.fechaOperacion = LocalDateTime.now();
+    }
+}
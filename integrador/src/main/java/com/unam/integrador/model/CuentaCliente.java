@@ -3,11 +3,16 @@ package com.unam.integrador.model;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.unam.integrador.model.enums.EstadoCuenta;
 import com.unam.integrador.model.enums.TipoCondicionIVA;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -25,6 +30,7 @@ import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
@@ -120,6 +126,7 @@ public class CuentaCliente {
      * Lista de servicios contratados por este cliente.
      */
     @OneToMany(mappedBy = "cliente", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contratosPorCliente")
     @ToString.Exclude
     private List<ServicioContratado> serviciosContratados = new ArrayList<>();
     
@@ -130,6 +137,24 @@ public class CuentaCliente {
     @ToString.Exclude
     private List<CambioEstadoCuenta> historialCambiosEstado = new ArrayList<>();
     
+    /**
+     * Índice en memoria de los contratos activos por ID de servicio.
+     * Se construye a demanda desde serviciosContratados y se reconstruye si la
+     * colección cambió. No se persiste ni participa de equals/hashCode.
+     */
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient Map<Long, ServicioContratado> contratosActivosPorServicio;
+    
+    /**
+     * Tamaño de serviciosContratados al construir el índice (para detectar cambios).
+     */
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient int contratosIndexados = -1;
+    
     /**
      * Callback ejecutado antes de persistir la entidad en la base de datos.
      */
@@ -151,6 +176,18 @@ public class CuentaCliente {
      * @throws IllegalArgumentException si el servicio ya está contratado activamente
      */
     public void contratarServicio(Servicio servicio) {
+        contratarServicio(servicio, servicio.getPrecio());
+    }
+    
+    /**
+     * Contrata un servicio para este cliente con el precio indicado
+     * (el que rige hoy según el tarifario del servicio).
+     * 
+     * @param servicio el servicio a contratar
+     * @param precio precio sin IVA a registrar en el contrato
+     * @throws IllegalArgumentException si el servicio ya está contratado activamente
+     */
+    public void contratarServicio(Servicio servicio, BigDecimal precio) {
         if (tieneServicioContratadoActivo(servicio)) {
             throw new IllegalArgumentException("El servicio '" + servicio.getNombre() + "' ya está contratado para este cliente.");
         }
@@ -159,10 +196,11 @@ public class CuentaCliente {
         servicioContratado.setCliente(this);
         servicioContratado.setServicio(servicio);
         servicioContratado.setFechaAlta(LocalDate.now());
-        servicioContratado.setPrecioContratado(servicio.getPrecio());
+        servicioContratado.setPrecioContratado(precio);
         servicioContratado.setActivo(true);
         
         this.serviciosContratados.add(servicioContratado);
+        this.contratosActivosPorServicio = null;
     }
     
     /**
@@ -172,8 +210,58 @@ public class CuentaCliente {
      * @return true si el servicio está contratado y activo, false en caso contrario
      */
     public boolean tieneServicioContratadoActivo(Servicio servicio) {
-        return this.serviciosContratados.stream()
-            .anyMatch(sc -> sc.getServicio().equals(servicio) && sc.getActivo());
+        return buscarContratoActivo(servicio) != null;
+    }
+    
+    /**
+     * Busca el contrato activo de un servicio por su ID usando el índice de contratos.
+     * Para servicios aún no persistidos (sin ID) compara por referencia.
+     * 
+     * @param servicio el servicio a buscar
+     * @return el contrato activo, o null si el servicio no está contratado activamente
+     */
+    private ServicioContratado buscarContratoActivo(Servicio servicio) {
+        Long servicioId = servicio.getIDServicio();
+        if (servicioId == null) {
+            for (ServicioContratado sc : this.serviciosContratados) {
+                if (sc.getServicio() == servicio && Boolean.TRUE.equals(sc.getActivo())) {
+                    return sc;
+                }
+            }
+            return null;
+        }
+        
+        if (contratosActivosPorServicio == null || contratosIndexados != serviciosContratados.size()) {
+            indexarContratosActivos();
+        }
+        ServicioContratado contrato = contratosActivosPorServicio.get(servicioId);
+        if (contrato != null && !Boolean.TRUE.equals(contrato.getActivo())) {
+            // El contrato se dio de baja fuera de esta clase: reconstruir el índice
+            indexarContratosActivos();
+            contrato = contratosActivosPorServicio.get(servicioId);
+        }
+        return contrato;
+    }
+    
+    private void indexarContratosActivos() {
+        Map<Long, ServicioContratado> indice = new HashMap<>();
+        for (ServicioContratado sc : this.serviciosContratados) {
+            if (Boolean.TRUE.equals(sc.getActivo()) && sc.getServicio() != null
+                    && sc.getServicio().getIDServicio() != null) {
+                indice.put(sc.getServicio().getIDServicio(), sc);
+            }
+        }
+        this.contratosActivosPorServicio = indice;
+        this.contratosIndexados = this.serviciosContratados.size();
+    }
+    
+    /**
+     * Reemplaza la colección de servicios contratados y descarta el índice de contratos.
+     * @param serviciosContratados la nueva colección
+     */
+    public void setServiciosContratados(List<ServicioContratado> serviciosContratados) {
+        this.serviciosContratados = serviciosContratados;
+        this.contratosActivosPorServicio = null;
     }
     
     /**
@@ -195,13 +283,16 @@ public class CuentaCliente {
      * @throws IllegalArgumentException si el servicio no está contratado activamente
      */
     public void desvincularServicio(Servicio servicio) {
-        ServicioContratado contrato = this.serviciosContratados.stream()
-            .filter(sc -> sc.getServicio().equals(servicio) && sc.getActivo())
-            .findFirst()
-            .orElseThrow(() -> new IllegalArgumentException(
-                "El servicio '" + servicio.getNombre() + "' no está contratado activamente"));
+        ServicioContratado contrato = buscarContratoActivo(servicio);
+        if (contrato == null) {
+            throw new IllegalArgumentException(
+                "El servicio '" + servicio.getNombre() + "' no está contratado activamente");
+        }
         
         contrato.desvincular();
+        if (contratosActivosPorServicio != null) {
+            contratosActivosPorServicio.remove(servicio.getIDServicio());
+        }
     }
     
     /**
@@ -2,10 +2,8 @@ package com.unam.integrador.model;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 
 import com.unam.integrador.model.enums.EstadoCuenta;
 import com.unam.integrador.model.enums.EstadoFactura;
@@ -14,6 +12,7 @@ import com.unam.integrador.model.enums.TipoFactura;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -21,11 +20,18 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 
 /**
@@ -46,8 +52,24 @@ import lombok.ToString;
 @Data
 @Entity
 @NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(
+    name = Factura.UK_CLIENTE_PERIODO_ACTIVO,
+    columnNames = {"cliente_id", "periodo_activo"}
+), indexes = @Index(name = "idx_factura_autorizacion", columnList = "estado_autorizacion, serie, nro_factura"))
 public class Factura {
     
+    /**
+     * Nombre de la restricción única que impide emitir dos facturas no anuladas
+     * para el mismo cliente y período.
+     */
+    public static final String UK_CLIENTE_PERIODO_ACTIVO = "uk_factura_cliente_periodo_activo";
+    
+    /** Divisor para convertir el porcentaje de descuento. */
+    private static final BigDecimal CIEN = BigDecimal.valueOf(100);
+    
+    /** Monto de descuento nulo, con la misma escala que produce el cálculo. */
+    private static final BigDecimal CERO_CON_ESCALA_2 = new BigDecimal("0.00");
+    
     /** Identificador único de la factura (clave primaria). */
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -80,6 +102,16 @@ public class Factura {
      */
     private LocalDate periodo;
 
+    /**
+     * Copia del período mientras la factura no está anulada (null si está ANULADA).
+     * Funciona como índice único parcial sobre (cliente_id, periodo): como los NULL
+     * no colisionan, las facturas anuladas no bloquean una nueva emisión.
+     * Se sincroniza automáticamente antes de cada INSERT/UPDATE.
+     */
+    @Column(name = "periodo_activo")
+    @Setter(AccessLevel.NONE)
+    private LocalDate periodoActivo;
+
     /** Tipo de factura (A, B o C) según condiciones fiscales. */
     @Enumerated(EnumType.STRING)
     private TipoFactura tipo;
@@ -139,6 +171,14 @@ public class Factura {
     @ToString.Exclude
     private LoteFacturacion loteFacturacion;
 
+    /**
+     * Autorización fiscal (CAE) de la factura.
+     * Se asigna luego de la emisión, con la respuesta del organismo fiscal.
+     */
+    @Embedded
+    @Setter(AccessLevel.NONE)
+    private AutorizacionFiscal autorizacion = new AutorizacionFiscal();
+
     /**
      * Constructor principal para crear una factura.
      * Inicializa todos los campos obligatorios y establece valores por defecto.
@@ -195,8 +235,16 @@ public class Factura {
         // Agregar a la lista
         this.detalleFactura.add(item);
         
-        // Recalcular totales de la factura
-        calcularTotales();
+        // Actualizar totales de la factura: se acumula solo el item nuevo
+        // (sumar en el mismo orden da el mismo resultado que recalcular todo)
+        if (this.subtotal == null || this.totalIva == null) {
+            calcularTotales();
+            return;
+        }
+        this.subtotal = this.subtotal.add(item.getSubtotal());
+        this.totalIva = this.totalIva.add(item.getMontoIva());
+        calcularTotal();
+        calcularSaldoPendiente();
     }
 
     /**
@@ -204,12 +252,11 @@ public class Factura {
      * @return Subtotal antes de IVA y descuentos
      */
     public BigDecimal calcularSubtotal() {
-        //convierte la lista a un stream para procesarlo de manera funcional
-        this.subtotal = detalleFactura.stream()
-            //obtiene el subtotal de cada item
-            .map(ItemFactura::getSubtotal)
-            //suma todos los subtotales obtenidos
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal suma = BigDecimal.ZERO;
+        for (ItemFactura item : detalleFactura) {
+            suma = suma.add(item.getSubtotal());
+        }
+        this.subtotal = suma;
         return this.subtotal;
     }
 
@@ -218,9 +265,11 @@ public class Factura {
      * @return Total de IVA
      */
     public BigDecimal calcularTotalIva() {
-        this.totalIva = detalleFactura.stream()
-            .map(ItemFactura::getMontoIva)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal suma = BigDecimal.ZERO;
+        for (ItemFactura item : detalleFactura) {
+            suma = suma.add(item.getMontoIva());
+        }
+        this.totalIva = suma;
         return this.totalIva;
     }
 
@@ -254,10 +303,12 @@ public class Factura {
      * @return Total de la factura
      */
     public BigDecimal calcularTotal() {
-        // Calcular monto del descuento
-        BigDecimal montoDescuento = this.subtotal
-            .multiply(BigDecimal.valueOf(this.descuento))
-            .divide(BigDecimal.valueOf(100), 2, java.math.RoundingMode.HALF_UP);
+        // Calcular monto del descuento (sin descuento no hace falta operar)
+        BigDecimal montoDescuento = this.descuento == 0
+            ? CERO_CON_ESCALA_2
+            : this.subtotal
+                .multiply(BigDecimal.valueOf(this.descuento))
+                .divide(CIEN, 2, java.math.RoundingMode.HALF_UP);
         
         // Total = (Subtotal - Descuento) + IVA
         BigDecimal subtotalConDescuento = this.subtotal.subtract(montoDescuento);
@@ -289,7 +340,7 @@ public class Factura {
         }
         return this.subtotal
             .multiply(BigDecimal.valueOf(this.descuento))
-            .divide(BigDecimal.valueOf(100), 2, java.math.RoundingMode.HALF_UP);
+            .divide(CIEN, 2, java.math.RoundingMode.HALF_UP);
     }
 
     /**
@@ -297,8 +348,15 @@ public class Factura {
      * Este es el método principal para actualizar todos los valores calculados.
      */
     public void calcularTotales() {
-        calcularSubtotal();
-        calcularTotalIva();
+        // Una sola pasada sobre los items para subtotal e IVA
+        BigDecimal sumaSubtotal = BigDecimal.ZERO;
+        BigDecimal sumaIva = BigDecimal.ZERO;
+        for (ItemFactura item : detalleFactura) {
+            sumaSubtotal = sumaSubtotal.add(item.getSubtotal());
+            sumaIva = sumaIva.add(item.getMontoIva());
+        }
+        this.subtotal = sumaSubtotal;
+        this.totalIva = sumaIva;
         calcularTotal();
         calcularSaldoPendiente();
     }
@@ -527,6 +585,16 @@ public class Factura {
         notaCredito.setFactura(this);
     }
 
+    /**
+     * Callback ejecutado antes de persistir o actualizar la factura.
+     * Mantiene periodoActivo alineado con el estado para la restricción única.
+     */
+    @PrePersist
+    @PreUpdate
+    void sincronizarPeriodoActivo() {
+        this.periodoActivo = (this.estado != EstadoFactura.ANULADA) ? this.periodo : null;
+    }
+
     /**
      * Obtiene el período formateado como String legible.
      * Formato: "Mes Año" (ej: "Noviembre 2025")
@@ -534,13 +602,8 @@ public class Factura {
      * @return Período formateado o null si no hay período
      */
     public String getPeriodoFormateado() {
-        if (this.periodo == null) {
-            return null;
-        }
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.of("es", "ES"));
-        String formateado = this.periodo.format(formatter);
-        // Capitalizar primera letra
-        return formateado.substring(0, 1).toUpperCase() + formateado.substring(1);
+        Periodo valor = Periodo.de(this.periodo);
+        return valor != null ? valor.getEtiqueta() : null;
     }
 
     /**
@@ -555,4 +618,18 @@ public class Factura {
             this.periodo = null;
         }
     }
+
+    /**
+     * Obtiene la autorización fiscal de la factura.
+     * Las facturas anteriores a la autorización electrónica no tienen columnas
+     * cargadas; en ese caso se las considera pendientes.
+     * 
+     * @return la autorización fiscal (nunca null)
+     */
+    public AutorizacionFiscal getAutorizacion() {
+        if (this.autorizacion == null) {
+            this.autorizacion = new AutorizacionFiscal();
+        }
+        return this.autorizacion;
+    }
 }
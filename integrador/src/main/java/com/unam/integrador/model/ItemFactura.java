@@ -81,6 +81,15 @@ public class ItemFactura {
     @ToString.Exclude
     private Factura factura;
 
+    /**
+     * Servicio facturado, para los reportes de ingresos por servicio.
+     * Es null en los items emitidos antes de registrar esta referencia.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "servicio_id")
+    @ToString.Exclude
+    private Servicio servicio;
+
     /**
      * Constructor para crear un item de factura.
      * Los valores calculados se inicializan en cero y deben calcularse con calcular().
@@ -110,7 +119,10 @@ public class ItemFactura {
      * @return Subtotal sin IVA
      */
     public BigDecimal calcularSubtotal() {
-        this.subtotal = precioUnitario.multiply(new BigDecimal(cantidad));
+        // Con cantidad 1 (el caso habitual) el subtotal es el mismo precio unitario
+        this.subtotal = cantidad == 1
+            ? precioUnitario
+            : precioUnitario.multiply(BigDecimal.valueOf(cantidad));
         return this.subtotal;
     }
 
@@ -119,8 +131,7 @@ public class ItemFactura {
      * @return Monto del IVA a aplicar
      */
     public BigDecimal calcularMontoIva() {
-        BigDecimal alicuota = obtenerValorAlicuota();
-        this.montoIva = this.subtotal.multiply(alicuota);
+        this.montoIva = this.subtotal.multiply(this.alicuotaIVA.getTasa());
         return this.montoIva;
     }
 
@@ -182,18 +193,4 @@ public class ItemFactura {
         // Crear item con precio proporcional
         return new ItemFactura(descripcionCompleta, precioProporcional, cantidad, alicuotaIVA);
     }
-
-    /**
-     * Obtiene el valor decimal de la alícuota de IVA.
-     * @return Valor decimal de la alícuota (ej: 0.21 para IVA_21)
-     */
-    private BigDecimal obtenerValorAlicuota() {
-        return switch (this.alicuotaIVA) {
-            case IVA_21 -> new BigDecimal("0.21");
-            case IVA_10_5 -> new BigDecimal("0.105");
-            case IVA_27 -> new BigDecimal("0.27");
-            case IVA_2_5 -> new BigDecimal("0.025");
-            case EXENTO -> BigDecimal.ZERO;
-        };
-    }
 }
@@ -0,0 +1,153 @@
+package com.unam.integrador.model;
+
+import java.time.LocalDateTime;
+
+import com.unam.integrador.model.enums.EstadoItemFacturacion;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Elemento de la cola de facturación masiva distribuida: un rango de IDs de
+ * clientes de un lote.
+ *
+ * Cualquier instancia de la aplicación puede tomar un elemento pendiente
+ * (SELECT ... FOR UPDATE SKIP LOCKED), facturar sus clientes y marcarlo
+ * completado en la misma transacción. Si la instancia cae a mitad de camino,
+ * la transacción se revierte y el elemento vuelve a quedar disponible. Si el
+ * procesamiento falla, se registra el intento y, al agotar los intentos, el
+ * elemento queda fallido para no bloquear el lote.
+ */
+@Getter
+@Entity
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(indexes = @Index(name = "idx_item_facturacion_estado", columnList = "estado, id"))
+public class ItemFacturacionMasiva {
+
+    /** Longitud máxima del nombre del trabajador. */
+    private static final int LONGITUD_TRABAJADOR = 100;
+
+    /** Longitud máxima del último error registrado. */
+    private static final int LONGITUD_ERROR = 500;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Lote al que pertenece el grupo.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "lote_facturacion_id", nullable = false)
+    @ToString.Exclude
+    private LoteFacturacion lote;
+
+    /**
+     * Primer ID de cliente del grupo (inclusive).
+     */
+    @Column(nullable = false)
+    private Long clienteDesde;
+
+    /**
+     * Último ID de cliente del grupo (inclusive).
+     */
+    @Column(nullable = false)
+    private Long clienteHasta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EstadoItemFacturacion estado;
+
+    /**
+     * Cantidad de facturas generadas al procesar el grupo.
+     */
+    private int facturasGeneradas;
+
+    /**
+     * Trabajador (instancia e hilo) que procesó el grupo.
+     */
+    @Column(length = LONGITUD_TRABAJADOR)
+    private String procesadoPor;
+
+    private LocalDateTime fechaProceso;
+
+    /**
+     * Intentos fallidos de procesar el grupo (null en grupos anteriores a su registro).
+     */
+    private Integer intentos;
+
+    /**
+     * Mensaje del último error al procesar el grupo.
+     */
+    @Column(length = LONGITUD_ERROR)
+    private String ultimoError;
+
+    public ItemFacturacionMasiva(LoteFacturacion lote, Long clienteDesde, Long clienteHasta) {
+        if (clienteDesde == null || clienteHasta == null || clienteDesde > clienteHasta) {
+            throw new IllegalArgumentException("El rango de clientes no es válido");
+        }
+        this.lote = lote;
+        this.clienteDesde = clienteDesde;
+        this.clienteHasta = clienteHasta;
+        this.estado = EstadoItemFacturacion.PENDIENTE;
+        this.intentos = 0;
+    }
+
+    /**
+     * Marca el grupo como procesado.
+     *
+     * Los clientes omitidos se registran aparte, como {@link OmisionFacturacion} del lote.
+     *
+     * @param facturas cantidad de facturas generadas
+     * @param trabajador instancia e hilo que lo procesó
+     * @throws IllegalStateException si el grupo ya estaba completado
+     */
+    public void completar(int facturas, String trabajador) {
+        if (this.estado == EstadoItemFacturacion.COMPLETADO) {
+            throw new IllegalStateException("El grupo de clientes ya fue procesado");
+        }
+        this.estado = EstadoItemFacturacion.COMPLETADO;
+        this.facturasGeneradas = facturas;
+        this.procesadoPor = trabajador.length() > LONGITUD_TRABAJADOR
+            ? trabajador.substring(0, LONGITUD_TRABAJADOR) : trabajador;
+        this.fechaProceso = LocalDateTime.now();
+    }
+
+    /**
+     * Registra un intento fallido de procesar el grupo. Al llegar al máximo de
+     * intentos el grupo queda fallido y deja de tomarse de la cola.
+     *
+     * @param error descripción del error
+     * @param maxIntentos intentos permitidos
+     * @return true si el grupo quedó fallido
+     * @throws IllegalStateException si el grupo no está pendiente
+     */
+    public boolean registrarFalla(String error, int maxIntentos) {
+        if (this.estado != EstadoItemFacturacion.PENDIENTE) {
+            throw new IllegalStateException("El grupo de clientes no está pendiente");
+        }
+        this.intentos = (this.intentos != null ? this.intentos : 0) + 1;
+        this.ultimoError = error != null && error.length() > LONGITUD_ERROR
+            ? error.substring(0, LONGITUD_ERROR) : error;
+        if (this.intentos >= maxIntentos) {
+            this.estado = EstadoItemFacturacion.FALLIDO;
+            this.fechaProceso = LocalDateTime.now();
+            return true;
+        }
+        return false;
+    }
+}
@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.unam.integrador.model.enums.EstadoFactura;
+import com.unam.integrador.model.enums.TipoOmisionFacturacion;
 
 import jakarta.persistence.*;
 import lombok.Data;
@@ -22,6 +23,7 @@ import lombok.ToString;
 @Data
 @Entity
 @NoArgsConstructor
+@Table(indexes = @Index(name = "idx_lote_periodo_fecha", columnList = "periodo_fecha"))
 public class LoteFacturacion {
     
     @Id
@@ -35,10 +37,11 @@ public class LoteFacturacion {
     private String periodo;
     
     /**
-     * Período de facturación como LocalDate (primer día del mes).
+     * Período de facturación (se guarda como el primer día del mes).
      */
-    @Column(nullable = false)
-    private LocalDate periodoFecha;
+    @Convert(converter = PeriodoConverter.class)
+    @Column(name = "periodo_fecha", nullable = false)
+    private Periodo periodoFacturado;
     
     /**
      * Fecha y hora en que se ejecutó la facturación masiva.
@@ -80,7 +83,75 @@ public class LoteFacturacion {
      */
     private String motivoAnulacion;
     
-
+    /**
+     * Grupos de clientes que faltan facturar en una facturación distribuida.
+     * Es null en los lotes generados en una sola transacción.
+     */
+    @Column(name = "items_pendientes")
+    private Integer itemsPendientes;
+    
+    /**
+     * Grupos de clientes que agotaron sus intentos sin facturarse (facturación distribuida).
+     */
+    private Integer itemsFallidos;
+    
+    /**
+     * Fecha en que terminó de procesarse el último grupo (facturación distribuida).
+     */
+    private LocalDateTime fechaFinalizacion;
+    
+    // --- TELEMETRÍA DE LA EJECUCIÓN (null en lotes anteriores a su registro) ---
+    
+    /**
+     * Clientes revisados por la ejecución (facturados u omitidos).
+     */
+    private Integer clientesProcesados;
+    
+    /**
+     * Milisegundos de selección: lectura de clientes, facturas existentes del
+     * período y tarifario. En la facturación distribuida se suman los de cada grupo.
+     */
+    private Long duracionSeleccionMs;
+    
+    /**
+     * Milisegundos de armado de las facturas en memoria.
+     */
+    private Long duracionArmadoMs;
+    
+    /**
+     * Milisegundos de reserva de los números de factura, incluida la espera
+     * del bloqueo de las series usadas. No se suman a la persistencia.
+     */
+    private Long duracionNumeracionMs;
+    
+    /**
+     * Milisegundos de escritura de las facturas en la base.
+     */
+    private Long duracionPersistenciaMs;
+    
+    /**
+     * Milisegundos desde el inicio hasta el fin de la ejecución. En la
+     * facturación distribuida incluye la espera de los grupos en la cola.
+     */
+    private Long duracionTotalMs;
+    
+    /**
+     * Mayor cantidad de facturas guardadas en una misma transacción.
+     */
+    private Integer maximoFacturasPorGrupo;
+    
+    /**
+     * Trabajadores que participaron de la ejecución.
+     */
+    private Integer trabajadores;
+    
+    /**
+     * Clientes que no se facturaron y el motivo.
+     */
+    @OneToMany(mappedBy = "lote", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @OrderBy("id")
+    @ToString.Exclude
+    private List<OmisionFacturacion> omisiones = new ArrayList<>();
     
     /**
      * Lista de facturas generadas en este lote.
@@ -98,8 +169,19 @@ public class LoteFacturacion {
      */
     public LoteFacturacion(String periodo, LocalDate periodoFecha, 
                            LocalDate fechaVencimiento) {
+        this(Periodo.de(periodoFecha), fechaVencimiento);
         this.periodo = periodo;
-        this.periodoFecha = periodoFecha;
+    }
+    
+    /**
+     * Constructor para crear un nuevo lote de facturación a partir del período.
+     * 
+     * @param periodo Período facturado (la etiqueta se toma del período)
+     * @param fechaVencimiento Fecha de vencimiento para las facturas
+     */
+    public LoteFacturacion(Periodo periodo, LocalDate fechaVencimiento) {
+        this.periodo = periodo != null ? periodo.getEtiqueta() : null;
+        this.periodoFacturado = periodo;
         this.fechaEjecucion = LocalDateTime.now();
         this.fechaVencimiento = fechaVencimiento;
         this.cantidadFacturas = 0;
@@ -107,8 +189,108 @@ public class LoteFacturacion {
         this.anulado = false;
     }
     
+    /**
+     * Obtiene el período facturado como fecha (primer día del mes).
+     * @return fecha del período, o null si no está definido
+     */
+    public LocalDate getPeriodoFecha() {
+        return periodoFacturado != null ? periodoFacturado.getPrimerDia() : null;
+    }
+    
     // --- MÉTODOS DE NEGOCIO (Modelo RICO) ---
     
+    /**
+     * Marca el lote como facturación distribuida con la cantidad de grupos de
+     * clientes a procesar. Los totales se acumulan a medida que cada grupo termina.
+     * 
+     * @param items cantidad de grupos de clientes
+     */
+    public void iniciarProcesamiento(int items) {
+        if (items <= 0) {
+            throw new IllegalArgumentException("El lote debe tener al menos un grupo de clientes");
+        }
+        this.itemsPendientes = items;
+        this.itemsFallidos = 0;
+        this.fechaFinalizacion = null;
+        this.clientesProcesados = 0;
+        this.duracionSeleccionMs = 0L;
+        this.duracionArmadoMs = 0L;
+        this.duracionNumeracionMs = 0L;
+        this.duracionPersistenciaMs = 0L;
+        this.maximoFacturasPorGrupo = 0;
+    }
+    
+    /**
+     * Registra la telemetría de una facturación hecha en una sola transacción
+     * (un trabajador, todas las facturas en un mismo grupo).
+     * 
+     * @param clientes clientes revisados
+     * @param seleccionMs milisegundos de selección de clientes
+     * @param armadoMs milisegundos de armado de facturas
+     * @param numeracionMs milisegundos de reserva de los números de factura
+     * @param persistenciaMs milisegundos de escritura en la base
+     * @param totalMs milisegundos de la ejecución completa
+     */
+    public void registrarEjecucion(int clientes, long seleccionMs, long armadoMs, long numeracionMs,
+                                   long persistenciaMs, long totalMs) {
+        if (clientes < 0 || seleccionMs < 0 || armadoMs < 0 || numeracionMs < 0 || persistenciaMs < 0
+                || totalMs < 0) {
+            throw new IllegalArgumentException("Los valores de la ejecución no pueden ser negativos");
+        }
+        this.clientesProcesados = clientes;
+        this.duracionSeleccionMs = seleccionMs;
+        this.duracionArmadoMs = armadoMs;
+        this.duracionNumeracionMs = numeracionMs;
+        this.duracionPersistenciaMs = persistenciaMs;
+        this.duracionTotalMs = totalMs;
+        this.maximoFacturasPorGrupo = this.cantidadFacturas;
+        this.trabajadores = 1;
+    }
+    
+    /**
+     * Registra un cliente que no se facturó.
+     * 
+     * @param cliente cliente omitido
+     * @param tipo omisión esperada o error
+     * @param motivo motivo de la omisión
+     * @return la omisión registrada
+     */
+    public OmisionFacturacion registrarOmision(CuentaCliente cliente, TipoOmisionFacturacion tipo, String motivo) {
+        OmisionFacturacion omision = new OmisionFacturacion(this, cliente, tipo, motivo);
+        this.omisiones.add(omision);
+        return omision;
+    }
+    
+    /**
+     * Indica si el lote tiene telemetría de su ejecución.
+     * 
+     * @return true si se registraron los tiempos de la ejecución
+     */
+    public boolean isConTelemetria() {
+        return clientesProcesados != null;
+    }
+    
+    /**
+     * Calcula el rendimiento de la ejecución.
+     * 
+     * @return clientes por segundo, o null si la ejecución no terminó o no tiene telemetría
+     */
+    public Double getClientesPorSegundo() {
+        if (clientesProcesados == null || duracionTotalMs == null) {
+            return null;
+        }
+        return clientesProcesados * 1000.0 / Math.max(duracionTotalMs, 1);
+    }
+    
+    /**
+     * Indica si el lote todavía tiene grupos de clientes sin facturar.
+     * 
+     * @return true si la facturación distribuida no terminó
+     */
+    public boolean isEnProceso() {
+        return itemsPendientes != null && itemsPendientes > 0;
+    }
+    
     /**
      * Agrega una factura al lote y actualiza los totales.
      * 
@@ -132,7 +314,7 @@ public class LoteFacturacion {
      * @return true si el lote puede ser anulado
      */
     public boolean puedeSerAnulado() {
-        if (this.anulado) {
+        if (this.anulado || isEnProceso()) {
             return false;
         }
         
@@ -156,6 +338,11 @@ public class LoteFacturacion {
      * @throws IllegalStateException si el lote no puede ser anulado
      */
     public void anular(String motivo) {
+        if (isEnProceso()) {
+            throw new IllegalStateException(
+                "No se puede anular el lote. La facturación todavía se está procesando."
+            );
+        }
         if (!puedeSerAnulado()) {
             throw new IllegalStateException(
                 "No se puede anular el lote. Algunas facturas ya tienen pagos registrados."
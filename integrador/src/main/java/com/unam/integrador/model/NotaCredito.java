@@ -6,6 +6,7 @@ import java.time.LocalDate;
 import com.unam.integrador.model.enums.TipoFactura;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -15,8 +16,12 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 
 /**
@@ -37,8 +42,18 @@ import lombok.ToString;
 @Data
 @Entity
 @NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(
+    name = NotaCredito.UK_SERIE_NUMERO,
+    columnNames = {"serie", "nro_nota_credito"}
+))
 public class NotaCredito {
     
+    /**
+     * Nombre de la restricción única que impide repetir un número de nota de
+     * crédito dentro de una serie.
+     */
+    public static final String UK_SERIE_NUMERO = "uk_nota_credito_serie_numero";
+    
     /** Identificador único de la nota de crédito (clave primaria). */
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -75,6 +90,11 @@ public class NotaCredito {
     @ToString.Exclude
     private Factura factura;
 
+    /** Autorización fiscal (CAE) de la nota de crédito. */
+    @Embedded
+    @Setter(AccessLevel.NONE)
+    private AutorizacionFiscal autorizacion = new AutorizacionFiscal();
+
     /**
      * Constructor para crear una nota de crédito.
      * 
@@ -98,4 +118,16 @@ public class NotaCredito {
         this.factura = factura;
     }
 
+    /**
+     * Obtiene la autorización fiscal de la nota de crédito.
+     * Las notas anteriores a la autorización electrónica se consideran pendientes.
+     * 
+     * @return la autorización fiscal (nunca null)
+     */
+    public AutorizacionFiscal getAutorizacion() {
+        if (this.autorizacion == null) {
+            this.autorizacion = new AutorizacionFiscal();
+        }
+        return this.autorizacion;
+    }
 }
@@ -0,0 +1,163 @@
+package com.unam.integrador.model;
+
+import java.time.LocalDateTime;
+
+import com.unam.integrador.model.enums.EstadoNotificacion;
+import com.unam.integrador.model.enums.TipoNotificacion;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidad de la bandeja de salida (outbox) de correos a clientes.
+ *
+ * Cada notificación se registra en la misma transacción que el hecho de
+ * negocio que la origina (emisión de factura o generación de recibo), de modo
+ * que solo existe si ese cambio se confirmó. El envío se realiza después, en
+ * segundo plano, y se reintenta hasta un máximo de intentos.
+ */
+@Getter
+@Entity
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(indexes = @Index(name = "idx_notificacion_estado_proximo", columnList = "estado, proximo_intento"))
+public class Notificacion {
+
+    /** Longitud máxima del cuerpo del mensaje. */
+    public static final int LONGITUD_CUERPO = 4000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Hecho de negocio que originó la notificación.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoNotificacion tipo;
+
+    /**
+     * Referencia al comprobante notificado (ID de factura o número de recibo).
+     */
+    @Column(nullable = false, length = 50)
+    private String referencia;
+
+    /**
+     * Dirección de correo del cliente.
+     */
+    @Column(nullable = false, length = 100)
+    private String destinatario;
+
+    @Column(nullable = false, length = 200)
+    private String asunto;
+
+    @Column(nullable = false, length = LONGITUD_CUERPO)
+    private String cuerpo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EstadoNotificacion estado;
+
+    /**
+     * Cantidad de intentos de envío fallidos.
+     */
+    @Column(nullable = false)
+    private int intentos;
+
+    /**
+     * Momento a partir del cual la notificación puede (re)intentarse.
+     */
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime proximoIntento;
+
+    @Column(nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    private LocalDateTime fechaEnvio;
+
+    /**
+     * Último error de envío, si lo hubo.
+     */
+    @Column(length = 500)
+    private String ultimoError;
+
+    private Notificacion(TipoNotificacion tipo, String referencia, String destinatario,
+                         String asunto, String cuerpo) {
+        if (destinatario == null || destinatario.isBlank()) {
+            throw new IllegalArgumentException("El destinatario de la notificación es obligatorio");
+        }
+        this.tipo = tipo;
+        this.referencia = referencia;
+        this.destinatario = destinatario.trim();
+        this.asunto = asunto;
+        this.cuerpo = cuerpo.length() > LONGITUD_CUERPO ? cuerpo.substring(0, LONGITUD_CUERPO) : cuerpo;
+        this.estado = EstadoNotificacion.PENDIENTE;
+        this.intentos = 0;
+        this.fechaCreacion = LocalDateTime.now();
+        this.proximoIntento = this.fechaCreacion;
+    }
+
+    /**
+     * Factory method para registrar una notificación pendiente de envío.
+     *
+     * @param tipo hecho de negocio que la origina
+     * @param referencia comprobante notificado
+     * @param destinatario email del cliente
+     * @param asunto asunto del correo
+     * @param cuerpo texto del correo (se trunca a {@link #LONGITUD_CUERPO})
+     * @return la notificación en estado PENDIENTE
+     * @throws IllegalArgumentException si no hay destinatario
+     */
+    public static Notificacion crear(TipoNotificacion tipo, String referencia, String destinatario,
+                                     String asunto, String cuerpo) {
+        return new Notificacion(tipo, referencia, destinatario, asunto, cuerpo);
+    }
+
+    /**
+     * Reserva la notificación para un despacho en curso: hasta el momento
+     * indicado ningún otro despacho la toma. Si el despacho se interrumpe sin
+     * registrar el resultado, vuelve a estar disponible al vencer la reserva.
+     *
+     * @param hasta fin de la reserva
+     */
+    public void reservar(LocalDateTime hasta) {
+        this.proximoIntento = hasta;
+    }
+
+    /**
+     * Registra la entrega exitosa al servidor de correo.
+     */
+    public void marcarEnviada(LocalDateTime momento) {
+        this.estado = EstadoNotificacion.ENVIADA;
+        this.fechaEnvio = momento;
+        this.ultimoError = null;
+    }
+
+    /**
+     * Registra un intento fallido. Si se agotaron los intentos la notificación
+     * queda FALLIDA; si no, se reprograma para el momento indicado.
+     *
+     * @param error descripción del error
+     * @param proximoIntento momento del próximo intento
+     * @param maxIntentos cantidad máxima de intentos
+     */
+    public void registrarFallo(String error, LocalDateTime proximoIntento, int maxIntentos) {
+        this.intentos++;
+        this.ultimoError = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+        if (this.intentos >= maxIntentos) {
+            this.estado = EstadoNotificacion.FALLIDA;
+        } else {
+            this.proximoIntento = proximoIntento;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.unam.integrador.model;
+
+import jakarta.persistence.MappedSuperclass;
+import lombok.Getter;
+
+/**
+ * Contador de numeración de una serie de comprobantes, compartido por las
+ * filas de numeración de facturas y de notas de crédito.
+ *
+ * Guarda el último número asignado. Quien va a asignar números bloquea la
+ * fila (SELECT ... FOR UPDATE), toma un bloque de números consecutivos y la
+ * libera al terminar su transacción.
+ */
+@Getter
+@MappedSuperclass
+public abstract class NumeracionSerie {
+
+    /**
+     * Último número asignado; null hasta la primera asignación.
+     */
+    private Integer ultimoNumero;
+
+    /**
+     * Asigna un bloque de números consecutivos a continuación del último
+     * asignado o del último emitido, el que sea mayor (los comprobantes
+     * anteriores a esta fila no pasaron por ella).
+     *
+     * @param ultimoEmitido mayor número guardado en la serie (0 si no hay)
+     * @param cantidad cantidad de números del bloque
+     * @return primer número del bloque
+     */
+    public int asignar(int ultimoEmitido, int cantidad) {
+        if (cantidad <= 0) {
+            throw new IllegalArgumentException("La cantidad de números a asignar debe ser mayor a cero");
+        }
+        int desde = Math.max(ultimoNumero != null ? ultimoNumero : 0, ultimoEmitido) + 1;
+        this.ultimoNumero = desde + cantidad - 1;
+        return desde;
+    }
+
+    /**
+     * Devuelve un bloque que no llegó a usarse, siempre que siga siendo el
+     * último asignado; si después se asignaron otros, queda un hueco.
+     *
+     * @param desde primer número del bloque
+     * @param cantidad cantidad de números del bloque
+     * @return true si el bloque se devolvió
+     */
+    public boolean devolver(int desde, int cantidad) {
+        if (ultimoNumero == null || ultimoNumero != desde + cantidad - 1) {
+            return false;
+        }
+        this.ultimoNumero = desde - 1;
+        return true;
+    }
+}
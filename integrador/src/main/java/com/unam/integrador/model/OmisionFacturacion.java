@@ -0,0 +1,93 @@
+package com.unam.integrador.model;
+
+import com.unam.integrador.model.enums.TipoOmisionFacturacion;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Cliente que quedó sin facturar en un lote de facturación masiva, con el motivo.
+ */
+@Getter
+@Entity
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(indexes = @Index(name = "idx_omision_lote", columnList = "lote_facturacion_id, id"))
+public class OmisionFacturacion {
+
+    /** Longitud máxima del motivo. */
+    private static final int LONGITUD_MOTIVO = 500;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Lote en el que se omitió al cliente.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "lote_facturacion_id", nullable = false)
+    @ToString.Exclude
+    private LoteFacturacion lote;
+
+    /**
+     * ID del cliente omitido (sin relación, para no cargar el cliente al mostrar el lote).
+     */
+    @Column(nullable = false)
+    private Long clienteId;
+
+    /**
+     * Nombre del cliente al momento de la facturación.
+     */
+    @Column(nullable = false)
+    private String clienteNombre;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoOmisionFacturacion tipo;
+
+    @Column(nullable = false, length = LONGITUD_MOTIVO)
+    private String motivo;
+
+    /**
+     * Crea la omisión de un cliente. No la agrega a la lista del lote: los
+     * trabajadores de la facturación distribuida la guardan directamente.
+     *
+     * @param lote lote en el que se omitió al cliente
+     * @param cliente cliente omitido
+     * @param tipo omisión esperada o error
+     * @param motivo motivo (se trunca si es muy largo)
+     */
+    public OmisionFacturacion(LoteFacturacion lote, CuentaCliente cliente,
+                              TipoOmisionFacturacion tipo, String motivo) {
+        if (cliente == null || tipo == null) {
+            throw new IllegalArgumentException("El cliente y el tipo de omisión son obligatorios");
+        }
+        String texto = motivo == null || motivo.isBlank() ? "Sin detalle" : motivo.trim();
+        this.lote = lote;
+        this.clienteId = cliente.getId();
+        this.clienteNombre = cliente.getNombre();
+        this.tipo = tipo;
+        this.motivo = texto.length() > LONGITUD_MOTIVO ? texto.substring(0, LONGITUD_MOTIVO) : texto;
+    }
+
+    /**
+     * @return texto para mensajes y resúmenes (ej: "Cliente X: motivo")
+     */
+    public String getDescripcion() {
+        return "Cliente " + clienteNombre + ": " + motivo;
+    }
+}
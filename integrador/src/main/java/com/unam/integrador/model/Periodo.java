@@ -0,0 +1,187 @@
+package com.unam.integrador.model;
+
+import java.io.Serializable;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Período de facturación (mes y año), inmutable y respaldado por {@link YearMonth}.
+ * 
+ * Es la única conversión entre las tres formas en que aparece un período: la
+ * fecha del primer día del mes (columna en la base), el mes ({@link YearMonth})
+ * y la etiqueta en castellano ("Noviembre 2025") que se muestra en pantalla.
+ * 
+ * Las instancias se internan: hay una sola por mes, con su etiqueta calculada
+ * una vez, y las etiquetas ya interpretadas se guardan en caché. Formatear o
+ * interpretar un período en listados y filtros es una búsqueda en un mapa.
+ * 
+ * Se persiste como fecha (primer día del mes) mediante {@link PeriodoConverter}.
+ */
+public final class Periodo implements Comparable<Periodo>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Formato de las etiquetas: "noviembre 2025" (se capitaliza al mostrar). */
+    private static final DateTimeFormatter FORMATO =
+        DateTimeFormatter.ofPattern("MMMM yyyy", Locale.of("es", "ES"));
+
+    /** Instancias internadas por mes. */
+    private static final ConcurrentMap<YearMonth, Periodo> POR_MES = new ConcurrentHashMap<>();
+
+    /** Etiquetas ya interpretadas (normalizadas) y su período. */
+    private static final ConcurrentMap<String, Periodo> POR_ETIQUETA = new ConcurrentHashMap<>();
+
+    private final YearMonth mes;
+    private final transient String etiqueta;
+    private final transient String etiquetaNormalizada;
+
+    private Periodo(YearMonth mes) {
+        this.mes = mes;
+        String formateado = mes.format(FORMATO);
+        this.etiqueta = formateado.substring(0, 1).toUpperCase() + formateado.substring(1);
+        this.etiquetaNormalizada = normalizar(formateado);
+    }
+
+    /**
+     * Obtiene el período de un mes.
+     * @param mes mes y año
+     * @return el período (instancia única por mes)
+     */
+    public static Periodo of(YearMonth mes) {
+        if (mes == null) {
+            throw new IllegalArgumentException("El período no puede ser nulo");
+        }
+        Periodo periodo = POR_MES.get(mes);
+        if (periodo == null) {
+            periodo = POR_MES.computeIfAbsent(mes, Periodo::new);
+            POR_ETIQUETA.putIfAbsent(periodo.etiquetaNormalizada, periodo);
+        }
+        return periodo;
+    }
+
+    /**
+     * Obtiene el período que contiene una fecha.
+     * @param fecha cualquier día del mes
+     * @return el período, o null si la fecha es null
+     */
+    public static Periodo de(LocalDate fecha) {
+        return fecha == null ? null : of(YearMonth.from(fecha));
+    }
+
+    /**
+     * Obtiene el período del mes actual.
+     * @return el período actual
+     */
+    public static Periodo actual() {
+        return of(YearMonth.now());
+    }
+
+    /**
+     * Interpreta una etiqueta en formato "Mes Año" (ej: "Noviembre 2025").
+     * No distingue mayúsculas, acentos ni espacios sobrantes.
+     * 
+     * @param etiqueta texto del período
+     * @return el período correspondiente
+     * @throws IllegalArgumentException si la etiqueta no es un período válido
+     */
+    public static Periodo parse(String etiqueta) {
+        if (etiqueta == null || etiqueta.isBlank()) {
+            throw new IllegalArgumentException("El período es obligatorio");
+        }
+        String clave = normalizar(etiqueta);
+        Periodo periodo = POR_ETIQUETA.get(clave);
+        if (periodo != null) {
+            return periodo;
+        }
+        try {
+            periodo = of(YearMonth.parse(clave, FORMATO));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Período inválido: " + etiqueta.trim());
+        }
+        POR_ETIQUETA.putIfAbsent(clave, periodo);
+        return periodo;
+    }
+
+    /**
+     * Período desplazado una cantidad de meses.
+     * @param meses meses a sumar (negativo para retroceder)
+     * @return el período resultante
+     */
+    public Periodo desplazar(int meses) {
+        return meses == 0 ? this : of(mes.plusMonths(meses));
+    }
+
+    /** @return el mes y año del período */
+    public YearMonth getMes() {
+        return mes;
+    }
+
+    /** @return el primer día del mes (forma en que se guarda en la base) */
+    public LocalDate getPrimerDia() {
+        return mes.atDay(1);
+    }
+
+    /** @return la etiqueta para mostrar (ej: "Noviembre 2025") */
+    public String getEtiqueta() {
+        return etiqueta;
+    }
+
+    /**
+     * Indica si la etiqueta del período contiene un texto, sin distinguir
+     * mayúsculas ni acentos (para filtros por coincidencia parcial).
+     * @param texto texto ya normalizado con {@link #normalizar(String)}
+     * @return true si la etiqueta lo contiene
+     */
+    public boolean coincideCon(String texto) {
+        return etiquetaNormalizada.contains(texto);
+    }
+
+    /**
+     * Normaliza un texto para comparar etiquetas: minúsculas, sin acentos
+     * y sin espacios sobrantes.
+     * @param texto texto a normalizar
+     * @return texto normalizado
+     */
+    public static String normalizar(String texto) {
+        String minusculas = texto.trim().toLowerCase(Locale.ROOT);
+        boolean ascii = true;
+        for (int i = 0; i < minusculas.length() && ascii; i++) {
+            ascii = minusculas.charAt(i) < 128;
+        }
+        if (ascii) {
+            return minusculas;
+        }
+        return Normalizer.normalize(minusculas, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    }
+
+    @Override
+    public int compareTo(Periodo otro) {
+        return mes.compareTo(otro.mes);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj || (obj instanceof Periodo otro && mes.equals(otro.mes));
+    }
+
+    @Override
+    public int hashCode() {
+        return mes.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return etiqueta;
+    }
+
+    /** Al deserializar se devuelve la instancia internada. */
+    private Object readResolve() {
+        return of(mes);
+    }
+}
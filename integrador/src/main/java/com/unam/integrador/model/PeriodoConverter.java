@@ -0,0 +1,24 @@
+package com.unam.integrador.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Persiste un {@link Periodo} como la fecha del primer día del mes,
+ * de modo que la columna es de tipo DATE y se puede indexar y ordenar.
+ */
+@Converter
+public class PeriodoConverter implements AttributeConverter<Periodo, LocalDate> {
+
+    @Override
+    public LocalDate convertToDatabaseColumn(Periodo periodo) {
+        return periodo == null ? null : periodo.getPrimerDia();
+    }
+
+    @Override
+    public Periodo convertToEntityAttribute(LocalDate fecha) {
+        return Periodo.de(fecha);
+    }
+}
@@ -0,0 +1,120 @@
+package com.unam.integrador.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Precio de un servicio vigente a partir de un período de facturación.
+ * 
+ * Conforma el historial (tarifario) de precios de cada servicio: un cambio de
+ * precio se registra como una nueva fila con su período de vigencia, que puede
+ * ser futuro. Si se indica un servicio contratado, el precio aplica solo a ese
+ * contrato (precio especial) y tiene prioridad sobre el precio general.
+ * 
+ * El precio a facturar se resuelve al emitir la factura según el período
+ * facturado, sin necesidad de actualizar los contratos existentes.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(indexes = @Index(name = "idx_precio_servicio_vigencia", columnList = "servicio_id, vigencia_desde"))
+public class PrecioServicio {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    /**
+     * Servicio al que corresponde el precio.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "servicio_id", nullable = false)
+    @ToString.Exclude
+    private Servicio servicio;
+    
+    /**
+     * Contrato al que aplica el precio especial (null si es el precio general del servicio).
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "servicio_contratado_id")
+    @ToString.Exclude
+    private ServicioContratado servicioContratado;
+    
+    /**
+     * Primer día del período a partir del cual rige el precio.
+     */
+    @Column(name = "vigencia_desde", nullable = false)
+    private LocalDate vigenciaDesde;
+    
+    /**
+     * Precio sin IVA vigente desde el período indicado.
+     */
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal precio;
+    
+    /**
+     * Fecha y hora en que se registró el precio.
+     */
+    @Column(nullable = false)
+    private LocalDateTime fechaRegistro;
+    
+    /**
+     * Crea un precio vigente para un servicio (o para un contrato puntual).
+     * 
+     * @param servicio el servicio (obligatorio)
+     * @param servicioContratado el contrato con precio especial, o null para el precio general
+     * @param vigenciaDesde fecha desde la que rige; se normaliza al primer día del mes
+     * @param precio el precio sin IVA (mayor a cero)
+     * @throws IllegalArgumentException si algún dato es inválido
+     */
+    public PrecioServicio(Servicio servicio, ServicioContratado servicioContratado,
+                          LocalDate vigenciaDesde, BigDecimal precio) {
+        if (servicio == null) {
+            throw new IllegalArgumentException("El servicio es obligatorio");
+        }
+        if (vigenciaDesde == null) {
+            throw new IllegalArgumentException("El período de vigencia es obligatorio");
+        }
+        if (precio == null || precio.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("El precio debe ser mayor a cero");
+        }
+        if (servicioContratado != null && !esMismoServicio(servicioContratado.getServicio(), servicio)) {
+            throw new IllegalArgumentException("El contrato no corresponde al servicio indicado");
+        }
+        this.servicio = servicio;
+        this.servicioContratado = servicioContratado;
+        this.vigenciaDesde = vigenciaDesde.withDayOfMonth(1);
+        this.precio = precio;
+        this.fechaRegistro = LocalDateTime.now();
+    }
+    
+    private static boolean esMismoServicio(Servicio a, Servicio b) {
+        if (a == b) {
+            return true;
+        }
+        return a != null && a.getIDServicio() != null && a.getIDServicio().equals(b.getIDServicio());
+    }
+    
+    /**
+     * Indica si es un precio especial para un contrato puntual.
+     * @return true si aplica solo a un servicio contratado
+     */
+    public boolean esPrecioEspecial() {
+        return servicioContratado != null;
+    }
+}
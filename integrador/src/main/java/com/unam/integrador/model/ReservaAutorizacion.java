@@ -0,0 +1,52 @@
+package com.unam.integrador.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reserva de una serie de comprobantes para la autorización fiscal.
+ *
+ * Existe una fila por clase de comprobante y serie. La corrida de
+ * autorización que va a enviar una serie la reserva hasta un momento dado y
+ * la libera al terminar; mientras tanto las demás instancias la saltean, de
+ * modo que cada comprobante se envía una sola vez y los lotes de la serie
+ * salen en orden. Si la corrida se interrumpe, la serie vuelve a estar
+ * disponible al vencer la reserva.
+ */
+@Getter
+@Entity
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ReservaAutorizacion {
+
+    /**
+     * Clase de comprobante y serie (por ejemplo "FACTURA-1").
+     */
+    @Id
+    @Column(length = 30)
+    private String serie;
+
+    /**
+     * Fin de la reserva vigente; null si la serie está libre.
+     */
+    @Column(name = "reservada_hasta")
+    private LocalDateTime reservadaHasta;
+
+    public ReservaAutorizacion(String serie) {
+        this.serie = serie;
+    }
+
+    /**
+     * Reserva la serie para la corrida en curso.
+     *
+     * @param hasta fin de la reserva
+     */
+    public void reservar(LocalDateTime hasta) {
+        this.reservadaHasta = hasta;
+    }
+}
@@ -0,0 +1,31 @@
+package com.unam.integrador.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila de numeración de una serie de facturas.
+ *
+ * Con el bloqueo de esta fila la numeración queda correlativa y sin
+ * duplicados aunque emitan varias instancias de la aplicación a la vez, y una
+ * facturación masiva puede reservar sus números en una transacción corta y
+ * armar sus facturas sin tener la serie bloqueada.
+ */
+@Getter
+@Entity
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SerieFactura extends NumeracionSerie {
+
+    /**
+     * Número de serie.
+     */
+    @Id
+    private Integer serie;
+
+    public SerieFactura(int serie) {
+        this.serie = serie;
+    }
+}
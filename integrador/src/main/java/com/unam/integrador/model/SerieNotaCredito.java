@@ -0,0 +1,31 @@
+package com.unam.integrador.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila de numeración de una serie de notas de crédito.
+ *
+ * Es independiente de la numeración de facturas de la misma serie: una
+ * anulación no bloquea las emisiones. Con el bloqueo de esta fila dos
+ * anulaciones simultáneas (de esta u otra instancia) nunca obtienen el mismo
+ * número.
+ */
+@Getter
+@Entity
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SerieNotaCredito extends NumeracionSerie {
+
+    /**
+     * Número de serie.
+     */
+    @Id
+    private Integer serie;
+
+    public SerieNotaCredito(int serie) {
+        this.serie = serie;
+    }
+}
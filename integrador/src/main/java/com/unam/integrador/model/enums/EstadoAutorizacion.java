@@ -0,0 +1,40 @@
+package com.unam.integrador.model.enums;
+
+/**
+ * Enum que representa el estado de autorización fiscal (CAE) de un comprobante.
+ */
+public enum EstadoAutorizacion {
+    
+    /**
+     * Comprobante emitido que todavía no fue autorizado.
+     */
+    PENDIENTE("Pendiente de autorización"),
+    
+    /**
+     * Comprobante con CAE asignado.
+     */
+    AUTORIZADA("Autorizada"),
+    
+    /**
+     * Comprobante rechazado por el organismo fiscal.
+     */
+    RECHAZADA("Rechazada"),
+    
+    /**
+     * Comprobante emitido antes de incorporar la autorización fiscal; no se envía al organismo.
+     */
+    NO_REQUERIDA("Sin autorización electrónica");
+    
+    /**
+     * Descripción legible del estado para mostrar en la interfaz de usuario.
+     */
+    private final String descripcion;
+    
+    EstadoAutorizacion(String descripcion) {
+        this.descripcion = descripcion;
+    }
+    
+    public String getDescripcion() {
+        return this.descripcion;
+    }
+}
@@ -0,0 +1,36 @@
+package com.unam.integrador.model.enums;
+
+/**
+ * Enum que representa el estado de un grupo de clientes en la cola de
+ * facturación masiva distribuida.
+ */
+public enum EstadoItemFacturacion {
+    
+    /**
+     * Grupo a la espera de una instancia que lo procese.
+     */
+    PENDIENTE("Pendiente"),
+    
+    /**
+     * Grupo facturado.
+     */
+    COMPLETADO("Completado"),
+    
+    /**
+     * Grupo que agotó sus intentos; no se vuelve a tomar de la cola.
+     */
+    FALLIDO("Fallido");
+    
+    /**
+     * Descripción legible del estado para mostrar en la interfaz de usuario.
+     */
+    private final String descripcion;
+    
+    EstadoItemFacturacion(String descripcion) {
+        this.descripcion = descripcion;
+    }
+    
+    public String getDescripcion() {
+        return this.descripcion;
+    }
+}
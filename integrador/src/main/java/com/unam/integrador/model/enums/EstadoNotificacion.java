@@ -0,0 +1,35 @@
+package com.unam.integrador.model.enums;
+
+/**
+ * Enum que representa el estado de envío de una notificación por correo.
+ */
+public enum EstadoNotificacion {
+    
+    /**
+     * Notificación registrada que todavía no se envió (o se reintentará).
+     */
+    PENDIENTE("Pendiente de envío"),
+    
+    /**
+     * Notificación entregada al servidor de correo.
+     */
+    ENVIADA("Enviada"),
+    
+    /**
+     * Notificación descartada tras agotar los reintentos.
+     */
+    FALLIDA("Fallida");
+    
+    /**
+     * Descripción legible del estado para mostrar en la interfaz de usuario.
+     */
+    private final String descripcion;
+    
+    EstadoNotificacion(String descripcion) {
+        this.descripcion = descripcion;
+    }
+    
+    public String getDescripcion() {
+        return this.descripcion;
+    }
+}
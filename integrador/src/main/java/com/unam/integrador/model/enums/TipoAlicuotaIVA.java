@@ -23,10 +23,13 @@ public enum TipoAlicuotaIVA {
     EXENTO(BigDecimal.ZERO, "Exento");
     
     private final BigDecimal porcentaje;
+    private final BigDecimal tasa;
     private final String descripcion;
     
     TipoAlicuotaIVA(BigDecimal porcentaje, String descripcion) {
         this.porcentaje = porcentaje;
+        // 21 -> 0.21, 10.5 -> 0.105; exento queda en 0 (escala 0)
+        this.tasa = porcentaje.signum() == 0 ? BigDecimal.ZERO : porcentaje.movePointLeft(2);
         this.descripcion = descripcion;
     }
     
@@ -38,6 +41,14 @@ public enum TipoAlicuotaIVA {
         return porcentaje;
     }
     
+    /**
+     * Obtiene la alícuota como fracción decimal, precalculada (ej: 0.21 para IVA 21%).
+     * @return Tasa de IVA a multiplicar por el subtotal
+     */
+    public BigDecimal getTasa() {
+        return tasa;
+    }
+    
     public String getDescripcion() {
         return descripcion;
     }
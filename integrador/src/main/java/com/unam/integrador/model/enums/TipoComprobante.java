@@ -0,0 +1,9 @@
+package com.unam.integrador.model.enums;
+
+/**
+ * Enum que define las clases de comprobante que se envían a autorizar.
+ */
+public enum TipoComprobante {
+    FACTURA,
+    NOTA_CREDITO
+}
@@ -0,0 +1,30 @@
+package com.unam.integrador.model.enums;
+
+/**
+ * Enum que representa el hecho de negocio que origina una notificación al cliente.
+ */
+public enum TipoNotificacion {
+    
+    /**
+     * Se emitió una factura para el cliente.
+     */
+    FACTURA_EMITIDA("Factura emitida"),
+    
+    /**
+     * Se generó un recibo por un pago del cliente.
+     */
+    RECIBO_GENERADO("Recibo generado");
+    
+    /**
+     * Descripción legible del tipo para mostrar en la interfaz de usuario.
+     */
+    private final String descripcion;
+    
+    TipoNotificacion(String descripcion) {
+        this.descripcion = descripcion;
+    }
+    
+    public String getDescripcion() {
+        return this.descripcion;
+    }
+}
@@ -0,0 +1,31 @@
+package com.unam.integrador.model.enums;
+
+/**
+ * Enum que representa por qué un cliente quedó sin facturar en una
+ * facturación masiva.
+ */
+public enum TipoOmisionFacturacion {
+    
+    /**
+     * El cliente no correspondía facturarse (ya facturado o sin servicios facturables).
+     */
+    OMITIDO("Omitido"),
+    
+    /**
+     * Falló el armado de la factura del cliente.
+     */
+    ERROR("Error");
+    
+    /**
+     * Descripción legible del tipo para mostrar en la interfaz de usuario.
+     */
+    private final String descripcion;
+    
+    TipoOmisionFacturacion(String descripcion) {
+        this.descripcion = descripcion;
+    }
+    
+    public String getDescripcion() {
+        return this.descripcion;
+    }
+}
@@ -0,0 +1,35 @@
+package com.unam.integrador.repositories;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.unam.integrador.model.BloqueoPeriodo;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+/**
+ * Repositorio de las filas de bloqueo por período de facturación.
+ */
+@Repository
+public interface BloqueoPeriodoRepository extends JpaRepository<BloqueoPeriodo, LocalDate> {
+
+    /**
+     * Bloquea la fila del período sin esperar (FOR UPDATE NOWAIT).
+     * Falla de inmediato si otra transacción ya la tiene bloqueada.
+     *
+     * @param periodoFecha primer día del período
+     * @return la fila bloqueada, si existe
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "0"))
+    @Query("SELECT b FROM BloqueoPeriodo b WHERE b.periodoFecha = :periodoFecha")
+    Optional<BloqueoPeriodo> bloquear(@Param("periodoFecha") LocalDate periodoFecha);
+}
@@ -2,10 +2,18 @@ package com.unam.integrador.repositories;
 
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.unam.integrador.dto.ClienteListadoDTO;
+import com.unam.integrador.dto.ClienteSugerenciaDTO;
+import com.unam.integrador.dto.TotalAgrupadoDTO;
 import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.enums.EstadoCuenta;
 
 /**
  * Repositorio para la gestión de cuentas de clientes.
@@ -44,4 +52,103 @@ public interface CuentaClienteRepositorie extends JpaRepository<CuentaCliente, L
      */
     java.util.List<CuentaCliente> findByNombreContainingIgnoreCaseOrCuitDniContainingOrEmailContainingIgnoreCase(
         String nombre, String cuitDni, String email);
+    
+    /**
+     * Obtiene sugerencias de clientes para el autocompletado.
+     * Devuelve una proyección liviana (sin cargar entidades) priorizando
+     * las coincidencias por prefijo de nombre y luego por orden alfabético.
+     * La cantidad de resultados se limita con el Pageable recibido.
+     * @param criterio texto a buscar en nombre, CUIT/DNI o email (en minúsculas)
+     * @param pageable límite de resultados
+     * @return lista de sugerencias ordenadas por relevancia
+     */
+    @Query("SELECT new com.unam.integrador.dto.ClienteSugerenciaDTO(c.id, c.nombre, c.cuitDni, c.email) "
+         + "FROM CuentaCliente c "
+         + "WHERE LOWER(c.nombre) LIKE CONCAT('%', :criterio, '%') "
+         + "   OR c.cuitDni LIKE CONCAT('%', :criterio, '%') "
+         + "   OR LOWER(c.email) LIKE CONCAT('%', :criterio, '%') "
+         + "ORDER BY CASE WHEN LOWER(c.nombre) LIKE CONCAT(:criterio, '%') THEN 0 ELSE 1 END, c.nombre")
+    java.util.List<ClienteSugerenciaDTO> buscarSugerencias(@Param("criterio") String criterio, Pageable pageable);
+    
+    /**
+     * Obtiene los datos de búsqueda de todos los clientes (ID, nombre, CUIT/DNI y email)
+     * sin cargar las entidades completas. Se usa para construir el índice de búsqueda.
+     * @return lista con los datos de búsqueda de cada cliente
+     */
+    @Query("SELECT new com.unam.integrador.dto.ClienteSugerenciaDTO(c.id, c.nombre, c.cuitDni, c.email) "
+         + "FROM CuentaCliente c")
+    java.util.List<ClienteSugerenciaDTO> findAllParaIndice();
+    
+    /**
+     * Obtiene una página del listado de clientes como proyección liviana.
+     * El orden (nombre, CUIT/DNI, saldo) se aplica en la base de datos a partir del Pageable.
+     * @param pageable página, tamaño y orden solicitados
+     * @return página de clientes para el listado
+     */
+    @Query(value = "SELECT new com.unam.integrador.dto.ClienteListadoDTO(c.id, c.nombre, c.cuitDni, c.email, "
+                 + "c.telefono, c.condicionIva, c.estado, c.saldo) FROM CuentaCliente c",
+           countQuery = "SELECT COUNT(c) FROM CuentaCliente c")
+    Page<ClienteListadoDTO> findListado(Pageable pageable);
+    
+    /**
+     * Obtiene el contenido de una página del listado restringida a los clientes
+     * indicados (por ejemplo, los IDs devueltos por el índice de búsqueda).
+     * No ejecuta consulta de conteo: el total es la cantidad de IDs.
+     * @param ids IDs de los clientes a incluir
+     * @param pageable página, tamaño y orden solicitados
+     * @return clientes de la página solicitada
+     */
+    @Query("SELECT new com.unam.integrador.dto.ClienteListadoDTO(c.id, c.nombre, c.cuitDni, c.email, "
+         + "c.telefono, c.condicionIva, c.estado, c.saldo) FROM CuentaCliente c WHERE c.id IN :ids")
+    java.util.List<ClienteListadoDTO> findListadoByIdIn(@Param("ids") java.util.Collection<Long> ids, Pageable pageable);
+    
+    /**
+     * Condición de la búsqueda parcial por nombre, CUIT/DNI o email sin
+     * distinguir mayúsculas ni acentos, como el índice de búsqueda en memoria.
+     */
+    String COINCIDE_CRITERIO =
+           "TRANSLATE(LOWER(c.nombre), 'áàâäãéèêëíìîïóòôöõúùûüñç', 'aaaaaeeeeiiiiooooouuuunc') "
+         + "     LIKE CONCAT('%', :criterio, '%') "
+         + "OR c.cuitDni LIKE CONCAT('%', :criterio, '%') "
+         + "OR TRANSLATE(LOWER(c.email), 'áàâäãéèêëíìîïóòôöõúùûüñç', 'aaaaaeeeeiiiiooooouuuunc') "
+         + "     LIKE CONCAT('%', :criterio, '%')";
+    
+    /**
+     * Obtiene una página del listado filtrada por nombre, CUIT/DNI o email (búsqueda parcial).
+     * @param criterio texto a buscar (en minúsculas y sin acentos)
+     * @param pageable página, tamaño y orden solicitados
+     * @return página de clientes para el listado
+     */
+    @Query(value = "SELECT new com.unam.integrador.dto.ClienteListadoDTO(c.id, c.nombre, c.cuitDni, c.email, "
+                 + "c.telefono, c.condicionIva, c.estado, c.saldo) FROM CuentaCliente c "
+                 + "WHERE " + COINCIDE_CRITERIO,
+           countQuery = "SELECT COUNT(c) FROM CuentaCliente c WHERE " + COINCIDE_CRITERIO)
+    Page<ClienteListadoDTO> buscarListado(@Param("criterio") String criterio, Pageable pageable);
+    
+    /**
+     * Cantidad de clientes y saldo de cuenta agrupados por estado de cuenta.
+     * @return una fila por estado con clientes
+     */
+    @Query("SELECT new com.unam.integrador.dto.TotalAgrupadoDTO(c.estado, COUNT(c), SUM(c.saldo)) "
+         + "FROM CuentaCliente c GROUP BY c.estado")
+    java.util.List<TotalAgrupadoDTO> totalizarPorEstado();
+    
+    /**
+     * IDs de los clientes activos con al menos un servicio contratado activo,
+     * en orden ascendente. Usado para dividir la facturación masiva distribuida.
+     * @return IDs de clientes facturables
+     */
+    @Query("SELECT DISTINCT c.id FROM CuentaCliente c JOIN c.serviciosContratados sc "
+         + "WHERE c.estado = com.unam.integrador.model.enums.EstadoCuenta.ACTIVA AND sc.activo = true "
+         + "ORDER BY c.id")
+    java.util.List<Long> findIdsFacturables();
+    
+    /**
+     * Clientes en un rango de IDs con el estado indicado.
+     * @param desde primer ID (inclusive)
+     * @param hasta último ID (inclusive)
+     * @param estado estado de cuenta
+     * @return clientes ordenados por ID
+     */
+    java.util.List<CuentaCliente> findByIdBetweenAndEstadoOrderByIdAsc(Long desde, Long hasta, EstadoCuenta estado);
 }
@@ -3,10 +3,26 @@ package com.unam.integrador.repositories;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import com.unam.integrador.dto.AntiguedadDeudaDTO;
+import com.unam.integrador.dto.ComprobanteAutorizacionDTO;
+import com.unam.integrador.dto.FilaIngresoDTO;
+import com.unam.integrador.dto.LineaLibroIvaDTO;
+import com.unam.integrador.dto.TotalAgrupadoDTO;
 import com.unam.integrador.model.Factura;
 import com.unam.integrador.model.enums.EstadoFactura;
 import com.unam.integrador.model.enums.TipoFactura;
@@ -87,4 +103,231 @@ public interface FacturaRepository extends JpaRepository<Factura, Long> {
      * @return true si existe una factura no anulada para ese cliente y período
      */
     boolean existsByClienteIdAndPeriodoAndEstadoNot(Long clienteId, LocalDate periodo, EstadoFactura estado);
+    
+    /**
+     * Obtiene los IDs de clientes que ya tienen una factura no anulada en el período.
+     * Usado por la facturación masiva para resolver en una sola consulta
+     * qué clientes deben omitirse.
+     * @param periodo Período de facturación (primer día del mes)
+     * @return Conjunto de IDs de clientes ya facturados en el período
+     */
+    @Query("SELECT f.cliente.id FROM Factura f "
+         + "WHERE f.periodo = :periodo AND f.estado <> com.unam.integrador.model.enums.EstadoFactura.ANULADA")
+    Set<Long> findClienteIdsConFacturaNoAnuladaEnPeriodo(@Param("periodo") LocalDate periodo);
+    
+    /**
+     * Igual que {@link #findClienteIdsConFacturaNoAnuladaEnPeriodo(LocalDate)},
+     * restringido a un rango de IDs de cliente (un grupo de la facturación
+     * masiva distribuida).
+     * @param periodo Período de facturación (primer día del mes)
+     * @param desde primer ID de cliente (inclusive)
+     * @param hasta último ID de cliente (inclusive)
+     * @return Conjunto de IDs de clientes del rango ya facturados en el período
+     */
+    @Query("SELECT f.cliente.id FROM Factura f "
+         + "WHERE f.periodo = :periodo AND f.cliente.id BETWEEN :desde AND :hasta "
+         + "AND f.estado <> com.unam.integrador.model.enums.EstadoFactura.ANULADA")
+    Set<Long> findClienteIdsConFacturaNoAnuladaEnPeriodoEntre(@Param("periodo") LocalDate periodo,
+                                                              @Param("desde") Long desde,
+                                                              @Param("hasta") Long hasta);
+    
+    /**
+     * Líneas del Libro IVA Ventas de las facturas emitidas entre dos fechas:
+     * una fila por factura y alícuota, con el neto y el IVA sumados en la base.
+     * Se recorre como Stream (con tamaño de lectura acotado) para no cargar el
+     * mes completo en memoria; debe consumirse dentro de una transacción y cerrarse.
+     * @param desde primer día (inclusive)
+     * @param hasta último día (inclusive)
+     * @return líneas ordenadas por fecha, serie, número y alícuota
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.unam.integrador.dto.LineaLibroIvaDTO("
+         + "  f.fechaEmision, false, f.tipo, f.serie, f.nroFactura, c.cuitDni, c.razonSocial, "
+         + "  i.alicuotaIVA, SUM(i.subtotal), SUM(i.montoIva), f.descuento) "
+         + "FROM Factura f JOIN f.cliente c JOIN f.detalleFactura i "
+         + "WHERE f.fechaEmision BETWEEN :desde AND :hasta "
+         + "GROUP BY f.idFactura, f.fechaEmision, f.tipo, f.serie, f.nroFactura, "
+         + "  c.cuitDni, c.razonSocial, i.alicuotaIVA, f.descuento "
+         + "ORDER BY f.fechaEmision, f.serie, f.nroFactura, i.alicuotaIVA")
+    Stream<LineaLibroIvaDTO> streamLibroIvaFacturas(@Param("desde") LocalDate desde,
+                                                   @Param("hasta") LocalDate hasta);
+    
+    /**
+     * Facturas para exportar, con el cliente ya cargado. Los filtros en null se
+     * ignoran. Se recorre como Stream (cursor de solo avance con tamaño de
+     * lectura acotado); debe consumirse dentro de una transacción y cerrarse.
+     * @param estado estado de la factura (null: todos)
+     * @param tipo tipo de factura (null: todos)
+     * @param periodo período facturado (null: todos)
+     * @param desde fecha de emisión mínima (null: sin límite)
+     * @param hasta fecha de emisión máxima (null: sin límite)
+     * @return facturas ordenadas por ID
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT f FROM Factura f JOIN FETCH f.cliente "
+         + "WHERE (:estado IS NULL OR f.estado = :estado) "
+         + "  AND (:tipo IS NULL OR f.tipo = :tipo) "
+         + "  AND (:periodo IS NULL OR f.periodo = :periodo) "
+         + "  AND (:desde IS NULL OR f.fechaEmision >= :desde) "
+         + "  AND (:hasta IS NULL OR f.fechaEmision <= :hasta) "
+         + "ORDER BY f.idFactura")
+    Stream<Factura> streamParaExportar(@Param("estado") EstadoFactura estado,
+                                       @Param("tipo") TipoFactura tipo,
+                                       @Param("periodo") LocalDate periodo,
+                                       @Param("desde") LocalDate desde,
+                                       @Param("hasta") LocalDate hasta);
+
+    /**
+     * Deuda por antigüedad de todos los clientes, calculada en una sola consulta
+     * agrupada sobre las facturas impagas. Los límites de cada tramo se reciben
+     * como fechas de vencimiento, ya calculadas a partir de la fecha de referencia.
+     * @param estados estados de factura impaga
+     * @param hoy fecha de referencia (vencidas: vencimiento anterior o igual)
+     * @param limite30 hoy menos 30 días
+     * @param limite60 hoy menos 60 días
+     * @param limite90 hoy menos 90 días
+     * @return una fila por cliente con saldo pendiente
+     */
+    @Query(CONSULTA_ANTIGUEDAD_DEUDA
+         + "GROUP BY c.id, c.nombre, c.cuitDni")
+    List<AntiguedadDeudaDTO> calcularAntiguedadDeuda(@Param("estados") List<EstadoFactura> estados,
+                                                     @Param("hoy") LocalDate hoy,
+                                                     @Param("limite30") LocalDate limite30,
+                                                     @Param("limite60") LocalDate limite60,
+                                                     @Param("limite90") LocalDate limite90);
+    
+    /**
+     * Deuda por antigüedad de un cliente (misma consulta que
+     * {@link #calcularAntiguedadDeuda}, restringida a un cliente).
+     * @return la fila del cliente, o vacío si no tiene saldo pendiente
+     */
+    @Query(CONSULTA_ANTIGUEDAD_DEUDA
+         + "AND c.id = :clienteId "
+         + "GROUP BY c.id, c.nombre, c.cuitDni")
+    Optional<AntiguedadDeudaDTO> calcularAntiguedadDeudaCliente(@Param("clienteId") Long clienteId,
+                                                                @Param("estados") List<EstadoFactura> estados,
+                                                                @Param("hoy") LocalDate hoy,
+                                                                @Param("limite30") LocalDate limite30,
+                                                                @Param("limite60") LocalDate limite60,
+                                                                @Param("limite90") LocalDate limite90);
+    
+    /**
+     * Proyección y filtros comunes de las consultas de antigüedad de deuda.
+     */
+    String CONSULTA_ANTIGUEDAD_DEUDA =
+          "SELECT new com.unam.integrador.dto.AntiguedadDeudaDTO(c.id, c.nombre, c.cuitDni, "
+        + "  SUM(CASE WHEN f.fechaVencimiento > :hoy THEN f.saldoPendiente ELSE 0 END), "
+        + "  SUM(CASE WHEN f.fechaVencimiento <= :hoy AND f.fechaVencimiento >= :limite30 "
+        + "           THEN f.saldoPendiente ELSE 0 END), "
+        + "  SUM(CASE WHEN f.fechaVencimiento < :limite30 AND f.fechaVencimiento >= :limite60 "
+        + "           THEN f.saldoPendiente ELSE 0 END), "
+        + "  SUM(CASE WHEN f.fechaVencimiento < :limite60 AND f.fechaVencimiento >= :limite90 "
+        + "           THEN f.saldoPendiente ELSE 0 END), "
+        + "  SUM(CASE WHEN f.fechaVencimiento < :limite90 THEN f.saldoPendiente ELSE 0 END)) "
+        + "FROM Factura f JOIN f.cliente c "
+        + "WHERE f.estado IN :estados AND f.saldoPendiente > 0 ";
+    
+    /**
+     * Cantidad de facturas y saldo pendiente agrupados por estado.
+     * @return una fila por estado con facturas
+     */
+    @Query("SELECT new com.unam.integrador.dto.TotalAgrupadoDTO(f.estado, COUNT(f), SUM(f.saldoPendiente)) "
+         + "FROM Factura f GROUP BY f.estado")
+    List<TotalAgrupadoDTO> totalizarPorEstado();
+    
+    /**
+     * Cuenta las facturas de un lote que están en un estado.
+     * @param loteId ID del lote de facturación
+     * @param estado estado buscado
+     * @return cantidad de facturas
+     */
+    long countByLoteFacturacionIdAndEstado(Long loteId, EstadoFactura estado);
+    
+    /**
+     * Items facturados para la instantánea de ingresos por servicio: facturas no
+     * anuladas desde un período y con ID mayor a la última factura ya cargada.
+     * @param desde primer período a incluir
+     * @param facturaIdMayorA ID de la última factura cargada (0 para cargar todo)
+     * @return filas ordenadas por ID de factura
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.unam.integrador.dto.FilaIngresoDTO("
+         + "  f.idFactura, f.periodo, s.IDServicio, i.subtotal, i.montoIva, f.descuento) "
+         + "FROM Factura f JOIN f.detalleFactura i LEFT JOIN i.servicio s "
+         + "WHERE f.periodo >= :desde AND f.idFactura > :facturaIdMayorA "
+         + "  AND f.estado <> com.unam.integrador.model.enums.EstadoFactura.ANULADA "
+         + "ORDER BY f.idFactura")
+    Stream<FilaIngresoDTO> streamFilasIngreso(@Param("desde") LocalDate desde,
+                                              @Param("facturaIdMayorA") long facturaIdMayorA);
+    
+    /**
+     * Series con facturas pendientes de autorización fiscal.
+     * @return series ordenadas
+     */
+    @Query("SELECT DISTINCT f.serie FROM Factura f "
+         + "WHERE f.autorizacion.estado = com.unam.integrador.model.enums.EstadoAutorizacion.PENDIENTE "
+         + "ORDER BY f.serie")
+    List<Integer> findSeriesPendientesAutorizacion();
+    
+    /**
+     * Facturas de una serie pendientes de autorización fiscal (sin CAE ni
+     * rechazo), con los datos que se envían al organismo.
+     * @param serie serie de las facturas
+     * @param pageable cantidad máxima de facturas a obtener
+     * @return facturas ordenadas por número
+     */
+    @Query("SELECT new com.unam.integrador.dto.ComprobanteAutorizacionDTO("
+         + "  com.unam.integrador.model.enums.TipoComprobante.FACTURA, f.idFactura, f.tipo, f.serie, "
+         + "  f.nroFactura, f.fechaEmision, c.cuitDni, f.total) "
+         + "FROM Factura f JOIN f.cliente c "
+         + "WHERE f.serie = :serie "
+         + "  AND f.autorizacion.estado = com.unam.integrador.model.enums.EstadoAutorizacion.PENDIENTE "
+         + "ORDER BY f.nroFactura")
+    List<ComprobanteAutorizacionDTO> findPendientesAutorizacion(@Param("serie") int serie, Pageable pageable);
+    
+    /**
+     * Marca como {@code NO_REQUERIDA} las facturas emitidas antes de incorporar
+     * la autorización fiscal (sin estado de autorización), para que no se envíen
+     * al organismo.
+     * @return cantidad de facturas actualizadas
+     */
+    @Modifying
+    @Query("UPDATE Factura f "
+         + "SET f.autorizacion.estado = com.unam.integrador.model.enums.EstadoAutorizacion.NO_REQUERIDA "
+         + "WHERE f.autorizacion.estado IS NULL")
+    int marcarAutorizacionNoRequerida();
+
+    /**
+     * Completa periodo_activo en las facturas no anuladas emitidas antes de que
+     * existiera la columna. Si el cliente ya tiene otra factura no anulada para
+     * el mismo período, solo se completa la más antigua para no violar la
+     * restricción única; el resto queda en NULL y se informa aparte.
+     * @return cantidad de facturas actualizadas
+     */
+    @Modifying
+    @Query("UPDATE Factura f SET f.periodoActivo = f.periodo "
+         + "WHERE f.periodoActivo IS NULL "
+         + "  AND f.estado <> com.unam.integrador.model.enums.EstadoFactura.ANULADA "
+         + "  AND NOT EXISTS (SELECT 1 FROM Factura o "
+         + "    WHERE o.cliente = f.cliente AND o.periodo = f.periodo AND o.idFactura <> f.idFactura "
+         + "      AND o.estado <> com.unam.integrador.model.enums.EstadoFactura.ANULADA "
+         + "      AND (o.periodoActivo IS NOT NULL OR o.idFactura < f.idFactura))")
+    int completarPeriodoActivo();
+
+    /**
+     * Cuenta las facturas no anuladas que siguen sin periodo_activo
+     * (períodos duplicados anteriores a la restricción única).
+     */
+    @Query("SELECT COUNT(f) FROM Factura f WHERE f.periodoActivo IS NULL "
+         + "AND f.estado <> com.unam.integrador.model.enums.EstadoFactura.ANULADA")
+    long countSinPeriodoActivo();
 }
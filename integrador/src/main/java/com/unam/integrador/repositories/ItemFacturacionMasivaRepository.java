@@ -0,0 +1,59 @@
+package com.unam.integrador.repositories;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.unam.integrador.model.ItemFacturacionMasiva;
+
+import jakarta.persistence.LockModeType;
+
+/**
+ * Repositorio de la cola de facturación masiva distribuida.
+ */
+@Repository
+public interface ItemFacturacionMasivaRepository extends JpaRepository<ItemFacturacionMasiva, Long> {
+
+    /**
+     * Toma el próximo grupo pendiente y lo bloquea hasta el fin de la
+     * transacción. Los grupos que ya tomó otra transacción se saltean, de modo
+     * que cada instancia obtiene uno distinto sin esperar.
+     *
+     * @return el grupo tomado, o vacío si no queda ninguno libre
+     */
+    @Query(value = "SELECT * FROM item_facturacion_masiva WHERE estado = 'PENDIENTE' "
+                 + "ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<ItemFacturacionMasiva> reclamarSiguiente();
+
+    /**
+     * Bloquea el grupo (FOR UPDATE), esperando si otra transacción lo está procesando.
+     *
+     * @param id ID del grupo
+     * @return el grupo bloqueado, si existe
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM ItemFacturacionMasiva i WHERE i.id = :id")
+    Optional<ItemFacturacionMasiva> bloquear(@Param("id") Long id);
+
+    /**
+     * Obtiene los grupos de un lote en orden.
+     *
+     * @param loteId ID del lote
+     * @return grupos del lote
+     */
+    List<ItemFacturacionMasiva> findByLoteIdOrderByIdAsc(Long loteId);
+
+    /**
+     * Cuenta los trabajadores (instancia e hilo) que procesaron grupos de un lote.
+     *
+     * @param loteId ID del lote
+     * @return trabajadores distintos
+     */
+    @Query("SELECT COUNT(DISTINCT i.procesadoPor) FROM ItemFacturacionMasiva i WHERE i.lote.id = :loteId")
+    long countTrabajadoresByLoteId(@Param("loteId") Long loteId);
+}
@@ -1,13 +1,19 @@
 package com.unam.integrador.repositories;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.unam.integrador.model.LoteFacturacion;
+import com.unam.integrador.model.Periodo;
 
 /**
  * Repositorio para la gestión de lotes de facturación masiva.
@@ -19,10 +25,10 @@ public interface LoteFacturacionRepository extends JpaRepository<LoteFacturacion
     /**
      * Busca un lote por el período de facturación (fecha).
      * 
-     * @param periodoFecha Fecha del período (primer día del mes)
+     * @param periodo Período facturado
      * @return Lote si existe
      */
-    Optional<LoteFacturacion> findByPeriodoFecha(LocalDate periodoFecha);
+    Optional<LoteFacturacion> findByPeriodoFacturado(Periodo periodo);
     
     /**
      * Busca todos los lotes que no están anulados.
@@ -41,8 +47,91 @@ public interface LoteFacturacionRepository extends JpaRepository<LoteFacturacion
     /**
      * Verifica si existe un lote no anulado para un período específico.
      * 
-     * @param periodoFecha Fecha del período
+     * @param periodo Período facturado
      * @return true si existe un lote activo para ese período
      */
-    boolean existsByPeriodoFechaAndAnuladoFalse(LocalDate periodoFecha);
+    boolean existsByPeriodoFacturadoAndAnuladoFalse(Periodo periodo);
+    
+    /**
+     * Obtiene el último lote ejecutado.
+     * 
+     * @return el lote más reciente, si hay alguno
+     */
+    Optional<LoteFacturacion> findFirstByOrderByFechaEjecucionDesc();
+    
+    /**
+     * Obtiene el período de un lote (primer día del mes) sin cargar la entidad.
+     * 
+     * @param id ID del lote
+     * @return fecha del período facturado, si el lote existe
+     */
+    @Query(value = "SELECT periodo_fecha FROM lote_facturacion WHERE id = :id", nativeQuery = true)
+    Optional<LocalDate> findPeriodoFechaById(@Param("id") Long id);
+    
+    /**
+     * Suma al lote el resultado y los tiempos de un grupo de la facturación
+     * distribuida y descuenta un grupo pendiente. Es una actualización atómica
+     * en la base, segura aunque varias instancias terminen grupos al mismo tiempo.
+     * 
+     * @param id ID del lote
+     * @param cantidad facturas generadas en el grupo
+     * @param monto monto facturado en el grupo
+     * @param clientes clientes revisados en el grupo
+     * @param seleccionMs milisegundos de selección de clientes del grupo
+     * @param armadoMs milisegundos de armado de facturas del grupo
+     * @param numeracionMs milisegundos de reserva de los números de factura del grupo
+     * @param persistenciaMs milisegundos de escritura de las facturas del grupo
+     * @return filas actualizadas
+     */
+    @Modifying
+    @Query("UPDATE LoteFacturacion l SET l.cantidadFacturas = l.cantidadFacturas + :cantidad, "
+         + "l.montoTotal = l.montoTotal + :monto, l.itemsPendientes = l.itemsPendientes - 1, "
+         + "l.clientesProcesados = l.clientesProcesados + :clientes, "
+         + "l.duracionSeleccionMs = l.duracionSeleccionMs + :seleccionMs, "
+         + "l.duracionArmadoMs = l.duracionArmadoMs + :armadoMs, "
+         + "l.duracionNumeracionMs = COALESCE(l.duracionNumeracionMs, 0) + :numeracionMs, "
+         + "l.duracionPersistenciaMs = l.duracionPersistenciaMs + :persistenciaMs, "
+         + "l.maximoFacturasPorGrupo = CASE WHEN l.maximoFacturasPorGrupo < :cantidad "
+         + "THEN :cantidad ELSE l.maximoFacturasPorGrupo END "
+         + "WHERE l.id = :id")
+    int registrarItemCompletado(@Param("id") Long id, @Param("cantidad") int cantidad,
+                                @Param("monto") BigDecimal monto, @Param("clientes") int clientes,
+                                @Param("seleccionMs") long seleccionMs, @Param("armadoMs") long armadoMs,
+                                @Param("numeracionMs") long numeracionMs,
+                                @Param("persistenciaMs") long persistenciaMs);
+    
+    /**
+     * Descuenta un grupo pendiente que agotó sus intentos y lo cuenta como fallido.
+     * 
+     * @param id ID del lote
+     * @return filas actualizadas
+     */
+    @Modifying
+    @Query("UPDATE LoteFacturacion l SET l.itemsPendientes = l.itemsPendientes - 1, "
+         + "l.itemsFallidos = COALESCE(l.itemsFallidos, 0) + 1 WHERE l.id = :id")
+    int registrarItemFallido(@Param("id") Long id);
+    
+    /**
+     * Lee los grupos pendientes del lote directamente de la base.
+     * 
+     * @param id ID del lote
+     * @return grupos pendientes (null si el lote no es distribuido)
+     */
+    @Query(value = "SELECT items_pendientes FROM lote_facturacion WHERE id = :id", nativeQuery = true)
+    Integer findItemsPendientesById(@Param("id") Long id);
+    
+    /**
+     * Registra la finalización de la facturación distribuida.
+     * 
+     * @param id ID del lote
+     * @param fecha momento de finalización
+     * @param totalMs milisegundos desde el inicio del lote
+     * @param trabajadores trabajadores que procesaron grupos del lote
+     * @return filas actualizadas
+     */
+    @Modifying
+    @Query("UPDATE LoteFacturacion l SET l.fechaFinalizacion = :fecha, l.duracionTotalMs = :totalMs, "
+         + "l.trabajadores = :trabajadores WHERE l.id = :id")
+    int finalizar(@Param("id") Long id, @Param("fecha") LocalDateTime fecha,
+                  @Param("totalMs") long totalMs, @Param("trabajadores") int trabajadores);
 }
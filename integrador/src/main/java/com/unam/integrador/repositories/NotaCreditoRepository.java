@@ -1,8 +1,23 @@
 package com.unam.integrador.repositories;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import com.unam.integrador.dto.ComprobanteAutorizacionDTO;
+import com.unam.integrador.dto.LineaLibroIvaDTO;
 import com.unam.integrador.model.NotaCredito;
 
 /**
@@ -20,4 +35,62 @@ public interface NotaCreditoRepository extends JpaRepository<NotaCredito, Long>
      * @return Última nota de crédito de esa serie ordenada por número descendente, o null si no hay registros
      */
     NotaCredito findFirstBySerieOrderByNroNotaCreditoDesc(int serie);
+    
+    /**
+     * Líneas del Libro IVA Ventas de las notas de crédito emitidas entre dos fechas.
+     * Como cada nota de crédito anula su factura completa, los importes se
+     * discriminan por alícuota a partir de los items de la factura anulada.
+     * @param desde primer día (inclusive)
+     * @param hasta último día (inclusive)
+     * @return líneas (importes en positivo) ordenadas por fecha, serie, número y alícuota
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.unam.integrador.dto.LineaLibroIvaDTO("
+         + "  n.fechaEmision, true, n.tipo, n.serie, n.nroNotaCredito, c.cuitDni, c.razonSocial, "
+         + "  i.alicuotaIVA, SUM(i.subtotal), SUM(i.montoIva), f.descuento) "
+         + "FROM NotaCredito n JOIN n.factura f JOIN f.cliente c JOIN f.detalleFactura i "
+         + "WHERE n.fechaEmision BETWEEN :desde AND :hasta "
+         + "GROUP BY n.id, n.fechaEmision, n.tipo, n.serie, n.nroNotaCredito, "
+         + "  c.cuitDni, c.razonSocial, i.alicuotaIVA, f.descuento "
+         + "ORDER BY n.fechaEmision, n.serie, n.nroNotaCredito, i.alicuotaIVA")
+    Stream<LineaLibroIvaDTO> streamLibroIvaNotasCredito(@Param("desde") LocalDate desde,
+                                                        @Param("hasta") LocalDate hasta);
+    
+    /**
+     * Series con notas de crédito pendientes de autorización fiscal.
+     * @return series ordenadas
+     */
+    @Query("SELECT DISTINCT n.serie FROM NotaCredito n "
+         + "WHERE n.autorizacion.estado = com.unam.integrador.model.enums.EstadoAutorizacion.PENDIENTE "
+         + "ORDER BY n.serie")
+    List<Integer> findSeriesPendientesAutorizacion();
+    
+    /**
+     * Notas de crédito de una serie pendientes de autorización fiscal (sin CAE ni rechazo).
+     * @param serie serie de las notas de crédito
+     * @param pageable cantidad máxima de notas de crédito a obtener
+     * @return notas de crédito ordenadas por número
+     */
+    @Query("SELECT new com.unam.integrador.dto.ComprobanteAutorizacionDTO("
+         + "  com.unam.integrador.model.enums.TipoComprobante.NOTA_CREDITO, n.id, n.tipo, n.serie, "
+         + "  n.nroNotaCredito, n.fechaEmision, c.cuitDni, n.monto) "
+         + "FROM NotaCredito n JOIN n.factura f JOIN f.cliente c "
+         + "WHERE n.serie = :serie "
+         + "  AND n.autorizacion.estado = com.unam.integrador.model.enums.EstadoAutorizacion.PENDIENTE "
+         + "ORDER BY n.nroNotaCredito")
+    List<ComprobanteAutorizacionDTO> findPendientesAutorizacion(@Param("serie") int serie, Pageable pageable);
+    
+    /**
+     * Marca como {@code NO_REQUERIDA} las notas de crédito emitidas antes de
+     * incorporar la autorización fiscal (sin estado de autorización).
+     * @return cantidad de notas de crédito actualizadas
+     */
+    @Modifying
+    @Query("UPDATE NotaCredito n "
+         + "SET n.autorizacion.estado = com.unam.integrador.model.enums.EstadoAutorizacion.NO_REQUERIDA "
+         + "WHERE n.autorizacion.estado IS NULL")
+    int marcarAutorizacionNoRequerida();
 }
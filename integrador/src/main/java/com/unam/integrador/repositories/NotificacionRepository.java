@@ -0,0 +1,37 @@
+package com.unam.integrador.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.unam.integrador.model.Notificacion;
+import com.unam.integrador.model.enums.EstadoNotificacion;
+
+/**
+ * Repositorio de la bandeja de salida de notificaciones por correo.
+ */
+@Repository
+public interface NotificacionRepository extends JpaRepository<Notificacion, Long> {
+
+    /**
+     * Toma el próximo lote de notificaciones pendientes que ya pueden
+     * intentarse, bloqueándolas (FOR UPDATE SKIP LOCKED): si varias instancias
+     * despachan a la vez, cada una obtiene filas distintas sin esperar.
+     *
+     * @param momento instante de referencia: solo las que ya pueden intentarse
+     * @param limite tamaño máximo del lote
+     * @return lote de notificaciones bloqueadas hasta el fin de la transacción
+     */
+    @Query(value = "SELECT * FROM notificacion WHERE estado = 'PENDIENTE' AND proximo_intento <= :momento "
+                 + "ORDER BY id LIMIT :limite FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Notificacion> reclamarPendientes(@Param("momento") LocalDateTime momento, @Param("limite") int limite);
+
+    /**
+     * Cuenta las notificaciones en un estado.
+     */
+    long countByEstado(EstadoNotificacion estado);
+}
@@ -0,0 +1,42 @@
+package com.unam.integrador.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.unam.integrador.dto.TotalAgrupadoDTO;
+import com.unam.integrador.model.OmisionFacturacion;
+
+/**
+ * Repositorio de los clientes omitidos en las facturaciones masivas.
+ * Lo usan los trabajadores de la facturación distribuida, que registran las
+ * omisiones de cada grupo sin cargar la lista completa del lote, y el detalle
+ * del lote, que las muestra por página.
+ */
+@Repository
+public interface OmisionFacturacionRepository extends JpaRepository<OmisionFacturacion, Long> {
+
+    /**
+     * Cuenta las omisiones de un lote por tipo.
+     *
+     * @param loteId ID del lote
+     * @return cantidad por tipo (solo los tipos con omisiones)
+     */
+    @Query("SELECT new com.unam.integrador.dto.TotalAgrupadoDTO(o.tipo, COUNT(o)) "
+         + "FROM OmisionFacturacion o WHERE o.lote.id = :loteId GROUP BY o.tipo")
+    List<TotalAgrupadoDTO> contarPorTipo(@Param("loteId") Long loteId);
+
+    /**
+     * Obtiene una página de omisiones de un lote en el orden en que se
+     * registraron, sin consulta de conteo (el total sale de contarPorTipo).
+     *
+     * @param loteId ID del lote
+     * @param pageable página a obtener
+     * @return omisiones de la página
+     */
+    List<OmisionFacturacion> findByLoteIdOrderByIdAsc(Long loteId, Pageable pageable);
+}
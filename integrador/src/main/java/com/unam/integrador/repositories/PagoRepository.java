@@ -1,10 +1,21 @@
 package com.unam.integrador.repositories;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import com.unam.integrador.dto.FilaReciboDTO;
+import com.unam.integrador.dto.TotalAgrupadoDTO;
 import com.unam.integrador.model.Pago;
 
 /**
@@ -21,4 +32,37 @@ public interface PagoRepository extends JpaRepository<Pago, Long> {
      * @return Lista de pagos con ese número de recibo
      */
     List<Pago> findByNumeroRecibo(String numeroRecibo);
+    
+    /**
+     * Cantidad e importe de los pagos de una fecha agrupados por método de pago.
+     * @param fecha fecha de pago
+     * @return una fila por método de pago utilizado
+     */
+    @Query("SELECT new com.unam.integrador.dto.TotalAgrupadoDTO(p.metodoPago, COUNT(p), SUM(p.monto)) "
+         + "FROM Pago p WHERE p.fechaPago = :fecha GROUP BY p.metodoPago")
+    List<TotalAgrupadoDTO> totalizarPorMetodo(@Param("fecha") LocalDate fecha);
+    
+    /**
+     * Pagos de un rango de fechas con su desglose por factura y cliente, para
+     * exportar recibos. Las filas de un mismo recibo llegan consecutivas (orden
+     * por número de recibo y luego por pago); los pagos sin número de recibo
+     * quedan al final, cada uno como recibo propio.
+     * Se recorre como Stream con tamaño de lectura acotado; debe consumirse
+     * dentro de una transacción y cerrarse.
+     * @param desde primera fecha de pago (inclusive)
+     * @param hasta última fecha de pago (inclusive)
+     * @return una fila por detalle de pago (o por pago, si no tiene detalles)
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.unam.integrador.dto.FilaReciboDTO("
+         + "  p.numeroRecibo, p.idPago, p.fechaPago, p.monto, p.metodoPago, p.referencia, "
+         + "  f.idFactura, f.serie, f.nroFactura, d.montoAplicado, c.id, c.nombre, c.cuitDni) "
+         + "FROM Pago p LEFT JOIN p.detallesPago d LEFT JOIN d.factura f LEFT JOIN f.cliente c "
+         + "WHERE p.fechaPago BETWEEN :desde AND :hasta "
+         + "ORDER BY p.numeroRecibo NULLS LAST, p.idPago, d.idDetallePago")
+    Stream<FilaReciboDTO> streamFilasRecibo(@Param("desde") LocalDate desde,
+                                            @Param("hasta") LocalDate hasta);
 }
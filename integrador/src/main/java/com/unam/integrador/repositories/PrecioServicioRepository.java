@@ -0,0 +1,74 @@
+package com.unam.integrador.repositories;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.unam.integrador.model.PrecioServicio;
+
+/**
+ * Repositorio para gestionar el historial de precios de los servicios.
+ */
+@Repository
+public interface PrecioServicioRepository extends JpaRepository<PrecioServicio, Long> {
+    
+    /**
+     * Condición de las consultas de precios vigentes: no hay otro precio del
+     * mismo servicio y contrato (o general) que rija después, hasta el período.
+     */
+    String SIN_VIGENCIA_POSTERIOR = "NOT EXISTS (SELECT 1 FROM PrecioServicio o "
+         + "WHERE o.servicio = p.servicio "
+         + "  AND (o.servicioContratado = p.servicioContratado "
+         + "       OR (o.servicioContratado IS NULL AND p.servicioContratado IS NULL)) "
+         + "  AND o.vigenciaDesde <= :periodo "
+         + "  AND (o.vigenciaDesde > p.vigenciaDesde OR (o.vigenciaDesde = p.vigenciaDesde AND o.id > p.id)))";
+    
+    /**
+     * Obtiene el precio que rige en el período indicado para cada servicio y
+     * para cada contrato con precio especial: la última vigencia igual o
+     * anterior al período (a igual vigencia, la última registrada).
+     * Se usa para armar la tabla de precios en memoria al facturar.
+     * @param periodo período a facturar
+     * @return un precio por servicio y por contrato con precio especial
+     */
+    @Query("SELECT p FROM PrecioServicio p WHERE p.vigenciaDesde <= :periodo AND " + SIN_VIGENCIA_POSTERIOR)
+    List<PrecioServicio> findVigentesEn(@Param("periodo") LocalDate periodo);
+    
+    /**
+     * Igual que {@link #findVigentesEn(LocalDate)} pero solo para los servicios indicados
+     * (por ejemplo, los contratados por el cliente que se factura).
+     * @param periodo período a facturar
+     * @param servicioIds IDs de los servicios
+     * @return un precio por servicio y por contrato con precio especial
+     */
+    @Query("SELECT p FROM PrecioServicio p WHERE p.servicio.IDServicio IN :servicioIds "
+         + "AND p.vigenciaDesde <= :periodo AND " + SIN_VIGENCIA_POSTERIOR)
+    List<PrecioServicio> findVigentesEnPorServicios(@Param("periodo") LocalDate periodo,
+                                                    @Param("servicioIds") Collection<Long> servicioIds);
+    
+    /**
+     * Obtiene los precios generales vigentes en la fecha que todavía no se
+     * reflejan en el precio de lista del servicio (precios programados cuyo
+     * período ya comenzó).
+     * @param fecha fecha de referencia (normalmente hoy)
+     * @return precios generales a aplicar, con su servicio
+     */
+    @Query("SELECT p FROM PrecioServicio p JOIN FETCH p.servicio s "
+         + "WHERE p.servicioContratado IS NULL AND p.vigenciaDesde <= :periodo AND p.precio <> s.precio "
+         + "AND " + SIN_VIGENCIA_POSTERIOR)
+    List<PrecioServicio> findGeneralesSinAplicar(@Param("periodo") LocalDate fecha);
+    
+    /**
+     * Obtiene el historial de precios de un servicio, del más reciente al más antiguo.
+     * @param servicioId ID del servicio
+     * @return historial de precios del servicio (generales y especiales)
+     */
+    @Query("SELECT p FROM PrecioServicio p WHERE p.servicio.IDServicio = :servicioId "
+         + "ORDER BY p.vigenciaDesde DESC, p.id DESC")
+    List<PrecioServicio> findHistorialPorServicio(@Param("servicioId") Long servicioId);
+}
@@ -0,0 +1,45 @@
+package com.unam.integrador.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.unam.integrador.model.ReservaAutorizacion;
+
+/**
+ * Repositorio de las reservas por serie de la autorización fiscal.
+ */
+@Repository
+public interface ReservaAutorizacionRepository extends JpaRepository<ReservaAutorizacion, String> {
+
+    /**
+     * Toma las series indicadas que no tienen una reserva vigente,
+     * bloqueándolas (FOR UPDATE SKIP LOCKED): si otra instancia está
+     * reservando la misma serie, se saltea sin esperar.
+     *
+     * @param series series candidatas
+     * @param momento instante de referencia: las reservas vencidas se consideran libres
+     * @return series libres, bloqueadas hasta el fin de la transacción
+     */
+    @Query(value = "SELECT * FROM reserva_autorizacion WHERE serie IN (:series) "
+                 + "AND (reservada_hasta IS NULL OR reservada_hasta <= :momento) "
+                 + "ORDER BY serie FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ReservaAutorizacion> reclamarLibres(@Param("series") Collection<String> series,
+                                             @Param("momento") LocalDateTime momento);
+
+    /**
+     * Libera las reservas de las series indicadas.
+     *
+     * @param series series reservadas por la corrida
+     * @return cantidad de filas liberadas
+     */
+    @Modifying
+    @Query("UPDATE ReservaAutorizacion r SET r.reservadaHasta = NULL WHERE r.serie IN :series")
+    int liberar(@Param("series") Collection<String> series);
+}
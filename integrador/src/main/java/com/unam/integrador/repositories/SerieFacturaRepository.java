@@ -0,0 +1,31 @@
+package com.unam.integrador.repositories;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.unam.integrador.model.SerieFactura;
+
+import jakarta.persistence.LockModeType;
+
+/**
+ * Repositorio de las filas de numeración por serie de factura.
+ */
+@Repository
+public interface SerieFacturaRepository extends JpaRepository<SerieFactura, Integer> {
+
+    /**
+     * Bloquea la fila de la serie (FOR UPDATE), esperando si otra transacción
+     * la tiene bloqueada.
+     *
+     * @param serie número de serie
+     * @return la fila bloqueada, si existe
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SerieFactura s WHERE s.serie = :serie")
+    Optional<SerieFactura> bloquear(@Param("serie") Integer serie);
+}
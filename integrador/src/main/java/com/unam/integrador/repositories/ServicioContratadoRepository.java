@@ -0,0 +1,43 @@
+package com.unam.integrador.repositories;
+
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+
+import com.unam.integrador.dto.FilaContratoDTO;
+import com.unam.integrador.model.ServicioContratado;
+
+/**
+ * Repositorio para gestionar operaciones de persistencia de ServicioContratado.
+ */
+@Repository
+public interface ServicioContratadoRepository extends JpaRepository<ServicioContratado, Long> {
+    
+    /**
+     * Cuenta los contratos activos de un servicio.
+     * @param servicioId ID del servicio
+     * @return cantidad de contratos activos
+     */
+    @Query("SELECT COUNT(sc) FROM ServicioContratado sc WHERE sc.servicio.IDServicio = :servicioId AND sc.activo = true")
+    long contarActivosPorServicio(@Param("servicioId") Long servicioId);
+    
+    /**
+     * Servicio, alta y baja de todos los contratos, para calcular las bajas por período.
+     * @return una fila por contrato
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.unam.integrador.dto.FilaContratoDTO(sc.servicio.IDServicio, sc.fechaAlta, sc.fechaBaja) "
+         + "FROM ServicioContratado sc")
+    Stream<FilaContratoDTO> streamFilasContrato();
+}
@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.unam.integrador.model.Servicio;
@@ -35,4 +37,15 @@ public interface ServicioRepository extends JpaRepository<Servicio, Long> {
      */
     List<Servicio> findByNombreContainingIgnoreCaseOrDescripcionContainingIgnoreCase(
         String nombre, String descripcion);
+    
+    /**
+     * Busca los servicios activos que el cliente no tiene contratados activamente.
+     * Se resuelve con un anti-join (NOT EXISTS) en la base de datos.
+     * @param clienteId ID del cliente
+     * @return Lista de servicios disponibles para contratar
+     */
+    @Query("SELECT s FROM Servicio s WHERE s.activo = true AND NOT EXISTS ("
+         + "SELECT sc FROM ServicioContratado sc "
+         + "WHERE sc.servicio = s AND sc.cliente.id = :clienteId AND sc.activo = true)")
+    List<Servicio> findDisponiblesParaCliente(@Param("clienteId") Long clienteId);
 }
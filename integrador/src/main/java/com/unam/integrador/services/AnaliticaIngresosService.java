@@ -0,0 +1,520 @@
+package com.unam.integrador.services;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.unam.integrador.dto.BajaServicioDTO;
+import com.unam.integrador.dto.FilaContratoDTO;
+import com.unam.integrador.dto.FilaIngresoDTO;
+import com.unam.integrador.dto.IngresoServicioDTO;
+import com.unam.integrador.eventos.FacturasAnuladas;
+import com.unam.integrador.model.Periodo;
+import com.unam.integrador.model.Servicio;
+import com.unam.integrador.repositories.FacturaRepository;
+import com.unam.integrador.repositories.ServicioContratadoRepository;
+import com.unam.integrador.repositories.ServicioRepository;
+
+/**
+ * Análisis de ingresos por servicio y período, y de bajas de contratos.
+ *
+ * Mantiene en memoria una instantánea columnar de los items facturados
+ * (período, servicio, neto e IVA en centavos) y de los contratos (servicio,
+ * mes de alta y de baja) en arreglos de primitivos. Las consultas agrupan en
+ * memoria recorriendo esos arreglos en paralelo, sin consultar la base.
+ *
+ * La instantánea se actualiza en forma incremental (solo las facturas nuevas)
+ * cuando supera {@code analitica.intervalo-refresco}. Los ids se asignan al
+ * insertar y no al confirmar, así que una factura puede hacerse visible después
+ * de otra con id mayor: cada actualización vuelve a leer los últimos
+ * {@code analitica.margen-facturas} ids y descarta las facturas ya agregadas.
+ * Además se recarga completa
+ * cada {@code analitica.recarga-completa} o al anular facturas. Para acotar la
+ * memoria solo se cargan los últimos {@code analitica.meses-historial} meses y
+ * como máximo {@code analitica.max-filas} items; al superarlo se descartan los
+ * períodos más antiguos. Los rangos consultados se acotan a los meses de la
+ * instantánea, así el tamaño de los acumuladores no depende del pedido.
+ */
+@Service
+public class AnaliticaIngresosService {
+
+    /** Posición reservada para los items sin servicio asociado. */
+    private static final int SIN_SERVICIO = 0;
+
+    /** Mes de baja de los contratos vigentes. */
+    private static final int SIN_BAJA = Integer.MAX_VALUE;
+
+    private static final BigDecimal CIEN = BigDecimal.valueOf(100);
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    @Autowired
+    private ServicioContratadoRepository servicioContratadoRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${analitica.meses-historial:36}")
+    private int mesesHistorial = 36;
+
+    @Value("${analitica.max-filas:2000000}")
+    private int maxFilas = 2_000_000;
+
+    @Value("${analitica.intervalo-refresco:PT5M}")
+    private Duration intervaloRefresco = Duration.ofMinutes(5);
+
+    @Value("${analitica.recarga-completa:PT1H}")
+    private Duration recargaCompleta = Duration.ofHours(1);
+
+    @Value("${analitica.margen-facturas:5000}")
+    private long margenFacturas = 5000;
+
+    private volatile Instantanea instantanea;
+
+    /**
+     * Ingresos netos e IVA por servicio y período.
+     * @param desde primer período (inclusive)
+     * @param hasta último período (inclusive)
+     * @return una fila por servicio y período con ingresos, ordenadas por período y servicio
+     * @throws IllegalArgumentException si falta un extremo o {@code hasta} es anterior a {@code desde}
+     */
+    public List<IngresoServicioDTO> ingresosPorServicio(YearMonth desde, YearMonth hasta) {
+        validarRango(desde, hasta);
+        Instantanea inst = obtenerInstantanea();
+        int mesDesde = mes(max(desde, desdeMes(inst.primerMes)));
+        int meses = mes(min(hasta, desdeMes(inst.ultimoMes))) - mesDesde + 1;
+        if (meses <= 0) {
+            return List.of();
+        }
+        Items items = inst.items;
+        int servicios = inst.servicioIds.length;
+
+        // Acumuladores [servicio][mes] -> (neto, iva), combinados entre hilos
+        long[] acumulado = IntStream.range(0, items.cantidad).parallel()
+            .filter(i -> items.meses[i] >= mesDesde && items.meses[i] < mesDesde + meses)
+            .collect(() -> new long[servicios * meses * 2],
+                (acc, i) -> {
+                    int celda = (items.servicios[i] * meses + items.meses[i] - mesDesde) * 2;
+                    acc[celda] += items.netos[i];
+                    acc[celda + 1] += items.ivas[i];
+                },
+                AnaliticaIngresosService::sumar);
+
+        List<IngresoServicioDTO> resultado = new ArrayList<>();
+        for (int m = 0; m < meses; m++) {
+            String periodo = Periodo.of(desdeMes(mesDesde + m)).getEtiqueta();
+            for (int s = 0; s < servicios; s++) {
+                int celda = (s * meses + m) * 2;
+                if (acumulado[celda] != 0 || acumulado[celda + 1] != 0) {
+                    resultado.add(new IngresoServicioDTO(inst.servicioIds[s], inst.nombres[s], periodo,
+                        BigDecimal.valueOf(acumulado[celda], 2), BigDecimal.valueOf(acumulado[celda + 1], 2)));
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Contratos vigentes al inicio de cada período y bajas durante el período, por servicio.
+     * @param desde primer período (inclusive)
+     * @param hasta último período (inclusive)
+     * @return una fila por servicio y período con contratos, ordenadas por período y servicio
+     * @throws IllegalArgumentException si falta un extremo o {@code hasta} es anterior a {@code desde}
+     */
+    public List<BajaServicioDTO> bajasPorServicio(YearMonth desde, YearMonth hasta) {
+        validarRango(desde, hasta);
+        Instantanea inst = obtenerInstantanea();
+        int mesDesde = mes(max(desde, desdeMes(inst.primerMes)));
+        int meses = mes(min(hasta, desdeMes(inst.ultimoMes))) - mesDesde + 1;
+        if (meses <= 0) {
+            return List.of();
+        }
+        Contratos contratos = inst.contratos;
+        int servicios = inst.servicioIds.length;
+
+        // Acumuladores [servicio][mes] -> (activos al inicio, bajas)
+        long[] acumulado = IntStream.range(0, contratos.cantidad).parallel()
+            .collect(() -> new long[servicios * meses * 2],
+                (acc, i) -> {
+                    int base = contratos.servicios[i] * meses;
+                    int alta = contratos.altas[i];
+                    int baja = contratos.bajas[i];
+                    // Vigente al inicio del mes m si el alta es anterior y la baja no
+                    int primero = Math.max(alta + 1, mesDesde);
+                    int ultimo = Math.min(baja, mesDesde + meses - 1);
+                    for (int m = primero; m <= ultimo; m++) {
+                        acc[(base + m - mesDesde) * 2]++;
+                    }
+                    if (baja >= mesDesde && baja < mesDesde + meses) {
+                        acc[(base + baja - mesDesde) * 2 + 1]++;
+                    }
+                },
+                AnaliticaIngresosService::sumar);
+
+        List<BajaServicioDTO> resultado = new ArrayList<>();
+        for (int m = 0; m < meses; m++) {
+            String periodo = Periodo.of(desdeMes(mesDesde + m)).getEtiqueta();
+            for (int s = 0; s < servicios; s++) {
+                int celda = (s * meses + m) * 2;
+                if (acumulado[celda] != 0 || acumulado[celda + 1] != 0) {
+                    resultado.add(new BajaServicioDTO(inst.servicioIds[s], inst.nombres[s], periodo,
+                        (int) acumulado[celda], (int) acumulado[celda + 1]));
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Cantidad de items cargados en la instantánea (0 si todavía no se cargó).
+     */
+    public int getCantidadFilas() {
+        Instantanea inst = instantanea;
+        return inst != null ? inst.items.cantidad : 0;
+    }
+
+    /**
+     * Primer período incluido en la instantánea (null si todavía no se cargó).
+     */
+    public YearMonth getPrimerPeriodo() {
+        Instantanea inst = instantanea;
+        return inst != null ? desdeMes(inst.primerMes) : null;
+    }
+
+    /**
+     * Descarta la instantánea para que la próxima consulta la recargue completa.
+     * Las anulaciones de facturas ya cargadas la descartan luego de confirmarse.
+     */
+    @TransactionalEventListener(classes = FacturasAnuladas.class, fallbackExecution = true)
+    public void invalidar() {
+        instantanea = null;
+    }
+
+    /**
+     * Agrega a la instantánea las facturas emitidas desde la última carga
+     * (o la carga completa si todavía no existe).
+     */
+    public synchronized void refrescar() {
+        Instantanea actual = instantanea;
+        LocalDateTime ahora = LocalDateTime.now();
+        if (actual == null || actual.cargadaEn.plus(recargaCompleta).isBefore(ahora)) {
+            instantanea = cargar(null, ahora);
+        } else {
+            instantanea = cargar(actual, ahora);
+        }
+    }
+
+    private Instantanea obtenerInstantanea() {
+        Instantanea actual = instantanea;
+        if (actual == null || actual.refrescadaEn.plus(intervaloRefresco).isBefore(LocalDateTime.now())) {
+            refrescar();
+            actual = instantanea;
+        }
+        return actual;
+    }
+
+    /**
+     * Carga la instantánea: completa si {@code anterior} es null, o agregando
+     * las facturas de la ventana final de ids que todavía no se agregaron.
+     */
+    private Instantanea cargar(Instantanea anterior, LocalDateTime ahora) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        return tx.execute(status -> {
+            // Índice denso de servicios: la posición 0 es "sin servicio"
+            List<Servicio> catalogo = servicioRepository.findAll();
+            long[] servicioIds = new long[catalogo.size() + 1];
+            String[] nombres = new String[catalogo.size() + 1];
+            Map<Long, Integer> posiciones = new HashMap<>();
+            nombres[SIN_SERVICIO] = "Sin servicio asociado";
+            for (int i = 0; i < catalogo.size(); i++) {
+                Servicio servicio = catalogo.get(i);
+                servicioIds[i + 1] = servicio.getIDServicio();
+                nombres[i + 1] = servicio.getNombre();
+                posiciones.put(servicio.getIDServicio(), i + 1);
+            }
+
+            int primerMes = mes(YearMonth.now().minusMonths(mesesHistorial - 1L));
+            // Último mes consultable: el actual o el de la factura más adelantada
+            int ultimoMes = mes(YearMonth.now());
+            Items items;
+            long ultimaFactura;
+            long[] cargadas;
+            long desdeFactura;
+            if (anterior == null) {
+                items = new Items(1024);
+                ultimaFactura = 0;
+                cargadas = new long[0];
+                desdeFactura = 0;
+            } else {
+                // Las posiciones de servicio pueden cambiar si se agregaron servicios
+                items = anterior.items.copiarReindexando(anterior.servicioIds, posiciones);
+                ultimaFactura = anterior.ultimaFactura;
+                cargadas = anterior.recientes;
+                desdeFactura = Math.max(0, ultimaFactura - margenFacturas);
+                primerMes = Math.max(primerMes, anterior.primerMes);
+                ultimoMes = Math.max(ultimoMes, anterior.ultimoMes);
+            }
+
+            LongStream.Builder nuevas = LongStream.builder();
+            long anteriorId = -1;
+            try (Stream<FilaIngresoDTO> filas = facturaRepository.streamFilasIngreso(
+                    primerDia(primerMes), desdeFactura)) {
+                for (FilaIngresoDTO fila : (Iterable<FilaIngresoDTO>) filas::iterator) {
+                    long facturaId = fila.getFacturaId();
+                    if (Arrays.binarySearch(cargadas, facturaId) >= 0) {
+                        // Agregada en una carga anterior
+                        continue;
+                    }
+                    if (facturaId != anteriorId) {
+                        nuevas.add(facturaId);
+                        anteriorId = facturaId;
+                    }
+                    ultimaFactura = Math.max(ultimaFactura, facturaId);
+                    int mes = mes(fila.getPeriodo());
+                    if (mes < primerMes) {
+                        // Mes ya descartado por el límite de filas
+                        continue;
+                    }
+                    items.agregar(mes, posicion(posiciones, fila.getServicioId()),
+                        centavos(neto(fila)), centavos(fila.getMontoIva()));
+                    ultimoMes = Math.max(ultimoMes, mes);
+                    if (items.cantidad > maxFilas) {
+                        primerMes = items.descartarMesMasAntiguo();
+                    }
+                }
+            }
+
+            Contratos contratos = new Contratos(256);
+            try (Stream<FilaContratoDTO> filas = servicioContratadoRepository.streamFilasContrato()) {
+                for (FilaContratoDTO fila : (Iterable<FilaContratoDTO>) filas::iterator) {
+                    contratos.agregar(posicion(posiciones, fila.getServicioId()), mes(fila.getFechaAlta()),
+                        fila.getFechaBaja() != null ? mes(fila.getFechaBaja()) : SIN_BAJA);
+                }
+            }
+
+            // Facturas agregadas dentro de la ventana que se vuelve a leer
+            long limite = ultimaFactura - margenFacturas;
+            long[] recientes = LongStream.concat(Arrays.stream(cargadas), nuevas.build())
+                .filter(id -> id > limite)
+                .sorted()
+                .toArray();
+
+            LocalDateTime cargadaEn = anterior == null ? ahora : anterior.cargadaEn;
+            return new Instantanea(servicioIds, nombres, items, contratos, primerMes, ultimoMes, ultimaFactura,
+                recientes, cargadaEn, ahora);
+        });
+    }
+
+    private static BigDecimal neto(FilaIngresoDTO fila) {
+        if (fila.getDescuento() == 0) {
+            return fila.getSubtotal();
+        }
+        BigDecimal factor = CIEN.subtract(BigDecimal.valueOf(fila.getDescuento()));
+        return fila.getSubtotal().multiply(factor).divide(CIEN, 2, RoundingMode.HALF_UP);
+    }
+
+    private static long centavos(BigDecimal monto) {
+        return monto == null ? 0 : monto.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    private static int posicion(Map<Long, Integer> posiciones, Long servicioId) {
+        return servicioId == null ? SIN_SERVICIO : posiciones.getOrDefault(servicioId, SIN_SERVICIO);
+    }
+
+    private static void validarRango(YearMonth desde, YearMonth hasta) {
+        if (desde == null || hasta == null || hasta.isBefore(desde)) {
+            throw new IllegalArgumentException("El rango de períodos es inválido");
+        }
+    }
+
+    private static YearMonth max(YearMonth a, YearMonth b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static YearMonth min(YearMonth a, YearMonth b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static void sumar(long[] a, long[] b) {
+        for (int k = 0; k < a.length; k++) {
+            a[k] += b[k];
+        }
+    }
+
+    /** Número de mes absoluto (año * 12 + mes - 1). */
+    private static int mes(YearMonth ym) {
+        return ym.getYear() * 12 + ym.getMonthValue() - 1;
+    }
+
+    private static int mes(LocalDate fecha) {
+        return fecha.getYear() * 12 + fecha.getMonthValue() - 1;
+    }
+
+    private static YearMonth desdeMes(int mes) {
+        return YearMonth.of(mes / 12, mes % 12 + 1);
+    }
+
+    private static LocalDate primerDia(int mes) {
+        return desdeMes(mes).atDay(1);
+    }
+
+    /**
+     * Instantánea inmutable: las actualizaciones crean una nueva.
+     */
+    private static final class Instantanea {
+        private final long[] servicioIds;
+        private final String[] nombres;
+        private final Items items;
+        private final Contratos contratos;
+        private final int primerMes;
+        private final int ultimoMes;
+        private final long ultimaFactura;
+        /** Ids ordenados de las facturas agregadas dentro del margen final. */
+        private final long[] recientes;
+        private final LocalDateTime cargadaEn;
+        private final LocalDateTime refrescadaEn;
+
+        Instantanea(long[] servicioIds, String[] nombres, Items items, Contratos contratos, int primerMes,
+                    int ultimoMes, long ultimaFactura, long[] recientes, LocalDateTime cargadaEn,
+                    LocalDateTime refrescadaEn) {
+            this.servicioIds = servicioIds;
+            this.nombres = nombres;
+            this.items = items;
+            this.contratos = contratos;
+            this.primerMes = primerMes;
+            this.ultimoMes = ultimoMes;
+            this.ultimaFactura = ultimaFactura;
+            this.recientes = recientes;
+            this.cargadaEn = cargadaEn;
+            this.refrescadaEn = refrescadaEn;
+        }
+    }
+
+    /**
+     * Items facturados en columnas: mes, posición de servicio, neto e IVA en centavos.
+     */
+    private static final class Items {
+        private int[] meses;
+        private int[] servicios;
+        private long[] netos;
+        private long[] ivas;
+        private int cantidad = 0;
+
+        Items(int capacidad) {
+            meses = new int[capacidad];
+            servicios = new int[capacidad];
+            netos = new long[capacidad];
+            ivas = new long[capacidad];
+        }
+
+        void agregar(int mes, int servicio, long neto, long iva) {
+            if (cantidad == meses.length) {
+                int nueva = cantidad * 2;
+                meses = Arrays.copyOf(meses, nueva);
+                servicios = Arrays.copyOf(servicios, nueva);
+                netos = Arrays.copyOf(netos, nueva);
+                ivas = Arrays.copyOf(ivas, nueva);
+            }
+            meses[cantidad] = mes;
+            servicios[cantidad] = servicio;
+            netos[cantidad] = neto;
+            ivas[cantidad] = iva;
+            cantidad++;
+        }
+
+        /**
+         * Copia las columnas (con lugar para crecer) traduciendo las posiciones
+         * de servicio al nuevo índice.
+         */
+        Items copiarReindexando(long[] idsAnteriores, Map<Long, Integer> posiciones) {
+            int[] traduccion = new int[idsAnteriores.length];
+            for (int s = 1; s < idsAnteriores.length; s++) {
+                traduccion[s] = posiciones.getOrDefault(idsAnteriores[s], SIN_SERVICIO);
+            }
+            Items copia = new Items(Math.max(1024, cantidad + cantidad / 2));
+            System.arraycopy(meses, 0, copia.meses, 0, cantidad);
+            System.arraycopy(netos, 0, copia.netos, 0, cantidad);
+            System.arraycopy(ivas, 0, copia.ivas, 0, cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                copia.servicios[i] = traduccion[servicios[i]];
+            }
+            copia.cantidad = cantidad;
+            return copia;
+        }
+
+        /**
+         * Elimina las filas del mes más antiguo.
+         * @return el nuevo primer mes
+         */
+        int descartarMesMasAntiguo() {
+            int minimo = Integer.MAX_VALUE;
+            for (int i = 0; i < cantidad; i++) {
+                minimo = Math.min(minimo, meses[i]);
+            }
+            int destino = 0;
+            for (int i = 0; i < cantidad; i++) {
+                if (meses[i] != minimo) {
+                    meses[destino] = meses[i];
+                    servicios[destino] = servicios[i];
+                    netos[destino] = netos[i];
+                    ivas[destino] = ivas[i];
+                    destino++;
+                }
+            }
+            cantidad = destino;
+            return minimo + 1;
+        }
+    }
+
+    /**
+     * Contratos en columnas: posición de servicio, mes de alta y mes de baja.
+     */
+    private static final class Contratos {
+        private int[] servicios;
+        private int[] altas;
+        private int[] bajas;
+        private int cantidad = 0;
+
+        Contratos(int capacidad) {
+            servicios = new int[capacidad];
+            altas = new int[capacidad];
+            bajas = new int[capacidad];
+        }
+
+        void agregar(int servicio, int alta, int baja) {
+            if (cantidad == servicios.length) {
+                int nueva = cantidad * 2;
+                servicios = Arrays.copyOf(servicios, nueva);
+                altas = Arrays.copyOf(altas, nueva);
+                bajas = Arrays.copyOf(bajas, nueva);
+            }
+            servicios[cantidad] = servicio;
+            altas[cantidad] = alta;
+            bajas[cantidad] = baja;
+            cantidad++;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.unam.integrador.services;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.unam.integrador.dto.AntiguedadDeudaDTO;
+import com.unam.integrador.dto.ReporteAntiguedadDeudaDTO;
+import com.unam.integrador.eventos.FacturasAnuladas;
+import com.unam.integrador.eventos.FacturasEmitidas;
+import com.unam.integrador.eventos.PagoRegistrado;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.enums.EstadoFactura;
+import com.unam.integrador.repositories.FacturaRepository;
+
+/**
+ * Servicio del reporte de antigüedad de deuda (saldo pendiente por cliente en
+ * tramos de 0-30, 31-60, 61-90 y más de 90 días de atraso).
+ *
+ * El reporte se calcula con una consulta agrupada y se guarda como instantánea
+ * del día: las lecturas no consultan la base. Al confirmarse un pago o la
+ * emisión o anulación de facturas se recalcula solo la fila del cliente
+ * afectado; la facturación masiva descarta la instantánea completa. Al cambiar
+ * de día la instantánea se recalcula, porque cambian los días de atraso, y
+ * también al superar {@code antiguedad-deuda.antiguedad-maxima}: los eventos
+ * son locales, así que es lo que acota el atraso respecto de los cambios
+ * confirmados en otras instancias. Los
+ * clientes actualizados mientras corre un recálculo completo se vuelven a
+ * calcular antes de publicarlo, para no perder su cambio.
+ */
+@Service
+public class AntiguedadDeudaService {
+
+    /** Estados de factura que tienen saldo por cobrar. */
+    private static final List<EstadoFactura> ESTADOS_IMPAGAS = List.of(
+        EstadoFactura.PENDIENTE,
+        EstadoFactura.VENCIDA,
+        EstadoFactura.PAGADA_PARCIALMENTE
+    );
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    @Value("${antiguedad-deuda.antiguedad-maxima:PT5M}")
+    private Duration antiguedadMaxima = Duration.ofMinutes(5);
+
+    private volatile Instantanea instantanea;
+
+    /** Coordina el recálculo completo con las actualizaciones por cliente. */
+    private final Object cambios = new Object();
+
+    /**
+     * Clientes actualizados durante el recálculo completo en curso, o null si
+     * no hay ninguno. Se accede con el lock de {@link #cambios}.
+     */
+    private Set<Long> actualizadosDuranteRecalculo;
+
+    /** Si se invalidó la instantánea durante el recálculo en curso. */
+    private boolean invalidadaDuranteRecalculo;
+
+    /**
+     * Obtiene el reporte de antigüedad de deuda a la fecha actual.
+     * @return el reporte, con los clientes ordenados por saldo vencido descendente
+     */
+    public ReporteAntiguedadDeudaDTO obtenerReporte() {
+        return obtenerReporte(LocalDate.now());
+    }
+
+    /**
+     * Obtiene el reporte a una fecha de referencia. Si la instantánea vigente es
+     * de otra fecha o superó la antigüedad máxima se recalcula completa.
+     * @param hoy fecha de referencia
+     * @return el reporte
+     */
+    ReporteAntiguedadDeudaDTO obtenerReporte(LocalDate hoy) {
+        Instantanea actual = instantanea;
+        if (!vigente(actual, hoy)) {
+            actual = recalcular(hoy);
+        }
+
+        List<AntiguedadDeudaDTO> filas = new ArrayList<>(actual.porCliente.values());
+        filas.sort(Comparator.comparing(AntiguedadDeudaDTO::getVencido).reversed()
+            .thenComparing(AntiguedadDeudaDTO::getTotal, Comparator.reverseOrder())
+            .thenComparing(AntiguedadDeudaDTO::getNombre));
+        return new ReporteAntiguedadDeudaDTO(actual.fecha, actual.generadoEn, filas);
+    }
+
+    /**
+     * Actualiza los clientes de las facturas emitidas, luego del commit. Una
+     * facturación masiva descarta la instantánea completa.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alEmitirFacturas(FacturasEmitidas evento) {
+        if (evento.isMasiva()) {
+            invalidar();
+        } else {
+            actualizarClientes(evento.getFacturas());
+        }
+    }
+
+    /**
+     * Actualiza los clientes de las facturas anuladas, luego del commit. La
+     * anulación de un lote descarta la instantánea completa.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alAnularFacturas(FacturasAnuladas evento) {
+        if (evento.isMasiva()) {
+            invalidar();
+        } else {
+            actualizarClientes(evento.getFacturas());
+        }
+    }
+
+    /**
+     * Actualiza el cliente que pagó, luego del commit.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alRegistrarPago(PagoRegistrado evento) {
+        actualizarCliente(evento.getCliente().getId());
+    }
+
+    /**
+     * Recalcula la fila de un cliente cuya deuda cambió. Si hay un recálculo
+     * completo en curso, el cliente se vuelve a calcular antes de publicarlo.
+     * @param clienteId ID del cliente
+     */
+    public void actualizarCliente(Long clienteId) {
+        if (clienteId == null) {
+            return;
+        }
+        Instantanea actual;
+        synchronized (cambios) {
+            if (actualizadosDuranteRecalculo != null) {
+                actualizadosDuranteRecalculo.add(clienteId);
+            }
+            actual = instantanea;
+        }
+        if (actual != null) {
+            recalcularCliente(actual, clienteId);
+        }
+    }
+
+    /**
+     * Descarta la instantánea (por ejemplo, luego de una facturación masiva).
+     * Un recálculo completo en curso tampoco se publica.
+     */
+    public void invalidar() {
+        synchronized (cambios) {
+            instantanea = null;
+            if (actualizadosDuranteRecalculo != null) {
+                invalidadaDuranteRecalculo = true;
+            }
+        }
+    }
+
+    private void actualizarClientes(List<Factura> facturas) {
+        facturas.stream()
+            .map(factura -> factura.getCliente().getId())
+            .distinct()
+            .forEach(this::actualizarCliente);
+    }
+
+    private synchronized Instantanea recalcular(LocalDate hoy) {
+        // Otro hilo pudo haberla recalculado mientras se esperaba el lock
+        Instantanea actual = instantanea;
+        if (vigente(actual, hoy)) {
+            return actual;
+        }
+
+        synchronized (cambios) {
+            actualizadosDuranteRecalculo = new HashSet<>();
+            invalidadaDuranteRecalculo = false;
+        }
+        try {
+            Map<Long, AntiguedadDeudaDTO> porCliente = new ConcurrentHashMap<>();
+            for (AntiguedadDeudaDTO fila : facturaRepository.calcularAntiguedadDeuda(ESTADOS_IMPAGAS,
+                    hoy, hoy.minusDays(30), hoy.minusDays(60), hoy.minusDays(90))) {
+                porCliente.put(fila.getClienteId(), fila);
+            }
+            actual = new Instantanea(hoy, LocalDateTime.now(), porCliente);
+
+            // La consulta completa pudo leer la deuda anterior de los clientes
+            // actualizados mientras corría: se recalculan antes de publicarla
+            while (true) {
+                Set<Long> pendientes;
+                synchronized (cambios) {
+                    if (invalidadaDuranteRecalculo) {
+                        return actual;
+                    }
+                    pendientes = actualizadosDuranteRecalculo;
+                    if (pendientes.isEmpty()) {
+                        instantanea = actual;
+                        return actual;
+                    }
+                    actualizadosDuranteRecalculo = new HashSet<>();
+                }
+                for (Long clienteId : pendientes) {
+                    recalcularCliente(actual, clienteId);
+                }
+            }
+        } finally {
+            synchronized (cambios) {
+                actualizadosDuranteRecalculo = null;
+            }
+        }
+    }
+
+    private boolean vigente(Instantanea actual, LocalDate hoy) {
+        return actual != null && actual.fecha.equals(hoy)
+            && actual.generadoEn.plus(antiguedadMaxima).isAfter(LocalDateTime.now());
+    }
+
+    private void recalcularCliente(Instantanea actual, Long clienteId) {
+        LocalDate hoy = actual.fecha;
+        facturaRepository.calcularAntiguedadDeudaCliente(clienteId, ESTADOS_IMPAGAS,
+                hoy, hoy.minusDays(30), hoy.minusDays(60), hoy.minusDays(90))
+            .ifPresentOrElse(
+                fila -> actual.porCliente.put(clienteId, fila),
+                () -> actual.porCliente.remove(clienteId));
+    }
+
+    /**
+     * Reporte calculado para una fecha, indexado por cliente.
+     */
+    private static final class Instantanea {
+        private final LocalDate fecha;
+        private final LocalDateTime generadoEn;
+        private final Map<Long, AntiguedadDeudaDTO> porCliente;
+
+        Instantanea(LocalDate fecha, LocalDateTime generadoEn, Map<Long, AntiguedadDeudaDTO> porCliente) {
+            this.fecha = fecha;
+            this.generadoEn = generadoEn;
+            this.porCliente = porCliente;
+        }
+    }
+}
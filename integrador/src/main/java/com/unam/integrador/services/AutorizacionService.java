@@ -0,0 +1,433 @@
+package com.unam.integrador.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.unam.integrador.dto.ComprobanteAutorizacionDTO;
+import com.unam.integrador.dto.LoteAutorizacionDTO;
+import com.unam.integrador.dto.ResultadoAutorizacionDTO;
+import com.unam.integrador.dto.ResumenAutorizacionDTO;
+import com.unam.integrador.eventos.FacturasAnuladas;
+import com.unam.integrador.eventos.FacturasEmitidas;
+import com.unam.integrador.model.AutorizacionFiscal;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.NotaCredito;
+import com.unam.integrador.model.ReservaAutorizacion;
+import com.unam.integrador.model.enums.TipoComprobante;
+import com.unam.integrador.repositories.FacturaRepository;
+import com.unam.integrador.repositories.NotaCreditoRepository;
+import com.unam.integrador.repositories.ReservaAutorizacionRepository;
+
+/**
+ * Etapa de autorización fiscal (CAE) de facturas y notas de crédito.
+ *
+ * Después de cada emisión, facturación masiva o anulación se programa una
+ * corrida en segundo plano que toma hasta {@code autorizacion.max-por-serie}
+ * comprobantes pendientes de cada serie, los agrupa por clase y serie en lotes
+ * de hasta {@code autorizacion.tamanio-lote} y los envía por {@link ClienteAutorizacion}:
+ * - hay hasta {@code autorizacion.max-en-vuelo} lotes en vuelo a la vez, de
+ *   series distintas; al llegar al límite se espera una respuesta antes de
+ *   enviar el siguiente (contrapresión);
+ * - dentro de una serie los lotes se envían de a uno y en orden de numeración,
+ *   como exige el organismo;
+ * - cada respuesta se guarda en su propia transacción apenas llega.
+ *
+ * Si un lote falla (error de comunicación o tiempo agotado), sus comprobantes
+ * y los siguientes de la misma serie quedan pendientes para la próxima corrida,
+ * que también se ejecuta periódicamente cada {@code autorizacion.intervalo-reintento}.
+ * Si alguna serie tenía más pendientes que el máximo y la corrida no tuvo
+ * fallas, se programa enseguida otra corrida para el resto.
+ *
+ * Antes de leer los pendientes, la corrida reserva cada serie en
+ * {@link ReservaAutorizacion} por {@code autorizacion.duracion-reserva} y la
+ * libera al terminar. Las series reservadas por otra instancia se saltean,
+ * así ningún comprobante se envía dos veces ni se rompe el orden de una serie
+ * aunque todas las instancias reintenten a la vez.
+ *
+ * Las corridas automáticas ({@code autorizacion.automatica}) están apagadas
+ * por defecto y exigen un {@link ClienteAutorizacion} configurado: sin él la
+ * aplicación no arranca, en lugar de dejar los comprobantes en manos de un
+ * simulador.
+ */
+@Service
+public class AutorizacionService implements InitializingBean {
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    @Autowired
+    private NotaCreditoRepository notaCreditoRepository;
+
+    /** Cliente del organismo fiscal; null si no hay ninguno configurado. */
+    @Autowired(required = false)
+    private ClienteAutorizacion clienteAutorizacion;
+
+    @Autowired
+    private ReservaAutorizacionRepository reservaAutorizacionRepository;
+
+    @Autowired
+    private CreadorFilasBloqueo creadorFilasBloqueo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TareasSegundoPlano tareasSegundoPlano;
+
+    /** Cantidad máxima de comprobantes por solicitud. */
+    @Value("${autorizacion.tamanio-lote:100}")
+    private int tamanioLote = 100;
+
+    /** Cantidad máxima de lotes esperando respuesta al mismo tiempo. */
+    @Value("${autorizacion.max-en-vuelo:4}")
+    private int maxEnVuelo = 4;
+
+    /** Cantidad máxima de comprobantes de una serie que se leen por corrida. */
+    @Value("${autorizacion.max-por-serie:1000}")
+    private int maxPorSerie = 1000;
+
+    /** Tiempo máximo de espera de la respuesta de un lote. */
+    @Value("${autorizacion.timeout:PT30S}")
+    private Duration timeout = Duration.ofSeconds(30);
+
+    /**
+     * Tiempo por el que una corrida reserva sus series. Debe superar la
+     * duración de una corrida: si vence antes, otra instancia puede tomar la serie.
+     */
+    @Value("${autorizacion.duracion-reserva:PT10M}")
+    private Duration duracionReserva = Duration.ofMinutes(10);
+
+    /** Si es false, las emisiones y el reintento periódico no disparan corridas. */
+    @Value("${autorizacion.automatica:false}")
+    private boolean automatica;
+
+    private volatile ResumenAutorizacionDTO ultimaCorrida;
+
+    /** Si la última lectura dejó comprobantes pendientes por el máximo por serie. */
+    private volatile boolean quedaronPendientes;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (automatica && clienteAutorizacion == null) {
+            throw new IllegalStateException("autorizacion.automatica requiere un cliente del organismo fiscal: "
+                + "configure autorizacion.cliente o desactive las corridas automáticas");
+        }
+    }
+
+    /**
+     * Programa una corrida de autorización en segundo plano al confirmarse
+     * una emisión o anulación. Varias solicitudes seguidas se resuelven con
+     * una sola corrida.
+     */
+    @TransactionalEventListener(fallbackExecution = true, classes = {FacturasEmitidas.class, FacturasAnuladas.class})
+    public void solicitarAutorizacion() {
+        if (automatica) {
+            programar();
+        }
+    }
+
+    /**
+     * Reintenta periódicamente los comprobantes que quedaron pendientes.
+     */
+    @Scheduled(fixedDelayString = "${autorizacion.intervalo-reintento:60000}",
+               initialDelayString = "${autorizacion.intervalo-reintento:60000}")
+    public void reintentar() {
+        if (automatica) {
+            programar();
+        }
+    }
+
+    /**
+     * Resultado de la última corrida terminada.
+     * @return el resumen, o null si todavía no hubo corridas
+     */
+    public ResumenAutorizacionDTO getUltimaCorrida() {
+        return ultimaCorrida;
+    }
+
+    /**
+     * Envía a autorizar los comprobantes pendientes de las series que no
+     * están reservadas por otra instancia y guarda las respuestas. Bloquea
+     * hasta que todos los lotes respondieron o fallaron.
+     *
+     * @return resumen de la corrida
+     * @throws IllegalStateException si no hay un cliente del organismo fiscal configurado
+     */
+    public synchronized ResumenAutorizacionDTO autorizarPendientes() {
+        if (clienteAutorizacion == null) {
+            throw new IllegalStateException("No hay un cliente del organismo fiscal configurado (autorizacion.cliente)");
+        }
+        Set<String> reservadas = reservarSeries();
+        try {
+            return autorizar(reservadas);
+        } finally {
+            liberarSeries(reservadas);
+        }
+    }
+
+    private ResumenAutorizacionDTO autorizar(Set<String> reservadas) {
+        TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+        Map<String, Deque<LoteAutorizacionDTO>> colas = lectura.execute(estado -> armarColas(reservadas));
+
+        int enviados = 0;
+        int autorizados = 0;
+        int rechazados = 0;
+        int fallidos = 0;
+        List<EnVuelo> enVuelo = new ArrayList<>();
+        Set<String> seriesEnVuelo = new HashSet<>();
+
+        while (!colas.isEmpty() || !enVuelo.isEmpty()) {
+            // Enviar el próximo lote de cada serie libre, hasta el límite en vuelo
+            Iterator<Map.Entry<String, Deque<LoteAutorizacionDTO>>> it = colas.entrySet().iterator();
+            while (it.hasNext() && enVuelo.size() < maxEnVuelo) {
+                Map.Entry<String, Deque<LoteAutorizacionDTO>> cola = it.next();
+                if (seriesEnVuelo.contains(cola.getKey())) {
+                    continue;
+                }
+                LoteAutorizacionDTO lote = cola.getValue().pollFirst();
+                if (cola.getValue().isEmpty()) {
+                    it.remove();
+                }
+                enVuelo.add(new EnVuelo(cola.getKey(), lote, enviar(lote)));
+                seriesEnVuelo.add(cola.getKey());
+                enviados++;
+            }
+
+            // Esperar al menos una respuesta y guardar todas las que ya llegaron
+            CompletableFuture.anyOf(enVuelo.stream().map(e -> e.respuesta).toArray(CompletableFuture[]::new))
+                .exceptionally(error -> null)
+                .join();
+            Iterator<EnVuelo> pendientes = enVuelo.iterator();
+            while (pendientes.hasNext()) {
+                EnVuelo e = pendientes.next();
+                if (!e.respuesta.isDone()) {
+                    continue;
+                }
+                pendientes.remove();
+                seriesEnVuelo.remove(e.serie);
+                List<ResultadoAutorizacionDTO> resultados = resultadosOFalla(e.respuesta);
+                if (resultados == null) {
+                    // Sin respuesta: la serie se corta acá para no romper el orden de numeración
+                    fallidos++;
+                    colas.remove(e.serie);
+                    continue;
+                }
+                int aprobados = guardar(e.lote, resultados);
+                autorizados += aprobados;
+                rechazados += resultados.size() - aprobados;
+            }
+        }
+
+        ResumenAutorizacionDTO resumen = new ResumenAutorizacionDTO(
+            LocalDateTime.now(), enviados, autorizados, rechazados, fallidos);
+        ultimaCorrida = resumen;
+        return resumen;
+    }
+
+    /**
+     * Reserva las series con comprobantes pendientes que no tienen una reserva
+     * vigente. Las filas de reserva se crean la primera vez que una serie tiene
+     * pendientes.
+     *
+     * @return claves de las series reservadas por esta corrida
+     */
+    private Set<String> reservarSeries() {
+        TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+        List<String> series = lectura.execute(estado -> {
+            List<String> pendientes = new ArrayList<>();
+            facturaRepository.findSeriesPendientesAutorizacion()
+                .forEach(serie -> pendientes.add(clave(TipoComprobante.FACTURA, serie)));
+            notaCreditoRepository.findSeriesPendientesAutorizacion()
+                .forEach(serie -> pendientes.add(clave(TipoComprobante.NOTA_CREDITO, serie)));
+            return pendientes;
+        });
+        if (series.isEmpty()) {
+            return Set.of();
+        }
+        for (String serie : series) {
+            creadorFilasBloqueo.crearSiNoExiste(reservaAutorizacionRepository, serie,
+                () -> new ReservaAutorizacion(serie));
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        return new TransactionTemplate(transactionManager).execute(estado -> {
+            Set<String> reservadas = new HashSet<>();
+            for (ReservaAutorizacion reserva : reservaAutorizacionRepository.reclamarLibres(series, ahora)) {
+                reserva.reservar(ahora.plus(duracionReserva));
+                reservadas.add(reserva.getSerie());
+            }
+            return reservadas;
+        });
+    }
+
+    private void liberarSeries(Set<String> reservadas) {
+        if (!reservadas.isEmpty()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(
+                estado -> reservaAutorizacionRepository.liberar(reservadas));
+        }
+    }
+
+    /**
+     * Lee hasta {@code maxPorSerie} comprobantes pendientes de cada serie
+     * reservada y arma una cola de lotes por clase y serie.
+     */
+    private Map<String, Deque<LoteAutorizacionDTO>> armarColas(Set<String> reservadas) {
+        Map<String, Deque<LoteAutorizacionDTO>> colas = new LinkedHashMap<>();
+        Pageable limite = PageRequest.of(0, maxPorSerie);
+        boolean incompleta = false;
+        for (int serie : facturaRepository.findSeriesPendientesAutorizacion()) {
+            if (!reservadas.contains(clave(TipoComprobante.FACTURA, serie))) {
+                continue;
+            }
+            List<ComprobanteAutorizacionDTO> pendientes = facturaRepository.findPendientesAutorizacion(serie, limite);
+            agregarLotes(colas, TipoComprobante.FACTURA, pendientes);
+            incompleta |= pendientes.size() == maxPorSerie;
+        }
+        for (int serie : notaCreditoRepository.findSeriesPendientesAutorizacion()) {
+            if (!reservadas.contains(clave(TipoComprobante.NOTA_CREDITO, serie))) {
+                continue;
+            }
+            List<ComprobanteAutorizacionDTO> pendientes = notaCreditoRepository.findPendientesAutorizacion(serie, limite);
+            agregarLotes(colas, TipoComprobante.NOTA_CREDITO, pendientes);
+            incompleta |= pendientes.size() == maxPorSerie;
+        }
+        quedaronPendientes = incompleta;
+        return colas;
+    }
+
+    private void agregarLotes(Map<String, Deque<LoteAutorizacionDTO>> colas, TipoComprobante comprobante,
+                              List<ComprobanteAutorizacionDTO> pendientes) {
+        // Los pendientes vienen ordenados por serie y número
+        List<ComprobanteAutorizacionDTO> actual = new ArrayList<>();
+        for (ComprobanteAutorizacionDTO c : pendientes) {
+            if (!actual.isEmpty()
+                    && (actual.get(0).getSerie() != c.getSerie() || actual.size() == tamanioLote)) {
+                encolar(colas, comprobante, actual);
+                actual = new ArrayList<>();
+            }
+            actual.add(c);
+        }
+        if (!actual.isEmpty()) {
+            encolar(colas, comprobante, actual);
+        }
+    }
+
+    private static void encolar(Map<String, Deque<LoteAutorizacionDTO>> colas, TipoComprobante comprobante,
+                                List<ComprobanteAutorizacionDTO> comprobantes) {
+        int serie = comprobantes.get(0).getSerie();
+        colas.computeIfAbsent(clave(comprobante, serie), k -> new ArrayDeque<>())
+            .addLast(new LoteAutorizacionDTO(comprobante, serie, comprobantes));
+    }
+
+    private static String clave(TipoComprobante comprobante, int serie) {
+        return comprobante + "-" + serie;
+    }
+
+    private CompletableFuture<List<ResultadoAutorizacionDTO>> enviar(LoteAutorizacionDTO lote) {
+        try {
+            return clienteAutorizacion.solicitar(lote).orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static List<ResultadoAutorizacionDTO> resultadosOFalla(
+            CompletableFuture<List<ResultadoAutorizacionDTO>> respuesta) {
+        try {
+            return respuesta.join();
+        } catch (CompletionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Guarda las respuestas de un lote en una transacción.
+     * @return cantidad de comprobantes autorizados
+     */
+    private int guardar(LoteAutorizacionDTO lote, List<ResultadoAutorizacionDTO> resultados) {
+        TransactionTemplate escritura = new TransactionTemplate(transactionManager);
+        Integer aprobados = escritura.execute(estado -> {
+            List<Long> ids = resultados.stream().map(ResultadoAutorizacionDTO::getId).toList();
+            if (lote.getComprobante() == TipoComprobante.FACTURA) {
+                return aplicar(facturaRepository.findAllById(ids), Factura::getIdFactura,
+                               Factura::getAutorizacion, resultados);
+            }
+            return aplicar(notaCreditoRepository.findAllById(ids), NotaCredito::getId,
+                           NotaCredito::getAutorizacion, resultados);
+        });
+        return aprobados != null ? aprobados : 0;
+    }
+
+    private static <T> int aplicar(List<T> comprobantes, Function<T, Long> id,
+                                   Function<T, AutorizacionFiscal> autorizacion,
+                                   List<ResultadoAutorizacionDTO> resultados) {
+        Map<Long, T> porId = new LinkedHashMap<>();
+        for (T comprobante : comprobantes) {
+            porId.put(id.apply(comprobante), comprobante);
+        }
+        int aprobados = 0;
+        for (ResultadoAutorizacionDTO resultado : resultados) {
+            T comprobante = porId.get(resultado.getId());
+            if (comprobante == null || !autorizacion.apply(comprobante).isPendiente()) {
+                continue;
+            }
+            if (resultado.isAprobado()) {
+                autorizacion.apply(comprobante).autorizar(resultado.getCae(), resultado.getVencimientoCae());
+                aprobados++;
+            } else {
+                autorizacion.apply(comprobante).rechazar(resultado.getObservacion());
+            }
+        }
+        return aprobados;
+    }
+
+    private void programar() {
+        tareasSegundoPlano.programar("autorizacion-cae", () -> {
+            ResumenAutorizacionDTO resumen = autorizarPendientes();
+            if (quedaronPendientes && resumen.getLotesFallidos() == 0) {
+                programar();
+            }
+        });
+    }
+
+    /**
+     * Lote enviado que todavía no se guardó.
+     */
+    private static final class EnVuelo {
+        private final String serie;
+        private final LoteAutorizacionDTO lote;
+        private final CompletableFuture<List<ResultadoAutorizacionDTO>> respuesta;
+
+        EnVuelo(String serie, LoteAutorizacionDTO lote,
+                CompletableFuture<List<ResultadoAutorizacionDTO>> respuesta) {
+            this.serie = serie;
+            this.lote = lote;
+            this.respuesta = respuesta;
+        }
+    }
+}
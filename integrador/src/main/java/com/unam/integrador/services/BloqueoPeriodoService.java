@@ -0,0 +1,53 @@
+package com.unam.integrador.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.unam.integrador.model.BloqueoPeriodo;
+import com.unam.integrador.model.Periodo;
+import com.unam.integrador.repositories.BloqueoPeriodoRepository;
+
+/**
+ * Bloqueo por período de facturación compartido entre instancias.
+ *
+ * Las operaciones masivas de un período toman el bloqueo de su fila en
+ * {@link BloqueoPeriodo} al comenzar y lo liberan al terminar su transacción
+ * (commit o rollback). Si otra instancia ya lo tiene, la operación falla de
+ * inmediato con un mensaje claro en lugar de esperar o duplicar la facturación.
+ * Funciona igual en PostgreSQL y en H2, por lo que se puede probar localmente.
+ */
+@Service
+public class BloqueoPeriodoService {
+
+    @Autowired
+    private BloqueoPeriodoRepository bloqueoPeriodoRepository;
+
+    @Autowired
+    private CreadorFilasBloqueo creadorFilasBloqueo;
+
+    /**
+     * Toma el bloqueo del período hasta el fin de la transacción en curso.
+     *
+     * @param periodo período a bloquear
+     * @param operacion descripción de la operación (queda registrada en la fila)
+     * @throws IllegalStateException si otra operación tiene el período bloqueado
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bloquear(Periodo periodo, String operacion) {
+        creadorFilasBloqueo.crearSiNoExiste(bloqueoPeriodoRepository, periodo.getPrimerDia(),
+            () -> new BloqueoPeriodo(periodo));
+        try {
+            BloqueoPeriodo bloqueo = bloqueoPeriodoRepository.bloquear(periodo.getPrimerDia())
+                .orElseThrow(() -> new IllegalStateException(
+                    "No se encontró el bloqueo del período " + periodo.getEtiqueta()));
+            bloqueo.registrarOperacion(operacion);
+        } catch (PessimisticLockingFailureException e) {
+            throw new IllegalStateException(
+                "El período " + periodo.getEtiqueta() + " está siendo procesado por otra operación. "
+                + "Espere a que termine e intente nuevamente.", e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.unam.integrador.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.unam.integrador.dto.EstadisticaCacheDTO;
+import com.unam.integrador.eventos.ServicioModificado;
+import com.unam.integrador.eventos.ServiciosContratadosModificados;
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Servicio;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Administra el caché de segundo nivel de Hibernate para los datos de referencia
+ * que se leen en cada facturación: los servicios, los servicios contratados y la
+ * colección de servicios contratados de cada cliente.
+ *
+ * Hibernate mantiene el caché al modificar las entidades; además, los cambios
+ * de servicios o contratos publican un evento y este componente invalida las
+ * entradas afectadas luego del commit, para no depender de cómo se hizo el cambio.
+ * El caché es local a cada instancia y solo se invalida en la que hizo el
+ * cambio; por eso {@link FacturacionDistribuidaService} no lo usa para leer.
+ */
+@Component
+public class CacheDatosReferencia {
+
+    /** Región de la entidad Servicio. */
+    public static final String REGION_SERVICIO = "servicios";
+
+    /** Región de la entidad ServicioContratado. */
+    public static final String REGION_SERVICIO_CONTRATADO = "serviciosContratados";
+
+    /** Región de la colección CuentaCliente.serviciosContratados. */
+    public static final String REGION_SERVICIOS_CONTRATADOS_CLIENTE = "contratosPorCliente";
+
+    /** Rol de la colección cacheada, usado para invalidar las entradas de un cliente. */
+    private static final String ROL_SERVICIOS_CONTRATADOS_CLIENTE =
+        CuentaCliente.class.getName() + ".serviciosContratados";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Invalida del caché un servicio modificado, luego del commit.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarServicio(ServicioModificado evento) {
+        cache().evictEntityData(Servicio.class, evento.getServicioId());
+    }
+
+    /**
+     * Invalida la colección de servicios contratados de un cliente. Los
+     * contratos en sí no se invalidan: la estrategia READ_WRITE ya mantiene
+     * sus entradas al día, y vaciar la región afectaría a todos los clientes.
+     * Se aplica luego del commit.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarServiciosContratados(ServiciosContratadosModificados evento) {
+        cache().evictCollectionData(ROL_SERVICIOS_CONTRATADOS_CLIENTE, evento.getClienteId());
+    }
+
+    /**
+     * Obtiene aciertos, fallos y escrituras de cada región del caché.
+     * Las estadísticas de Hibernate solo se recolectan con el perfil
+     * {@code estadisticas}; sin él, los contadores quedan en cero.
+     * @return estadísticas por región
+     */
+    public List<EstadisticaCacheDTO> obtenerEstadisticas() {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<EstadisticaCacheDTO> resultado = new ArrayList<>();
+        for (String region : List.of(REGION_SERVICIO, REGION_SERVICIO_CONTRATADO,
+                                     REGION_SERVICIOS_CONTRATADOS_CLIENTE)) {
+            CacheRegionStatistics r = estadisticas.getCacheRegionStatistics(region);
+            if (r != null) {
+                resultado.add(new EstadisticaCacheDTO(
+                    region, r.getHitCount(), r.getMissCount(), r.getPutCount()));
+            }
+        }
+        return resultado;
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
@@ -0,0 +1,27 @@
+package com.unam.integrador.services;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.unam.integrador.dto.LoteAutorizacionDTO;
+import com.unam.integrador.dto.ResultadoAutorizacionDTO;
+
+/**
+ * Cliente del servicio de autorización de comprobantes del organismo fiscal.
+ *
+ * La solicitud es asíncrona: {@link AutorizacionService} mantiene varios lotes
+ * en vuelo a la vez y procesa las respuestas a medida que llegan. Cada
+ * implementación decide cómo transporta el lote (web service real o
+ * {@link ClienteAutorizacionLocal} para trabajar sin conexión).
+ */
+public interface ClienteAutorizacion {
+
+    /**
+     * Envía un lote a autorizar.
+     *
+     * @param lote comprobantes de una misma clase y serie, en orden de numeración
+     * @return futuro con una respuesta por comprobante; se completa con error si
+     *         el lote no pudo procesarse (en ese caso sus comprobantes quedan pendientes)
+     */
+    CompletableFuture<List<ResultadoAutorizacionDTO>> solicitar(LoteAutorizacionDTO lote);
+}
@@ -0,0 +1,109 @@
+package com.unam.integrador.services;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.unam.integrador.dto.ComprobanteAutorizacionDTO;
+import com.unam.integrador.dto.LoteAutorizacionDTO;
+import com.unam.integrador.dto.ResultadoAutorizacionDTO;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Implementación local del organismo fiscal, para desarrollo y tests sin
+ * conexión. Se activa solo con {@code autorizacion.cliente=local} (perfil
+ * "dev" y tests): sus CAE son inventados y no deben llegar a producción.
+ *
+ * Simula las reglas que afectan al pipeline:
+ * - responde en otro hilo, con una demora configurable por lote
+ *   ({@code autorizacion.local.latencia});
+ * - rechaza comprobantes con importe menor o igual a cero;
+ * - exige numeración creciente por clase y serie: un número igual o menor al
+ *   último autorizado se rechaza, como ocurre si los lotes de una serie se
+ *   procesan fuera de orden.
+ *
+ * El CAE es un número correlativo de 14 dígitos y vence a los 10 días de la
+ * fecha de emisión.
+ */
+@Component
+@ConditionalOnProperty(name = "autorizacion.cliente", havingValue = "local")
+public class ClienteAutorizacionLocal implements ClienteAutorizacion {
+
+    /** Días de validez del CAE desde la emisión. */
+    private static final int DIAS_VENCIMIENTO_CAE = 10;
+
+    @Value("${autorizacion.local.latencia:PT0S}")
+    private Duration latencia = Duration.ZERO;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread hilo = new Thread(r, "autorizacion-local");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private final AtomicLong ultimoCae = new AtomicLong(70_000_000_000_000L);
+
+    /** Último número autorizado por clase de comprobante y serie. */
+    private final Map<String, int[]> ultimoNumero = new ConcurrentHashMap<>();
+
+    @Override
+    public CompletableFuture<List<ResultadoAutorizacionDTO>> solicitar(LoteAutorizacionDTO lote) {
+        return CompletableFuture.supplyAsync(() -> {
+            esperar();
+            return procesar(lote);
+        }, executor);
+    }
+
+    private List<ResultadoAutorizacionDTO> procesar(LoteAutorizacionDTO lote) {
+        String serie = lote.getComprobante() + "-" + lote.getSerie();
+        List<ResultadoAutorizacionDTO> resultados = new ArrayList<>(lote.getComprobantes().size());
+        // Los lotes de una misma serie se procesan de a uno, como en el organismo real
+        int[] ultimo = ultimoNumero.computeIfAbsent(serie, k -> new int[1]);
+        synchronized (ultimo) {
+            for (ComprobanteAutorizacionDTO c : lote.getComprobantes()) {
+                if (c.getImporte() == null || c.getImporte().compareTo(BigDecimal.ZERO) <= 0) {
+                    resultados.add(ResultadoAutorizacionDTO.rechazado(c.getId(),
+                        "El importe total debe ser mayor a cero"));
+                } else if (c.getNumero() <= ultimo[0]) {
+                    resultados.add(ResultadoAutorizacionDTO.rechazado(c.getId(),
+                        "Numeración no correlativa: el último autorizado es " + ultimo[0]));
+                } else {
+                    ultimo[0] = c.getNumero();
+                    resultados.add(ResultadoAutorizacionDTO.aprobado(c.getId(),
+                        String.format("%014d", ultimoCae.incrementAndGet()),
+                        c.getFechaEmision().plusDays(DIAS_VENCIMIENTO_CAE)));
+                }
+            }
+        }
+        return resultados;
+    }
+
+    private void esperar() {
+        if (latencia.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latencia.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Solicitud de autorización interrumpida", e);
+        }
+    }
+
+    @PreDestroy
+    void cerrar() {
+        executor.shutdownNow();
+    }
+}
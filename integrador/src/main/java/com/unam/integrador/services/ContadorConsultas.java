@@ -0,0 +1,127 @@
+package com.unam.integrador.services;
+
+import java.time.Duration;
+
+/**
+ * Contadores de acceso a la base por hilo: sentencias JDBC ejecutadas, filas
+ * leídas y tiempo dentro del driver.
+ *
+ * Una medición se abre al comenzar una solicitud HTTP o una llamada a un
+ * servicio transaccional y acumula lo que registra {@link InstrumentacionDataSource}
+ * en ese hilo. Las mediciones se anidan: al cerrarse, una medición suma sus
+ * contadores a la que la contiene (la de la solicitud incluye la de sus servicios).
+ */
+public final class ContadorConsultas {
+
+    private static final ThreadLocal<Medicion> ACTUAL = new ThreadLocal<>();
+
+    private ContadorConsultas() {
+    }
+
+    /**
+     * Abre una medición en el hilo actual; debe cerrarse en el mismo hilo.
+     * @param nombre descripción de lo medido (solicitud u operación)
+     * @return la medición abierta
+     */
+    public static Medicion iniciar(String nombre) {
+        Medicion medicion = new Medicion(nombre, ACTUAL.get());
+        ACTUAL.set(medicion);
+        return medicion;
+    }
+
+    /**
+     * @return la medición abierta en el hilo actual, o null si no hay ninguna
+     */
+    public static Medicion actual() {
+        return ACTUAL.get();
+    }
+
+    static void registrarSentencia(long nanos) {
+        Medicion medicion = ACTUAL.get();
+        if (medicion != null) {
+            medicion.sentencias++;
+            medicion.nanosEnBase += nanos;
+        }
+    }
+
+    static void registrarFila() {
+        Medicion medicion = ACTUAL.get();
+        if (medicion != null) {
+            medicion.filas++;
+        }
+    }
+
+    /**
+     * Contadores de una solicitud u operación.
+     */
+    public static final class Medicion implements AutoCloseable {
+
+        private final String nombre;
+        private final Medicion contenedora;
+        private final long inicio = System.nanoTime();
+        private long fin;
+        private int sentencias;
+        private long filas;
+        private long nanosEnBase;
+
+        private Medicion(String nombre, Medicion contenedora) {
+            this.nombre = nombre;
+            this.contenedora = contenedora;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        /** @return sentencias ejecutadas (un batch cuenta como una) */
+        public int getSentencias() {
+            return sentencias;
+        }
+
+        /** @return filas leídas de los resultados */
+        public long getFilas() {
+            return filas;
+        }
+
+        /** @return tiempo dentro del driver JDBC ejecutando sentencias */
+        public Duration getTiempoEnBase() {
+            return Duration.ofNanos(nanosEnBase);
+        }
+
+        /** @return tiempo total de la medición (hasta ahora si sigue abierta) */
+        public Duration getDuracion() {
+            return Duration.ofNanos((fin == 0 ? System.nanoTime() : fin) - inicio);
+        }
+
+        /**
+         * Indica si la medición supera alguno de los umbrales.
+         */
+        public boolean excede(int maxSentencias, long maxFilas, Duration maxTiempoEnBase) {
+            return sentencias > maxSentencias || filas > maxFilas
+                || nanosEnBase > maxTiempoEnBase.toNanos();
+        }
+
+        /**
+         * Cierra la medición y suma sus contadores a la que la contiene.
+         */
+        @Override
+        public void close() {
+            if (fin != 0) {
+                return;
+            }
+            fin = System.nanoTime();
+            ACTUAL.set(contenedora);
+            if (contenedora != null) {
+                contenedora.sentencias += sentencias;
+                contenedora.filas += filas;
+                contenedora.nanosEnBase += nanosEnBase;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d sentencias, %d filas, %d ms en base, %d ms en total",
+                nombre, sentencias, filas, getTiempoEnBase().toMillis(), getDuracion().toMillis());
+        }
+    }
+}
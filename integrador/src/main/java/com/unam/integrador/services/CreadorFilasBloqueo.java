@@ -0,0 +1,44 @@
+package com.unam.integrador.services;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Crea las filas que se bloquean con SELECT ... FOR UPDATE para serializar
+ * operaciones entre instancias (numeración por serie, bloqueo por período).
+ */
+@Component
+public class CreadorFilasBloqueo {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Crea la fila en una transacción propia, para que quede visible para las
+     * demás instancias antes de bloquearla. Si otra instancia la crea al mismo
+     * tiempo, la violación de clave se ignora.
+     *
+     * @param repositorio repositorio de la fila
+     * @param id clave de la fila
+     * @param nueva crea la fila si no existe
+     */
+    public <T, ID> void crearSiNoExiste(JpaRepository<T, ID> repositorio, ID id, Supplier<T> nueva) {
+        if (repositorio.existsById(id)) {
+            return;
+        }
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transaccion.executeWithoutResult(estado -> repositorio.saveAndFlush(nueva.get()));
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia creó la fila primero
+        }
+    }
+}
@@ -2,11 +2,24 @@
 package com.unam.integrador.services;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.unam.integrador.dto.ClienteListadoDTO;
+import com.unam.integrador.dto.ClienteSugerenciaDTO;
+import com.unam.integrador.eventos.ClienteModificado;
+import com.unam.integrador.eventos.ServiciosContratadosModificados;
 import com.unam.integrador.model.CambioEstadoCuenta;
 import com.unam.integrador.model.CuentaCliente;
 import com.unam.integrador.model.enums.EstadoCuenta;
@@ -31,6 +44,31 @@ public class CuentaClienteService {
     @Autowired
     private CambioEstadoCuentaRepository cambioEstadoRepository;
     
+    @Autowired
+    private IndiceBusquedaClientes indiceBusqueda;
+    
+    @Autowired
+    private ApplicationEventPublisher eventos;
+    
+    @Autowired
+    private ServicioService servicioService;
+    
+    /** Cantidad máxima de sugerencias que se devuelven en el autocompletado. */
+    public static final int MAX_SUGERENCIAS = 50;
+    
+    /** Tamaño de página máximo del listado de clientes. */
+    public static final int MAX_TAMANIO_PAGINA = 100;
+    
+    /**
+     * Cantidad máxima de coincidencias que se toman del índice de búsqueda.
+     * Por encima de este valor la búsqueda del listado se resuelve en la base
+     * de datos, para no enviar una lista de IDs sin límite en el IN.
+     */
+    public static final int MAX_COINCIDENCIAS_INDICE = 500;
+    
+    /** Campos por los que se puede ordenar el listado de clientes. */
+    public static final List<String> CAMPOS_ORDEN_LISTADO = List.of("nombre", "cuitDni", "saldo");
+    
     /**
      * Crea un nuevo cliente validando todos los datos
      * @param cliente el cliente a crear
@@ -44,7 +82,9 @@ public class CuentaClienteService {
             throw new IllegalArgumentException("Ya existe un cliente con el CUIT/DNI: " + cliente.getCuitDni());
         }
         
-        return clienteRepository.save(cliente);
+        CuentaCliente guardado = clienteRepository.save(cliente);
+        eventos.publishEvent(new ClienteModificado(guardado));
+        return guardado;
     }
 
     /**
@@ -70,7 +110,7 @@ public class CuentaClienteService {
     
     /**
      * Asigna un servicio a un cliente.
-     * Registra la fecha actual y el precio actual del servicio.
+     * Registra la fecha actual y el precio que rige hoy según el tarifario del servicio.
      * 
      * @param clienteId el ID del cliente
      * @param servicioId el ID del servicio a asignar
@@ -83,8 +123,9 @@ public class CuentaClienteService {
             .orElseThrow(() -> new IllegalArgumentException("Servicio no encontrado con ID: " + servicioId));
         
         // El método contratarServicio ya valida duplicados
-        cliente.contratarServicio(servicio);
+        cliente.contratarServicio(servicio, servicioService.obtenerPrecioVigente(servicio));
         
+        eventos.publishEvent(new ServiciosContratadosModificados(clienteId));
         return clienteRepository.save(cliente);
     }
     
@@ -105,6 +146,7 @@ public class CuentaClienteService {
         // El método desvincularServicio valida que esté activo
         cliente.desvincularServicio(servicio);
         
+        eventos.publishEvent(new ServiciosContratadosModificados(clienteId));
         return clienteRepository.save(cliente);
     }
     
@@ -128,7 +170,9 @@ public class CuentaClienteService {
             datosActualizados.getCondicionIva()
         );
         
-        return clienteRepository.save(cliente);
+        CuentaCliente guardado = clienteRepository.save(cliente);
+        eventos.publishEvent(new ClienteModificado(guardado));
+        return guardado;
     }
     
     /**
@@ -146,7 +190,9 @@ public class CuentaClienteService {
         // Delegar la lógica de negocio al modelo rico
         cliente.cambiarEstado(nuevoEstado, motivo);
         
-        return clienteRepository.save(cliente);
+        CuentaCliente guardado = clienteRepository.save(cliente);
+        eventos.publishEvent(new ClienteModificado(guardado));
+        return guardado;
     }
     
     /**
@@ -164,31 +210,120 @@ public class CuentaClienteService {
         return cambioEstadoRepository.findByClienteIdOrderByFechaCambioDesc(clienteId);
     }
     /**
-     * Busca clientes por nombre (búsqueda parcial, case-insensitive)
+     * Busca clientes por nombre (búsqueda parcial, case-insensitive).
+     * Con el índice construido devuelve las {@link #MAX_COINCIDENCIAS_INDICE}
+     * coincidencias más relevantes, en el orden del índice.
      * @param nombre fragmento a buscar
      * @return lista de clientes coincidentes
      */
     @Transactional(readOnly = true)
     public java.util.List<CuentaCliente> buscarPorNombre(String nombre) {
+        if (indiceBusqueda.estaListo()) {
+            return cargarEnOrden(indiceBusqueda.buscarPorNombre(nombre, MAX_COINCIDENCIAS_INDICE));
+        }
         return clienteRepository.findByNombreContainingIgnoreCase(nombre);
     }
     
     /**
-     * Busca clientes por nombre, CUIT/DNI o email.
-     * Realiza una búsqueda parcial en los tres campos.
+     * Obtiene una página del listado de clientes como proyección liviana.
+     * 
+     * @param pageable página, tamaño y orden (ver {@link #crearPaginacion})
+     * @return página de clientes para el listado
+     */
+    @Transactional(readOnly = true)
+    public Page<ClienteListadoDTO> listarClientes(Pageable pageable) {
+        return clienteRepository.findListado(pageable);
+    }
+    
+    /**
+     * Busca clientes por nombre, CUIT/DNI o email y devuelve una página del listado.
+     * Realiza una búsqueda parcial en los tres campos usando el índice de búsqueda;
+     * el orden y la paginación se resuelven en la base de datos. Si el índice
+     * encuentra más de {@link #MAX_COINCIDENCIAS_INDICE} clientes, el criterio
+     * es poco selectivo y se filtra directamente en la base de datos, con la
+     * misma normalización (sin mayúsculas ni acentos) que el índice.
      * 
      * @param criterio el texto a buscar en nombre, CUIT/DNI o email
-     * @return lista de clientes que coinciden con el criterio
+     * @param pageable página, tamaño y orden (ver {@link #crearPaginacion})
+     * @return página de clientes que coinciden con el criterio
      */
     @Transactional(readOnly = true)
-    public List<CuentaCliente> buscarClientes(String criterio) {
+    public Page<ClienteListadoDTO> buscarClientes(String criterio, Pageable pageable) {
         if (criterio == null || criterio.trim().isEmpty()) {
-            return obtenerTodosLosClientes();
+            return listarClientes(pageable);
         }
         
         String criterioBusqueda = criterio.trim();
-        return clienteRepository.findByNombreContainingIgnoreCaseOrCuitDniContainingOrEmailContainingIgnoreCase(
-            criterioBusqueda, criterioBusqueda, criterioBusqueda);
+        if (indiceBusqueda.estaListo()) {
+            List<Long> ids = indiceBusqueda.buscar(criterioBusqueda, MAX_COINCIDENCIAS_INDICE + 1);
+            if (ids.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            if (ids.size() <= MAX_COINCIDENCIAS_INDICE) {
+                // El total ya se conoce: solo se consulta el contenido de la página
+                return new PageImpl<>(clienteRepository.findListadoByIdIn(ids, pageable), pageable, ids.size());
+            }
+        }
+        return clienteRepository.buscarListado(IndiceBusquedaClientes.normalizar(criterioBusqueda), pageable);
+    }
+    
+    /**
+     * Arma la paginación del listado de clientes validando los parámetros recibidos.
+     * Solo se permite ordenar por nombre, CUIT/DNI o saldo; se agrega el ID como
+     * criterio de desempate para que la paginación sea estable.
+     * 
+     * @param pagina número de página (desde 0)
+     * @param tamanio cantidad de clientes por página (se ajusta entre 1 y MAX_TAMANIO_PAGINA)
+     * @param orden campo de orden (por defecto "nombre")
+     * @param direccion "asc" o "desc" (por defecto ascendente)
+     * @return el Pageable a usar en las consultas
+     */
+    public Pageable crearPaginacion(int pagina, int tamanio, String orden, String direccion) {
+        String campo = CAMPOS_ORDEN_LISTADO.contains(orden) ? orden : "nombre";
+        Sort.Direction sentido = "desc".equalsIgnoreCase(direccion) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return PageRequest.of(
+            Math.max(0, pagina),
+            Math.max(1, Math.min(tamanio, MAX_TAMANIO_PAGINA)),
+            Sort.by(sentido, campo).and(Sort.by(Sort.Direction.ASC, "id")));
+    }
+    
+    /**
+     * Carga los clientes de los IDs indicados respetando el orden recibido
+     * (el orden de relevancia que devuelve el índice de búsqueda).
+     */
+    private List<CuentaCliente> cargarEnOrden(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, CuentaCliente> porId = clienteRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(CuentaCliente::getId, Function.identity()));
+        return ids.stream()
+            .map(porId::get)
+            .filter(java.util.Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * Obtiene sugerencias de clientes para el autocompletado de formularios.
+     * Busca por nombre, CUIT/DNI o email y devuelve como máximo {@code limite}
+     * resultados, sin cargar la tabla completa de clientes.
+     * 
+     * @param criterio el texto ingresado por el usuario
+     * @param limite cantidad máxima de resultados (se ajusta entre 1 y MAX_SUGERENCIAS)
+     * @return lista de sugerencias, vacía si el criterio está vacío
+     */
+    @Transactional(readOnly = true)
+    public List<ClienteSugerenciaDTO> sugerirClientes(String criterio, int limite) {
+        if (criterio == null || criterio.trim().isEmpty()) {
+            return List.of();
+        }
+        
+        int limiteAjustado = Math.max(1, Math.min(limite, MAX_SUGERENCIAS));
+        if (indiceBusqueda.estaListo()) {
+            return indiceBusqueda.sugerir(criterio, limiteAjustado);
+        }
+        return clienteRepository.buscarSugerencias(
+            criterio.trim().toLowerCase(), PageRequest.of(0, limiteAjustado));
     }
     
     /**
@@ -201,11 +336,11 @@ public class CuentaClienteService {
      */
     @Transactional(readOnly = true)
     public List<com.unam.integrador.model.Servicio> obtenerServiciosDisponiblesParaCliente(Long clienteId) {
-        CuentaCliente cliente = obtenerClientePorId(clienteId);
+        if (!clienteRepository.existsById(clienteId)) {
+            throw new IllegalArgumentException("Cliente no encontrado con ID: " + clienteId);
+        }
         
-        return servicioRepository.findByActivoTrue().stream()
-            .filter(servicio -> !cliente.tieneServicioContratadoActivo(servicio))
-            .toList();
+        return servicioRepository.findDisponiblesParaCliente(clienteId);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.unam.integrador.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Escritor CSV mínimo que escribe fila por fila sobre un {@link Writer},
+ * sin acumular el archivo en memoria.
+ *
+ * Usa ';' como separador (Excel en configuración regional es/AR lo abre sin
+ * importar) y entrecomilla los valores que contienen separador, comillas o
+ * saltos de línea.
+ */
+public class EscritorCsv {
+
+    private static final char SEPARADOR = ';';
+
+    private final Writer destino;
+    private boolean inicioDeFila = true;
+
+    public EscritorCsv(Writer destino) {
+        this.destino = destino;
+    }
+
+    /**
+     * Escribe una fila completa.
+     * @param valores valores de las columnas (null se escribe vacío)
+     */
+    public void fila(Object... valores) {
+        for (Object valor : valores) {
+            valor(valor);
+        }
+        terminarFila();
+    }
+
+    /**
+     * Agrega un valor a la fila en curso.
+     * @param valor valor de la columna (null se escribe vacío)
+     * @return este escritor
+     */
+    public EscritorCsv valor(Object valor) {
+        try {
+            if (!inicioDeFila) {
+                destino.write(SEPARADOR);
+            }
+            inicioDeFila = false;
+            if (valor != null) {
+                escribirEscapado(valor.toString());
+            }
+            return this;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Termina la fila en curso.
+     */
+    public void terminarFila() {
+        try {
+            destino.write("\r\n");
+            inicioDeFila = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Vuelca al destino lo escrito hasta el momento.
+     */
+    public void flush() {
+        try {
+            destino.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void escribirEscapado(String texto) throws IOException {
+        boolean requiereComillas = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == SEPARADOR || c == '"' || c == '\n' || c == '\r') {
+                requiereComillas = true;
+                break;
+            }
+        }
+        if (!requiereComillas) {
+            destino.write(texto);
+            return;
+        }
+        destino.write('"');
+        destino.write(texto.replace("\"", "\"\""));
+        destino.write('"');
+    }
+}
@@ -0,0 +1,212 @@
+package com.unam.integrador.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.unam.integrador.dto.FiltroFacturasDTO;
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.Periodo;
+import com.unam.integrador.model.enums.EstadoFactura;
+import com.unam.integrador.model.enums.TipoFactura;
+import com.unam.integrador.repositories.FacturaRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Servicio que exporta facturas en CSV o JSON Lines.
+ *
+ * Las facturas se leen con un cursor de solo avance y se escriben a medida que
+ * llegan; cada factura (y su cliente) se desvincula del contexto de
+ * persistencia después de escribirla, de modo que la memoria usada no depende
+ * de la cantidad de facturas exportadas.
+ */
+@Service
+public class ExportacionFacturasService {
+
+    /** Cada cuántas facturas se vuelca la salida al destino. */
+    private static final int FACTURAS_POR_FLUSH = 500;
+
+    private static final JsonFactory JSON = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Exporta las facturas que cumplen el filtro en formato CSV, con encabezado.
+     *
+     * @param filtro filtros opcionales
+     * @param destino writer donde se escribe el CSV (no se cierra)
+     * @return cantidad de facturas escritas
+     */
+    @Transactional(readOnly = true)
+    public int exportarCsv(FiltroFacturasDTO filtro, Writer destino) {
+        EscritorCsv csv = new EscritorCsv(destino);
+        csv.fila("ID", "Tipo", "Comprobante", "Fecha emisión", "Fecha vencimiento", "Período",
+                 "CUIT/DNI", "Razón social", "Estado", "Subtotal", "Descuento %", "IVA",
+                 "Total", "Saldo pendiente");
+
+        int facturas = recorrer(filtro, f -> {
+            CuentaCliente c = f.getCliente();
+            csv.fila(
+                f.getIdFactura(),
+                f.getTipo(),
+                comprobante(f),
+                f.getFechaEmision(),
+                f.getFechaVencimiento(),
+                etiquetaPeriodo(f),
+                c.getCuitDni(),
+                c.getRazonSocial(),
+                f.getEstado(),
+                texto(f.getSubtotal()),
+                f.getDescuento(),
+                texto(f.getTotalIva()),
+                texto(f.getTotal()),
+                texto(f.getSaldoPendiente()));
+        }, csv::flush);
+        csv.flush();
+        return facturas;
+    }
+
+    /**
+     * Exporta las facturas que cumplen el filtro en formato JSON Lines
+     * (un objeto JSON por línea). Los importes se escriben como números.
+     *
+     * @param filtro filtros opcionales
+     * @param destino writer donde se escribe la salida (no se cierra)
+     * @return cantidad de facturas escritas
+     */
+    @Transactional(readOnly = true)
+    public int exportarJsonLines(FiltroFacturasDTO filtro, Writer destino) {
+        try (JsonGenerator json = JSON.createGenerator(destino)) {
+            int facturas = recorrer(filtro, f -> escribirJson(json, f), () -> flush(json));
+            json.flush();
+            return facturas;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Recorre las facturas del filtro, entregándolas una por una y
+     * desvinculándolas del contexto de persistencia después de usarlas.
+     */
+    private int recorrer(FiltroFacturasDTO filtro, Consumer<Factura> escribir, Runnable volcar) {
+        EstadoFactura estado = parsear(EstadoFactura.class, filtro.getEstado(), "Estado de factura");
+        TipoFactura tipo = parsear(TipoFactura.class, filtro.getTipo(), "Tipo de factura");
+        if (filtro.getDesde() != null && filtro.getHasta() != null
+                && filtro.getDesde().isAfter(filtro.getHasta())) {
+            throw new IllegalArgumentException("La fecha desde no puede ser posterior a la fecha hasta");
+        }
+
+        int facturas = 0;
+        try (Stream<Factura> stream = facturaRepository.streamParaExportar(
+                estado, tipo, filtro.getPeriodo(), filtro.getDesde(), filtro.getHasta())) {
+            Iterator<Factura> it = stream.iterator();
+            while (it.hasNext()) {
+                Factura factura = it.next();
+                escribir.accept(factura);
+                entityManager.detach(factura.getCliente());
+                entityManager.detach(factura);
+                if (++facturas % FACTURAS_POR_FLUSH == 0) {
+                    volcar.run();
+                }
+            }
+        }
+        return facturas;
+    }
+
+    private void escribirJson(JsonGenerator json, Factura f) {
+        try {
+            CuentaCliente c = f.getCliente();
+            json.writeStartObject();
+            json.writeNumberField("id", f.getIdFactura());
+            json.writeStringField("tipo", nombre(f.getTipo()));
+            json.writeStringField("comprobante", comprobante(f));
+            json.writeStringField("fechaEmision", texto(f.getFechaEmision()));
+            json.writeStringField("fechaVencimiento", texto(f.getFechaVencimiento()));
+            json.writeStringField("periodo", etiquetaPeriodo(f));
+            json.writeStringField("cuitDni", c.getCuitDni());
+            json.writeStringField("razonSocial", c.getRazonSocial());
+            json.writeStringField("estado", nombre(f.getEstado()));
+            escribirImporte(json, "subtotal", f.getSubtotal());
+            json.writeNumberField("descuento", f.getDescuento());
+            escribirImporte(json, "totalIva", f.getTotalIva());
+            escribirImporte(json, "total", f.getTotal());
+            escribirImporte(json, "saldoPendiente", f.getSaldoPendiente());
+            json.writeEndObject();
+            json.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void escribirImporte(JsonGenerator json, String campo, BigDecimal importe) throws IOException {
+        if (importe == null) {
+            json.writeNullField(campo);
+        } else {
+            json.writeNumberField(campo, importe);
+        }
+    }
+
+    private static void flush(JsonGenerator json) {
+        try {
+            json.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String comprobante(Factura f) {
+        return String.format("%04d-%08d", f.getSerie(), f.getNroFactura());
+    }
+
+    private static String etiquetaPeriodo(Factura f) {
+        Periodo periodo = Periodo.de(f.getPeriodo());
+        return periodo != null ? periodo.getEtiqueta() : null;
+    }
+
+    private static String texto(Object valor) {
+        if (valor instanceof BigDecimal importe) {
+            return importe.toPlainString();
+        }
+        return valor != null ? valor.toString() : null;
+    }
+
+    private static String nombre(Enum<?> valor) {
+        return valor != null ? valor.name() : null;
+    }
+
+    /**
+     * Convierte el nombre de un enum ignorando mayúsculas; vacío o null no filtra.
+     */
+    private static <E extends Enum<E>> E parsear(Class<E> tipo, String valor, String campo) {
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(tipo, valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(campo + " inválido: " + valor);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.unam.integrador.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.unam.integrador.dto.FilaReciboDTO;
+import com.unam.integrador.dto.ReciboDTO;
+import com.unam.integrador.model.enums.MetodoPago;
+import com.unam.integrador.repositories.PagoRepository;
+
+/**
+ * Servicio que exporta los recibos de un rango de fechas, con su desglose por
+ * factura y método de pago, en CSV o JSON Lines.
+ *
+ * Los pagos se leen en una sola consulta unida a sus detalles, facturas y
+ * clientes, ordenada por número de recibo. Las filas consecutivas de un mismo
+ * recibo se agrupan al vuelo y cada recibo se escribe apenas se completa: en
+ * memoria solo hay un recibo a la vez, sin importar el tamaño del rango.
+ *
+ * Los recibos siguen las mismas reglas que {@link ReciboService}: el total es
+ * la suma de los pagos, un pago sin detalles se informa como excedente y el
+ * método muestra "+ SALDO A FAVOR" si se aplicó saldo a alguna factura.
+ */
+@Service
+public class ExportacionRecibosService {
+
+    /** Cada cuántos recibos se vuelca la salida al destino. */
+    private static final int RECIBOS_POR_FLUSH = 500;
+
+    private static final JsonFactory JSON = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    @Autowired
+    private PagoRepository pagoRepository;
+
+    /**
+     * Exporta los recibos en formato CSV: una fila por línea del desglose,
+     * repitiendo los datos del recibo.
+     *
+     * @param desde primera fecha de pago (inclusive)
+     * @param hasta última fecha de pago (inclusive)
+     * @param destino writer donde se escribe el CSV (no se cierra)
+     * @return cantidad de recibos escritos
+     */
+    @Transactional(readOnly = true)
+    public int exportarCsv(LocalDate desde, LocalDate hasta, Writer destino) {
+        EscritorCsv csv = new EscritorCsv(destino);
+        csv.fila("Recibo", "Fecha", "Cliente", "CUIT/DNI", "Total recibo", "Método de pago",
+                 "Referencia", "Método", "Factura", "Monto");
+
+        int recibos = recorrer(desde, hasta, recibo -> {
+            for (ReciboDTO.DetallePagoDTO linea : recibo.getDesglosePagos()) {
+                csv.fila(
+                    recibo.getNumero(),
+                    recibo.getFecha(),
+                    recibo.getClienteNombre(),
+                    recibo.getClienteCuitDni(),
+                    recibo.getMonto().toPlainString(),
+                    recibo.getMetodoPagoDisplay(),
+                    recibo.getReferencia(),
+                    linea.getMetodoPago(),
+                    linea.getNumeroFactura(),
+                    linea.getMonto().toPlainString());
+            }
+        }, csv::flush);
+        csv.flush();
+        return recibos;
+    }
+
+    /**
+     * Exporta los recibos en formato JSON Lines: un objeto por recibo con su
+     * desglose como arreglo.
+     *
+     * @param desde primera fecha de pago (inclusive)
+     * @param hasta última fecha de pago (inclusive)
+     * @param destino writer donde se escribe la salida (no se cierra)
+     * @return cantidad de recibos escritos
+     */
+    @Transactional(readOnly = true)
+    public int exportarJsonLines(LocalDate desde, LocalDate hasta, Writer destino) {
+        try (JsonGenerator json = JSON.createGenerator(destino)) {
+            int recibos = recorrer(desde, hasta, recibo -> escribirJson(json, recibo), () -> flush(json));
+            json.flush();
+            return recibos;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Recorre las filas del rango y entrega cada recibo apenas cambia el
+     * número de recibo de la fila leída.
+     */
+    private int recorrer(LocalDate desde, LocalDate hasta, Consumer<ReciboDTO> escribir, Runnable volcar) {
+        if (desde == null || hasta == null) {
+            throw new IllegalArgumentException("El rango de fechas es obligatorio");
+        }
+        if (desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha desde no puede ser posterior a la fecha hasta");
+        }
+
+        int recibos = 0;
+        try (Stream<FilaReciboDTO> filas = pagoRepository.streamFilasRecibo(desde, hasta)) {
+            Iterator<FilaReciboDTO> it = filas.iterator();
+            ReciboEnCurso actual = null;
+            while (it.hasNext()) {
+                FilaReciboDTO fila = it.next();
+                String numero = numeroRecibo(fila);
+                if (actual != null && !actual.numero.equals(numero)) {
+                    escribir.accept(actual.armar());
+                    if (++recibos % RECIBOS_POR_FLUSH == 0) {
+                        volcar.run();
+                    }
+                    actual = null;
+                }
+                if (actual == null) {
+                    actual = new ReciboEnCurso(numero, fila);
+                }
+                actual.agregar(fila);
+            }
+            if (actual != null) {
+                escribir.accept(actual.armar());
+                recibos++;
+            }
+        }
+        return recibos;
+    }
+
+    private void escribirJson(JsonGenerator json, ReciboDTO recibo) {
+        try {
+            json.writeStartObject();
+            json.writeStringField("numero", recibo.getNumero());
+            json.writeStringField("fecha", recibo.getFecha().toString());
+            if (recibo.getClienteId() != null) {
+                json.writeNumberField("clienteId", recibo.getClienteId());
+            } else {
+                json.writeNullField("clienteId");
+            }
+            json.writeStringField("clienteNombre", recibo.getClienteNombre());
+            json.writeStringField("clienteCuitDni", recibo.getClienteCuitDni());
+            json.writeNumberField("monto", recibo.getMonto());
+            json.writeStringField("metodoPago", recibo.getMetodoPagoDisplay());
+            json.writeStringField("referencia", recibo.getReferencia());
+            json.writeArrayFieldStart("desglose");
+            for (ReciboDTO.DetallePagoDTO linea : recibo.getDesglosePagos()) {
+                json.writeStartObject();
+                json.writeStringField("metodoPago", linea.getMetodoPago().name());
+                json.writeStringField("factura", linea.getNumeroFactura());
+                if (linea.getFacturaId() != null) {
+                    json.writeNumberField("facturaId", linea.getFacturaId());
+                } else {
+                    json.writeNullField("facturaId");
+                }
+                json.writeNumberField("monto", linea.getMonto());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void flush(JsonGenerator json) {
+        try {
+            json.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String numeroRecibo(FilaReciboDTO fila) {
+        return fila.getNumeroRecibo() != null
+            ? fila.getNumeroRecibo()
+            : String.format("%08d", fila.getPagoId());
+    }
+
+    /**
+     * Recibo que se está armando con las filas consecutivas del mismo número.
+     */
+    private static final class ReciboEnCurso {
+        private final String numero;
+        private final LocalDate fecha;
+        private final List<ReciboDTO.DetallePagoDTO> desglose = new ArrayList<>();
+        private final List<Long> facturasIds = new ArrayList<>();
+        private final StringBuilder facturas = new StringBuilder();
+        private final StringBuilder referencias = new StringBuilder();
+        private BigDecimal monto = BigDecimal.ZERO;
+        private final Long primerPago;
+        private final MetodoPago primerMetodo;
+        private Long ultimoPago;
+        private MetodoPago metodoPrincipal;
+        private boolean saldoAFavorAplicado;
+        private Long clienteId;
+        private String clienteNombre = "";
+        private String clienteCuitDni = "";
+
+        ReciboEnCurso(String numero, FilaReciboDTO primera) {
+            this.numero = numero;
+            this.fecha = primera.getFechaPago();
+            this.primerPago = primera.getPagoId();
+            this.primerMetodo = primera.getMetodoPago();
+        }
+
+        void agregar(FilaReciboDTO fila) {
+            // Los datos del pago se cuentan una sola vez aunque tenga varios detalles
+            if (!fila.getPagoId().equals(ultimoPago)) {
+                ultimoPago = fila.getPagoId();
+                monto = monto.add(fila.getMontoPago());
+                if (metodoPrincipal == null && fila.getMetodoPago() != MetodoPago.SALDO_A_FAVOR) {
+                    metodoPrincipal = fila.getMetodoPago();
+                }
+                String ref = fila.getReferencia();
+                if (ref != null && !ref.trim().isEmpty()) {
+                    if (referencias.length() > 0) {
+                        referencias.append("; ");
+                    }
+                    referencias.append(ref);
+                }
+            }
+
+            if (fila.getFacturaId() == null) {
+                // Pago sin detalles (ej: excedente que se convierte en saldo a favor)
+                desglose.add(ReciboDTO.DetallePagoDTO.builder()
+                    .metodoPago(fila.getMetodoPago())
+                    .numeroFactura("Excedente generado")
+                    .facturaId(null)
+                    .monto(fila.getMontoPago())
+                    .build());
+                return;
+            }
+
+            if (fila.getMetodoPago() == MetodoPago.SALDO_A_FAVOR) {
+                saldoAFavorAplicado = true;
+            }
+            String numeroFactura = String.format("%d-%08d", fila.getSerie(), fila.getNroFactura());
+            desglose.add(ReciboDTO.DetallePagoDTO.builder()
+                .metodoPago(fila.getMetodoPago())
+                .numeroFactura(numeroFactura)
+                .facturaId(fila.getFacturaId())
+                .monto(fila.getMontoAplicado())
+                .build());
+
+            if (facturas.length() > 0) {
+                facturas.append(", ");
+            }
+            facturas.append(String.format("Factura %s ($%s)", numeroFactura, fila.getMontoAplicado()));
+            if (!facturasIds.contains(fila.getFacturaId())) {
+                facturasIds.add(fila.getFacturaId());
+            }
+            if (clienteId == null && fila.getClienteId() != null) {
+                clienteId = fila.getClienteId();
+                clienteNombre = fila.getClienteNombre();
+                clienteCuitDni = fila.getClienteCuitDni();
+            }
+        }
+
+        ReciboDTO armar() {
+            MetodoPago principal = metodoPrincipal != null ? metodoPrincipal : MetodoPago.SALDO_A_FAVOR;
+            String display = (saldoAFavorAplicado && principal != MetodoPago.SALDO_A_FAVOR)
+                ? principal + " + SALDO A FAVOR"
+                : principal.toString();
+
+            return ReciboDTO.builder()
+                .numero(numero)
+                .fecha(fecha)
+                .monto(monto)
+                .metodoPago(primerMetodo)
+                .metodoPagoDisplay(display)
+                .referencia(referencias.toString())
+                .facturasAsociadas(facturas.toString())
+                .facturasIds(facturasIds)
+                .clienteNombre(clienteNombre)
+                .clienteCuitDni(clienteCuitDni)
+                .clienteId(clienteId)
+                .pagoId(primerPago)
+                .observaciones(null)
+                .desglosePagos(desglose)
+                .build();
+        }
+    }
+}
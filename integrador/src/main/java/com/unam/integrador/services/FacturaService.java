@@ -1,25 +1,41 @@
 package com.unam.integrador.services;
 
+import java.time.Duration;
 import java.time.LocalDate;
-import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.unam.integrador.dto.TotalAgrupadoDTO;
+import com.unam.integrador.eventos.FacturacionMasivaProcesada;
+import com.unam.integrador.eventos.FacturasAnuladas;
+import com.unam.integrador.eventos.FacturasEmitidas;
+import com.unam.integrador.eventos.FacturasVencidas;
 import com.unam.integrador.model.CuentaCliente;
 import com.unam.integrador.model.Factura;
 import com.unam.integrador.model.ItemFactura;
 import com.unam.integrador.model.LoteFacturacion;
+import com.unam.integrador.model.Periodo;
 import com.unam.integrador.model.NotaCredito;
+import com.unam.integrador.model.OmisionFacturacion;
 import com.unam.integrador.model.PeriodoFacturacion;
 import com.unam.integrador.model.Servicio;
 import com.unam.integrador.model.ServicioContratado;
@@ -27,10 +43,15 @@ import com.unam.integrador.model.enums.EstadoCuenta;
 import com.unam.integrador.model.enums.EstadoFactura;
 import com.unam.integrador.model.enums.TipoCondicionIVA;
 import com.unam.integrador.model.enums.TipoFactura;
+import com.unam.integrador.model.enums.TipoOmisionFacturacion;
 import com.unam.integrador.repositories.CuentaClienteRepositorie;
 import com.unam.integrador.repositories.FacturaRepository;
 import com.unam.integrador.repositories.LoteFacturacionRepository;
 import com.unam.integrador.repositories.NotaCreditoRepository;
+import com.unam.integrador.repositories.OmisionFacturacionRepository;
+import com.unam.integrador.repositories.PrecioServicioRepository;
+
+import io.micrometer.core.annotation.Timed;
 
 /**
  * Servicio de aplicación para la gestión de facturas.
@@ -53,12 +74,33 @@ public class FacturaService {
     @Autowired
     private LoteFacturacionRepository loteFacturacionRepository;
     
+    @Autowired
+    private PrecioServicioRepository precioServicioRepository;
+    
+    @Autowired
+    private OmisionFacturacionRepository omisionFacturacionRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventos;
+    
+    @Autowired
+    private BloqueoPeriodoService bloqueoPeriodoService;
+    
+    @Autowired
+    private NumeracionFacturaService numeracionFacturaService;
+    
     // Configuración para el emisor (empresa)
     // TODO: En producción esto debería venir de configuración o base de datos
     private static final TipoCondicionIVA CONDICION_IVA_EMISOR = TipoCondicionIVA.RESPONSABLE_INSCRIPTO;
     private static final int SERIE_FACTURA_A = 1;
     private static final int SERIE_FACTURA_B = 2;
     private static final int SERIE_FACTURA_C = 3;
+    private static final String MENSAJE_FACTURA_DUPLICADA =
+        "Ya existe una factura emitida para este cliente en el período seleccionado. " +
+        "Solo se puede emitir una nueva factura si la anterior fue anulada.";
+    
+    /** Clientes no facturados por página en el detalle de un lote. */
+    private static final int OMISIONES_POR_PAGINA = 50;
     
     /**
      * Emite una factura individual usando los servicios contratados activos del cliente.
@@ -72,6 +114,7 @@ public class FacturaService {
      * @return Factura generada
      */
     @Transactional
+    @Timed(value = MetricasFacturacion.TIMER_FACTURACION, extraTags = {"operacion", "emitir"})
     public Factura emitirFacturaDesdeServiciosContratados(
             Long clienteId, 
             LocalDate periodo, 
@@ -90,14 +133,7 @@ public class FacturaService {
             throw new IllegalArgumentException("El cliente no tiene servicios contratados activos");
         }
         
-        // 3. Validar que no exista otra factura no anulada para el mismo período
-        LocalDate periodoNormalizado = periodo.withDayOfMonth(1);
-        if (facturaRepository.existsByClienteIdAndPeriodoAndEstadoNot(clienteId, periodoNormalizado, EstadoFactura.ANULADA)) {
-            throw new IllegalStateException(
-                "Ya existe una factura emitida para este cliente en el período seleccionado. " +
-                "Solo se puede emitir una nueva factura si la anterior fue anulada."
-            );
-        }
+        // 3. La unicidad cliente/período la garantiza la base de datos al persistir
         
         // 4. Determinar tipo de factura (delegar al dominio)
         TipoFactura tipoFactura = Factura.determinarTipoFactura(
@@ -127,6 +163,8 @@ public class FacturaService {
         factura.validarClienteActivo();
         
         // 9. Agregar items solo de servicios facturables (modelo rico)
+        // El precio se resuelve según el tarifario vigente en el período facturado
+        TablaPrecios tablaPrecios = cargarTablaPrecios(periodo, serviciosContratados);
         for (ServicioContratado servicioContratado : serviciosContratados) {
             Servicio servicio = servicioContratado.getServicio();
             
@@ -134,11 +172,12 @@ public class FacturaService {
             if (servicio != null && servicio.puedeFacturarse()) {
                 ItemFactura item = new ItemFactura(
                     servicio.getNombre(),                       // descripcion
-                    servicioContratado.getPrecioContratado(),   // precioUnitario (precio específico del contrato)
+                    tablaPrecios.resolver(servicioContratado),  // precioUnitario vigente en el período
                     1,                                          // cantidad (siempre 1 para servicios mensuales)
                     servicio.getAlicuotaIVA()                   // alicuotaIVA
                 );
                 
+                item.setServicio(servicio);
                 factura.agregarItem(item);
             }
         }
@@ -159,8 +198,12 @@ public class FacturaService {
             factura.aplicarDescuento(porcentajeDescuento, motivoDescuento);
         }
         
-        // 11. Persistir factura
-        return facturaRepository.save(factura);
+        // 11. Persistir factura (falla si ya existe otra no anulada para el período)
+        Factura guardada = guardarFacturaUnicaPorPeriodo(factura);
+        
+        // 12. Propagar la emisión a las vistas derivadas, la autorización, el correo y las métricas
+        eventos.publishEvent(FacturasEmitidas.individual(guardada));
+        return guardada;
     }
 
     /**
@@ -215,6 +258,8 @@ public class FacturaService {
     @Transactional(readOnly = true)
     public Iterable<Factura> listarFacturasFiltradas(String estado, String tipo, String periodo) {
         Iterable<Factura> all = facturaRepository.findAll();
+        // El criterio se normaliza una vez; cada factura compara contra la etiqueta cacheada de su período
+        String criterioPeriodo = (periodo == null || periodo.isBlank()) ? null : Periodo.normalizar(periodo);
 
         return StreamSupport.stream(all.spliterator(), false)
                 .filter(f -> {
@@ -234,15 +279,38 @@ public class FacturaService {
                     }
                 })
                 .filter(f -> {
-                    if (periodo == null || periodo.isBlank()) return true;
-                    String periodoFormateado = f.getPeriodoFormateado();
-                    return periodoFormateado != null && periodoFormateado.toLowerCase().contains(periodo.toLowerCase());
+                    if (criterioPeriodo == null) return true;
+                    Periodo periodoFactura = Periodo.de(f.getPeriodo());
+                    return periodoFactura != null && periodoFactura.coincideCon(criterioPeriodo);
                 })
                 .collect(Collectors.toList());
     }
     
     // --- Métodos privados auxiliares ---
     
+    /**
+     * Arma la tabla de precios en memoria con el precio vigente en el período
+     * de cada servicio y contrato con precio especial.
+     */
+    TablaPrecios cargarTablaPrecios(LocalDate periodo) {
+        return new TablaPrecios(precioServicioRepository.findVigentesEn(periodo));
+    }
+    
+    /**
+     * Arma la tabla de precios del período solo con los servicios contratados de un cliente.
+     */
+    private TablaPrecios cargarTablaPrecios(LocalDate periodo, List<ServicioContratado> contratos) {
+        Set<Long> servicioIds = contratos.stream()
+            .map(ServicioContratado::getServicio)
+            .filter(Objects::nonNull)
+            .map(Servicio::getIDServicio)
+            .collect(Collectors.toSet());
+        if (servicioIds.isEmpty()) {
+            return TablaPrecios.vacia();
+        }
+        return new TablaPrecios(precioServicioRepository.findVigentesEnPorServicios(periodo, servicioIds));
+    }
+    
     /**
      * Obtiene la serie según el tipo de factura.
      */
@@ -256,10 +324,43 @@ public class FacturaService {
     
     /**
      * Obtiene el siguiente número de factura para una serie.
+     * Bloquea la serie hasta el fin de la transacción para que ninguna otra
+     * emisión (de esta u otra instancia) obtenga el mismo número.
      */
     private int obtenerSiguienteNumeroFactura(int serie) {
-        Factura ultimaFactura = facturaRepository.findFirstBySerieOrderByNroFacturaDesc(serie);
-        return (ultimaFactura != null) ? ultimaFactura.getNroFactura() + 1 : 1;
+        return numeracionFacturaService.reservar(serie, 1).getDesde();
+    }
+
+    /**
+     * Persiste la factura en un único INSERT y traduce la violación de la
+     * restricción única cliente/período a la excepción de negocio habitual.
+     * Esto reemplaza la consulta previa de existencia y es seguro ante
+     * emisiones concurrentes para el mismo cliente.
+     */
+    private Factura guardarFacturaUnicaPorPeriodo(Factura factura) {
+        try {
+            return facturaRepository.saveAndFlush(factura);
+        } catch (DataIntegrityViolationException e) {
+            if (esViolacionFacturaUnicaPorPeriodo(e)) {
+                throw new IllegalStateException(MENSAJE_FACTURA_DUPLICADA, e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Indica si la excepción fue causada por la restricción única cliente/período de Factura.
+     */
+    private boolean esViolacionFacturaUnicaPorPeriodo(DataIntegrityViolationException e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            String mensaje = (causa instanceof ConstraintViolationException cve && cve.getConstraintName() != null)
+                ? cve.getConstraintName()
+                : causa.getMessage();
+            if (mensaje != null && mensaje.toLowerCase().contains(Factura.UK_CLIENTE_PERIODO_ACTIVO)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -273,6 +374,7 @@ public class FacturaService {
      * @throws IllegalStateException si la factura no puede ser anulada
      */
     @Transactional
+    @Timed(value = MetricasFacturacion.TIMER_FACTURACION, extraTags = {"operacion", "anular"})
     public Factura anularFactura(Long facturaId, String motivo) {
         // Validar que el motivo no esté vacío
         if (motivo == null || motivo.trim().isEmpty()) {
@@ -314,16 +416,18 @@ public class FacturaService {
         // Persistir cambios
         notaCreditoRepository.save(notaCredito);
         facturaRepository.save(factura);
+        eventos.publishEvent(new FacturasAnuladas(List.of(factura), false));
 
         return factura;
     }
 
     /**
      * Obtiene el siguiente número de nota de crédito para una serie.
+     * Bloquea la numeración de notas de crédito de la serie hasta el fin de la
+     * transacción para que ninguna otra anulación obtenga el mismo número.
      */
     private int obtenerSiguienteNumeroNotaCredito(int serie) {
-        NotaCredito ultimaNota = notaCreditoRepository.findFirstBySerieOrderByNroNotaCreditoDesc(serie);
-        return (ultimaNota != null) ? ultimaNota.getNroNotaCredito() + 1 : 1;
+        return numeracionFacturaService.reservarNotasCredito(serie, 1);
     }
 
     /**
@@ -340,6 +444,7 @@ public class FacturaService {
      * @return Factura proporcional generada
      */
     @Transactional
+    @Timed(value = MetricasFacturacion.TIMER_FACTURACION, extraTags = {"operacion", "emitir-proporcional"})
     public Factura emitirFacturaProporcional(
             Long clienteId,
             LocalDate inicioPeriodo,
@@ -359,14 +464,7 @@ public class FacturaService {
             throw new IllegalArgumentException("El cliente no tiene servicios contratados activos");
         }
         
-        // 3. Validar que no exista otra factura no anulada para el mismo período
-        LocalDate periodoNormalizado = inicioPeriodo.withDayOfMonth(1);
-        if (facturaRepository.existsByClienteIdAndPeriodoAndEstadoNot(clienteId, periodoNormalizado, EstadoFactura.ANULADA)) {
-            throw new IllegalStateException(
-                "Ya existe una factura emitida para este cliente en el período seleccionado. " +
-                "Solo se puede emitir una nueva factura si la anterior fue anulada."
-            );
-        }
+        // 3. La unicidad cliente/período la garantiza la base de datos al persistir
         
         // 4. Crear período de facturación
         PeriodoFacturacion periodo = new PeriodoFacturacion(inicioPeriodo, finPeriodo);
@@ -397,18 +495,20 @@ public class FacturaService {
         factura.validarClienteActivo();
         
         // 9. Agregar items PROPORCIONALES desde servicios contratados
+        TablaPrecios tablaPrecios = cargarTablaPrecios(inicioPeriodo, serviciosContratados);
         for (ServicioContratado servicioContratado : serviciosContratados) {
             Servicio servicio = servicioContratado.getServicio();
             
             // Crear item proporcional usando el método estático
             ItemFactura item = ItemFactura.crearProporcional(
                 servicio.getNombre(),
-                servicioContratado.getPrecioContratado(),
+                tablaPrecios.resolver(servicioContratado),
                 1, // cantidad siempre 1 para servicios
                 servicio.getAlicuotaIVA(),
                 periodo
             );
             
+            item.setServicio(servicio);
             factura.agregarItem(item);
         }
         
@@ -420,8 +520,12 @@ public class FacturaService {
             factura.aplicarDescuento(porcentajeDescuento, motivoDescuento);
         }
         
-        // 11. Persistir factura
-        return facturaRepository.save(factura);
+        // 11. Persistir factura (falla si ya existe otra no anulada para el período)
+        Factura guardada = guardarFacturaUnicaPorPeriodo(factura);
+        
+        // 12. Propagar la emisión a las vistas derivadas, la autorización, el correo y las métricas
+        eventos.publishEvent(FacturasEmitidas.individual(guardada));
+        return guardada;
     }
 
     /**
@@ -450,6 +554,9 @@ public class FacturaService {
                 actualizadas++;
             }
         }
+        if (actualizadas > 0) {
+            eventos.publishEvent(new FacturasVencidas(actualizadas));
+        }
         
         return actualizadas;
     }
@@ -465,40 +572,22 @@ public class FacturaService {
      * @param periodoStr Período en formato texto (ej: "Noviembre 2025")
      * @param fechaVencimiento Fecha de vencimiento para todas las facturas
      * @return Lote de facturación generado con todas las facturas
-     * @throws IllegalStateException si ya existe un lote para el período
+     * @throws IllegalStateException si ya existe un lote para el período o si otra
+     *         operación lo tiene bloqueado
      */
     @Transactional
+    @Timed(value = MetricasFacturacion.TIMER_FACTURACION, extraTags = {"operacion", "masiva"})
     public LoteFacturacion ejecutarFacturacionMasiva(
             String periodoStr,
             LocalDate fechaVencimiento) {
         
-        // 1. Validar parámetros
-        if (periodoStr == null || periodoStr.trim().isEmpty()) {
-            throw new IllegalArgumentException("El período es obligatorio");
-        }
-        if (fechaVencimiento == null) {
-            throw new IllegalArgumentException("La fecha de vencimiento es obligatoria");
-        }
+        long inicio = System.nanoTime();
         
-        // 2. Convertir período string a LocalDate
-        LocalDate periodoFecha = convertirPeriodoALocalDate(periodoStr);
+        // 1-4. Validar parámetros y bloquear el período
+        Periodo periodo = validarNuevaFacturacionMasiva(periodoStr, fechaVencimiento, "Facturación masiva");
+        LocalDate periodoFecha = periodo.getPrimerDia();
         LocalDate fechaEmision = LocalDate.now();
         
-        // 3. Validar que la fecha de vencimiento sea posterior a la fecha de emisión
-        if (fechaVencimiento.isBefore(fechaEmision) || fechaVencimiento.isEqual(fechaEmision)) {
-            throw new IllegalArgumentException(
-                "La fecha de vencimiento debe ser posterior a la fecha de emisión (" + fechaEmision + ")"
-            );
-        }
-        
-        // 4. Verificar que no exista un lote activo para el mismo período
-        if (loteFacturacionRepository.existsByPeriodoFechaAndAnuladoFalse(periodoFecha)) {
-            throw new IllegalStateException(
-                "Ya existe una facturación masiva activa para el período " + periodoStr + 
-                ". Debe anular el lote existente antes de crear uno nuevo."
-            );
-        }
-        
         // 5. Crear el lote de facturación (sin usuario)
         LoteFacturacion lote = new LoteFacturacion(
             periodoStr,
@@ -507,6 +596,7 @@ public class FacturaService {
         );
         
         // 6. Obtener todos los clientes activos con servicios contratados
+        long inicioSeleccion = System.nanoTime();
         List<CuentaCliente> clientesActivos = clienteRepository.findAll().stream()
             .filter(c -> c.getEstado() == EstadoCuenta.ACTIVA)
             .filter(c -> !c.getServiciosContratadosActivos().isEmpty())
@@ -518,105 +608,210 @@ public class FacturaService {
             );
         }
         
-        // 7. Inicializar contadores de número de factura por serie
-        // Esto evita que todas las facturas de la misma serie obtengan el mismo número
-        // cuando se generan múltiples facturas antes de persistirlas
-        Map<Integer, Integer> contadoresNumeroFactura = new HashMap<>();
-        contadoresNumeroFactura.put(SERIE_FACTURA_A, obtenerSiguienteNumeroFactura(SERIE_FACTURA_A));
-        contadoresNumeroFactura.put(SERIE_FACTURA_B, obtenerSiguienteNumeroFactura(SERIE_FACTURA_B));
-        contadoresNumeroFactura.put(SERIE_FACTURA_C, obtenerSiguienteNumeroFactura(SERIE_FACTURA_C));
-        
-        // 8. Generar factura para cada cliente
-        List<String> errores = new ArrayList<>();
+        // 7-8. Generar factura para cada cliente (se numeran todas juntas al final)
+        // Clientes ya facturados en el período: una sola consulta en lugar de una por cliente
+        Set<Long> clientesYaFacturados = facturaRepository.findClienteIdsConFacturaNoAnuladaEnPeriodo(periodoFecha);
+        // Tarifario del período: se carga una sola vez para todos los clientes
+        TablaPrecios tablaPrecios = cargarTablaPrecios(periodoFecha);
+        long inicioArmado = System.nanoTime();
         int facturasGeneradas = 0;
         
         for (CuentaCliente cliente : clientesActivos) {
             try {
                 // Verificar si ya existe factura para este cliente en este período
-                if (facturaRepository.existsByClienteIdAndPeriodoAndEstadoNot(
-                        cliente.getId(), periodoFecha, EstadoFactura.ANULADA)) {
-                    errores.add("Cliente " + cliente.getNombre() + " ya tiene factura para este período");
+                if (clientesYaFacturados.contains(cliente.getId())) {
+                    lote.registrarOmision(cliente, TipoOmisionFacturacion.OMITIDO,
+                        "Ya tiene factura para este período");
                     continue;
                 }
                 
-                // Determinar tipo de factura
-                TipoFactura tipoFactura = Factura.determinarTipoFactura(
-                    CONDICION_IVA_EMISOR,
-                    cliente.getCondicionIva()
-                );
-                
-                // Obtener serie y número desde los contadores en memoria
-                int serie = obtenerSerie(tipoFactura);
-                int numero = contadoresNumeroFactura.get(serie);
-                // Incrementar el contador para la próxima factura de esta serie
-                contadoresNumeroFactura.put(serie, numero + 1);
-                
-                // Crear factura
-                Factura factura = new Factura(
-                    serie,
-                    numero,
-                    cliente,
-                    fechaEmision,
-                    fechaVencimiento,
-                    periodoFecha,
-                    tipoFactura
-                );
-                
-                // Agregar items desde servicios contratados
-                for (ServicioContratado servicioContratado : cliente.getServiciosContratadosActivos()) {
-                    Servicio servicio = servicioContratado.getServicio();
-                    
-                    // Solo facturar servicios activos
-                    if (servicio != null && servicio.puedeFacturarse()) {
-                        ItemFactura item = new ItemFactura(
-                            servicio.getNombre(),
-                            servicioContratado.getPrecioContratado(),
-                            1,
-                            servicio.getAlicuotaIVA()
-                        );
-                        
-                        factura.agregarItem(item);
-                    }
-                }
+                Factura factura = armarFacturaMasiva(cliente, fechaEmision, fechaVencimiento,
+                    periodoFecha, tablaPrecios);
                 
                 if (!factura.getDetalleFactura().isEmpty()) {
                     lote.agregarFactura(factura);
                     facturasGeneradas++;
                 } else {
-                    errores.add("Cliente " + cliente.getNombre() + " no tiene servicios activos para facturar");
+                    lote.registrarOmision(cliente, TipoOmisionFacturacion.OMITIDO,
+                        "No tiene servicios activos para facturar");
                 }
                 
             } catch (Exception e) {
-                errores.add("Error al generar factura para cliente " + cliente.getNombre() + ": " + e.getMessage());
+                lote.registrarOmision(cliente, TipoOmisionFacturacion.ERROR,
+                    "Error al generar la factura: " + e.getMessage());
             }
         }
         
         // 9. Verificar que se haya generado al menos una factura
         if (facturasGeneradas == 0) {
             String mensajeError = "No se pudo generar ninguna factura.";
-            if (!errores.isEmpty()) {
-                mensajeError += " Errores: " + String.join("; ", errores);
+            if (!lote.getOmisiones().isEmpty()) {
+                mensajeError += " Errores: " + lote.getOmisiones().stream()
+                    .map(OmisionFacturacion::getDescripcion)
+                    .collect(Collectors.joining("; "));
             }
             throw new IllegalStateException(mensajeError);
         }
         
-        // 10. Guardar el lote con todas sus facturas
-        lote = loteFacturacionRepository.save(lote);
+        // 10. Numerar las facturas y guardar el lote con todas ellas y los clientes omitidos
+        // Las series usadas quedan bloqueadas desde acá hasta el commit
+        // Si una emisión concurrente facturó a algún cliente, la restricción única lo detecta
+        long inicioNumeracion = System.nanoTime();
+        numerarFacturas(lote.getFacturas());
+        long inicioPersistencia = System.nanoTime();
+        try {
+            lote = loteFacturacionRepository.saveAndFlush(lote);
+        } catch (DataIntegrityViolationException e) {
+            if (esViolacionFacturaUnicaPorPeriodo(e)) {
+                throw new IllegalStateException(MENSAJE_FACTURA_DUPLICADA, e);
+            }
+            throw e;
+        }
+        
+        // 11. Registrar la telemetría (se guarda al confirmar la transacción)
+        long fin = System.nanoTime();
+        lote.registrarEjecucion(clientesActivos.size(),
+            milisegundos(inicioArmado - inicioSeleccion),
+            milisegundos(inicioNumeracion - inicioArmado),
+            milisegundos(inicioPersistencia - inicioNumeracion),
+            milisegundos(fin - inicioPersistencia),
+            milisegundos(fin - inicio));
+        eventos.publishEvent(new FacturasEmitidas(lote.getFacturas(), true));
+        eventos.publishEvent(new FacturacionMasivaProcesada(clientesActivos.size(), Duration.ofNanos(fin - inicio)));
         
         return lote;
     }
     
     /**
-     * Convierte un string de período en formato "Mes Año" a LocalDate.
-     * El día siempre será 1.
+     * Convierte un intervalo medido con {@link System#nanoTime()} a milisegundos.
+     */
+    static long milisegundos(long nanos) {
+        return Duration.ofNanos(nanos).toMillis();
+    }
+    
+    /**
+     * Valida los datos de una nueva facturación masiva, bloquea el período y
+     * verifica que no tenga un lote activo (pasos 1 a 4 de la facturación masiva).
+     * 
+     * @param periodoStr Período en formato texto (ej: "Noviembre 2025")
+     * @param fechaVencimiento Fecha de vencimiento para todas las facturas
+     * @param operacion descripción de la operación que toma el bloqueo
+     * @return el período validado
+     * @throws IllegalArgumentException si los datos no son válidos
+     * @throws IllegalStateException si ya existe un lote para el período o si otra
+     *         operación lo tiene bloqueado
+     */
+    Periodo validarNuevaFacturacionMasiva(String periodoStr, LocalDate fechaVencimiento, String operacion) {
+        // 1. Validar parámetros
+        if (periodoStr == null || periodoStr.trim().isEmpty()) {
+            throw new IllegalArgumentException("El período es obligatorio");
+        }
+        if (fechaVencimiento == null) {
+            throw new IllegalArgumentException("La fecha de vencimiento es obligatoria");
+        }
+        
+        // 2. Convertir período string a LocalDate
+        Periodo periodo = Periodo.parse(periodoStr);
+        LocalDate fechaEmision = LocalDate.now();
+        
+        // 3. Validar que la fecha de vencimiento sea posterior a la fecha de emisión
+        if (fechaVencimiento.isBefore(fechaEmision) || fechaVencimiento.isEqual(fechaEmision)) {
+            throw new IllegalArgumentException(
+                "La fecha de vencimiento debe ser posterior a la fecha de emisión (" + fechaEmision + ")"
+            );
+        }
+        
+        // 4. Verificar que no exista un lote activo para el mismo período
+        // El bloqueo del período evita que otra instancia lance la misma facturación en paralelo
+        bloqueoPeriodoService.bloquear(periodo, operacion);
+        if (loteFacturacionRepository.existsByPeriodoFacturadoAndAnuladoFalse(periodo)) {
+            throw new IllegalStateException(
+                "Ya existe una facturación masiva activa para el período " + periodoStr + 
+                ". Debe anular el lote existente antes de crear uno nuevo."
+            );
+        }
+        
+        return periodo;
+    }
+    
+    /**
+     * Numera las facturas armadas con {@link #armarFacturaMasiva}: reserva un
+     * bloque en cada serie usada (en orden ascendente) y asigna los números en
+     * el orden de la lista. Las series reservadas quedan bloqueadas hasta el
+     * fin de la transacción en curso.
      * 
-     * @param periodoStr String del período (ej: "Noviembre 2025")
-     * @return LocalDate con el primer día del mes indicado
+     * @param facturas facturas sin numerar
+     * @return bloques reservados, uno por serie usada
      */
-    private LocalDate convertirPeriodoALocalDate(String periodoStr) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.of("es", "ES"));
-        YearMonth yearMonth = YearMonth.parse(periodoStr.toLowerCase(), formatter);
-        return yearMonth.atDay(1);
+    List<NumeracionFacturaService.Bloque> numerarFacturas(List<Factura> facturas) {
+        Map<Integer, Integer> cantidadPorSerie = new TreeMap<>();
+        for (Factura factura : facturas) {
+            cantidadPorSerie.merge(factura.getSerie(), 1, Integer::sum);
+        }
+        List<NumeracionFacturaService.Bloque> bloques = new ArrayList<>(cantidadPorSerie.size());
+        Map<Integer, Integer> siguientes = new HashMap<>();
+        cantidadPorSerie.forEach((serie, cantidad) -> {
+            NumeracionFacturaService.Bloque bloque = numeracionFacturaService.reservar(serie, cantidad);
+            bloques.add(bloque);
+            siguientes.put(serie, bloque.getDesde());
+        });
+        for (Factura factura : facturas) {
+            factura.setNroFactura(siguientes.merge(factura.getSerie(), 1, Integer::sum) - 1);
+        }
+        return bloques;
+    }
+    
+    /**
+     * Arma la factura de un cliente dentro de una facturación masiva (cuerpo del
+     * ciclo por cliente). No accede a la base de datos: los precios se toman de
+     * la tabla del período y la factura queda sin número hasta
+     * {@link #numerarFacturas}.
+     * 
+     * @param cliente cliente a facturar
+     * @param fechaEmision fecha de emisión
+     * @param fechaVencimiento fecha de vencimiento
+     * @param periodoFecha período facturado
+     * @param tablaPrecios precios vigentes en el período
+     * @return la factura armada (sin items si el cliente no tiene servicios facturables)
+     */
+    Factura armarFacturaMasiva(CuentaCliente cliente, LocalDate fechaEmision, LocalDate fechaVencimiento,
+                               LocalDate periodoFecha, TablaPrecios tablaPrecios) {
+        // Determinar tipo de factura
+        TipoFactura tipoFactura = Factura.determinarTipoFactura(
+            CONDICION_IVA_EMISOR,
+            cliente.getCondicionIva()
+        );
+        
+        // Crear factura (el número se asigna al numerar el grupo)
+        Factura factura = new Factura(
+            obtenerSerie(tipoFactura),
+            0,
+            cliente,
+            fechaEmision,
+            fechaVencimiento,
+            periodoFecha,
+            tipoFactura
+        );
+        
+        // Agregar items desde servicios contratados
+        for (ServicioContratado servicioContratado : cliente.getServiciosContratadosActivos()) {
+            Servicio servicio = servicioContratado.getServicio();
+        
+            // Solo facturar servicios activos
+            if (servicio != null && servicio.puedeFacturarse()) {
+                ItemFactura item = new ItemFactura(
+                    servicio.getNombre(),
+                    tablaPrecios.resolver(servicioContratado),
+                    1,
+                    servicio.getAlicuotaIVA()
+                );
+        
+                item.setServicio(servicio);
+                factura.agregarItem(item);
+            }
+        }
+        
+        return factura;
     }
     
     /**
@@ -651,26 +846,48 @@ public class FacturaService {
      * @param loteId ID del lote a anular
      * @param motivo Motivo de la anulación
      * @return Lote anulado
-     * @throws IllegalStateException si el lote no puede ser anulado
+     * @throws IllegalStateException si el lote no puede ser anulado o si otra
+     *         operación tiene bloqueado su período
      */
     @Transactional
+    @Timed(value = MetricasFacturacion.TIMER_FACTURACION, extraTags = {"operacion", "anular-lote"})
     public LoteFacturacion anularLoteFacturacion(Long loteId, String motivo) {
-        // 1. Obtener el lote
+        // 1. Bloquear el período del lote y obtenerlo ya bloqueado
+        Periodo periodo = loteFacturacionRepository.findPeriodoFechaById(loteId)
+            .map(Periodo::de)
+            .orElseThrow(() -> new IllegalArgumentException("Lote de facturación no encontrado con ID: " + loteId));
+        bloqueoPeriodoService.bloquear(periodo, "Anulación de lote #" + loteId);
         LoteFacturacion lote = obtenerLotePorId(loteId);
         
         // 2. Validar que puede ser anulado
+        if (lote.isEnProceso()) {
+            throw new IllegalStateException(
+                "No se puede anular el lote. La facturación todavía se está procesando."
+            );
+        }
         if (!lote.puedeSerAnulado()) {
             throw new IllegalStateException(
                 "No se puede anular el lote. Algunas facturas ya tienen pagos registrados."
             );
         }
         
-        // 3. Anular cada factura del lote y generar notas de crédito
+        // 3. Reservar los números de notas de crédito de cada serie (en orden ascendente)
+        Map<Integer, Integer> cantidadPorSerie = new TreeMap<>();
+        for (Factura factura : lote.getFacturas()) {
+            if (factura.puedeSerAnulada()) {
+                cantidadPorSerie.merge(factura.getSerie(), 1, Integer::sum);
+            }
+        }
+        Map<Integer, Integer> siguientes = new HashMap<>();
+        cantidadPorSerie.forEach((serie, cantidad) ->
+            siguientes.put(serie, numeracionFacturaService.reservarNotasCredito(serie, cantidad)));
+        
+        // 4. Anular cada factura del lote y generar notas de crédito
         for (Factura factura : lote.getFacturas()) {
             if (factura.puedeSerAnulada()) {
                 // Generar nota de crédito
                 int serieNotaCredito = factura.getSerie();
-                int nroNotaCredito = obtenerSiguienteNumeroNotaCredito(serieNotaCredito);
+                int nroNotaCredito = siguientes.merge(serieNotaCredito, 1, Integer::sum) - 1;
                 
                 NotaCredito notaCredito = new NotaCredito(
                     serieNotaCredito,
@@ -690,16 +907,18 @@ public class FacturaService {
             }
         }
         
-        // 4. Anular el lote
+        // 5. Anular el lote
         lote.anular(motivo);
         
-        // 5. Guardar y retornar
+        // 6. Guardar y retornar
+        eventos.publishEvent(new FacturasAnuladas(lote.getFacturas(), true));
         return loteFacturacionRepository.save(lote);
     }
     
     /**
      * Obtiene el resumen de un lote de facturación.
-     * Útil para la vista de detalle (HU-09).
+     * Útil para la vista de detalle (HU-09). Los clientes omitidos no se
+     * cargan: se consultan por página con {@link #listarOmisiones}.
      * 
      * @param loteId ID del lote
      * @return Lote con sus facturas cargadas
@@ -711,4 +930,40 @@ public class FacturaService {
         lote.getFacturas().size();
         return lote;
     }
+    
+    /**
+     * Cuenta los clientes no facturados de un lote por tipo de omisión.
+     * 
+     * @param loteId ID del lote
+     * @return cantidad por tipo (cero para los tipos sin omisiones)
+     */
+    @Transactional(readOnly = true)
+    public Map<TipoOmisionFacturacion, Long> contarOmisiones(Long loteId) {
+        Map<TipoOmisionFacturacion, Long> cantidades = new EnumMap<>(TipoOmisionFacturacion.class);
+        for (TipoOmisionFacturacion tipo : TipoOmisionFacturacion.values()) {
+            cantidades.put(tipo, 0L);
+        }
+        for (TotalAgrupadoDTO total : omisionFacturacionRepository.contarPorTipo(loteId)) {
+            cantidades.put((TipoOmisionFacturacion) total.getClave(), total.getCantidad());
+        }
+        return cantidades;
+    }
+    
+    /**
+     * Obtiene una página de los clientes no facturados de un lote.
+     * 
+     * @param loteId ID del lote
+     * @param pagina número de página (desde 0)
+     * @param total cantidad total de omisiones del lote (de {@link #contarOmisiones})
+     * @return la página de omisiones, en el orden en que se registraron
+     */
+    @Transactional(readOnly = true)
+    public Page<OmisionFacturacion> listarOmisiones(Long loteId, int pagina, long total) {
+        Pageable pageable = PageRequest.of(Math.max(0, pagina), OMISIONES_POR_PAGINA);
+        if (total == 0) {
+            return Page.empty(pageable);
+        }
+        return new PageImpl<>(omisionFacturacionRepository.findByLoteIdOrderByIdAsc(loteId, pageable),
+            pageable, total);
+    }
 }
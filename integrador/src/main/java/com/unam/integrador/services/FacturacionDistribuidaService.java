@@ -0,0 +1,428 @@
+package com.unam.integrador.services;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.unam.integrador.eventos.FacturacionDistribuidaIniciada;
+import com.unam.integrador.eventos.FacturacionMasivaProcesada;
+import com.unam.integrador.eventos.FacturasEmitidas;
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.ItemFacturacionMasiva;
+import com.unam.integrador.model.LoteFacturacion;
+import com.unam.integrador.model.OmisionFacturacion;
+import com.unam.integrador.model.Periodo;
+import com.unam.integrador.model.enums.EstadoCuenta;
+import com.unam.integrador.model.enums.EstadoItemFacturacion;
+import com.unam.integrador.model.enums.TipoOmisionFacturacion;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+import com.unam.integrador.repositories.FacturaRepository;
+import com.unam.integrador.repositories.ItemFacturacionMasivaRepository;
+import com.unam.integrador.repositories.LoteFacturacionRepository;
+import com.unam.integrador.repositories.OmisionFacturacionRepository;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Facturación masiva distribuida entre varias instancias de la aplicación.
+ *
+ * Al iniciarse, el lote se crea vacío y los clientes facturables se dividen en
+ * grupos de hasta {@code facturacion.distribuida.tamanio-item} IDs consecutivos,
+ * que quedan en la cola {@link ItemFacturacionMasiva}. Cada instancia corre
+ * {@code facturacion.distribuida.hilos} trabajadores en {@link TareasSegundoPlano} que:
+ * - toman un grupo pendiente con FOR UPDATE SKIP LOCKED (dos trabajadores
+ *   nunca toman el mismo grupo y ninguno espera a otro);
+ * - leen los clientes, sus facturas del período y el tarifario en paralelo
+ *   con los demás, siempre desde la base: el caché de segundo nivel es local
+ *   y no ve los contratos ni los servicios modificados en otra instancia;
+ * - arman las facturas en memoria con {@link FacturaService#armarFacturaMasiva},
+ *   reservan en una transacción corta y aparte un bloque de números en cada
+ *   serie usada ({@link NumeracionFacturaService}) y recién entonces las
+ *   guardan: la numeración es correlativa entre todas las instancias y las
+ *   series quedan bloqueadas solo mientras se reserva el bloque;
+ * - suman el resultado y los tiempos de cada fase al lote con una
+ *   actualización atómica y, si era el último grupo, lo dan por finalizado
+ *   registrando la duración total y los trabajadores que participaron.
+ *
+ * Todo el grupo se procesa en una transacción: si el trabajador falla, el
+ * grupo vuelve a quedar pendiente, los números reservados se devuelven (si
+ * nadie reservó otros después; si no, queda un hueco que se informa en el log)
+ * y el intento se registra aparte; al llegar a
+ * {@code facturacion.distribuida.max-intentos} el grupo queda fallido y cuenta
+ * como terminado para el lote. Además de despertarse al iniciar un lote,
+ * los trabajadores revisan la cola cada {@code facturacion.distribuida.intervalo-sondeo}
+ * para tomar grupos de lotes iniciados en otras instancias.
+ */
+@Service
+public class FacturacionDistribuidaService {
+
+    private static final Logger log = LoggerFactory.getLogger(FacturacionDistribuidaService.class);
+
+    @Autowired
+    private FacturaService facturaService;
+
+    @Autowired
+    private CuentaClienteRepositorie clienteRepository;
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    @Autowired
+    private LoteFacturacionRepository loteFacturacionRepository;
+
+    @Autowired
+    private ItemFacturacionMasivaRepository itemRepository;
+
+    @Autowired
+    private OmisionFacturacionRepository omisionFacturacionRepository;
+
+    @Autowired
+    private NumeracionFacturaService numeracionFacturaService;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TareasSegundoPlano tareasSegundoPlano;
+
+    /** Cantidad máxima de clientes por grupo. */
+    @Value("${facturacion.distribuida.tamanio-item:500}")
+    private int tamanioItem = 500;
+
+    /** Trabajadores de esta instancia. */
+    @Value("${facturacion.distribuida.hilos:2}")
+    private int hilos = 2;
+
+    /** Intentos de un grupo antes de marcarlo fallido. */
+    @Value("${facturacion.distribuida.max-intentos:3}")
+    private int maxIntentos = 3;
+
+    /** Si es false, ni el inicio de un lote ni el sondeo periódico despiertan trabajadores. */
+    @Value("${facturacion.distribuida.automatica:false}")
+    private boolean automatica;
+
+    private final String instancia = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final AtomicInteger trabajadoresActivos = new AtomicInteger();
+
+    /**
+     * Inicia una facturación masiva distribuida: crea el lote y encola los
+     * grupos de clientes. Las facturas se generan después, en segundo plano.
+     *
+     * @param periodoStr Período en formato texto (ej: "Noviembre 2025")
+     * @param fechaVencimiento Fecha de vencimiento para todas las facturas
+     * @return el lote en proceso
+     * @throws IllegalArgumentException si los datos no son válidos
+     * @throws IllegalStateException si ya existe un lote para el período, si otra
+     *         operación lo tiene bloqueado o si no hay clientes para facturar
+     */
+    @Transactional
+    @Timed(value = MetricasFacturacion.TIMER_FACTURACION, extraTags = {"operacion", "masiva-distribuida"})
+    public LoteFacturacion iniciarFacturacionMasiva(String periodoStr, LocalDate fechaVencimiento) {
+        Periodo periodo = facturaService.validarNuevaFacturacionMasiva(
+            periodoStr, fechaVencimiento, "Facturación masiva distribuida");
+
+        long inicioSeleccion = System.nanoTime();
+        List<Long> clientes = clienteRepository.findIdsFacturables();
+        if (clientes.isEmpty()) {
+            throw new IllegalStateException(
+                "No hay clientes activos con servicios contratados para facturar en el período " + periodoStr
+            );
+        }
+
+        LoteFacturacion lote = new LoteFacturacion(periodo, fechaVencimiento);
+        int items = (clientes.size() + tamanioItem - 1) / tamanioItem;
+        lote.iniciarProcesamiento(items);
+        lote.setDuracionSeleccionMs(FacturaService.milisegundos(System.nanoTime() - inicioSeleccion));
+        lote = loteFacturacionRepository.save(lote);
+
+        List<ItemFacturacionMasiva> grupos = new ArrayList<>(items);
+        for (int desde = 0; desde < clientes.size(); desde += tamanioItem) {
+            int hasta = Math.min(desde + tamanioItem, clientes.size()) - 1;
+            grupos.add(new ItemFacturacionMasiva(lote, clientes.get(desde), clientes.get(hasta)));
+        }
+        itemRepository.saveAll(grupos);
+
+        eventos.publishEvent(new FacturacionDistribuidaIniciada(lote.getId()));
+        return lote;
+    }
+
+    /**
+     * Toma un grupo pendiente de cualquier lote y lo factura en una transacción.
+     * Si falla, registra el intento en el grupo y relanza el error.
+     *
+     * @return true si procesó un grupo, false si la cola no tenía grupos libres
+     */
+    public boolean procesarSiguienteItem() {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Long[] tomado = new Long[1];
+        List<NumeracionFacturaService.Bloque> reservados = new ArrayList<>();
+        try {
+            Boolean procesado = transaccion.execute(estado -> itemRepository.reclamarSiguiente()
+                .map(item -> {
+                    tomado[0] = item.getId();
+                    procesar(item, reservados);
+                    return true;
+                })
+                .orElse(false));
+            return Boolean.TRUE.equals(procesado);
+        } catch (RuntimeException e) {
+            if (!reservados.isEmpty()) {
+                try {
+                    devolverNumeracion(reservados);
+                } catch (RuntimeException falla) {
+                    e.addSuppressed(falla);
+                }
+            }
+            if (tomado[0] != null) {
+                try {
+                    registrarFalla(tomado[0], e);
+                } catch (RuntimeException falla) {
+                    e.addSuppressed(falla);
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Procesa grupos hasta vaciar la cola.
+     *
+     * @return cantidad de grupos procesados por este llamado
+     */
+    public int procesarPendientes() {
+        int procesados = 0;
+        while (procesarSiguienteItem()) {
+            procesados++;
+        }
+        return procesados;
+    }
+
+    /**
+     * Revisa periódicamente la cola en busca de grupos de otras instancias o
+     * de grupos que quedaron pendientes por una falla.
+     */
+    @Scheduled(fixedDelayString = "${facturacion.distribuida.intervalo-sondeo:30000}",
+               initialDelayString = "${facturacion.distribuida.intervalo-sondeo:30000}")
+    public void sondear() {
+        if (automatica) {
+            lanzarTrabajadores();
+        }
+    }
+
+    /**
+     * Factura los clientes de un grupo y suma el resultado y sus tiempos al lote.
+     *
+     * @param reservados recibe los bloques de numeración reservados, para
+     *        devolverlos si la transacción del grupo se revierte
+     */
+    private void procesar(ItemFacturacionMasiva item, List<NumeracionFacturaService.Bloque> reservados) {
+        long inicio = System.nanoTime();
+        LoteFacturacion lote = item.getLote();
+        LocalDate periodoFecha = lote.getPeriodoFecha();
+        LocalDate fechaEmision = LocalDate.now();
+
+        // Cualquier instancia puede tomar el grupo: los contratos y servicios se leen de la base
+        // (CacheMode.REFRESH) y de paso se actualiza el caché local con lo leído
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.REFRESH);
+
+        // Lecturas sin bloqueos: corren en paralelo con los demás trabajadores
+        List<CuentaCliente> clientes = clienteRepository.findByIdBetweenAndEstadoOrderByIdAsc(
+            item.getClienteDesde(), item.getClienteHasta(), EstadoCuenta.ACTIVA);
+        Set<Long> clientesYaFacturados = facturaRepository.findClienteIdsConFacturaNoAnuladaEnPeriodoEntre(
+            periodoFecha, item.getClienteDesde(), item.getClienteHasta());
+        TablaPrecios tablaPrecios = facturaService.cargarTablaPrecios(periodoFecha);
+
+        long inicioArmado = System.nanoTime();
+        List<Factura> facturas = new ArrayList<>();
+        List<OmisionFacturacion> omisiones = new ArrayList<>();
+        int revisados = 0;
+        BigDecimal monto = BigDecimal.ZERO;
+        for (CuentaCliente cliente : clientes) {
+            if (cliente.getServiciosContratadosActivos().isEmpty()) {
+                continue;
+            }
+            revisados++;
+            if (clientesYaFacturados.contains(cliente.getId())) {
+                omisiones.add(new OmisionFacturacion(lote, cliente, TipoOmisionFacturacion.OMITIDO,
+                    "Ya tiene factura para este período"));
+                continue;
+            }
+            try {
+                Factura factura = facturaService.armarFacturaMasiva(cliente, fechaEmision,
+                    lote.getFechaVencimiento(), periodoFecha, tablaPrecios);
+                if (factura.getDetalleFactura().isEmpty()) {
+                    omisiones.add(new OmisionFacturacion(lote, cliente, TipoOmisionFacturacion.OMITIDO,
+                        "No tiene servicios activos para facturar"));
+                    continue;
+                }
+                factura.setLoteFacturacion(lote);
+                facturas.add(factura);
+                monto = monto.add(factura.getTotal());
+            } catch (RuntimeException e) {
+                omisiones.add(new OmisionFacturacion(lote, cliente, TipoOmisionFacturacion.ERROR,
+                    "Error al generar la factura: " + e.getMessage()));
+            }
+        }
+        long inicioNumeracion = System.nanoTime();
+        reservarNumeracion(facturas, reservados);
+        long inicioPersistencia = System.nanoTime();
+        facturaRepository.saveAll(facturas);
+        omisionFacturacionRepository.saveAll(omisiones);
+        facturaRepository.flush();
+        long finPersistencia = System.nanoTime();
+
+        item.completar(facturas.size(), instancia + "/" + Thread.currentThread().getName());
+        loteFacturacionRepository.registrarItemCompletado(lote.getId(), facturas.size(), monto, revisados,
+            FacturaService.milisegundos(inicioArmado - inicio),
+            FacturaService.milisegundos(inicioNumeracion - inicioArmado),
+            FacturaService.milisegundos(inicioPersistencia - inicioNumeracion),
+            FacturaService.milisegundos(finPersistencia - inicioPersistencia));
+        finalizarSiTermino(lote);
+
+        if (!facturas.isEmpty()) {
+            eventos.publishEvent(new FacturasEmitidas(facturas, true));
+        }
+        eventos.publishEvent(new FacturacionMasivaProcesada(clientes.size(),
+            Duration.ofNanos(System.nanoTime() - inicio)));
+    }
+
+    /**
+     * Numera las facturas del grupo reservando sus bloques en una transacción
+     * propia, que libera las series apenas se confirma.
+     */
+    private void reservarNumeracion(List<Factura> facturas, List<NumeracionFacturaService.Bloque> reservados) {
+        if (facturas.isEmpty()) {
+            return;
+        }
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        reservados.addAll(transaccion.execute(estado -> facturaService.numerarFacturas(facturas)));
+    }
+
+    /**
+     * Devuelve los bloques de un grupo cuya transacción se revirtió.
+     */
+    private void devolverNumeracion(List<NumeracionFacturaService.Bloque> reservados) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaccion.executeWithoutResult(estado -> {
+            for (NumeracionFacturaService.Bloque bloque : reservados) {
+                if (!numeracionFacturaService.devolver(bloque)) {
+                    log.warn("Los números {} a {} de la serie {} quedaron sin usar: ya se reservaron números posteriores",
+                        bloque.getDesde(), bloque.getDesde() + bloque.getCantidad() - 1, bloque.getSerie());
+                }
+            }
+        });
+    }
+
+    /**
+     * Registra un intento fallido del grupo en una transacción propia (la del
+     * grupo ya se revirtió). Si el grupo agotó sus intentos queda fallido y se
+     * descuenta de los pendientes del lote, que puede así finalizar.
+     */
+    private void registrarFalla(Long itemId, RuntimeException error) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaccion.executeWithoutResult(estado -> itemRepository.bloquear(itemId)
+            .filter(item -> item.getEstado() == EstadoItemFacturacion.PENDIENTE)
+            .ifPresent(item -> {
+                LoteFacturacion lote = item.getLote();
+                if (!item.registrarFalla(error.getClass().getSimpleName() + ": " + error.getMessage(), maxIntentos)) {
+                    log.warn("Falló el grupo {} del lote {} (intento {} de {}); se reintentará",
+                        item.getId(), lote.getId(), item.getIntentos(), maxIntentos);
+                    return;
+                }
+                log.error("El grupo {} del lote {} (clientes {} a {}) quedó fallido tras {} intentos: {}",
+                    item.getId(), lote.getId(), item.getClienteDesde(), item.getClienteHasta(),
+                    item.getIntentos(), item.getUltimoError());
+                loteFacturacionRepository.registrarItemFallido(lote.getId());
+                finalizarSiTermino(lote);
+            }));
+    }
+
+    /**
+     * Da por finalizado el lote si ya no le quedan grupos pendientes.
+     */
+    private void finalizarSiTermino(LoteFacturacion lote) {
+        Integer pendientes = loteFacturacionRepository.findItemsPendientesById(lote.getId());
+        if (pendientes != null && pendientes == 0) {
+            LocalDateTime fin = LocalDateTime.now();
+            loteFacturacionRepository.finalizar(lote.getId(), fin,
+                Duration.between(lote.getFechaEjecucion(), fin).toMillis(),
+                (int) itemRepository.countTrabajadoresByLoteId(lote.getId()));
+        }
+    }
+
+    /**
+     * Despierta los trabajadores de esta instancia al confirmarse un lote nuevo.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alIniciarLote(FacturacionDistribuidaIniciada evento) {
+        if (automatica) {
+            lanzarTrabajadores();
+        }
+    }
+
+    /**
+     * Lanza trabajadores hasta completar {@code hilos} activos. Cada uno
+     * procesa grupos hasta vaciar la cola; si un grupo falla, el trabajador
+     * termina y el grupo se reintenta en el próximo sondeo (hasta agotar sus intentos).
+     */
+    private void lanzarTrabajadores() {
+        int activos;
+        while ((activos = trabajadoresActivos.get()) < hilos) {
+            if (!trabajadoresActivos.compareAndSet(activos, activos + 1)) {
+                continue;
+            }
+            try {
+                tareasSegundoPlano.ejecutar(() -> {
+                    try {
+                        procesarPendientes();
+                    } catch (RuntimeException e) {
+                        log.error("El trabajador {} se detuvo por un error al facturar un grupo",
+                            Thread.currentThread().getName(), e);
+                    } finally {
+                        trabajadoresActivos.decrementAndGet();
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                trabajadoresActivos.decrementAndGet();
+                log.warn("No se pudo lanzar un trabajador de facturación distribuida: el ejecutor está cerrado");
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,622 @@
+package com.unam.integrador.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.unam.integrador.dto.ClienteSugerenciaDTO;
+import com.unam.integrador.eventos.ClienteModificado;
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+
+/**
+ * Índice de búsqueda en memoria para clientes (nombre, CUIT/DNI y email).
+ *
+ * Las búsquedas por subcadena ({@code LIKE '%texto%'}) no pueden usar índices
+ * de la base de datos y recorren toda la tabla de clientes. Este índice mapea
+ * cada trigrama (3 caracteres consecutivos) a los clientes que lo contienen,
+ * de modo que una búsqueda solo verifica los candidatos de su trigrama menos
+ * frecuente.
+ *
+ * Se utilizan arreglos primitivos (long[] / int[]) con direccionamiento abierto
+ * para evitar el boxing de Long/Integer en las listas de clientes por trigrama.
+ *
+ * El índice se construye al iniciar la aplicación y se actualiza al crear o
+ * modificar un cliente (luego del commit de la transacción). Esos eventos son
+ * locales: cada {@code clientes.indice.intervalo-reconciliacion} se vuelve a
+ * leer la tabla y se reindexan los clientes cuyos datos difieren, para incluir
+ * los cambios confirmados en otras instancias.
+ */
+@Component
+public class IndiceBusquedaClientes {
+
+    /** Longitud de los n-gramas indexados. */
+    static final int N = 3;
+
+    /** Orden de relevancia de una coincidencia según el campo donde aparece. */
+    private static final int PREFIJO_NOMBRE = 0;
+    private static final int EN_NOMBRE = 1;
+    private static final int EN_CUIT_DNI = 2;
+    private static final int EN_EMAIL = 3;
+    private static final int SIN_COINCIDENCIA = Integer.MAX_VALUE;
+
+    private static final long VACIO = -1L;
+
+    @Autowired
+    private CuentaClienteRepositorie clienteRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean listo = false;
+
+    /**
+     * Clientes indexados mientras se lee la tabla en {@link #construir()} o
+     * {@link #reconciliar()}. Prevalecen sobre lo leído para no perder altas o
+     * modificaciones confirmadas después de la lectura. Es null fuera de la lectura.
+     */
+    private Map<Long, ClienteSugerenciaDTO> actualizadosDuranteLectura;
+
+    // --- Documentos: una posición (slot) por cliente indexado ---
+    private int cantidad = 0;
+    private long[] ids = new long[64];
+    private String[] nombres = new String[64];
+    private String[] cuitsDni = new String[64];
+    private String[] emails = new String[64];
+    private String[] nombresNorm = new String[64];
+    private String[] cuitsDniNorm = new String[64];
+    private String[] emailsNorm = new String[64];
+
+    // --- Mapa id de cliente -> slot (direccionamiento abierto) ---
+    private long[] clavesId = nuevaTabla(128);
+    private int[] slotsId = new int[128];
+
+    // --- Mapa trigrama -> lista de slots (direccionamiento abierto) ---
+    private long[] clavesTrigrama = nuevaTabla(1024);
+    private int[][] postings = new int[1024][];
+    private int[] tamaniosPostings = new int[1024];
+    private int cantidadTrigramas = 0;
+
+    /**
+     * Construye el índice con todos los clientes al iniciar la aplicación.
+     * Los clientes indexados mientras se leía la tabla se aplican al final,
+     * porque la lectura puede no incluirlos o traer datos anteriores.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void construir() {
+        if (clienteRepository == null) {
+            return;
+        }
+        List<ClienteSugerenciaDTO> clientes = leerClientes();
+        lock.writeLock().lock();
+        try {
+            limpiar();
+            for (ClienteSugerenciaDTO c : clientes) {
+                indexarSinLock(c.getId(), c.getNombre(), c.getCuitDni(), c.getEmail());
+            }
+            for (ClienteSugerenciaDTO c : actualizadosDuranteLectura.values()) {
+                indexarSinLock(c.getId(), c.getNombre(), c.getCuitDni(), c.getEmail());
+            }
+            actualizadosDuranteLectura = null;
+            listo = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vuelve a leer la tabla y reindexa solo los clientes nuevos o cuyos datos
+     * difieren de los indexados (por ejemplo, modificados en otra instancia).
+     * Los clientes indexados mientras se leía la tabla se conservan.
+     */
+    @Scheduled(fixedDelayString = "${clientes.indice.intervalo-reconciliacion:300000}",
+               initialDelayString = "${clientes.indice.intervalo-reconciliacion:300000}")
+    public synchronized void reconciliar() {
+        if (clienteRepository == null || !listo) {
+            return;
+        }
+        List<ClienteSugerenciaDTO> clientes = leerClientes();
+        lock.writeLock().lock();
+        try {
+            for (ClienteSugerenciaDTO c : clientes) {
+                if (!actualizadosDuranteLectura.containsKey(c.getId())
+                        && !indexadoIgual(c.getId(), c.getNombre(), c.getCuitDni(), c.getEmail())) {
+                    indexarSinLock(c.getId(), c.getNombre(), c.getCuitDni(), c.getEmail());
+                }
+            }
+            actualizadosDuranteLectura = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si el índice ya fue construido y puede responder búsquedas.
+     */
+    public boolean estaListo() {
+        return listo;
+    }
+
+    /**
+     * Agrega o actualiza en el índice un cliente creado o modificado, luego
+     * del commit para no indexar datos que se revierten.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarCliente(ClienteModificado evento) {
+        actualizar(evento.getCliente());
+    }
+
+    /**
+     * Agrega o actualiza un cliente en el índice.
+     *
+     * @param cliente el cliente persistido (debe tener ID)
+     */
+    public void actualizar(CuentaCliente cliente) {
+        if (cliente == null || cliente.getId() == null) {
+            return;
+        }
+        indexar(cliente.getId(), cliente.getNombre(), cliente.getCuitDni(), cliente.getEmail());
+    }
+
+    /**
+     * Agrega o reemplaza los datos indexados de un cliente.
+     */
+    public void indexar(long id, String nombre, String cuitDni, String email) {
+        lock.writeLock().lock();
+        try {
+            indexarSinLock(id, nombre, cuitDni, email);
+            if (actualizadosDuranteLectura != null) {
+                actualizadosDuranteLectura.put(id, new ClienteSugerenciaDTO(id, nombre, cuitDni, email));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca clientes cuyo nombre, CUIT/DNI o email contengan el criterio.
+     * Los resultados se ordenan por relevancia: primero los que empiezan con el
+     * criterio en el nombre, luego coincidencias en nombre, CUIT/DNI y email;
+     * a igual relevancia, por nombre.
+     *
+     * @param criterio texto a buscar (no distingue mayúsculas ni acentos)
+     * @param limite cantidad máxima de resultados
+     * @return IDs de los clientes encontrados, ordenados por relevancia
+     */
+    public List<Long> buscar(String criterio, int limite) {
+        return buscar(criterio, limite, false);
+    }
+
+    /**
+     * Igual que {@link #buscar(String, int)} pero solo sobre el nombre del cliente.
+     */
+    public List<Long> buscarPorNombre(String criterio, int limite) {
+        return buscar(criterio, limite, true);
+    }
+
+    /**
+     * Devuelve las sugerencias de autocompletado directamente desde memoria.
+     */
+    public List<ClienteSugerenciaDTO> sugerir(String criterio, int limite) {
+        lock.readLock().lock();
+        try {
+            int[] slots = buscarSlots(criterio, limite, false);
+            List<ClienteSugerenciaDTO> resultado = new ArrayList<>(slots.length);
+            for (int slot : slots) {
+                resultado.add(new ClienteSugerenciaDTO(ids[slot], nombres[slot], cuitsDni[slot], emails[slot]));
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad de clientes indexados.
+     */
+    public int getCantidadClientes() {
+        lock.readLock().lock();
+        try {
+            return cantidad;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== Búsqueda ==========
+
+    private List<Long> buscar(String criterio, int limite, boolean soloNombre) {
+        lock.readLock().lock();
+        try {
+            int[] slots = buscarSlots(criterio, limite, soloNombre);
+            List<Long> resultado = new ArrayList<>(slots.length);
+            for (int slot : slots) {
+                resultado.add(ids[slot]);
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene los slots coincidentes ordenados por relevancia. Debe llamarse con el lock de lectura.
+     */
+    private int[] buscarSlots(String criterio, int limite, boolean soloNombre) {
+        String texto = normalizar(criterio);
+        if (texto.isEmpty() || limite <= 0) {
+            return new int[0];
+        }
+
+        // Candidatos: la lista del trigrama menos frecuente, o todos si el criterio es corto
+        int[] candidatos;
+        int cantidadCandidatos;
+        if (texto.length() < N) {
+            candidatos = null;
+            cantidadCandidatos = cantidad;
+        } else {
+            int mejor = -1;
+            for (int i = 0; i + N <= texto.length(); i++) {
+                int pos = buscarPosicion(clavesTrigrama, trigrama(texto, i));
+                if (clavesTrigrama[pos] == VACIO || tamaniosPostings[pos] == 0) {
+                    return new int[0];
+                }
+                if (mejor < 0 || tamaniosPostings[pos] < tamaniosPostings[mejor]) {
+                    mejor = pos;
+                }
+            }
+            candidatos = postings[mejor];
+            cantidadCandidatos = tamaniosPostings[mejor];
+        }
+
+        // Verificar candidatos y conservar los "limite" más relevantes en un
+        // heap cuya raíz es la peor coincidencia retenida
+        int capacidad = Math.min(limite, cantidadCandidatos);
+        int[] encontrados = new int[Math.min(capacidad, 16)];
+        int[] puntajes = new int[encontrados.length];
+        int total = 0;
+        for (int i = 0; i < cantidadCandidatos; i++) {
+            int slot = candidatos != null ? candidatos[i] : i;
+            int puntaje = puntuar(slot, texto, soloNombre);
+            if (puntaje == SIN_COINCIDENCIA) {
+                continue;
+            }
+            if (total < capacidad) {
+                if (total == encontrados.length) {
+                    int nuevo = Math.min(total * 2, capacidad);
+                    encontrados = Arrays.copyOf(encontrados, nuevo);
+                    puntajes = Arrays.copyOf(puntajes, nuevo);
+                }
+                encontrados[total] = slot;
+                puntajes[total] = puntaje;
+                subir(encontrados, puntajes, total);
+                total++;
+            } else if (comparar(puntaje, slot, puntajes[0], encontrados[0]) < 0) {
+                encontrados[0] = slot;
+                puntajes[0] = puntaje;
+                bajar(encontrados, puntajes, 0, total);
+            }
+        }
+
+        // Extraer la raíz al final del arreglo deja las coincidencias de mejor a peor
+        for (int fin = total - 1; fin > 0; fin--) {
+            intercambiar(encontrados, puntajes, 0, fin);
+            bajar(encontrados, puntajes, 0, fin);
+        }
+        return Arrays.copyOf(encontrados, total);
+    }
+
+    private int puntuar(int slot, String texto, boolean soloNombre) {
+        String nombre = nombresNorm[slot];
+        if (nombre.startsWith(texto)) {
+            return PREFIJO_NOMBRE;
+        }
+        if (nombre.contains(texto)) {
+            return EN_NOMBRE;
+        }
+        if (soloNombre) {
+            return SIN_COINCIDENCIA;
+        }
+        if (cuitsDniNorm[slot].contains(texto)) {
+            return EN_CUIT_DNI;
+        }
+        if (emailsNorm[slot].contains(texto)) {
+            return EN_EMAIL;
+        }
+        return SIN_COINCIDENCIA;
+    }
+
+    /**
+     * Sube una coincidencia en el heap mientras sea menos relevante que su padre.
+     */
+    private void subir(int[] slots, int[] puntajes, int i) {
+        while (i > 0) {
+            int padre = (i - 1) / 2;
+            if (comparar(puntajes[i], slots[i], puntajes[padre], slots[padre]) <= 0) {
+                return;
+            }
+            intercambiar(slots, puntajes, i, padre);
+            i = padre;
+        }
+    }
+
+    /**
+     * Baja una coincidencia en el heap de {@code total} elementos mientras algún
+     * hijo sea menos relevante.
+     */
+    private void bajar(int[] slots, int[] puntajes, int i, int total) {
+        while (true) {
+            int peor = i;
+            for (int hijo = 2 * i + 1; hijo <= 2 * i + 2 && hijo < total; hijo++) {
+                if (comparar(puntajes[hijo], slots[hijo], puntajes[peor], slots[peor]) > 0) {
+                    peor = hijo;
+                }
+            }
+            if (peor == i) {
+                return;
+            }
+            intercambiar(slots, puntajes, i, peor);
+            i = peor;
+        }
+    }
+
+    private static void intercambiar(int[] slots, int[] puntajes, int a, int b) {
+        int slot = slots[a];
+        slots[a] = slots[b];
+        slots[b] = slot;
+        int puntaje = puntajes[a];
+        puntajes[a] = puntajes[b];
+        puntajes[b] = puntaje;
+    }
+
+    private int comparar(int puntajeA, int slotA, int puntajeB, int slotB) {
+        if (puntajeA != puntajeB) {
+            return Integer.compare(puntajeA, puntajeB);
+        }
+        int cmp = nombresNorm[slotA].compareTo(nombresNorm[slotB]);
+        return cmp != 0 ? cmp : Long.compare(ids[slotA], ids[slotB]);
+    }
+
+    // ========== Indexación ==========
+
+    /**
+     * Lee todos los clientes registrando los indexados mientras dura la lectura.
+     */
+    private List<ClienteSugerenciaDTO> leerClientes() {
+        lock.writeLock().lock();
+        try {
+            actualizadosDuranteLectura = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            return clienteRepository.findAllParaIndice();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                actualizadosDuranteLectura = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+    }
+
+    private boolean indexadoIgual(long id, String nombre, String cuitDni, String email) {
+        int posId = buscarPosicion(clavesId, id);
+        if (clavesId[posId] == VACIO) {
+            return false;
+        }
+        int slot = slotsId[posId];
+        return Objects.equals(nombres[slot], nombre)
+            && Objects.equals(cuitsDni[slot], cuitDni)
+            && Objects.equals(emails[slot], email);
+    }
+
+    private void indexarSinLock(long id, String nombre, String cuitDni, String email) {
+        int posId = buscarPosicion(clavesId, id);
+        int slot;
+        if (clavesId[posId] == VACIO) {
+            slot = nuevoSlot(id);
+            clavesId[posId] = id;
+            slotsId[posId] = slot;
+            if (cantidad * 2 > clavesId.length) {
+                redimensionarIds();
+            }
+        } else {
+            slot = slotsId[posId];
+            for (long t : trigramasDe(slot)) {
+                quitarPosting(t, slot);
+            }
+        }
+
+        nombres[slot] = nombre;
+        cuitsDni[slot] = cuitDni;
+        emails[slot] = email;
+        nombresNorm[slot] = normalizar(nombre);
+        cuitsDniNorm[slot] = normalizar(cuitDni);
+        emailsNorm[slot] = normalizar(email);
+
+        for (long t : trigramasDe(slot)) {
+            agregarPosting(t, slot);
+        }
+    }
+
+    private int nuevoSlot(long id) {
+        if (cantidad == ids.length) {
+            int nuevo = ids.length * 2;
+            ids = Arrays.copyOf(ids, nuevo);
+            nombres = Arrays.copyOf(nombres, nuevo);
+            cuitsDni = Arrays.copyOf(cuitsDni, nuevo);
+            emails = Arrays.copyOf(emails, nuevo);
+            nombresNorm = Arrays.copyOf(nombresNorm, nuevo);
+            cuitsDniNorm = Arrays.copyOf(cuitsDniNorm, nuevo);
+            emailsNorm = Arrays.copyOf(emailsNorm, nuevo);
+        }
+        ids[cantidad] = id;
+        return cantidad++;
+    }
+
+    /**
+     * Trigramas distintos de los tres campos de un cliente, ordenados.
+     */
+    private long[] trigramasDe(int slot) {
+        String[] campos = {nombresNorm[slot], cuitsDniNorm[slot], emailsNorm[slot]};
+        int maximo = 0;
+        for (String campo : campos) {
+            maximo += Math.max(0, campo.length() - N + 1);
+        }
+        long[] trigramas = new long[maximo];
+        int total = 0;
+        for (String campo : campos) {
+            for (int i = 0; i + N <= campo.length(); i++) {
+                trigramas[total++] = trigrama(campo, i);
+            }
+        }
+        Arrays.sort(trigramas, 0, total);
+        int unicos = 0;
+        for (int i = 0; i < total; i++) {
+            if (unicos == 0 || trigramas[unicos - 1] != trigramas[i]) {
+                trigramas[unicos++] = trigramas[i];
+            }
+        }
+        return Arrays.copyOf(trigramas, unicos);
+    }
+
+    private void agregarPosting(long trigrama, int slot) {
+        int pos = buscarPosicion(clavesTrigrama, trigrama);
+        if (clavesTrigrama[pos] == VACIO) {
+            clavesTrigrama[pos] = trigrama;
+            postings[pos] = new int[4];
+            cantidadTrigramas++;
+        }
+        int tamanio = tamaniosPostings[pos];
+        if (tamanio == postings[pos].length) {
+            postings[pos] = Arrays.copyOf(postings[pos], tamanio * 2);
+        }
+        postings[pos][tamanio] = slot;
+        tamaniosPostings[pos] = tamanio + 1;
+
+        if (cantidadTrigramas * 2 > clavesTrigrama.length) {
+            redimensionarTrigramas();
+        }
+    }
+
+    private void quitarPosting(long trigrama, int slot) {
+        int pos = buscarPosicion(clavesTrigrama, trigrama);
+        if (clavesTrigrama[pos] == VACIO) {
+            return;
+        }
+        int[] lista = postings[pos];
+        int tamanio = tamaniosPostings[pos];
+        for (int i = 0; i < tamanio; i++) {
+            if (lista[i] == slot) {
+                lista[i] = lista[tamanio - 1];
+                tamaniosPostings[pos] = tamanio - 1;
+                return;
+            }
+        }
+    }
+
+    private void redimensionarIds() {
+        long[] claves = clavesId;
+        int[] slots = slotsId;
+        clavesId = nuevaTabla(claves.length * 2);
+        slotsId = new int[claves.length * 2];
+        for (int i = 0; i < claves.length; i++) {
+            if (claves[i] != VACIO) {
+                int pos = buscarPosicion(clavesId, claves[i]);
+                clavesId[pos] = claves[i];
+                slotsId[pos] = slots[i];
+            }
+        }
+    }
+
+    private void redimensionarTrigramas() {
+        long[] claves = clavesTrigrama;
+        int[][] listas = postings;
+        int[] tamanios = tamaniosPostings;
+        clavesTrigrama = nuevaTabla(claves.length * 2);
+        postings = new int[claves.length * 2][];
+        tamaniosPostings = new int[claves.length * 2];
+        for (int i = 0; i < claves.length; i++) {
+            if (claves[i] != VACIO) {
+                int pos = buscarPosicion(clavesTrigrama, claves[i]);
+                clavesTrigrama[pos] = claves[i];
+                postings[pos] = listas[i];
+                tamaniosPostings[pos] = tamanios[i];
+            }
+        }
+    }
+
+    private void limpiar() {
+        cantidad = 0;
+        ids = new long[64];
+        nombres = new String[64];
+        cuitsDni = new String[64];
+        emails = new String[64];
+        nombresNorm = new String[64];
+        cuitsDniNorm = new String[64];
+        emailsNorm = new String[64];
+        clavesId = nuevaTabla(128);
+        slotsId = new int[128];
+        clavesTrigrama = nuevaTabla(1024);
+        postings = new int[1024][];
+        tamaniosPostings = new int[1024];
+        cantidadTrigramas = 0;
+    }
+
+    // ========== Utilidades ==========
+
+    private static long[] nuevaTabla(int capacidad) {
+        long[] tabla = new long[capacidad];
+        Arrays.fill(tabla, VACIO);
+        return tabla;
+    }
+
+    /**
+     * Posición de la clave en la tabla (o la posición libre donde insertarla).
+     * Las tablas tienen capacidad potencia de 2 y factor de carga menor a 0,5.
+     */
+    private static int buscarPosicion(long[] tabla, long clave) {
+        int mascara = tabla.length - 1;
+        int pos = Long.hashCode(clave * 0x9E3779B97F4A7C15L) & mascara;
+        while (tabla[pos] != VACIO && tabla[pos] != clave) {
+            pos = (pos + 1) & mascara;
+        }
+        return pos;
+    }
+
+    /**
+     * Codifica 3 caracteres UTF-16 en un long (16 bits por caracter).
+     */
+    private static long trigrama(String texto, int desde) {
+        return ((long) texto.charAt(desde) << 32)
+             | ((long) texto.charAt(desde + 1) << 16)
+             | texto.charAt(desde + 2);
+    }
+
+    /**
+     * Pasa a minúsculas y quita acentos para que "Gómez" coincida con "gomez".
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinAcentos = Normalizer.normalize(texto.trim(), Normalizer.Form.NFD)
+            .replaceAll("\\p{M}", "");
+        return sinAcentos.toLowerCase(Locale.ROOT);
+    }
+}
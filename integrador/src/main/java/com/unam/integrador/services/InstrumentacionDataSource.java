@@ -0,0 +1,118 @@
+package com.unam.integrador.services;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Envuelve los DataSource de la aplicación para registrar en
+ * {@link ContadorConsultas} cada sentencia ejecutada, su tiempo en el driver y
+ * las filas leídas de sus resultados. Sin una medición abierta en el hilo, el
+ * costo es una consulta a un ThreadLocal por sentencia.
+ */
+@Component
+public class InstrumentacionDataSource implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof DataSourceContado)) {
+            return new DataSourceContado(dataSource);
+        }
+        return bean;
+    }
+
+    /**
+     * DataSource que entrega conexiones instrumentadas.
+     */
+    static class DataSourceContado extends DelegatingDataSource {
+
+        DataSourceContado(DataSource destino) {
+            super(destino);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return instrumentar(Connection.class, super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String usuario, String clave) throws SQLException {
+            return instrumentar(Connection.class, super.getConnection(usuario, clave));
+        }
+    }
+
+    private static <T> T instrumentar(Class<T> tipo, T destino) {
+        return tipo.cast(Proxy.newProxyInstance(InstrumentacionDataSource.class.getClassLoader(),
+            new Class<?>[] {tipo}, new Intercepcion(destino)));
+    }
+
+    /**
+     * Intercepta conexiones (para instrumentar las sentencias que crean),
+     * sentencias (para medir su ejecución) y resultados (para contar filas).
+     */
+    private static class Intercepcion implements InvocationHandler {
+
+        private final Object destino;
+
+        Intercepcion(Object destino) {
+            this.destino = destino;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            String nombre = metodo.getName();
+            if ("equals".equals(nombre) && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(nombre) && args == null) {
+                return System.identityHashCode(proxy);
+            }
+            boolean ejecucion = destino instanceof Statement && nombre.startsWith("execute");
+            long inicio = ejecucion ? System.nanoTime() : 0;
+            Object resultado;
+            try {
+                resultado = metodo.invoke(destino, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (ejecucion) {
+                    ContadorConsultas.registrarSentencia(System.nanoTime() - inicio);
+                }
+            }
+
+            if (destino instanceof ResultSet) {
+                if ("next".equals(nombre) && Boolean.TRUE.equals(resultado)) {
+                    ContadorConsultas.registrarFila();
+                }
+                return resultado;
+            }
+            if (resultado instanceof CallableStatement sentencia) {
+                return instrumentar(CallableStatement.class, sentencia);
+            }
+            if (resultado instanceof PreparedStatement sentencia) {
+                return instrumentar(PreparedStatement.class, sentencia);
+            }
+            if (resultado instanceof Statement sentencia && destino instanceof Connection) {
+                return instrumentar(Statement.class, sentencia);
+            }
+            if (resultado instanceof ResultSet filas && destino instanceof Statement
+                    && !"getGeneratedKeys".equals(nombre)) {
+                return instrumentar(ResultSet.class, filas);
+            }
+            return resultado;
+        }
+    }
+}
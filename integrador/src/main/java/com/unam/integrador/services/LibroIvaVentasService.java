@@ -0,0 +1,119 @@
+package com.unam.integrador.services;
+
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.unam.integrador.dto.LineaLibroIvaDTO;
+import com.unam.integrador.model.Periodo;
+import com.unam.integrador.repositories.FacturaRepository;
+import com.unam.integrador.repositories.NotaCreditoRepository;
+
+/**
+ * Servicio que genera el Libro IVA Ventas de un período en formato CSV.
+ *
+ * Las líneas se leen de consultas agregadas por comprobante y alícuota y se
+ * escriben a medida que llegan: la memoria usada no depende de la cantidad de
+ * comprobantes del mes. Facturas y notas de crédito vienen en dos consultas
+ * ordenadas por fecha que se intercalan al escribir.
+ */
+@Service
+public class LibroIvaVentasService {
+
+    private static final BigDecimal CIEN = BigDecimal.valueOf(100);
+
+    /** Cada cuántas líneas se vuelca el escritor al destino. */
+    private static final int LINEAS_POR_FLUSH = 500;
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    @Autowired
+    private NotaCreditoRepository notaCreditoRepository;
+
+    /**
+     * Escribe el Libro IVA Ventas del período.
+     *
+     * Columnas: fecha, comprobante, tipo, número, CUIT/DNI, razón social,
+     * alícuota, neto gravado e IVA. El neto ya tiene aplicado el descuento de
+     * la factura; las notas de crédito se informan con importes negativos.
+     *
+     * @param periodo período a informar
+     * @param destino writer donde se escribe el CSV (no se cierra)
+     * @return cantidad de líneas de detalle escritas
+     */
+    @Transactional(readOnly = true)
+    public int generar(Periodo periodo, Writer destino) {
+        if (periodo == null) {
+            throw new IllegalArgumentException("El período es obligatorio");
+        }
+        LocalDate desde = periodo.getPrimerDia();
+        LocalDate hasta = periodo.getMes().atEndOfMonth();
+
+        EscritorCsv csv = new EscritorCsv(destino);
+        csv.fila("Fecha", "Comprobante", "Tipo", "Número", "CUIT/DNI", "Razón social",
+                 "Alícuota", "Neto gravado", "IVA");
+
+        int lineas = 0;
+        try (Stream<LineaLibroIvaDTO> facturas = facturaRepository.streamLibroIvaFacturas(desde, hasta);
+             Stream<LineaLibroIvaDTO> notas = notaCreditoRepository.streamLibroIvaNotasCredito(desde, hasta)) {
+
+            Iterator<LineaLibroIvaDTO> itFacturas = facturas.iterator();
+            Iterator<LineaLibroIvaDTO> itNotas = notas.iterator();
+            LineaLibroIvaDTO factura = siguiente(itFacturas);
+            LineaLibroIvaDTO nota = siguiente(itNotas);
+
+            // Intercalar ambas secuencias por fecha (a igual fecha, primero la factura)
+            while (factura != null || nota != null) {
+                if (nota == null || (factura != null && !factura.getFecha().isAfter(nota.getFecha()))) {
+                    escribirLinea(csv, factura);
+                    factura = siguiente(itFacturas);
+                } else {
+                    escribirLinea(csv, nota);
+                    nota = siguiente(itNotas);
+                }
+                if (++lineas % LINEAS_POR_FLUSH == 0) {
+                    csv.flush();
+                }
+            }
+        }
+        csv.flush();
+        return lineas;
+    }
+
+    private static LineaLibroIvaDTO siguiente(Iterator<LineaLibroIvaDTO> it) {
+        return it.hasNext() ? it.next() : null;
+    }
+
+    private void escribirLinea(EscritorCsv csv, LineaLibroIvaDTO linea) {
+        BigDecimal neto = linea.getNeto();
+        if (linea.getDescuento() != 0) {
+            // El descuento de la factura reduce el neto gravado, no el IVA
+            BigDecimal factor = CIEN.subtract(BigDecimal.valueOf(linea.getDescuento()));
+            neto = neto.multiply(factor).divide(CIEN, 2, RoundingMode.HALF_UP);
+        }
+        BigDecimal iva = linea.getIva();
+        if (linea.isNotaCredito()) {
+            neto = neto.negate();
+            iva = iva.negate();
+        }
+
+        csv.fila(
+            linea.getFecha(),
+            linea.isNotaCredito() ? "Nota de crédito" : "Factura",
+            linea.getTipo(),
+            String.format("%04d-%08d", linea.getSerie(), linea.getNumero()),
+            linea.getCuitDni(),
+            linea.getRazonSocial(),
+            linea.getAlicuota() != null ? linea.getAlicuota().getDescripcion() : null,
+            neto.toPlainString(),
+            iva.toPlainString());
+    }
+}
@@ -0,0 +1,121 @@
+package com.unam.integrador.services;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.unam.integrador.eventos.FacturacionMasivaProcesada;
+import com.unam.integrador.eventos.FacturasEmitidas;
+import com.unam.integrador.eventos.FacturasVencidas;
+import com.unam.integrador.eventos.PagoRegistrado;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.Pago;
+import com.unam.integrador.model.enums.TipoFactura;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Métricas de negocio de la facturación, publicadas por Micrometer en
+ * {@code /actuator/prometheus}.
+ *
+ * Los tiempos de cada operación se miden con {@code @Timed} en los servicios
+ * (métricas {@code integrador.facturacion}, {@code integrador.pagos} e
+ * {@code integrador.recibos}, etiquetadas por operación). Este componente lleva
+ * los contadores, que se incrementan al confirmarse los eventos de facturación
+ * y pago para no contar operaciones que se revierten:
+ * - {@code integrador.facturas.emitidas} y {@code integrador.facturas.monto} por tipo de factura
+ * - {@code integrador.pagos.registrados} y {@code integrador.pagos.monto} por método de pago
+ * - {@code integrador.facturacion.masiva.clientes} (su tasa son los clientes por segundo)
+ *   y {@code integrador.facturacion.masiva.rendimiento} (clientes por segundo de cada ejecución)
+ * - {@code integrador.facturas.vencidas}: pasajes a VENCIDA
+ */
+@Component
+public class MetricasFacturacion {
+
+    /** Timer de las operaciones de facturación. */
+    public static final String TIMER_FACTURACION = "integrador.facturacion";
+
+    /** Timer de las operaciones de pago. */
+    public static final String TIMER_PAGOS = "integrador.pagos";
+
+    /** Timer de la generación de recibos. */
+    public static final String TIMER_RECIBOS = "integrador.recibos";
+
+    @Autowired
+    private MeterRegistry registry;
+
+    /**
+     * Cuenta facturas emitidas y su monto por tipo.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alEmitirFacturas(FacturasEmitidas evento) {
+        Map<TipoFactura, Integer> cantidades = new EnumMap<>(TipoFactura.class);
+        Map<TipoFactura, BigDecimal> montos = new EnumMap<>(TipoFactura.class);
+        for (Factura factura : evento.getFacturas()) {
+            cantidades.merge(factura.getTipo(), 1, Integer::sum);
+            montos.merge(factura.getTipo(), factura.getTotal(), BigDecimal::add);
+        }
+        cantidades.forEach((tipo, cantidad) -> {
+            String etiqueta = tipo.name();
+            contador("integrador.facturas.emitidas", "Facturas emitidas", null, "tipo", etiqueta)
+                .increment(cantidad);
+            contador("integrador.facturas.monto", "Monto total facturado", "pesos", "tipo", etiqueta)
+                .increment(montos.get(tipo).doubleValue());
+        });
+    }
+
+    /**
+     * Cuenta los pagos del recibo y su monto por método.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alRegistrarPago(PagoRegistrado evento) {
+        for (Pago pago : evento.getPagos()) {
+            String etiqueta = pago.getMetodoPago().name();
+            contador("integrador.pagos.registrados", "Pagos registrados", null, "metodo", etiqueta)
+                .increment();
+            contador("integrador.pagos.monto", "Monto total cobrado", "pesos", "metodo", etiqueta)
+                .increment(pago.getMonto().doubleValue());
+        }
+    }
+
+    /**
+     * Registra los clientes procesados por una facturación masiva (o por un
+     * grupo de una facturación distribuida) y su rendimiento.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alProcesarFacturacionMasiva(FacturacionMasivaProcesada evento) {
+        contador("integrador.facturacion.masiva.clientes", "Clientes procesados por facturación masiva",
+            "clientes").increment(evento.getClientes());
+        double segundos = Math.max(evento.getDuracion().toNanos(), 1) / 1e9;
+        DistributionSummary.builder("integrador.facturacion.masiva.rendimiento")
+            .description("Clientes por segundo de cada facturación masiva")
+            .baseUnit("clientes/s")
+            .register(registry)
+            .record(evento.getClientes() / segundos);
+    }
+
+    /**
+     * Cuenta facturas que pasaron a VENCIDA.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alVencerFacturas(FacturasVencidas evento) {
+        if (evento.getCantidad() > 0) {
+            contador("integrador.facturas.vencidas", "Facturas que pasaron a vencidas", null)
+                .increment(evento.getCantidad());
+        }
+    }
+
+    private Counter contador(String nombre, String descripcion, String unidad, String... etiquetas) {
+        return Counter.builder(nombre)
+            .description(descripcion)
+            .baseUnit(unidad)
+            .tags(etiquetas)
+            .register(registry);
+    }
+}
@@ -0,0 +1,75 @@
+package com.unam.integrador.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.unam.integrador.repositories.FacturaRepository;
+import com.unam.integrador.repositories.NotaCreditoRepository;
+
+/**
+ * Completa al iniciar la aplicación las columnas agregadas sobre datos ya
+ * existentes (ddl-auto las crea vacías en las filas anteriores).
+ */
+@Component
+public class MigracionDatos implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracionDatos.class);
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    @Autowired
+    private NotaCreditoRepository notaCreditoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Se ejecuta al terminar de crear los beans, antes de que el servidor web
+     * acepte pedidos: ninguna emisión puede colarse antes del relleno.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        completarPeriodoActivo();
+        completarAutorizacionAnterior();
+    }
+
+    /**
+     * Rellena periodo_activo en las facturas no anuladas emitidas antes de la
+     * restricción única por cliente y período. Sin este relleno, la
+     * restricción no detecta un duplicado de esas facturas.
+     */
+    void completarPeriodoActivo() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+            int actualizadas = facturaRepository.completarPeriodoActivo();
+            if (actualizadas > 0) {
+                log.info("periodo_activo completado en {} facturas existentes", actualizadas);
+            }
+            long sinCompletar = facturaRepository.countSinPeriodoActivo();
+            if (sinCompletar > 0) {
+                log.warn("{} facturas no anuladas quedaron sin periodo_activo por períodos duplicados; "
+                       + "deben anularse manualmente", sinCompletar);
+            }
+        });
+    }
+
+    /**
+     * Marca como no requerida la autorización fiscal de los comprobantes
+     * emitidos antes de incorporarla, para que la etapa de autorización no los
+     * envíe al organismo.
+     */
+    void completarAutorizacionAnterior() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+            int actualizados = facturaRepository.marcarAutorizacionNoRequerida()
+                + notaCreditoRepository.marcarAutorizacionNoRequerida();
+            if (actualizados > 0) {
+                log.info("Autorización fiscal marcada como no requerida en {} comprobantes existentes", actualizados);
+            }
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package com.unam.integrador.services;
+
+import java.time.Duration;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mide el acceso a la base de cada llamada a un método {@code @Transactional}
+ * de los servicios (anotado en el método o en la clase) y registra en el log las que superan los umbrales
+ * {@code monitoreo.consultas.*}; típicamente, cargas N+1.
+ *
+ * Solo se mide la llamada más externa: las llamadas entre servicios suman a la
+ * de quien las inició. Las solicitudes HTTP se miden aparte, en
+ * {@code FiltroConsultas}.
+ */
+@Aspect
+@Component
+public class MonitoreoConsultas {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitoreoConsultas.class);
+
+    private static final ThreadLocal<Boolean> EN_SERVICIO = ThreadLocal.withInitial(() -> false);
+
+    /** Sentencias por llamada a partir de las cuales se avisa. */
+    @Value("${monitoreo.consultas.max-sentencias:50}")
+    private int maxSentencias = 50;
+
+    /** Filas leídas por llamada a partir de las cuales se avisa. */
+    @Value("${monitoreo.consultas.max-filas:10000}")
+    private long maxFilas = 10000;
+
+    /** Tiempo en la base por llamada a partir del cual se avisa. */
+    @Value("${monitoreo.consultas.max-tiempo:PT1S}")
+    private Duration maxTiempo = Duration.ofSeconds(1);
+
+    @Around("execution(public * com.unam.integrador.services..*(..)) "
+          + "&& (@annotation(org.springframework.transaction.annotation.Transactional) "
+          + "    || @within(org.springframework.transaction.annotation.Transactional))")
+    public Object medir(ProceedingJoinPoint llamada) throws Throwable {
+        if (EN_SERVICIO.get()) {
+            return llamada.proceed();
+        }
+        EN_SERVICIO.set(true);
+        ContadorConsultas.Medicion medicion = ContadorConsultas.iniciar(llamada.getSignature().toShortString());
+        try {
+            return llamada.proceed();
+        } finally {
+            medicion.close();
+            EN_SERVICIO.remove();
+            if (medicion.excede(maxSentencias, maxFilas, maxTiempo)) {
+                log.warn("Acceso excesivo a la base en {}", medicion);
+            }
+        }
+    }
+}
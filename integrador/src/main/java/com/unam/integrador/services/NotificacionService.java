@@ -0,0 +1,300 @@
+package com.unam.integrador.services;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.unam.integrador.eventos.FacturasEmitidas;
+import com.unam.integrador.eventos.PagoRegistrado;
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.Notificacion;
+import com.unam.integrador.model.enums.TipoNotificacion;
+import com.unam.integrador.repositories.NotificacionRepository;
+
+/**
+ * Notificaciones por correo a clientes mediante una bandeja de salida (outbox).
+ *
+ * Las emisiones de facturas y los recibos de pago registran sus correos en la
+ * tabla de notificaciones dentro de su propia transacción: si la operación se
+ * revierte, el correo no existe. Ninguna operación de negocio espera al
+ * servidor de correo.
+ *
+ * Luego del commit se programa un despacho en segundo plano que toma las
+ * pendientes en lotes de hasta {@code notificaciones.tamanio-lote} (con FOR
+ * UPDATE SKIP LOCKED, para que varias instancias no envíen el mismo correo) y
+ * los envía por el {@link MailSender} configurado (una sola conexión por lote). Las que
+ * fallan se reintentan con espera exponencial a partir de
+ * {@code notificaciones.espera-reintento}, hasta {@code notificaciones.max-intentos};
+ * el despacho también corre periódicamente cada {@code notificaciones.intervalo-despacho}.
+ */
+@Service
+public class NotificacionService {
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    @Autowired
+    private MailSender mailSender;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TareasSegundoPlano tareasSegundoPlano;
+
+    /** Dirección remitente de los correos. */
+    @Value("${notificaciones.remitente:facturacion@integrador.local}")
+    private String remitente = "facturacion@integrador.local";
+
+    /** Cantidad máxima de correos enviados por conexión. */
+    @Value("${notificaciones.tamanio-lote:200}")
+    private int tamanioLote = 200;
+
+    /** Intentos antes de descartar una notificación. */
+    @Value("${notificaciones.max-intentos:5}")
+    private int maxIntentos = 5;
+
+    /** Espera antes del primer reintento; se duplica en cada fallo. */
+    @Value("${notificaciones.espera-reintento:PT1M}")
+    private Duration esperaReintento = Duration.ofMinutes(1);
+
+    /** Tiempo que un lote tomado queda reservado para el despacho que lo envía. */
+    @Value("${notificaciones.duracion-reserva:PT5M}")
+    private Duration duracionReserva = Duration.ofMinutes(5);
+
+    /** Si es false, los registros y el despacho periódico no disparan envíos. */
+    @Value("${notificaciones.automatica:true}")
+    private boolean automatica = true;
+
+    /**
+     * Registra los avisos de las facturas emitidas dentro de la misma
+     * transacción que las persiste.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void alEmitirFacturas(FacturasEmitidas evento) {
+        registrarFacturasEmitidas(evento.getFacturas());
+    }
+
+    /**
+     * Registra el aviso del recibo dentro de la misma transacción que el pago.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void alRegistrarPago(PagoRegistrado evento) {
+        registrarReciboGenerado(evento.getNumeroRecibo(), evento.getCliente(), evento.getMonto(),
+            evento.getFacturas());
+    }
+
+    /**
+     * Registra el aviso de una factura emitida. Debe llamarse dentro de la
+     * transacción que persiste la factura.
+     *
+     * @param factura factura ya persistida
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarFacturaEmitida(Factura factura) {
+        registrarFacturasEmitidas(List.of(factura));
+    }
+
+    /**
+     * Registra los avisos de un conjunto de facturas emitidas (facturación
+     * masiva). Los clientes sin email se omiten.
+     *
+     * @param facturas facturas ya persistidas
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarFacturasEmitidas(Collection<Factura> facturas) {
+        List<Notificacion> notificaciones = new ArrayList<>(facturas.size());
+        for (Factura factura : facturas) {
+            CuentaCliente cliente = factura.getCliente();
+            if (!tieneEmail(cliente)) {
+                continue;
+            }
+            String numero = String.format("%d-%08d", factura.getSerie(), factura.getNroFactura());
+            String cuerpo = "Estimado/a " + cliente.getNombre() + ":\n\n"
+                + "Le informamos que se emitió la factura " + factura.getTipo() + " N° " + numero
+                + " correspondiente al período " + factura.getPeriodoFormateado() + ".\n\n"
+                + "Total: $" + factura.getTotal().toPlainString() + "\n"
+                + "Vencimiento: " + factura.getFechaVencimiento().format(FORMATO_FECHA) + "\n";
+            notificaciones.add(Notificacion.crear(TipoNotificacion.FACTURA_EMITIDA, numero, cliente.getEmail(),
+                "Factura " + numero + " - " + factura.getPeriodoFormateado(), cuerpo));
+        }
+        notificacionRepository.saveAll(notificaciones);
+    }
+
+    /**
+     * Registra el aviso de un recibo generado. Debe llamarse dentro de la
+     * transacción que registra el pago.
+     *
+     * @param numeroRecibo número del recibo
+     * @param cliente cliente que pagó
+     * @param monto total del recibo
+     * @param facturas facturas alcanzadas por el pago
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarReciboGenerado(String numeroRecibo, CuentaCliente cliente, BigDecimal monto,
+                                        Collection<Factura> facturas) {
+        if (!tieneEmail(cliente)) {
+            return;
+        }
+        StringBuilder cuerpo = new StringBuilder()
+            .append("Estimado/a ").append(cliente.getNombre()).append(":\n\n")
+            .append("Registramos su pago por $").append(monto.toPlainString())
+            .append(". Recibo N° ").append(numeroRecibo).append(".\n\n")
+            .append("Facturas alcanzadas:\n");
+        for (Factura factura : facturas) {
+            cuerpo.append(String.format("- %d-%08d (saldo pendiente: $%s)\n",
+                factura.getSerie(), factura.getNroFactura(), factura.getSaldoPendiente().toPlainString()));
+        }
+        notificacionRepository.save(Notificacion.crear(TipoNotificacion.RECIBO_GENERADO, numeroRecibo,
+            cliente.getEmail(), "Recibo " + numeroRecibo, cuerpo.toString()));
+    }
+
+    /**
+     * Programa un despacho en segundo plano al confirmarse una emisión o un
+     * pago, que ya registraron sus avisos. Varias solicitudes seguidas se
+     * resuelven con un solo despacho.
+     */
+    @TransactionalEventListener(fallbackExecution = true, classes = {FacturasEmitidas.class, PagoRegistrado.class})
+    public void solicitarDespacho() {
+        if (automatica) {
+            programar();
+        }
+    }
+
+    /**
+     * Despacha periódicamente las pendientes y los reintentos vencidos.
+     */
+    @Scheduled(fixedDelayString = "${notificaciones.intervalo-despacho:60000}",
+               initialDelayString = "${notificaciones.intervalo-despacho:60000}")
+    public void despachoPeriodico() {
+        if (automatica) {
+            programar();
+        }
+    }
+
+    /**
+     * Envía todas las notificaciones pendientes que ya pueden intentarse, en
+     * lotes, y guarda el resultado de cada lote en su propia transacción.
+     *
+     * @return cantidad de correos enviados
+     */
+    public synchronized int despacharPendientes() {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        int enviadas = 0;
+        while (true) {
+            LocalDateTime ahora = LocalDateTime.now();
+            List<Notificacion> lote = transaccion.execute(estado -> reclamar(ahora));
+            if (lote == null || lote.isEmpty()) {
+                return enviadas;
+            }
+
+            Map<Long, Exception> fallos = enviar(lote);
+            enviadas += lote.size() - fallos.size();
+
+            List<Long> ids = lote.stream().map(Notificacion::getId).toList();
+            transaccion.executeWithoutResult(estado -> guardar(ids, fallos));
+
+            if (lote.size() < tamanioLote) {
+                return enviadas;
+            }
+        }
+    }
+
+    /**
+     * Toma un lote con FOR UPDATE SKIP LOCKED y lo reserva por
+     * {@code notificaciones.duracion-reserva}, de modo que las demás instancias
+     * no lo envíen mientras este despacho lo procesa fuera de la transacción.
+     */
+    private List<Notificacion> reclamar(LocalDateTime ahora) {
+        List<Notificacion> lote = notificacionRepository.reclamarPendientes(ahora, tamanioLote);
+        LocalDateTime reservaHasta = ahora.plus(duracionReserva);
+        lote.forEach(notificacion -> notificacion.reservar(reservaHasta));
+        return lote;
+    }
+
+    /**
+     * Envía un lote por una sola conexión.
+     * @return los errores de las notificaciones que fallaron, por ID
+     */
+    private Map<Long, Exception> enviar(List<Notificacion> lote) {
+        List<SimpleMailMessage> mensajes = new ArrayList<>(lote.size());
+        Map<SimpleMailMessage, Notificacion> porMensaje = new IdentityHashMap<>();
+        for (Notificacion notificacion : lote) {
+            SimpleMailMessage mensaje = new SimpleMailMessage();
+            mensaje.setFrom(remitente);
+            mensaje.setTo(notificacion.getDestinatario());
+            mensaje.setSubject(notificacion.getAsunto());
+            mensaje.setText(notificacion.getCuerpo());
+            mensajes.add(mensaje);
+            porMensaje.put(mensaje, notificacion);
+        }
+
+        Map<Long, Exception> fallos = new HashMap<>();
+        try {
+            mailSender.send(mensajes.toArray(SimpleMailMessage[]::new));
+        } catch (MailSendException e) {
+            // Fallos individuales: el resto del lote se entregó
+            for (Map.Entry<Object, Exception> fallo : e.getFailedMessages().entrySet()) {
+                Notificacion notificacion = porMensaje.get(fallo.getKey());
+                if (notificacion != null) {
+                    fallos.put(notificacion.getId(), fallo.getValue());
+                }
+            }
+            if (fallos.isEmpty()) {
+                lote.forEach(n -> fallos.put(n.getId(), e));
+            }
+        } catch (MailException e) {
+            // Sin conexión o sin autenticación: falla el lote completo
+            lote.forEach(n -> fallos.put(n.getId(), e));
+        }
+        return fallos;
+    }
+
+    private void guardar(List<Long> ids, Map<Long, Exception> fallos) {
+        LocalDateTime ahora = LocalDateTime.now();
+        for (Notificacion notificacion : notificacionRepository.findAllById(ids)) {
+            Exception fallo = fallos.get(notificacion.getId());
+            if (fallo == null) {
+                notificacion.marcarEnviada(ahora);
+            } else {
+                Duration espera = esperaReintento.multipliedBy(1L << Math.min(notificacion.getIntentos(), 16));
+                notificacion.registrarFallo(fallo.getMessage(), ahora.plus(espera), maxIntentos);
+            }
+        }
+    }
+
+    private static boolean tieneEmail(CuentaCliente cliente) {
+        return cliente != null && cliente.getEmail() != null && !cliente.getEmail().isBlank();
+    }
+
+    private void programar() {
+        tareasSegundoPlano.programar("notificaciones-correo", this::despacharPendientes);
+    }
+}
@@ -0,0 +1,116 @@
+package com.unam.integrador.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.unam.integrador.model.Factura;
+import com.unam.integrador.model.NotaCredito;
+import com.unam.integrador.model.SerieFactura;
+import com.unam.integrador.model.SerieNotaCredito;
+import com.unam.integrador.repositories.FacturaRepository;
+import com.unam.integrador.repositories.NotaCreditoRepository;
+import com.unam.integrador.repositories.SerieFacturaRepository;
+import com.unam.integrador.repositories.SerieNotaCreditoRepository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Serializa la asignación de números de factura y de nota de crédito por
+ * serie entre instancias.
+ *
+ * Toda emisión reserva sus números en la fila {@link SerieFactura} de la
+ * serie, que queda bloqueada hasta el fin de la transacción que la reservó.
+ * Una emisión individual reserva un número dentro de su propia transacción;
+ * la facturación distribuida reserva el bloque de cada grupo en una
+ * transacción corta y aparte, de modo que la serie no queda bloqueada
+ * mientras arma y guarda las facturas. Quien reserva varias series lo hace
+ * siempre en orden ascendente para no generar bloqueos cruzados.
+ *
+ * Las notas de crédito se numeran igual, con su propia fila por serie
+ * ({@link SerieNotaCredito}), dentro de la transacción de la anulación.
+ */
+@Service
+public class NumeracionFacturaService {
+
+    @Autowired
+    private SerieFacturaRepository serieFacturaRepository;
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    @Autowired
+    private SerieNotaCreditoRepository serieNotaCreditoRepository;
+
+    @Autowired
+    private NotaCreditoRepository notaCreditoRepository;
+
+    @Autowired
+    private CreadorFilasBloqueo creadorFilasBloqueo;
+
+    /**
+     * Reserva números consecutivos de una serie. La serie queda bloqueada
+     * hasta el fin de la transacción en curso; si otra transacción la tiene,
+     * espera a que termine.
+     *
+     * @param serie número de serie
+     * @param cantidad cantidad de números
+     * @return el bloque reservado
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Bloque reservar(int serie, int cantidad) {
+        SerieFactura fila = bloquear(serie);
+        Factura ultima = facturaRepository.findFirstBySerieOrderByNroFacturaDesc(serie);
+        int desde = fila.asignar(ultima != null ? ultima.getNroFactura() : 0, cantidad);
+        return new Bloque(serie, desde, cantidad);
+    }
+
+    /**
+     * Devuelve un bloque que no llegó a guardarse (la transacción que lo iba
+     * a usar se revirtió), si nadie reservó números después.
+     *
+     * @param bloque bloque reservado
+     * @return true si se devolvió; false si queda un hueco en la numeración
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean devolver(Bloque bloque) {
+        return bloquear(bloque.getSerie()).devolver(bloque.getDesde(), bloque.getCantidad());
+    }
+
+    /**
+     * Reserva números consecutivos de notas de crédito de una serie. La serie
+     * queda bloqueada hasta el fin de la transacción en curso.
+     *
+     * @param serie número de serie
+     * @param cantidad cantidad de números
+     * @return primer número reservado
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int reservarNotasCredito(int serie, int cantidad) {
+        creadorFilasBloqueo.crearSiNoExiste(serieNotaCreditoRepository, serie, () -> new SerieNotaCredito(serie));
+        SerieNotaCredito fila = serieNotaCreditoRepository.bloquear(serie)
+            .orElseThrow(() -> new IllegalStateException(
+                "No se encontró la numeración de notas de crédito de la serie " + serie));
+        NotaCredito ultima = notaCreditoRepository.findFirstBySerieOrderByNroNotaCreditoDesc(serie);
+        return fila.asignar(ultima != null ? ultima.getNroNotaCredito() : 0, cantidad);
+    }
+
+    private SerieFactura bloquear(int serie) {
+        creadorFilasBloqueo.crearSiNoExiste(serieFacturaRepository, serie, () -> new SerieFactura(serie));
+        return serieFacturaRepository.bloquear(serie)
+            .orElseThrow(() -> new IllegalStateException("No se encontró la numeración de la serie " + serie));
+    }
+
+    /**
+     * Números consecutivos reservados en una serie.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Bloque {
+        private final int serie;
+        private final int desde;
+        private final int cantidad;
+    }
+}
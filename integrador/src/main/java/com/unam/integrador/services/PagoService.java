@@ -8,9 +8,11 @@ import java.util.Comparator;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.unam.integrador.eventos.PagoRegistrado;
 import com.unam.integrador.model.CuentaCliente;
 import com.unam.integrador.model.DetallePago;
 import com.unam.integrador.model.Factura;
@@ -22,6 +24,8 @@ import com.unam.integrador.repositories.DetallePagoRepository;
 import com.unam.integrador.repositories.FacturaRepository;
 import com.unam.integrador.repositories.PagoRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 /**
  * Servicio de aplicación para la gestión de pagos.
  * 
@@ -49,6 +53,9 @@ public class PagoService {
     
     @Autowired
     private DetallePagoRepository detallePagoRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventos;
 
     
     /**
@@ -170,6 +177,7 @@ public class PagoService {
      * @throws IllegalArgumentException si hay errores en las validaciones
      */
     @Transactional
+    @Timed(value = MetricasFacturacion.TIMER_PAGOS, extraTags = {"operacion", "pago-combinado"})
     public String registrarPagoCombinado(
             List<Long> facturasIds, 
             BigDecimal montoTotal, 
@@ -236,6 +244,7 @@ public class PagoService {
         // 5. Distribuir los pagos entre las facturas usando DetallePago
         BigDecimal saldoAFavorRestante = saldoAFavorAplicar;
         BigDecimal dineroRestante = montoTotal;
+        List<Factura> facturasPagadas = new ArrayList<>();
         
         for (Factura factura : facturas) {
             BigDecimal totalDisponible = saldoAFavorRestante.add(dineroRestante);
@@ -259,6 +268,7 @@ public class PagoService {
             saldoAFavorRestante = saldoAFavorRestante.subtract(montoConSaldoAFavor);
             dineroRestante = dineroRestante.subtract(montoConMetodo);
             facturaRepository.save(factura);
+            facturasPagadas.add(factura);
         }
         
         // 6. Registrar excedente como saldo a favor del cliente
@@ -267,6 +277,7 @@ public class PagoService {
             cliente.registrarSaldoAFavor(totalRestante);
             cuentaClienteRepository.save(cliente);
         }
+        eventos.publishEvent(new PagoRegistrado(numeroRecibo, cliente, dineroTotal, facturasPagadas, pagosGenerados));
         
         // 7. Retornar número de recibo
         return numeroRecibo;
@@ -297,6 +308,7 @@ public class PagoService {
      * @throws IllegalStateException si el cliente no tiene saldo a favor suficiente
      */
     @Transactional
+    @Timed(value = MetricasFacturacion.TIMER_PAGOS, extraTags = {"operacion", "saldo-a-favor"})
     public String aplicarSaldoAFavor(Long clienteId, List<Long> facturasIds) {
         // 1. Obtener cliente y facturas
         CuentaCliente cliente = cuentaClienteRepository.findById(clienteId).orElse(null);
@@ -333,6 +345,7 @@ public class PagoService {
         
         // 3. Distribuir el pago entre las facturas
         BigDecimal saldoRestante = montoTotalAAplicar;
+        List<Factura> facturasPagadas = new ArrayList<>();
         
         for (Factura factura : facturas) {
             if (saldoRestante.compareTo(BigDecimal.ZERO) <= 0) {
@@ -342,6 +355,7 @@ public class PagoService {
             BigDecimal montoAplicar = saldoRestante.min(factura.getSaldoPendiente());
             detallePagoRepository.save(factura.registrarPago(pago, montoAplicar));
             facturaRepository.save(factura);
+            facturasPagadas.add(factura);
             
             saldoRestante = saldoRestante.subtract(montoAplicar);
         }
@@ -349,6 +363,8 @@ public class PagoService {
         // 4. Actualizar saldo del cliente
         cliente.aplicarSaldoAFavor(montoTotalAAplicar);
         cuentaClienteRepository.save(cliente);
+        eventos.publishEvent(new PagoRegistrado(numeroRecibo, cliente, montoTotalAAplicar, facturasPagadas,
+            List.of(pago)));
         
         // 5. Retornar número de recibo
         return numeroRecibo;
@@ -14,9 +14,10 @@ import com.unam.integrador.model.DetallePago;
 import com.unam.integrador.model.Factura;
 import com.unam.integrador.model.Pago;
 import com.unam.integrador.model.enums.MetodoPago;
-import com.unam.integrador.repositories.DetallePagoRepository;
 import com.unam.integrador.repositories.PagoRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 /**
  * Servicio para la generación dinámica de comprobantes de recibo.
  * 
@@ -35,9 +36,6 @@ public class ReciboService {
     @Autowired
     private PagoRepository pagoRepository;
     
-    @Autowired
-    private DetallePagoRepository detallePagoRepository;
-    
     /**
      * Genera un ReciboDTO a partir de un Pago individual.
      * 
@@ -46,13 +44,15 @@ public class ReciboService {
      * @throws IllegalArgumentException si el pago es nulo o inválido
      */
     @Transactional(readOnly = true)
+    @Timed(value = MetricasFacturacion.TIMER_RECIBOS, extraTags = {"operacion", "desde-pago"})
     public ReciboDTO generarReciboDesdePago(Pago pago) {
         if (pago == null) {
             throw new IllegalArgumentException("El pago no puede ser nulo");
         }
         
-        // Obtener los detalles de pago asociados
-        List<DetallePago> detalles = detallePagoRepository.findByPagoIdPago(pago.getIdPago());
+        // Obtener los detalles de pago asociados (desde la colección del pago: en un
+        // listado, Hibernate los carga en lotes para todos los pagos en lugar de uno por uno)
+        List<DetallePago> detalles = pago.getDetallesPago();
         
         if (detalles.isEmpty()) {
             throw new IllegalStateException("El pago no tiene facturas asociadas");
@@ -131,6 +131,7 @@ public class ReciboService {
      * @throws IllegalArgumentException si no se encuentra el pago
      */
     @Transactional(readOnly = true)
+    @Timed(value = MetricasFacturacion.TIMER_RECIBOS, extraTags = {"operacion", "por-pago"})
     public ReciboDTO generarReciboPorPagoId(Long pagoId) {
         Pago pago = pagoRepository.findById(pagoId).orElse(null);
         if (pago == null) {
@@ -148,6 +149,7 @@ public class ReciboService {
      * @throws IllegalArgumentException si no se encuentran pagos
      */
     @Transactional(readOnly = true)
+    @Timed(value = MetricasFacturacion.TIMER_RECIBOS, extraTags = {"operacion", "consolidado"})
     public ReciboDTO generarReciboConsolidado(String numeroRecibo) {
         if (numeroRecibo == null || numeroRecibo.trim().isEmpty()) {
             throw new IllegalArgumentException("El número de recibo no puede estar vacío");
@@ -172,6 +174,7 @@ public class ReciboService {
      * @return ReciboDTO con información agregada
      */
     @Transactional(readOnly = true)
+    @Timed(value = MetricasFacturacion.TIMER_RECIBOS, extraTags = {"operacion", "desde-pagos"})
     public ReciboDTO generarReciboDesdeMultiplesPagos(List<Pago> pagos, String numeroRecibo) {
         if (pagos == null || pagos.isEmpty()) {
             throw new IllegalArgumentException("La lista de pagos no puede estar vacía");
@@ -210,7 +213,7 @@ public class ReciboService {
         Long clienteId = null;
         
         for (Pago pago : pagos) {
-            List<DetallePago> detalles = detallePagoRepository.findByPagoIdPago(pago.getIdPago());
+            List<DetallePago> detalles = pago.getDetallesPago();
             
             for (DetallePago detalle : detalles) {
                 Factura factura = detalle.getFactura();
@@ -240,7 +243,7 @@ public class ReciboService {
         // Generar desglose de pagos consolidado
         List<ReciboDTO.DetallePagoDTO> desglosePagos = new ArrayList<>();
         for (Pago pago : pagos) {
-            List<DetallePago> detalles = detallePagoRepository.findByPagoIdPago(pago.getIdPago());
+            List<DetallePago> detalles = pago.getDetallesPago();
             
             if (detalles.isEmpty()) {
                 // Pago sin detalles (ej: excedente que se convierte en saldo a favor)
@@ -296,7 +299,7 @@ public class ReciboService {
         boolean tieneSaldoAFavorAplicado = false;
         for (Pago pago : pagos) {
             if (pago.getMetodoPago() == MetodoPago.SALDO_A_FAVOR) {
-                List<DetallePago> detalles = detallePagoRepository.findByPagoIdPago(pago.getIdPago());
+                List<DetallePago> detalles = pago.getDetallesPago();
                 if (!detalles.isEmpty()) {
                     tieneSaldoAFavorAplicado = true;
                     break;
@@ -357,7 +360,7 @@ public class ReciboService {
         String nombreBusqueda = clienteNombre.toLowerCase();
         
         for (Pago pago : pagos) {
-            List<DetallePago> detalles = detallePagoRepository.findByPagoIdPago(pago.getIdPago());
+            List<DetallePago> detalles = pago.getDetallesPago();
             boolean coincide = false;
             
             for (DetallePago detalle : detalles) {
@@ -1,13 +1,24 @@
 package com.unam.integrador.services;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.unam.integrador.dto.ModificacionServicioDTO;
+import com.unam.integrador.eventos.ServicioModificado;
+import com.unam.integrador.model.PrecioServicio;
 import com.unam.integrador.model.Servicio;
 import com.unam.integrador.model.ServicioContratado;
+import com.unam.integrador.repositories.PrecioServicioRepository;
+import com.unam.integrador.repositories.ServicioContratadoRepository;
 import com.unam.integrador.repositories.ServicioRepository;
 
 /**
@@ -19,6 +30,15 @@ public class ServicioService {
     @Autowired
     private ServicioRepository servicioRepository;
     
+    @Autowired
+    private ServicioContratadoRepository servicioContratadoRepository;
+    
+    @Autowired
+    private PrecioServicioRepository precioServicioRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventos;
+    
     /**
      * Crea un nuevo servicio.
      * @param servicio el servicio a crear (debe tener nombre, precio y alícuota IVA)
@@ -77,15 +97,17 @@ public class ServicioService {
     
     /**
      * HU-18: Modifica un servicio existente validando sus datos.
-     * Si el precio cambia, actualiza también los contratos activos.
+     * Si el precio cambia, se registra en el historial de precios con vigencia
+     * desde el período actual; los contratos no se modifican, el precio se
+     * resuelve al facturar según el período.
      * Las facturas ya emitidas NO se modifican.
      * @param id ID del servicio a modificar
      * @param servicioActualizado Servicio con los nuevos datos
-     * @return el servicio modificado
+     * @return el servicio modificado y la cantidad de contratos alcanzados por el nuevo precio
      * @throws IllegalArgumentException si no existe o los datos son inválidos
      */
     @Transactional
-    public Servicio modificarServicio(Long id, Servicio servicioActualizado) {
+    public ModificacionServicioDTO modificarServicio(Long id, Servicio servicioActualizado) {
         Servicio servicio = buscarPorId(id);
         
         // Verificar que el nombre no esté en uso por otro servicio
@@ -99,6 +121,8 @@ public class ServicioService {
                 });
         }
         
+        BigDecimal precioAnterior = servicio.getPrecio();
+        
         // Modificar servicio
         servicio.modificar(
             servicioActualizado.getNombre(),
@@ -107,15 +131,132 @@ public class ServicioService {
             servicioActualizado.getAlicuotaIVA()
         );
         
-        // Actualizar contratos activos si el precio cambió
-        for (ServicioContratado contrato : servicio.getContratos()) {
-            if (contrato.getActivo()) {
-                contrato.setPrecioContratado(servicio.getPrecio());
-            }
+        // Persistir cambios
+        Servicio servicioGuardado = servicioRepository.save(servicio);
+        eventos.publishEvent(new ServicioModificado(id));
+        
+        // Registrar el nuevo precio en el historial (una sola fila, sin tocar los contratos)
+        long contratosAfectados = 0;
+        if (precioAnterior == null || precioAnterior.compareTo(servicioGuardado.getPrecio()) != 0) {
+            precioServicioRepository.save(
+                new PrecioServicio(servicioGuardado, null, LocalDate.now(), servicioGuardado.getPrecio()));
+            contratosAfectados = servicioContratadoRepository.contarActivosPorServicio(id);
         }
         
-        // Persistir cambios
-        return servicioRepository.save(servicio);
+        return new ModificacionServicioDTO(servicioGuardado, contratosAfectados);
+    }
+    
+    /**
+     * Programa un nuevo precio general del servicio a partir de un período.
+     * Si el período ya está en curso, también se actualiza el precio de lista del servicio.
+     * 
+     * @param servicioId ID del servicio
+     * @param precio nuevo precio sin IVA
+     * @param vigenciaDesde período desde el que rige (se toma el primer día del mes)
+     * @return el precio registrado
+     * @throws IllegalArgumentException si el servicio no existe o los datos son inválidos
+     */
+    @Transactional
+    public PrecioServicio programarPrecio(Long servicioId, BigDecimal precio, LocalDate vigenciaDesde) {
+        Servicio servicio = buscarPorId(servicioId);
+        validarVigencia(vigenciaDesde);
+        
+        PrecioServicio nuevoPrecio = precioServicioRepository.save(
+            new PrecioServicio(servicio, null, vigenciaDesde, precio));
+        
+        if (!nuevoPrecio.getVigenciaDesde().isAfter(LocalDate.now())) {
+            servicio.setPrecio(nuevoPrecio.getPrecio());
+            eventos.publishEvent(new ServicioModificado(servicioId));
+        }
+        return nuevoPrecio;
+    }
+    
+    /**
+     * Programa un precio especial para un contrato puntual a partir de un período.
+     * Tiene prioridad sobre el precio general del servicio.
+     * 
+     * @param servicioContratadoId ID del servicio contratado
+     * @param precio precio especial sin IVA
+     * @param vigenciaDesde período desde el que rige (se toma el primer día del mes)
+     * @return el precio registrado
+     * @throws IllegalArgumentException si el contrato no existe, está dado de baja,
+     *         el servicio está inactivo o los datos son inválidos
+     */
+    @Transactional
+    public PrecioServicio programarPrecioContrato(Long servicioContratadoId, BigDecimal precio, LocalDate vigenciaDesde) {
+        ServicioContratado contrato = servicioContratadoRepository.findById(servicioContratadoId)
+            .orElseThrow(() -> new IllegalArgumentException(
+                "Servicio contratado no encontrado con ID: " + servicioContratadoId));
+        if (!Boolean.TRUE.equals(contrato.getActivo())) {
+            throw new IllegalArgumentException("El servicio contratado está dado de baja");
+        }
+        if (!contrato.getServicio().puedeFacturarse()) {
+            throw new IllegalArgumentException("El servicio " + contrato.getServicio().getNombre() + " está inactivo");
+        }
+        validarVigencia(vigenciaDesde);
+        
+        return precioServicioRepository.save(
+            new PrecioServicio(contrato.getServicio(), contrato, vigenciaDesde, precio));
+    }
+    
+    /**
+     * Resuelve el precio general que rige hoy para un servicio según el tarifario.
+     * Considera los precios programados cuyo período ya comenzó aunque todavía
+     * no se hayan aplicado al precio de lista.
+     * 
+     * @param servicio el servicio
+     * @return el precio sin IVA vigente, o el precio de lista si no hay historial
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal obtenerPrecioVigente(Servicio servicio) {
+        return precioServicioRepository
+            .findVigentesEnPorServicios(LocalDate.now(), List.of(servicio.getIDServicio())).stream()
+            .filter(p -> p.getServicioContratado() == null)
+            .map(PrecioServicio::getPrecio)
+            .findFirst()
+            .orElse(servicio.getPrecio());
+    }
+    
+    /**
+     * Aplica al precio de lista de cada servicio el precio programado que ya
+     * entró en vigencia. Se ejecuta al iniciar la aplicación y todos los días a
+     * la medianoche, para que las pantallas muestren el precio que se factura.
+     * 
+     * @return cantidad de servicios actualizados
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${precios.aplicacion-programados:0 0 0 * * *}")
+    @Transactional
+    public int aplicarPreciosProgramados() {
+        List<PrecioServicio> pendientes = precioServicioRepository.findGeneralesSinAplicar(LocalDate.now());
+        for (PrecioServicio precio : pendientes) {
+            precio.getServicio().setPrecio(precio.getPrecio());
+            eventos.publishEvent(new ServicioModificado(precio.getServicio().getIDServicio()));
+        }
+        return pendientes.size();
+    }
+    
+    /**
+     * Obtiene el historial de precios de un servicio (más reciente primero).
+     * @param servicioId ID del servicio
+     * @return historial de precios generales y especiales
+     */
+    @Transactional(readOnly = true)
+    public List<PrecioServicio> obtenerHistorialPrecios(Long servicioId) {
+        return precioServicioRepository.findHistorialPorServicio(servicioId);
+    }
+    
+    /**
+     * No se permiten precios con vigencia anterior al período actual,
+     * para no alterar períodos que pueden estar ya facturados.
+     */
+    private void validarVigencia(LocalDate vigenciaDesde) {
+        if (vigenciaDesde == null) {
+            throw new IllegalArgumentException("El período de vigencia es obligatorio");
+        }
+        if (vigenciaDesde.withDayOfMonth(1).isBefore(LocalDate.now().withDayOfMonth(1))) {
+            throw new IllegalArgumentException("El período de vigencia no puede ser anterior al período actual");
+        }
     }
     
     /**
@@ -130,6 +271,7 @@ public class ServicioService {
     public Servicio darDeBajaServicio(Long id) {
         Servicio servicio = buscarPorId(id);
         servicio.desactivar();
+        eventos.publishEvent(new ServicioModificado(id));
         return servicioRepository.save(servicio);
     }
     
@@ -143,6 +285,7 @@ public class ServicioService {
     public Servicio reactivarServicio(Long id) {
         Servicio servicio = buscarPorId(id);
         servicio.activar();
+        eventos.publishEvent(new ServicioModificado(id));
         return servicioRepository.save(servicio);
     }
 }
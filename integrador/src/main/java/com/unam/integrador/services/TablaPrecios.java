@@ -0,0 +1,71 @@
+package com.unam.integrador.services;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.unam.integrador.model.PrecioServicio;
+import com.unam.integrador.model.ServicioContratado;
+
+/**
+ * Tabla de precios en memoria de un período, armada a partir de los precios
+ * de {@link PrecioServicio} vigentes en él (uno por servicio y uno por
+ * contrato con precio especial).
+ * Se arma una vez por facturación, de modo que la facturación masiva no hace
+ * una consulta por cliente ni requiere actualizar los contratos.
+ *
+ * Orden de resolución: precio especial del contrato, precio general del
+ * servicio y, si el servicio no tiene historial, el precio del contrato.
+ */
+public class TablaPrecios {
+
+    private final Map<Long, BigDecimal> porServicio = new HashMap<>();
+    private final Map<Long, BigDecimal> porContrato = new HashMap<>();
+
+    /**
+     * Arma la tabla a partir de los precios vigentes.
+     * @param precios precio vigente en el período a facturar de cada servicio y contrato
+     */
+    public TablaPrecios(List<PrecioServicio> precios) {
+        for (PrecioServicio p : precios) {
+            if (p.getServicioContratado() != null) {
+                porContrato.put(p.getServicioContratado().getIDServicioContratado(), p.getPrecio());
+            } else {
+                porServicio.put(p.getServicio().getIDServicio(), p.getPrecio());
+            }
+        }
+    }
+
+    /**
+     * Tabla sin historial: siempre se usa el precio de cada contrato.
+     * @return tabla vacía
+     */
+    public static TablaPrecios vacia() {
+        return new TablaPrecios(List.of());
+    }
+
+    /**
+     * Resuelve el precio a facturar de un servicio contratado en el período de la tabla.
+     *
+     * @param contrato el servicio contratado
+     * @return el precio sin IVA vigente en el período
+     */
+    public BigDecimal resolver(ServicioContratado contrato) {
+        if (contrato.getIDServicioContratado() != null) {
+            BigDecimal precio = porContrato.get(contrato.getIDServicioContratado());
+            if (precio != null) {
+                return precio;
+            }
+        }
+
+        if (contrato.getServicio() != null && contrato.getServicio().getIDServicio() != null) {
+            BigDecimal precio = porServicio.get(contrato.getServicio().getIDServicio());
+            if (precio != null) {
+                return precio;
+            }
+        }
+
+        return contrato.getPrecioContratado();
+    }
+}
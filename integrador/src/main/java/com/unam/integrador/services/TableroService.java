@@ -0,0 +1,181 @@
+package com.unam.integrador.services;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.unam.integrador.dto.TableroDTO;
+import com.unam.integrador.dto.TotalAgrupadoDTO;
+import com.unam.integrador.eventos.ClienteModificado;
+import com.unam.integrador.eventos.FacturasAnuladas;
+import com.unam.integrador.eventos.FacturasEmitidas;
+import com.unam.integrador.eventos.FacturasVencidas;
+import com.unam.integrador.eventos.PagoRegistrado;
+import com.unam.integrador.model.LoteFacturacion;
+import com.unam.integrador.model.enums.EstadoFactura;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+import com.unam.integrador.repositories.FacturaRepository;
+import com.unam.integrador.repositories.LoteFacturacionRepository;
+import com.unam.integrador.repositories.PagoRepository;
+
+/**
+ * Servicio del tablero operativo de la página de inicio.
+ *
+ * Los indicadores se calculan con consultas agregadas y se guardan en una
+ * instantánea en memoria; mostrar la página de inicio no consulta la base.
+ * La instantánea se recalcula en segundo plano cuando una emisión, un pago o
+ * una anulación la marca como desactualizada, y además cada
+ * {@code tablero.antiguedad-maxima} para reflejar cambios hechos por otras vías.
+ */
+@Service
+public class TableroService {
+
+    /** Estados de factura cuyo saldo está pendiente de cobro. */
+    private static final Set<EstadoFactura> ESTADOS_IMPAGAS = Set.of(
+        EstadoFactura.PENDIENTE,
+        EstadoFactura.VENCIDA,
+        EstadoFactura.PAGADA_PARCIALMENTE
+    );
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    @Autowired
+    private PagoRepository pagoRepository;
+
+    @Autowired
+    private LoteFacturacionRepository loteFacturacionRepository;
+
+    @Autowired
+    private CuentaClienteRepositorie clienteRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** Antigüedad a partir de la cual se recalcula aunque no haya cambios notificados. */
+    @Value("${tablero.antiguedad-maxima:PT1M}")
+    private Duration antiguedadMaxima = Duration.ofMinutes(1);
+
+    private volatile TableroDTO instantanea;
+
+    private final AtomicBoolean desactualizado = new AtomicBoolean(false);
+
+    /**
+     * Obtiene los indicadores de la última instantánea. Solo consulta la base
+     * si todavía no se calculó ninguna.
+     * @return los indicadores del tablero
+     */
+    public TableroDTO obtenerTablero() {
+        TableroDTO actual = instantanea;
+        return actual != null ? actual : refrescar();
+    }
+
+    /**
+     * Marca la instantánea como desactualizada para que se recalcule en el
+     * próximo ciclo. Las emisiones, anulaciones, vencimientos, pagos y cambios
+     * de clientes la marcan luego de confirmarse.
+     */
+    @TransactionalEventListener(fallbackExecution = true, classes = {
+        FacturasEmitidas.class, FacturasAnuladas.class, FacturasVencidas.class,
+        PagoRegistrado.class, ClienteModificado.class})
+    public void marcarDesactualizado() {
+        desactualizado.set(true);
+    }
+
+    /**
+     * Recalcula la instantánea si fue marcada como desactualizada o si superó
+     * la antigüedad máxima. Varios cambios seguidos producen un solo recálculo.
+     */
+    @Scheduled(fixedDelayString = "${tablero.intervalo-verificacion:5000}",
+               initialDelayString = "${tablero.intervalo-verificacion:5000}")
+    public void verificar() {
+        TableroDTO actual = instantanea;
+        boolean vencida = actual == null
+            || actual.getGeneradoEn().plus(antiguedadMaxima).isBefore(LocalDateTime.now());
+        if (desactualizado.getAndSet(false) || vencida) {
+            refrescar();
+        }
+    }
+
+    /**
+     * Calcula los indicadores al iniciar la aplicación.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        refrescar();
+    }
+
+    /**
+     * Calcula todos los indicadores y reemplaza la instantánea. Las consultas
+     * corren en una transacción de solo lectura propia, porque se llama desde
+     * los demás métodos del servicio, sin pasar por el proxy.
+     * @return la nueva instantánea
+     */
+    public TableroDTO refrescar() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        TableroDTO tablero = tx.execute(estado -> calcular());
+        instantanea = tablero;
+        return tablero;
+    }
+
+    private TableroDTO calcular() {
+        LocalDateTime ahora = LocalDateTime.now();
+
+        List<TotalAgrupadoDTO> facturasPorEstado = ordenar(facturaRepository.totalizarPorEstado());
+        BigDecimal montoPendiente = BigDecimal.ZERO;
+        for (TotalAgrupadoDTO total : facturasPorEstado) {
+            if (ESTADOS_IMPAGAS.contains(total.getClave()) && total.getMonto() != null) {
+                montoPendiente = montoPendiente.add(total.getMonto());
+            }
+        }
+
+        List<TotalAgrupadoDTO> pagosHoy = ordenar(pagoRepository.totalizarPorMetodo(ahora.toLocalDate()));
+        BigDecimal cobradoHoy = BigDecimal.ZERO;
+        for (TotalAgrupadoDTO total : pagosHoy) {
+            cobradoHoy = cobradoHoy.add(total.getMonto());
+        }
+
+        TableroDTO tablero = new TableroDTO();
+        tablero.setGeneradoEn(ahora);
+        tablero.setFacturasPorEstado(facturasPorEstado);
+        tablero.setMontoPendiente(montoPendiente);
+        tablero.setPagosHoyPorMetodo(pagosHoy);
+        tablero.setCobradoHoy(cobradoHoy);
+        tablero.setClientesPorEstado(ordenar(clienteRepository.totalizarPorEstado()));
+
+        LoteFacturacion ultimoLote = loteFacturacionRepository.findFirstByOrderByFechaEjecucionDesc().orElse(null);
+        if (ultimoLote != null) {
+            tablero.setUltimoLotePeriodo(ultimoLote.getPeriodo());
+            tablero.setUltimoLoteFecha(ultimoLote.getFechaEjecucion());
+            tablero.setUltimoLoteFacturas(ultimoLote.getCantidadFacturas());
+            tablero.setUltimoLoteAnuladas(facturaRepository.countByLoteFacturacionIdAndEstado(
+                ultimoLote.getId(), EstadoFactura.ANULADA));
+            tablero.setUltimoLoteAnulado(ultimoLote.isAnulado());
+        }
+        return tablero;
+    }
+
+    /**
+     * Ordena los grupos según el orden de declaración del enum.
+     */
+    private static List<TotalAgrupadoDTO> ordenar(List<TotalAgrupadoDTO> totales) {
+        totales.sort(Comparator.comparingInt(t -> t.getClave().ordinal()));
+        return totales;
+    }
+}
@@ -0,0 +1,120 @@
+package com.unam.integrador.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ejecutor compartido de las tareas en segundo plano (autorización fiscal,
+ * despacho de notificaciones y trabajadores de la facturación distribuida).
+ *
+ * Usa un único {@link ThreadPoolTaskExecutor} de {@code tareas.hilos} hilos
+ * cuyo ciclo de vida acompaña al del contexto. Las tareas con nombre se
+ * agrupan: si se solicita una tarea que ya está en curso, se vuelve a
+ * ejecutar una sola vez al terminar, sin correr dos copias en paralelo.
+ */
+@Component
+public class TareasSegundoPlano implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TareasSegundoPlano.class);
+
+    /** Hilos del ejecutor compartido. */
+    @Value("${tareas.hilos:4}")
+    private int hilos = 4;
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    private final Map<String, Tarea> tareas = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterPropertiesSet() {
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setThreadNamePrefix("tareas-");
+        executor.setDaemon(true);
+        executor.initialize();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * Programa una tarea con nombre. Varias solicitudes seguidas se resuelven
+     * con una sola ejecución; una solicitud recibida mientras la tarea corre
+     * provoca una ejecución más al terminar.
+     *
+     * @param nombre identifica la tarea (y el hilo mientras corre)
+     * @param accion trabajo a realizar; se usa la registrada en la primera solicitud
+     */
+    public void programar(String nombre, Runnable accion) {
+        tareas.computeIfAbsent(nombre, n -> new Tarea(n, accion)).solicitar();
+    }
+
+    /**
+     * Ejecuta un trabajo independiente en el ejecutor compartido.
+     *
+     * @param accion trabajo a realizar
+     * @throws TaskRejectedException si el ejecutor ya se cerró
+     */
+    public void ejecutar(Runnable accion) {
+        executor.execute(accion);
+    }
+
+    /**
+     * Estado de una tarea con nombre: en curso y con otra ejecución pedida.
+     */
+    private final class Tarea {
+        private final String nombre;
+        private final Runnable accion;
+        private boolean enCurso;
+        private boolean repetir;
+
+        private Tarea(String nombre, Runnable accion) {
+            this.nombre = nombre;
+            this.accion = accion;
+        }
+
+        synchronized void solicitar() {
+            if (enCurso) {
+                repetir = true;
+                return;
+            }
+            enCurso = true;
+            try {
+                executor.execute(this::correr);
+            } catch (TaskRejectedException e) {
+                enCurso = false;
+                log.warn("No se pudo programar la tarea {}: el ejecutor está cerrado", nombre);
+            }
+        }
+
+        private void correr() {
+            do {
+                try {
+                    accion.run();
+                } catch (RuntimeException e) {
+                    log.error("Falló la tarea en segundo plano {}", nombre, e);
+                }
+            } while (continuar());
+        }
+
+        private synchronized boolean continuar() {
+            if (repetir) {
+                repetir = false;
+                return true;
+            }
+            enCurso = false;
+            return false;
+        }
+    }
+}
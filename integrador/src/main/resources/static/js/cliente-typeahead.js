@@ -0,0 +1,95 @@
+// Autocompletado de clientes para los formularios de facturación.
+// Consulta /clientes/sugerencias (la URL, con el context path, viene en el
+// atributo data-url del buscador) a medida que el usuario escribe y guarda
+// el ID del cliente elegido en el campo oculto "clienteId".
+document.addEventListener('DOMContentLoaded', function() {
+    const buscador = document.getElementById('clienteBusqueda');
+    const clienteId = document.getElementById('clienteId');
+    const lista = document.getElementById('clienteSugerencias');
+    if (!buscador || !clienteId || !lista) {
+        return;
+    }
+
+    const form = buscador.form;
+    const URL_SUGERENCIAS = buscador.dataset.url;
+    const LIMITE = 10;
+    const ESPERA_MS = 250;
+    let temporizador = null;
+    let ultimaConsulta = 0;
+
+    function limpiarSugerencias() {
+        lista.innerHTML = '';
+        lista.classList.add('d-none');
+    }
+
+    function seleccionar(cliente) {
+        clienteId.value = cliente.id;
+        buscador.value = cliente.nombre + ' - CUIT/DNI: ' + cliente.cuitDni;
+        buscador.setCustomValidity('');
+        limpiarSugerencias();
+    }
+
+    function mostrarSugerencias(clientes) {
+        lista.innerHTML = '';
+        if (clientes.length === 0) {
+            const vacio = document.createElement('div');
+            vacio.className = 'list-group-item text-muted';
+            vacio.textContent = 'No se encontraron clientes';
+            lista.appendChild(vacio);
+        }
+        clientes.forEach(function(cliente) {
+            const item = document.createElement('button');
+            item.type = 'button';
+            item.className = 'list-group-item list-group-item-action';
+            item.textContent = cliente.nombre + ' - CUIT/DNI: ' + cliente.cuitDni;
+            item.addEventListener('click', function() {
+                seleccionar(cliente);
+            });
+            lista.appendChild(item);
+        });
+        lista.classList.remove('d-none');
+    }
+
+    function buscar(texto) {
+        const consulta = ++ultimaConsulta;
+        fetch(URL_SUGERENCIAS + '?q=' + encodeURIComponent(texto) + '&limite=' + LIMITE,
+              { headers: { 'Accept': 'application/json' } })
+            .then(function(respuesta) { return respuesta.ok ? respuesta.json() : []; })
+            .then(function(clientes) {
+                // Ignorar respuestas de consultas anteriores que llegan tarde
+                if (consulta === ultimaConsulta) {
+                    mostrarSugerencias(clientes);
+                }
+            })
+            .catch(limpiarSugerencias);
+    }
+
+    buscador.addEventListener('input', function() {
+        // Al editar el texto se descarta la selección anterior
+        clienteId.value = '';
+        clearTimeout(temporizador);
+        const texto = buscador.value.trim();
+        if (texto.length < 2) {
+            ultimaConsulta++;
+            limpiarSugerencias();
+            return;
+        }
+        temporizador = setTimeout(function() { buscar(texto); }, ESPERA_MS);
+    });
+
+    document.addEventListener('click', function(e) {
+        if (e.target !== buscador && !lista.contains(e.target)) {
+            limpiarSugerencias();
+        }
+    });
+
+    if (form) {
+        form.addEventListener('submit', function(e) {
+            if (!clienteId.value) {
+                e.preventDefault();
+                buscador.setCustomValidity('Seleccione un cliente de la lista');
+                buscador.reportValidity();
+            }
+        });
+    }
+});
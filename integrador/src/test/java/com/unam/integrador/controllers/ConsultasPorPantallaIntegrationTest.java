@@ -0,0 +1,172 @@
+package com.unam.integrador.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.unam.integrador.model.*;
+import com.unam.integrador.model.enums.*;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+import com.unam.integrador.repositories.ServicioRepository;
+import com.unam.integrador.services.ContadorConsultas;
+import com.unam.integrador.services.FacturaService;
+import com.unam.integrador.services.PagoService;
+import com.unam.integrador.services.ReciboService;
+
+import jakarta.persistence.EntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Presupuesto de consultas de las pantallas principales.
+ * A diferencia de los tests de controladores, usa los servicios y la base H2
+ * reales: verifica que la cantidad de sentencias de cada pantalla no crezca con
+ * la cantidad de filas listadas (N+1) y que no supere su presupuesto.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+@DisplayName("Presupuesto de consultas por pantalla")
+class ConsultasPorPantallaIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FacturaService facturaService;
+
+    @Autowired
+    private PagoService pagoService;
+
+    @Autowired
+    private ReciboService reciboService;
+
+    @Autowired
+    private CuentaClienteRepositorie clienteRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Servicio servicio;
+    private final AtomicInteger periodos = new AtomicInteger(3);
+    private final AtomicInteger clientes = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        servicio = servicioRepository.save(
+            new Servicio("Hosting Consultas", "Hosting", new BigDecimal("10000.00"), TipoAlicuotaIVA.IVA_21));
+    }
+
+    @Test
+    @DisplayName("El listado de facturas no debería consultar por cada factura")
+    void testListadoFacturas() {
+        // Arrange
+        facturarNuevosClientes(2);
+
+        // Act & Assert: listado, clientes (en lotes) y actualización de vencidas
+        PresupuestoConsultas.sinConsultasPorFila(
+            () -> solicitar("/facturas", 4), () -> facturarNuevosClientes(3));
+    }
+
+    @Test
+    @DisplayName("El detalle de un lote no debería consultar por cada factura del lote")
+    void testDetalleLote() {
+        // Arrange
+        AtomicLong lote = new AtomicLong(facturarNuevosClientes(2).getId());
+
+        // Act & Assert: lote, facturas, clientes (en lotes), omisiones por tipo y su página
+        PresupuestoConsultas.sinConsultasPorFila(
+            () -> solicitar("/facturacion-masiva/" + lote.get(), 5),
+            () -> lote.set(facturarNuevosClientes(3).getId()));
+    }
+
+    @Test
+    @DisplayName("El listado de pagos no debería consultar por cada recibo")
+    void testListadoPagos() {
+        // Arrange
+        pagarFacturas(facturarNuevosClientes(2));
+
+        // Act & Assert: pagos, detalles, facturas y clientes (en lotes)
+        PresupuestoConsultas.sinConsultasPorFila(
+            () -> solicitar("/pagos", 4), () -> pagarFacturas(facturarNuevosClientes(3)));
+    }
+
+    @Test
+    @DisplayName("El listado de recibos del servicio no debería consultar por cada pago")
+    void testListadoRecibosServicio() {
+        // Arrange
+        pagarFacturas(facturarNuevosClientes(2));
+
+        // Act & Assert
+        ContadorConsultas.Medicion medicion = PresupuestoConsultas.sinConsultasPorFila(() -> {
+            entityManager.flush();
+            entityManager.clear();
+            return PresupuestoConsultas.medir(() -> reciboService.listarTodosLosRecibos());
+        }, () -> pagarFacturas(facturarNuevosClientes(3)));
+        assertTrue(medicion.getSentencias() <= 4, medicion.toString());
+    }
+
+    // Métodos auxiliares
+
+    /**
+     * Solicita una pantalla con el contexto de persistencia vacío, para que
+     * todas sus lecturas lleguen a la base, y verifica su presupuesto.
+     */
+    private ContadorConsultas.Medicion solicitar(String url, int presupuesto) {
+        entityManager.flush();
+        entityManager.clear();
+        try {
+            return PresupuestoConsultas.medicion(mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(PresupuestoConsultas.sentenciasMaximas(presupuesto))
+                .andReturn());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Crea clientes nuevos y los factura con una facturación masiva de un período nuevo.
+     */
+    private LoteFacturacion facturarNuevosClientes(int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            int numero = clientes.incrementAndGet();
+            CuentaCliente cliente = new CuentaCliente();
+            cliente.setNombre("Cliente Consultas " + numero);
+            cliente.setRazonSocial("Cliente Consultas " + numero + " S.A.");
+            cliente.setCuitDni(String.valueOf(30500000000L + numero));
+            cliente.setDomicilio("Av. Corrientes 1234");
+            cliente.setEmail("consultas" + numero + "@email.com");
+            cliente.setCondicionIva(numero % 2 == 0
+                ? TipoCondicionIVA.RESPONSABLE_INSCRIPTO : TipoCondicionIVA.CONSUMIDOR_FINAL);
+            cliente.setEstado(EstadoCuenta.ACTIVA);
+            cliente.contratarServicio(servicio);
+            clienteRepository.save(cliente);
+        }
+        return facturaService.ejecutarFacturacionMasiva(
+            Periodo.actual().desplazar(periodos.getAndIncrement()).getEtiqueta(), LocalDate.now().plusDays(30));
+    }
+
+    private void pagarFacturas(LoteFacturacion lote) {
+        for (Factura factura : lote.getFacturas()) {
+            pagoService.registrarPagoCombinado(List.of(factura.getIdFactura()), new BigDecimal("1000.00"),
+                BigDecimal.ZERO, MetodoPago.EFECTIVO, null);
+        }
+    }
+}
@@ -10,11 +10,15 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import com.unam.integrador.model.*;
 import com.unam.integrador.model.enums.*;
+import com.unam.integrador.dto.FiltroFacturasDTO;
 import com.unam.integrador.services.CuentaClienteService;
+import com.unam.integrador.services.ExportacionFacturasService;
 import com.unam.integrador.services.FacturaService;
+import com.unam.integrador.services.LibroIvaVentasService;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.List;
 
@@ -40,6 +44,12 @@ class FacturaViewControllerTest {
     @MockBean
     private CuentaClienteService clienteService;
 
+    @MockBean
+    private LibroIvaVentasService libroIvaVentasService;
+
+    @MockBean
+    private ExportacionFacturasService exportacionFacturasService;
+
     private Factura factura;
     private CuentaCliente cliente;
 
@@ -113,19 +123,16 @@ class FacturaViewControllerTest {
     @Test
     @DisplayName("GET /facturas/nueva-individual - Debería mostrar formulario")
     void testMostrarFormularioFacturaIndividual() throws Exception {
-        // Arrange
-        List<CuentaCliente> clientes = Arrays.asList(cliente);
-        when(clienteService.obtenerTodosLosClientes()).thenReturn(clientes);
-
         // Act & Assert
         mockMvc.perform(get("/facturas/nueva-individual"))
             .andExpect(status().isOk())
             .andExpect(view().name("facturas/formulario-individual"))
-            .andExpect(model().attributeExists("clientes"))
+            .andExpect(model().attributeDoesNotExist("clientes"))
             .andExpect(model().attributeExists("periodos"))
             .andExpect(model().attributeExists("fechaEmision"));
 
-        verify(clienteService).obtenerTodosLosClientes();
+        // El cliente se busca con el autocompletado, no se carga la lista completa
+        verify(clienteService, never()).obtenerTodosLosClientes();
     }
 
     @Test
@@ -157,7 +164,7 @@ class FacturaViewControllerTest {
         when(facturaService.emitirFacturaDesdeServiciosContratados(
             anyLong(), any(), any(), any(), any(), any()))
             .thenThrow(new IllegalStateException("Ya existe una factura para este período"));
-        when(clienteService.obtenerTodosLosClientes()).thenReturn(Arrays.asList(cliente));
+        when(clienteService.obtenerClientePorId(1L)).thenReturn(cliente);
 
         // Act & Assert
         mockMvc.perform(post("/facturas/nueva-individual")
@@ -167,7 +174,10 @@ class FacturaViewControllerTest {
                 .param("fechaVencimiento", "2025-11-30"))
             .andExpect(status().isOk())
             .andExpect(view().name("facturas/formulario-individual"))
-            .andExpect(model().attributeExists("error"));
+            .andExpect(model().attributeExists("error"))
+            .andExpect(model().attribute("clienteSeleccionado", cliente));
+
+        verify(clienteService, never()).obtenerTodosLosClientes();
     }
 
     @Test
@@ -189,14 +199,14 @@ class FacturaViewControllerTest {
     @Test
     @DisplayName("GET /facturas/nueva-proporcional - Debería mostrar formulario proporcional")
     void testMostrarFormularioFacturaProporcional() throws Exception {
-        // Arrange
-        when(clienteService.obtenerTodosLosClientes()).thenReturn(Arrays.asList(cliente));
-
         // Act & Assert
         mockMvc.perform(get("/facturas/nueva-proporcional"))
             .andExpect(status().isOk())
             .andExpect(view().name("facturas/formulario-proporcional"))
-            .andExpect(model().attributeExists("clientes"));
+            .andExpect(model().attributeDoesNotExist("clientes"))
+            .andExpect(model().attributeExists("fechaEmision"));
+
+        verify(clienteService, never()).obtenerTodosLosClientes();
     }
 
     @Test
@@ -291,4 +301,48 @@ class FacturaViewControllerTest {
             .andExpect(model().attributeExists("facturas"))
             .andExpect(model().attributeExists("cliente"));
     }
+
+    @Test
+    @DisplayName("GET /facturas/libro-iva - Debería descargar el Libro IVA Ventas del período")
+    void testDescargarLibroIva() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/facturas/libro-iva").param("mes", "11").param("anio", "2025"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andExpect(header().string("Content-Disposition",
+                "attachment; filename=\"libro-iva-ventas-2025-11.csv\""));
+
+        verify(libroIvaVentasService).generar(eq(Periodo.of(YearMonth.of(2025, 11))), any());
+    }
+
+    @Test
+    @DisplayName("GET /facturas/exportar - Debería exportar las facturas filtradas en JSON Lines")
+    void testExportarFacturasJsonLines() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/facturas/exportar")
+                .param("estado", "PENDIENTE").param("mes", "11").param("anio", "2025")
+                .param("desde", "2025-11-01").param("formato", "jsonl"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andExpect(header().string("Content-Disposition", "attachment; filename=\"facturas.jsonl\""));
+
+        verify(exportacionFacturasService).exportarJsonLines(eq(new FiltroFacturasDTO(
+            "PENDIENTE", null, LocalDate.of(2025, 11, 1), LocalDate.of(2025, 11, 1), null)), any());
+    }
+
+    @Test
+    @DisplayName("GET /facturas/exportar - Debería rechazar un formato o filtro inválido")
+    void testExportarFacturasInvalido() throws Exception {
+        // Arrange
+        when(exportacionFacturasService.exportarCsv(any(), any()))
+            .thenThrow(new IllegalArgumentException("Estado de factura inválido: X"));
+
+        // Act & Assert
+        mockMvc.perform(get("/facturas/exportar").param("formato", "xml"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/facturas/exportar").param("estado", "X"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/facturas/exportar").param("mes", "13").param("anio", "2025"))
+            .andExpect(status().isBadRequest());
+    }
 }
@@ -11,6 +11,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import com.unam.integrador.model.*;
 import com.unam.integrador.model.enums.*;
 import com.unam.integrador.services.FacturaService;
+import com.unam.integrador.services.FacturacionDistribuidaService;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -37,6 +38,9 @@ class FacturacionMasivaControllerTest {
     @MockBean
     private FacturaService facturaService;
 
+    @MockBean
+    private FacturacionDistribuidaService facturacionDistribuidaService;
+
     private LoteFacturacion lote;
     private CuentaCliente cliente1;
     private CuentaCliente cliente2;
@@ -0,0 +1,82 @@
+package com.unam.integrador.controllers;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.unam.integrador.services.ContadorConsultas;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Utilidades de test para controlar el acceso a la base de cada pantalla o
+ * servicio (presupuesto de consultas) y detectar cargas N+1.
+ *
+ * Uso con MockMvc (requiere el contexto completo, para que las consultas sean reales):
+ * {@code mockMvc.perform(get("/facturas")).andExpect(PresupuestoConsultas.sentenciasMaximas(5))}
+ */
+final class PresupuestoConsultas {
+
+    private PresupuestoConsultas() {
+    }
+
+    /**
+     * Verifica que la solicitud no haya ejecutado más de {@code maximo} sentencias.
+     */
+    static ResultMatcher sentenciasMaximas(int maximo) {
+        return resultado -> {
+            ContadorConsultas.Medicion medicion = medicion(resultado);
+            assertTrue(medicion.getSentencias() <= maximo,
+                "Se esperaban como máximo " + maximo + " sentencias en " + medicion);
+        };
+    }
+
+    /**
+     * Verifica que la solicitud no haya leído más de {@code maximo} filas.
+     */
+    static ResultMatcher filasMaximas(long maximo) {
+        return resultado -> {
+            ContadorConsultas.Medicion medicion = medicion(resultado);
+            assertTrue(medicion.getFilas() <= maximo,
+                "Se esperaban como máximo " + maximo + " filas en " + medicion);
+        };
+    }
+
+    /**
+     * @return la medición de la solicitud, registrada por {@link FiltroConsultas}
+     */
+    static ContadorConsultas.Medicion medicion(MvcResult resultado) {
+        Object medicion = resultado.getRequest().getAttribute(FiltroConsultas.ATRIBUTO_MEDICION);
+        assertNotNull(medicion, "La solicitud no pasó por FiltroConsultas");
+        return (ContadorConsultas.Medicion) medicion;
+    }
+
+    /**
+     * Mide el acceso a la base de una operación ejecutada en el hilo actual.
+     */
+    static ContadorConsultas.Medicion medir(Runnable operacion) {
+        try (ContadorConsultas.Medicion medicion = ContadorConsultas.iniciar("test")) {
+            operacion.run();
+            return medicion;
+        }
+    }
+
+    /**
+     * Verifica que una consulta no crezca con la cantidad de datos (N+1): mide
+     * la operación, agrega datos y la vuelve a medir.
+     *
+     * @param operacion operación a medir (por ejemplo, una solicitud MockMvc)
+     * @param agregarDatos agrega filas a lo que la operación lista
+     * @return la segunda medición, para controles adicionales
+     */
+    static ContadorConsultas.Medicion sinConsultasPorFila(Supplier<ContadorConsultas.Medicion> operacion,
+                                                         Runnable agregarDatos) {
+        ContadorConsultas.Medicion antes = operacion.get();
+        agregarDatos.run();
+        ContadorConsultas.Medicion despues = operacion.get();
+        assertTrue(despues.getSentencias() <= antes.getSentencias(),
+            "La cantidad de sentencias crece con los datos (N+1): " + antes + " / " + despues);
+        return despues;
+    }
+}
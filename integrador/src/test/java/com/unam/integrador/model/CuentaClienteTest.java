@@ -0,0 +1,80 @@
+package com.unam.integrador.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+
+import com.unam.integrador.model.enums.*;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para CuentaCliente.
+ * Enfocado en la contratación y baja de servicios.
+ */
+@DisplayName("Tests unitarios para CuentaCliente")
+class CuentaClienteTest {
+
+    private CuentaCliente cliente;
+    private Servicio hosting;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new CuentaCliente();
+        cliente.setNombre("Tech Solutions S.A.");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+
+        hosting = crearServicio(1L, "Hosting");
+    }
+
+    @Test
+    @DisplayName("Debería detectar el servicio contratado por su ID")
+    void testTieneServicioContratadoActivoPorId() {
+        // Arrange
+        cliente.contratarServicio(hosting);
+
+        // Act & Assert: otra instancia del mismo servicio (mismo ID, datos distintos)
+        Servicio mismoServicio = crearServicio(1L, "Hosting (precio actualizado)");
+        assertTrue(cliente.tieneServicioContratadoActivo(mismoServicio));
+        assertFalse(cliente.tieneServicioContratadoActivo(crearServicio(2L, "Soporte")));
+    }
+
+    @Test
+    @DisplayName("Debería desvincular el servicio y permitir volver a contratarlo")
+    void testDesvincularYRecontratar() {
+        // Arrange
+        cliente.contratarServicio(hosting);
+
+        // Act
+        cliente.desvincularServicio(hosting);
+
+        // Assert
+        assertFalse(cliente.tieneServicioContratadoActivo(hosting));
+        assertThrows(IllegalArgumentException.class, () -> cliente.desvincularServicio(hosting));
+
+        cliente.contratarServicio(hosting);
+        assertTrue(cliente.tieneServicioContratadoActivo(hosting));
+        assertEquals(2, cliente.getServiciosContratados().size());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar contratar dos veces el mismo servicio")
+    void testContratarServicioDuplicado() {
+        // Arrange
+        cliente.contratarServicio(hosting);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> cliente.contratarServicio(hosting));
+    }
+
+    // Métodos auxiliares
+
+    private Servicio crearServicio(Long id, String nombre) {
+        Servicio servicio = new Servicio(nombre, "Descripción", new BigDecimal("1000.00"), TipoAlicuotaIVA.IVA_21);
+        servicio.setIDServicio(id);
+        return servicio;
+    }
+}
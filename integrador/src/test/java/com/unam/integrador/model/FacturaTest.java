@@ -382,4 +382,27 @@ class FacturaTest {
         assertEquals(0, new BigDecimal("18150.00").compareTo(factura.getTotal()));
         assertEquals(0, new BigDecimal("18150.00").compareTo(factura.getSaldoPendiente()));
     }
+
+    @Test
+    @DisplayName("Debería acumular totales al agregar items igual que al recalcular")
+    void testAgregarItemsAcumulaTotales() {
+        // Arrange
+        TipoAlicuotaIVA[] alicuotas = TipoAlicuotaIVA.values();
+        for (int i = 0; i < 200; i++) {
+            factura.agregarItem(new ItemFactura("Servicio " + i,
+                new BigDecimal(1000 + i * 37).movePointLeft(i % 3), 1 + i % 2, alicuotas[i % alicuotas.length]));
+        }
+        BigDecimal subtotalAcumulado = factura.getSubtotal();
+        BigDecimal ivaAcumulado = factura.getTotalIva();
+        BigDecimal totalAcumulado = factura.getTotal();
+
+        // Act
+        factura.calcularTotales();
+
+        // Assert - igualdad con equals: mismo valor y misma escala
+        assertEquals(factura.getSubtotal(), subtotalAcumulado);
+        assertEquals(factura.getTotalIva(), ivaAcumulado);
+        assertEquals(factura.getTotal(), totalAcumulado);
+        assertEquals(factura.getTotal(), factura.getSaldoPendiente());
+    }
 }
@@ -304,4 +304,30 @@ class ItemFacturaTest {
         // Assert - 30000 * (1/30 con 4 decimales) = 30000 * 0.0333 = 999.00
         assertEquals(0, new BigDecimal("999.00").compareTo(item.getPrecioUnitario()));
     }
+
+    @Test
+    @DisplayName("Debería precalcular la tasa de cada alícuota con la escala exacta")
+    void testTasaAlicuota() {
+        // Assert - igualdad con equals: mismo valor y misma escala
+        assertEquals(new BigDecimal("0.21"), TipoAlicuotaIVA.IVA_21.getTasa());
+        assertEquals(new BigDecimal("0.105"), TipoAlicuotaIVA.IVA_10_5.getTasa());
+        assertEquals(new BigDecimal("0.27"), TipoAlicuotaIVA.IVA_27.getTasa());
+        assertEquals(new BigDecimal("0.025"), TipoAlicuotaIVA.IVA_2_5.getTasa());
+        assertEquals(BigDecimal.ZERO, TipoAlicuotaIVA.EXENTO.getTasa());
+    }
+
+    @Test
+    @DisplayName("Debería calcular el subtotal con cantidad mayor a uno")
+    void testCalcularConCantidad() {
+        // Arrange
+        ItemFactura item = new ItemFactura("Licencias", new BigDecimal("1500.50"), 3, TipoAlicuotaIVA.IVA_10_5);
+
+        // Act
+        item.calcular();
+
+        // Assert - 4501.50 * 0.105 = 472.65750
+        assertEquals(new BigDecimal("4501.50"), item.getSubtotal());
+        assertEquals(new BigDecimal("472.65750"), item.getMontoIva());
+        assertEquals(new BigDecimal("4974.15750"), item.getTotal());
+    }
 }
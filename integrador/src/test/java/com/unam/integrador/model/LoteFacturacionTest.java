@@ -332,6 +332,63 @@ class LoteFacturacionTest {
         assertTrue(lote.getFacturas().contains(factura));
     }
 
+    @Test
+    @DisplayName("Debería registrar la telemetría de una ejecución en una sola transacción")
+    void testRegistrarEjecucion() {
+        // Arrange
+        lote.agregarFactura(crearFacturaConTotal(cliente1, new BigDecimal("15000.00")));
+        lote.agregarFactura(crearFacturaConTotal(cliente2, new BigDecimal("20000.00")));
+        assertFalse(lote.isConTelemetria());
+        assertNull(lote.getClientesPorSegundo());
+
+        // Act
+        lote.registrarEjecucion(4, 100, 250, 50, 100, 500);
+
+        // Assert
+        assertTrue(lote.isConTelemetria());
+        assertEquals(4, lote.getClientesProcesados());
+        assertEquals(100L, lote.getDuracionSeleccionMs());
+        assertEquals(250L, lote.getDuracionArmadoMs());
+        assertEquals(50L, lote.getDuracionNumeracionMs());
+        assertEquals(100L, lote.getDuracionPersistenciaMs());
+        assertEquals(500L, lote.getDuracionTotalMs());
+        assertEquals(2, lote.getMaximoFacturasPorGrupo());
+        assertEquals(1, lote.getTrabajadores());
+        assertEquals(8.0, lote.getClientesPorSegundo(), 0.001);
+        assertThrows(IllegalArgumentException.class, () -> lote.registrarEjecucion(4, -1, 0, 0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Debería registrar clientes omitidos y con error")
+    void testRegistrarOmisiones() {
+        // Act
+        lote.registrarOmision(cliente1, TipoOmisionFacturacion.OMITIDO, "Ya tiene factura para este período");
+        OmisionFacturacion error = lote.registrarOmision(cliente2, TipoOmisionFacturacion.ERROR, "x".repeat(600));
+
+        // Assert
+        assertEquals(2, lote.getOmisiones().size());
+        assertEquals(TipoOmisionFacturacion.ERROR, error.getTipo());
+        assertSame(lote, error.getLote());
+        assertEquals(2L, error.getClienteId());
+        assertEquals(500, error.getMotivo().length());
+        assertEquals("Cliente Tech Solutions S.A.: Ya tiene factura para este período",
+            lote.getOmisiones().get(0).getDescripcion());
+    }
+
+    @Test
+    @DisplayName("Debería iniciar los acumulados de telemetría de una facturación distribuida")
+    void testIniciarProcesamientoInicializaTelemetria() {
+        // Act
+        lote.iniciarProcesamiento(3);
+
+        // Assert: se acumulan por grupo; el total y los trabajadores se fijan al finalizar
+        assertTrue(lote.isConTelemetria());
+        assertEquals(0, lote.getClientesProcesados());
+        assertEquals(0L, lote.getDuracionArmadoMs());
+        assertNull(lote.getDuracionTotalMs());
+        assertNull(lote.getClientesPorSegundo());
+    }
+
     // Método helper para crear facturas con totales calculados
     private Factura crearFacturaConTotal(CuentaCliente cliente, BigDecimal total) {
         Factura factura = new Factura(
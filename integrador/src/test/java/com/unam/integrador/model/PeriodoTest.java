@@ -0,0 +1,94 @@
+package com.unam.integrador.model;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitarios para Periodo.
+ * Valida formato, interpretación de etiquetas, internado y conversión a fecha.
+ */
+@DisplayName("Tests unitarios para Periodo")
+class PeriodoTest {
+
+    @Test
+    @DisplayName("Debería generar la etiqueta capitalizada en castellano")
+    void testEtiqueta() {
+        // Act
+        Periodo periodo = Periodo.of(YearMonth.of(2025, 11));
+
+        // Assert
+        assertEquals("Noviembre 2025", periodo.getEtiqueta());
+        assertEquals("Noviembre 2025", periodo.toString());
+        assertEquals(LocalDate.of(2025, 11, 1), periodo.getPrimerDia());
+    }
+
+    @Test
+    @DisplayName("Debería interpretar etiquetas sin distinguir mayúsculas ni espacios")
+    void testParse() {
+        // Act & Assert
+        assertEquals(YearMonth.of(2025, 9), Periodo.parse("Septiembre 2025").getMes());
+        assertEquals(YearMonth.of(2025, 9), Periodo.parse("  SEPTIEMBRE 2025 ").getMes());
+        assertEquals(YearMonth.of(2026, 1), Periodo.parse("enero 2026").getMes());
+    }
+
+    @Test
+    @DisplayName("Debería lanzar excepción con etiquetas inválidas")
+    void testParseInvalido() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> Periodo.parse("Mes 13 2025")
+        );
+        assertEquals("Período inválido: Mes 13 2025", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> Periodo.parse(" "));
+    }
+
+    @Test
+    @DisplayName("Debería devolver la misma instancia para el mismo mes")
+    void testInternado() {
+        // Act
+        Periodo desdeMes = Periodo.of(YearMonth.of(2025, 3));
+        Periodo desdeFecha = Periodo.de(LocalDate.of(2025, 3, 17));
+        Periodo desdeEtiqueta = Periodo.parse("marzo 2025");
+
+        // Assert
+        assertSame(desdeMes, desdeFecha);
+        assertSame(desdeMes, desdeEtiqueta);
+        assertSame(desdeMes, Periodo.of(YearMonth.of(2025, 1)).desplazar(2));
+        assertNull(Periodo.de(null));
+    }
+
+    @Test
+    @DisplayName("Debería filtrar por coincidencia parcial de la etiqueta")
+    void testCoincideCon() {
+        // Arrange
+        Periodo periodo = Periodo.of(YearMonth.of(2025, 11));
+
+        // Act & Assert
+        assertTrue(periodo.coincideCon(Periodo.normalizar("NOVIEMBRE")));
+        assertTrue(periodo.coincideCon(Periodo.normalizar("2025")));
+        assertFalse(periodo.coincideCon(Periodo.normalizar("octubre")));
+    }
+
+    @Test
+    @DisplayName("Debería convertir a fecha y desde fecha para la columna")
+    void testConverter() {
+        // Arrange
+        PeriodoConverter converter = new PeriodoConverter();
+        Periodo periodo = Periodo.of(YearMonth.of(2025, 12));
+
+        // Act & Assert
+        assertEquals(LocalDate.of(2025, 12, 1), converter.convertToDatabaseColumn(periodo));
+        assertSame(periodo, converter.convertToEntityAttribute(LocalDate.of(2025, 12, 1)));
+        assertNull(converter.convertToDatabaseColumn(null));
+    }
+}
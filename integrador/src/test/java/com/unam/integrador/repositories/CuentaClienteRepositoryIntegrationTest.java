@@ -0,0 +1,125 @@
+package com.unam.integrador.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.unam.integrador.dto.ClienteListadoDTO;
+import com.unam.integrador.model.*;
+import com.unam.integrador.model.enums.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para CuentaClienteRepositorie.
+ * Valida el listado paginado con proyección y orden en la base de datos usando H2.
+ */
+@DataJpaTest
+@DisplayName("Tests de integración para CuentaClienteRepositorie")
+class CuentaClienteRepositoryIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CuentaClienteRepositorie clienteRepository;
+
+    private CuentaCliente clienteA;
+    private CuentaCliente clienteB;
+    private CuentaCliente clienteC;
+
+    @BeforeEach
+    void setUp() {
+        clienteA = crearCliente("Alfa Tech", "20111111111", new BigDecimal("500.00"));
+        clienteB = crearCliente("Beta Solutions", "30222222222", new BigDecimal("-150.00"));
+        clienteC = crearCliente("Gamma Tech", "27333333333", BigDecimal.ZERO);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Debería paginar el listado ordenado por nombre")
+    void testFindListadoPaginado() {
+        // Act
+        Page<ClienteListadoDTO> pagina = clienteRepository.findListado(
+            PageRequest.of(0, 2, Sort.by("nombre")));
+
+        // Assert
+        assertEquals(3, pagina.getTotalElements());
+        assertEquals(2, pagina.getTotalPages());
+        assertEquals(List.of("Alfa Tech", "Beta Solutions"),
+            pagina.getContent().stream().map(ClienteListadoDTO::getNombre).toList());
+    }
+
+    @Test
+    @DisplayName("Debería ordenar el listado por saldo en la base de datos")
+    void testFindListadoOrdenadoPorSaldo() {
+        // Act
+        Page<ClienteListadoDTO> pagina = clienteRepository.findListado(
+            PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "saldo")));
+
+        // Assert
+        ClienteListadoDTO primero = pagina.getContent().get(0);
+        assertEquals(clienteB.getId(), primero.getId());
+        assertTrue(primero.tieneSaldoAFavor());
+        assertEquals(0, primero.getSaldoAFavor().compareTo(new BigDecimal("150.00")));
+    }
+
+    @Test
+    @DisplayName("Debería filtrar el listado por IDs y por criterio de búsqueda")
+    void testBuscarListado() {
+        // Act
+        List<ClienteListadoDTO> porIds = clienteRepository.findListadoByIdIn(
+            List.of(clienteA.getId(), clienteC.getId()), PageRequest.of(0, 10, Sort.by("cuitDni")));
+        Page<ClienteListadoDTO> porCriterio = clienteRepository.buscarListado(
+            "tech", PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "nombre")));
+
+        // Assert
+        assertEquals(List.of(clienteA.getId(), clienteC.getId()),
+            porIds.stream().map(ClienteListadoDTO::getId).toList());
+        assertEquals(List.of("Gamma Tech", "Alfa Tech"),
+            porCriterio.getContent().stream().map(ClienteListadoDTO::getNombre).toList());
+    }
+
+    @Test
+    @DisplayName("Debería buscar sin distinguir acentos")
+    void testBuscarListadoSinAcentos() {
+        // Arrange
+        CuentaCliente gomez = crearCliente("José Gómez", "27444444444", BigDecimal.ZERO);
+        entityManager.flush();
+
+        // Act
+        Page<ClienteListadoDTO> porCriterio = clienteRepository.buscarListado(
+            "jose gomez", PageRequest.of(0, 10, Sort.by("nombre")));
+
+        // Assert
+        assertEquals(List.of(gomez.getId()),
+            porCriterio.getContent().stream().map(ClienteListadoDTO::getId).toList());
+        assertEquals(1, porCriterio.getTotalElements());
+    }
+
+    // Métodos auxiliares
+
+    private CuentaCliente crearCliente(String nombre, String cuit, BigDecimal saldo) {
+        CuentaCliente cliente = new CuentaCliente();
+        cliente.setNombre(nombre);
+        cliente.setRazonSocial(nombre);
+        cliente.setCuitDni(cuit);
+        cliente.setDomicilio("Av. Corrientes 1234");
+        cliente.setTelefono("11-1234-5678");
+        cliente.setEmail(nombre.toLowerCase().replace(" ", "") + "@email.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        cliente.setSaldo(saldo);
+        return entityManager.persist(cliente);
+    }
+}
@@ -220,6 +220,75 @@ class FacturaRepositoryIntegrationTest {
         assertFalse(existe);
     }
 
+    @Test
+    @DisplayName("Debería rechazar en la base de datos una segunda factura no anulada del mismo cliente y período")
+    void testRestriccionUnicaClientePeriodo() {
+        // Arrange - cliente1 ya tiene factura1 en noviembre 2025
+        Factura duplicada = new Factura(1, 200, cliente1,
+            LocalDate.of(2025, 11, 5), LocalDate.of(2025, 11, 30),
+            LocalDate.of(2025, 11, 1), TipoFactura.A);
+
+        // Act & Assert
+        assertThrows(org.springframework.dao.DataIntegrityViolationException.class,
+            () -> facturaRepository.saveAndFlush(duplicada));
+    }
+
+    @Test
+    @DisplayName("Debería permitir una nueva factura en el período si la anterior fue anulada")
+    void testRestriccionUnicaIgnoraAnuladas() {
+        // Arrange - Anular la factura existente
+        factura1.setEstado(EstadoFactura.ANULADA);
+        entityManager.merge(factura1);
+        entityManager.flush();
+
+        Factura reemplazo = new Factura(1, 200, cliente1,
+            LocalDate.of(2025, 11, 5), LocalDate.of(2025, 11, 30),
+            LocalDate.of(2025, 11, 1), TipoFactura.A);
+
+        // Act
+        Factura guardada = facturaRepository.saveAndFlush(reemplazo);
+
+        // Assert
+        assertNotNull(guardada.getIdFactura());
+        assertEquals(LocalDate.of(2025, 11, 1), guardada.getPeriodoActivo());
+    }
+
+    @Test
+    @DisplayName("Debería completar periodo_activo en facturas existentes salvo en los períodos duplicados")
+    void testCompletarPeriodoActivo() {
+        // Arrange - Simular facturas anteriores a la columna, con un duplicado de factura1
+        Factura duplicada = crearFactura(cliente1, 1, 103, LocalDate.of(2025, 11, 1),
+            LocalDate.of(2025, 11, 30), TipoFactura.A, EstadoFactura.ANULADA);
+        entityManager.flush();
+        entityManager.getEntityManager()
+            .createNativeQuery("UPDATE factura SET periodo_activo = NULL").executeUpdate();
+        entityManager.getEntityManager()
+            .createNativeQuery("UPDATE factura SET estado = 'PENDIENTE' WHERE id_factura = :id")
+            .setParameter("id", duplicada.getIdFactura()).executeUpdate();
+        entityManager.clear();
+
+        // Act
+        int actualizadas = facturaRepository.completarPeriodoActivo();
+
+        // Assert - La más antigua del período conserva la restricción; la duplicada queda sin completar
+        assertEquals(3, actualizadas);
+        assertEquals(1, facturaRepository.countSinPeriodoActivo());
+        assertEquals(LocalDate.of(2025, 11, 1),
+            facturaRepository.findById(factura1.getIdFactura()).orElseThrow().getPeriodoActivo());
+        assertNull(facturaRepository.findById(duplicada.getIdFactura()).orElseThrow().getPeriodoActivo());
+    }
+
+    @Test
+    @DisplayName("Debería obtener en una consulta los clientes ya facturados en un período")
+    void testFindClienteIdsConFacturaNoAnuladaEnPeriodo() {
+        // Act
+        java.util.Set<Long> clientes = facturaRepository.findClienteIdsConFacturaNoAnuladaEnPeriodo(
+            LocalDate.of(2025, 11, 1));
+
+        // Assert
+        assertEquals(java.util.Set.of(cliente1.getId(), cliente2.getId()), clientes);
+    }
+
     @Test
     @DisplayName("Debería persistir y recuperar factura con items")
     void testPersistirFacturaConItems() {
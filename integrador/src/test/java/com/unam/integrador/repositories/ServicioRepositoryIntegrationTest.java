@@ -0,0 +1,148 @@
+package com.unam.integrador.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.unam.integrador.model.*;
+import com.unam.integrador.model.enums.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para ServicioRepository.
+ * Valida la consulta de servicios disponibles y el conteo de contratos usando H2.
+ */
+@DataJpaTest
+@DisplayName("Tests de integración para ServicioRepository")
+class ServicioRepositoryIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private ServicioContratadoRepository servicioContratadoRepository;
+
+    @Autowired
+    private PrecioServicioRepository precioServicioRepository;
+
+    private CuentaCliente cliente;
+    private Servicio hosting;
+    private Servicio soporte;
+    private Servicio dominio;
+
+    @BeforeEach
+    void setUp() {
+        hosting = entityManager.persist(new Servicio("Hosting", "Hosting web", new BigDecimal("1000.00"), TipoAlicuotaIVA.IVA_21));
+        soporte = entityManager.persist(new Servicio("Soporte", "Soporte técnico", new BigDecimal("500.00"), TipoAlicuotaIVA.IVA_21));
+        dominio = entityManager.persist(new Servicio("Dominio", "Registro de dominio", new BigDecimal("200.00"), TipoAlicuotaIVA.IVA_21));
+
+        Servicio inactivo = new Servicio("Legacy", "Servicio discontinuado", new BigDecimal("100.00"), TipoAlicuotaIVA.IVA_21);
+        inactivo.setActivo(false);
+        entityManager.persist(inactivo);
+
+        cliente = new CuentaCliente();
+        cliente.setNombre("Global Tech S.A.");
+        cliente.setRazonSocial("Global Tech S.A.");
+        cliente.setCuitDni("30123456789");
+        cliente.setDomicilio("Av. Corrientes 1234");
+        cliente.setEmail("globaltech@email.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        cliente.contratarServicio(hosting);
+        cliente.contratarServicio(soporte);
+        cliente.desvincularServicio(soporte);
+        entityManager.persist(cliente);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Debería excluir servicios contratados activos e inactivos del catálogo")
+    void testFindDisponiblesParaCliente() {
+        // Act
+        List<Servicio> disponibles = servicioRepository.findDisponiblesParaCliente(cliente.getId());
+
+        // Assert: soporte fue dado de baja, por lo que vuelve a estar disponible
+        assertEquals(2, disponibles.size());
+        assertTrue(disponibles.stream().anyMatch(s -> s.getIDServicio().equals(soporte.getIDServicio())));
+        assertTrue(disponibles.stream().anyMatch(s -> s.getIDServicio().equals(dominio.getIDServicio())));
+    }
+
+    @Test
+    @DisplayName("Debería devolver todos los servicios activos para un cliente sin contratos")
+    void testFindDisponiblesParaClienteSinContratos() {
+        // Act
+        List<Servicio> disponibles = servicioRepository.findDisponiblesParaCliente(-1L);
+
+        // Assert
+        assertEquals(3, disponibles.size());
+    }
+
+    @Test
+    @DisplayName("Debería contar solo los contratos activos de un servicio")
+    void testContarActivosPorServicio() {
+        // Act & Assert: el contrato de soporte está dado de baja
+        assertEquals(1, servicioContratadoRepository.contarActivosPorServicio(hosting.getIDServicio()));
+        assertEquals(0, servicioContratadoRepository.contarActivosPorServicio(soporte.getIDServicio()));
+    }
+
+    @Test
+    @DisplayName("Debería obtener solo el precio vigente en el período de cada servicio y contrato")
+    void testFindVigentesEn() {
+        // Arrange
+        LocalDate enero = LocalDate.of(2025, 1, 1);
+        ServicioContratado contrato = servicioContratadoRepository.findAll().stream()
+            .filter(c -> Boolean.TRUE.equals(c.getActivo())).findFirst().orElseThrow();
+        Servicio hostingGestionado = contrato.getServicio();
+        entityManager.persist(new PrecioServicio(hostingGestionado, null, enero, new BigDecimal("1000.00")));
+        entityManager.persist(new PrecioServicio(hostingGestionado, null, enero.plusMonths(2), new BigDecimal("1100.00")));
+        entityManager.persist(new PrecioServicio(hostingGestionado, null, enero.plusMonths(6), new BigDecimal("1300.00")));
+        entityManager.persist(new PrecioServicio(hostingGestionado, contrato, enero, new BigDecimal("900.00")));
+        entityManager.persist(new PrecioServicio(
+            entityManager.find(Servicio.class, dominio.getIDServicio()), null, enero, new BigDecimal("200.00")));
+        entityManager.flush();
+
+        // Act
+        List<PrecioServicio> vigentes = precioServicioRepository.findVigentesEn(enero.plusMonths(3));
+        List<PrecioServicio> deHosting = precioServicioRepository.findVigentesEnPorServicios(
+            enero.plusMonths(3), List.of(hosting.getIDServicio()));
+
+        // Assert - Un precio general por servicio (el último hasta el período) y el especial del contrato
+        assertEquals(3, vigentes.size());
+        assertEquals(2, deHosting.size());
+        assertTrue(deHosting.stream().anyMatch(p -> p.getServicioContratado() == null
+            && p.getPrecio().compareTo(new BigDecimal("1100.00")) == 0));
+        assertTrue(deHosting.stream().anyMatch(p -> p.getServicioContratado() != null
+            && p.getPrecio().compareTo(new BigDecimal("900.00")) == 0));
+    }
+
+    @Test
+    @DisplayName("Debería encontrar los precios programados ya vigentes que no se aplicaron al servicio")
+    void testFindGeneralesSinAplicar() {
+        // Arrange - Hosting cuesta 1000; el precio programado para este mes todavía no se aplicó
+        Servicio hostingGestionado = entityManager.find(Servicio.class, hosting.getIDServicio());
+        LocalDate mesActual = LocalDate.now().withDayOfMonth(1);
+        entityManager.persist(new PrecioServicio(hostingGestionado, null, mesActual.minusMonths(1), new BigDecimal("1000.00")));
+        entityManager.persist(new PrecioServicio(hostingGestionado, null, mesActual, new BigDecimal("1200.00")));
+        entityManager.persist(new PrecioServicio(hostingGestionado, null, mesActual.plusMonths(1), new BigDecimal("1500.00")));
+        entityManager.flush();
+
+        // Act
+        List<PrecioServicio> sinAplicar = precioServicioRepository.findGeneralesSinAplicar(LocalDate.now());
+
+        // Assert
+        assertEquals(1, sinAplicar.size());
+        assertEquals(0, sinAplicar.get(0).getPrecio().compareTo(new BigDecimal("1200.00")));
+    }
+}
@@ -0,0 +1,237 @@
+package com.unam.integrador.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.unam.integrador.dto.BajaServicioDTO;
+import com.unam.integrador.dto.IngresoServicioDTO;
+import com.unam.integrador.model.*;
+import com.unam.integrador.model.enums.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para AnaliticaIngresosService.
+ * Valida la agregación en memoria de ingresos y bajas por servicio y período,
+ * la actualización incremental (incluidas las facturas confirmadas fuera de
+ * orden) y el límite de filas de la instantánea.
+ */
+@DataJpaTest
+@Import(AnaliticaIngresosService.class)
+@DisplayName("Tests de integración para AnaliticaIngresosService")
+class AnaliticaIngresosServiceIntegrationTest {
+
+    private static final YearMonth MES_1 = YearMonth.now().minusMonths(2);
+    private static final YearMonth MES_2 = YearMonth.now().minusMonths(1);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AnaliticaIngresosService analiticaIngresosService;
+
+    private CuentaCliente cliente;
+    private Servicio hosting;
+    private Servicio email;
+    private int numero;
+
+    @BeforeEach
+    void setUp() {
+        numero = 0;
+        cliente = new CuentaCliente();
+        cliente.setNombre("Alfa Tech");
+        cliente.setRazonSocial("Alfa Tech S.A.");
+        cliente.setCuitDni("20111111111");
+        cliente.setDomicilio("Av. Corrientes 1234");
+        cliente.setTelefono("11-1234-5678");
+        cliente.setEmail("alfa@email.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        cliente.setSaldo(BigDecimal.ZERO);
+        entityManager.persist(cliente);
+        hosting = entityManager.persist(
+            new Servicio("Hosting", "Hosting web", new BigDecimal("1000.00"), TipoAlicuotaIVA.IVA_21));
+        email = entityManager.persist(
+            new Servicio("Email", "Correo corporativo", new BigDecimal("500.00"), TipoAlicuotaIVA.IVA_21));
+        // Las anulaciones la descartan al confirmarse, lo que en estos tests no ocurre
+        ReflectionTestUtils.setField(analiticaIngresosService, "instantanea", null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(analiticaIngresosService, "maxFilas", 2_000_000);
+        ReflectionTestUtils.setField(analiticaIngresosService, "instantanea", null);
+    }
+
+    @Test
+    @DisplayName("Debería agrupar ingresos por servicio y período con el descuento aplicado")
+    void testIngresosPorServicio() {
+        // Arrange
+        Factura f1 = crearFactura(MES_1, hosting, "1000", email, "500");
+        f1.aplicarDescuento(10, "Promoción");
+        crearFactura(MES_2, hosting, "1000", null, null);
+        Factura anulada = crearFactura(MES_2.minusMonths(5), hosting, "9999", null, null);
+        anulada.anular();
+        entityManager.flush();
+
+        // Act
+        List<IngresoServicioDTO> ingresos = analiticaIngresosService.ingresosPorServicio(MES_1, MES_2);
+
+        // Assert
+        assertEquals(3, ingresos.size());
+        IngresoServicioDTO hostingMes1 = buscar(ingresos, "Hosting", MES_1);
+        assertEquals(0, new BigDecimal("900.00").compareTo(hostingMes1.getNeto()));
+        assertEquals(0, new BigDecimal("210.00").compareTo(hostingMes1.getIva()));
+        assertEquals(0, new BigDecimal("450.00").compareTo(buscar(ingresos, "Email", MES_1).getNeto()));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(buscar(ingresos, "Hosting", MES_2).getNeto()));
+        assertTrue(analiticaIngresosService.ingresosPorServicio(MES_2.minusMonths(5), MES_2.minusMonths(5)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería agregar solo las facturas nuevas al refrescar y descartar meses al superar el límite")
+    void testRefrescoIncrementalYLimite() {
+        // Arrange
+        crearFactura(MES_1, hosting, "1000", null, null);
+        entityManager.flush();
+        analiticaIngresosService.ingresosPorServicio(MES_1, MES_2);
+        crearFactura(MES_2, email, "500", null, null);
+        entityManager.flush();
+
+        // Act
+        analiticaIngresosService.refrescar();
+        int filasIncremental = analiticaIngresosService.getCantidadFilas();
+        ReflectionTestUtils.setField(analiticaIngresosService, "maxFilas", 1);
+        ReflectionTestUtils.setField(analiticaIngresosService, "instantanea", null);
+        List<IngresoServicioDTO> limitado = analiticaIngresosService.ingresosPorServicio(MES_1, MES_2);
+
+        // Assert
+        assertEquals(2, filasIncremental);
+        assertEquals(1, analiticaIngresosService.getCantidadFilas());
+        assertEquals(MES_2, analiticaIngresosService.getPrimerPeriodo());
+        assertEquals(1, limitado.size());
+        assertEquals("Email", limitado.get(0).getServicio());
+    }
+
+    @Test
+    @DisplayName("Debería agregar una vez las facturas confirmadas después de otras con id mayor")
+    void testFacturaConfirmadaFueraDeOrden() {
+        // Arrange: la primera factura todavía no es visible (se simula sin confirmar)
+        Factura tardia = crearFactura(MES_1, hosting, "1000", null, null);
+        ReflectionTestUtils.setField(tardia, "estado", EstadoFactura.ANULADA);
+        crearFactura(MES_2, email, "500", null, null);
+        entityManager.flush();
+        analiticaIngresosService.ingresosPorServicio(MES_1, MES_2);
+        int filasAntes = analiticaIngresosService.getCantidadFilas();
+        ReflectionTestUtils.setField(tardia, "estado", EstadoFactura.PENDIENTE);
+        entityManager.flush();
+
+        // Act
+        analiticaIngresosService.refrescar();
+        analiticaIngresosService.refrescar();
+        List<IngresoServicioDTO> ingresos = analiticaIngresosService.ingresosPorServicio(MES_1, MES_2);
+
+        // Assert
+        assertEquals(1, filasAntes);
+        assertEquals(2, analiticaIngresosService.getCantidadFilas());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(buscar(ingresos, "Hosting", MES_1).getNeto()));
+        assertEquals(0, new BigDecimal("500.00").compareTo(buscar(ingresos, "Email", MES_2).getNeto()));
+    }
+
+    @Test
+    @DisplayName("Debería calcular contratos vigentes al inicio y bajas por período")
+    void testBajasPorServicio() {
+        // Arrange
+        crearContrato(hosting, MES_1.minusMonths(3).atDay(5), MES_2.atDay(10));
+        crearContrato(hosting, MES_1.minusMonths(1).atDay(1), null);
+        crearContrato(email, MES_1.atDay(15), null);
+        entityManager.flush();
+
+        // Act
+        List<BajaServicioDTO> bajas = analiticaIngresosService.bajasPorServicio(MES_1, MES_2);
+
+        // Assert
+        BajaServicioDTO hostingMes2 = bajas.stream()
+            .filter(b -> b.getServicio().equals("Hosting") && b.getPeriodo().equals(Periodo.of(MES_2).getEtiqueta()))
+            .findFirst().orElseThrow();
+        assertEquals(2, hostingMes2.getActivosAlInicio());
+        assertEquals(1, hostingMes2.getBajas());
+        assertEquals(50.0, hostingMes2.getTasaBaja(), 0.001);
+        // El contrato de Email se dio de alta en MES_1: vigente al inicio de MES_2
+        assertTrue(bajas.stream().anyMatch(b -> b.getServicio().equals("Email")
+            && b.getPeriodo().equals(Periodo.of(MES_2).getEtiqueta()) && b.getActivosAlInicio() == 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> analiticaIngresosService.bajasPorServicio(MES_2, MES_1));
+    }
+
+    @Test
+    @DisplayName("Debería acotar el rango pedido a los meses de la instantánea")
+    void testRangoAcotado() {
+        // Arrange
+        YearMonth adelantado = YearMonth.now().plusMonths(3);
+        crearFactura(MES_1, hosting, "1000", null, null);
+        crearFactura(adelantado, email, "500", null, null);
+        entityManager.flush();
+
+        // Act
+        List<IngresoServicioDTO> ingresos = analiticaIngresosService.ingresosPorServicio(
+            YearMonth.of(1, 1), YearMonth.of(9999, 12));
+        List<BajaServicioDTO> bajas = analiticaIngresosService.bajasPorServicio(
+            YearMonth.of(1, 1), YearMonth.of(9999, 12));
+
+        // Assert
+        assertEquals(2, ingresos.size());
+        assertEquals(0, new BigDecimal("500.00").compareTo(buscar(ingresos, "Email", adelantado).getNeto()));
+        assertTrue(bajas.isEmpty());
+        assertTrue(analiticaIngresosService.ingresosPorServicio(YearMonth.of(9000, 1), YearMonth.of(9999, 12))
+            .isEmpty());
+        assertThrows(IllegalArgumentException.class,
+            () -> analiticaIngresosService.ingresosPorServicio(MES_2, MES_1));
+    }
+
+    // Métodos auxiliares
+
+    private Factura crearFactura(YearMonth periodo, Servicio s1, String monto1, Servicio s2, String monto2) {
+        Factura factura = new Factura(1, ++numero, cliente, periodo.atDay(1), periodo.atDay(10),
+            periodo.atDay(1), TipoFactura.A);
+        factura.agregarItem(crearItem(s1, monto1));
+        if (s2 != null) {
+            factura.agregarItem(crearItem(s2, monto2));
+        }
+        return entityManager.persist(factura);
+    }
+
+    private ItemFactura crearItem(Servicio servicio, String monto) {
+        ItemFactura item = new ItemFactura(servicio.getNombre(), new BigDecimal(monto), 1, TipoAlicuotaIVA.IVA_21);
+        item.setServicio(servicio);
+        return item;
+    }
+
+    private void crearContrato(Servicio servicio, LocalDate alta, LocalDate baja) {
+        ServicioContratado contrato = new ServicioContratado();
+        contrato.setCliente(cliente);
+        contrato.setServicio(servicio);
+        contrato.setFechaAlta(alta);
+        contrato.setPrecioContratado(servicio.getPrecio());
+        contrato.setFechaBaja(baja);
+        contrato.setActivo(baja == null);
+        entityManager.persist(contrato);
+    }
+
+    private IngresoServicioDTO buscar(List<IngresoServicioDTO> ingresos, String servicio, YearMonth periodo) {
+        return ingresos.stream()
+            .filter(i -> i.getServicio().equals(servicio) && i.getPeriodo().equals(Periodo.of(periodo).getEtiqueta()))
+            .findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,224 @@
+package com.unam.integrador.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.unam.integrador.dto.AntiguedadDeudaDTO;
+import com.unam.integrador.dto.ReporteAntiguedadDeudaDTO;
+import com.unam.integrador.model.*;
+import com.unam.integrador.model.enums.*;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+import com.unam.integrador.repositories.FacturaRepository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests de integración para AntiguedadDeudaService.
+ * Valida los tramos calculados por la consulta agrupada y la actualización
+ * incremental de la instantánea diaria y su recálculo por antigüedad.
+ * Los datos se confirman en la base (sin la transacción del test) y se
+ * eliminan al finalizar cada test.
+ */
+@DataJpaTest
+@Import(AntiguedadDeudaService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Tests de integración para AntiguedadDeudaService")
+class AntiguedadDeudaServiceIntegrationTest {
+
+    private static final LocalDate HOY = LocalDate.of(2025, 12, 31);
+
+    @Autowired
+    private AntiguedadDeudaService antiguedadDeudaService;
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    @Autowired
+    private CuentaClienteRepositorie clienteRepository;
+
+    private CuentaCliente alfa;
+    private CuentaCliente beta;
+    private int numero;
+
+    @BeforeEach
+    void setUp() {
+        numero = 0;
+        alfa = crearCliente("Alfa Tech", "20111111111");
+        beta = crearCliente("Beta Solutions", "30222222222");
+        antiguedadDeudaService.invalidar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        facturaRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Debería agrupar el saldo pendiente por días de atraso")
+    void testCalcularTramos() {
+        // Arrange
+        crearFactura(alfa, 1, LocalDate.of(2026, 1, 10), "100");   // a vencer
+        crearFactura(alfa, 2, HOY, "200");                         // 0 días
+        crearFactura(alfa, 3, LocalDate.of(2025, 12, 1), "300");   // 30 días
+        crearFactura(alfa, 4, LocalDate.of(2025, 11, 30), "400");  // 31 días
+        crearFactura(alfa, 5, LocalDate.of(2025, 10, 2), "500");   // 90 días
+        crearFactura(alfa, 6, LocalDate.of(2025, 10, 1), "600");   // 91 días
+        Factura pagada = crearFactura(beta, 1, LocalDate.of(2025, 1, 10), "999");
+        pagada.setSaldoPendiente(BigDecimal.ZERO);
+        pagada.setEstado(EstadoFactura.PAGADA_TOTALMENTE);
+        facturaRepository.save(pagada);
+
+        // Act
+        ReporteAntiguedadDeudaDTO reporte = antiguedadDeudaService.obtenerReporte(HOY);
+
+        // Assert
+        assertEquals(1, reporte.getFilas().size());
+        AntiguedadDeudaDTO fila = reporte.getFilas().get(0);
+        assertEquals(alfa.getId(), fila.getClienteId());
+        assertEquals(0, new BigDecimal("100").compareTo(fila.getAVencer()));
+        assertEquals(0, new BigDecimal("500").compareTo(fila.getHasta30()));
+        assertEquals(0, new BigDecimal("400").compareTo(fila.getDe31a60()));
+        assertEquals(0, new BigDecimal("500").compareTo(fila.getDe61a90()));
+        assertEquals(0, new BigDecimal("600").compareTo(fila.getMasDe90()));
+        assertEquals(0, new BigDecimal("2100").compareTo(reporte.getTotales().getTotal()));
+    }
+
+    @Test
+    @DisplayName("Debería reutilizar la instantánea del día y actualizar solo el cliente modificado")
+    void testActualizacionIncremental() {
+        // Arrange
+        crearFactura(alfa, 1, LocalDate.of(2025, 12, 20), "100");
+        ReporteAntiguedadDeudaDTO inicial = antiguedadDeudaService.obtenerReporte(HOY);
+        crearFactura(alfa, 2, LocalDate.of(2025, 9, 1), "300");
+        crearFactura(beta, 1, LocalDate.of(2025, 12, 20), "50");
+
+        // Act
+        ReporteAntiguedadDeudaDTO sinCambios = antiguedadDeudaService.obtenerReporte(HOY);
+        antiguedadDeudaService.actualizarCliente(alfa.getId());
+        ReporteAntiguedadDeudaDTO actualizado = antiguedadDeudaService.obtenerReporte(HOY);
+
+        // Assert
+        assertEquals(inicial.getGeneradoEn(), sinCambios.getGeneradoEn());
+        assertEquals(0, new BigDecimal("100").compareTo(sinCambios.getTotales().getTotal()));
+        assertEquals(1, actualizado.getFilas().size());
+        assertEquals(0, new BigDecimal("300").compareTo(actualizado.getFilas().get(0).getMasDe90()));
+        assertEquals(0, new BigDecimal("400").compareTo(actualizado.getTotales().getTotal()));
+    }
+
+    @Test
+    @DisplayName("Debería quitar al cliente sin deuda y recalcular al cambiar de día")
+    void testQuitarClienteYCambioDeDia() {
+        // Arrange
+        Factura factura = crearFactura(alfa, 1, LocalDate.of(2025, 12, 20), "100");
+        crearFactura(beta, 1, LocalDate.of(2025, 12, 20), "50");
+        antiguedadDeudaService.obtenerReporte(HOY);
+        factura.setSaldoPendiente(BigDecimal.ZERO);
+        factura.setEstado(EstadoFactura.PAGADA_TOTALMENTE);
+        facturaRepository.save(factura);
+
+        // Act
+        antiguedadDeudaService.actualizarCliente(alfa.getId());
+        ReporteAntiguedadDeudaDTO reporte = antiguedadDeudaService.obtenerReporte(HOY);
+        ReporteAntiguedadDeudaDTO diaSiguiente = antiguedadDeudaService.obtenerReporte(HOY.plusDays(20));
+
+        // Assert
+        assertEquals(1, reporte.getFilas().size());
+        assertEquals(beta.getId(), reporte.getFilas().get(0).getClienteId());
+        assertEquals(0, new BigDecimal("50").compareTo(reporte.getFilas().get(0).getHasta30()));
+        assertEquals(HOY.plusDays(20), diaSiguiente.getFecha());
+        assertEquals(0, new BigDecimal("50").compareTo(diaSiguiente.getFilas().get(0).getDe31a60()));
+    }
+
+    @Test
+    @DisplayName("Debería recalcular la instantánea al superar la antigüedad máxima")
+    void testRecalculoPorAntiguedad() {
+        // Arrange - Beta se factura sin eventos locales, como desde otra instancia
+        crearFactura(alfa, 1, LocalDate.of(2025, 12, 20), "100");
+        antiguedadDeudaService.obtenerReporte(HOY);
+        crearFactura(beta, 1, LocalDate.of(2025, 12, 20), "50");
+
+        // Act
+        ReporteAntiguedadDeudaDTO vigente = antiguedadDeudaService.obtenerReporte(HOY);
+        ReflectionTestUtils.setField(antiguedadDeudaService, "antiguedadMaxima", Duration.ZERO);
+        ReporteAntiguedadDeudaDTO recalculado;
+        try {
+            recalculado = antiguedadDeudaService.obtenerReporte(HOY);
+        } finally {
+            ReflectionTestUtils.setField(antiguedadDeudaService, "antiguedadMaxima", Duration.ofHours(1));
+        }
+
+        // Assert
+        assertEquals(1, vigente.getFilas().size());
+        assertEquals(2, recalculado.getFilas().size());
+        assertEquals(0, new BigDecimal("150").compareTo(recalculado.getTotales().getTotal()));
+    }
+
+    @Test
+    @DisplayName("Debería conservar la actualización de un cliente confirmada durante el recálculo completo")
+    void testActualizacionDuranteRecalculo() {
+        // Arrange - Alfa paga mientras corre la consulta completa, que ya leyó su deuda anterior
+        Factura factura = crearFactura(alfa, 1, LocalDate.of(2025, 12, 20), "100");
+        crearFactura(beta, 1, LocalDate.of(2025, 12, 20), "50");
+        FacturaRepository conPagoConcurrente = mock(FacturaRepository.class, delegatesTo(facturaRepository));
+        doAnswer(invocacion -> {
+            Object filas = invocacion.getMethod().invoke(facturaRepository, invocacion.getArguments());
+            factura.setSaldoPendiente(BigDecimal.ZERO);
+            factura.setEstado(EstadoFactura.PAGADA_TOTALMENTE);
+            facturaRepository.save(factura);
+            antiguedadDeudaService.actualizarCliente(alfa.getId());
+            return filas;
+        }).when(conPagoConcurrente).calcularAntiguedadDeuda(any(), any(), any(), any(), any());
+        ReflectionTestUtils.setField(antiguedadDeudaService, "facturaRepository", conPagoConcurrente);
+
+        try {
+            // Act
+            ReporteAntiguedadDeudaDTO reporte = antiguedadDeudaService.obtenerReporte(HOY);
+
+            // Assert
+            assertEquals(1, reporte.getFilas().size());
+            assertEquals(beta.getId(), reporte.getFilas().get(0).getClienteId());
+        } finally {
+            ReflectionTestUtils.setField(antiguedadDeudaService, "facturaRepository", facturaRepository);
+        }
+    }
+
+    // Métodos auxiliares
+
+    private CuentaCliente crearCliente(String nombre, String cuit) {
+        CuentaCliente cliente = new CuentaCliente();
+        cliente.setNombre(nombre);
+        cliente.setRazonSocial(nombre);
+        cliente.setCuitDni(cuit);
+        cliente.setDomicilio("Av. Corrientes 1234");
+        cliente.setTelefono("11-1234-5678");
+        cliente.setEmail(nombre.toLowerCase().replace(" ", "") + "@email.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        cliente.setSaldo(BigDecimal.ZERO);
+        return clienteRepository.save(cliente);
+    }
+
+    private Factura crearFactura(CuentaCliente cliente, int mes, LocalDate vencimiento, String monto) {
+        Factura factura = new Factura(1, ++numero, cliente, vencimiento.minusDays(10), vencimiento,
+            LocalDate.of(2024, mes, 1), TipoFactura.B);
+        factura.agregarItem(new ItemFactura("Servicio", new BigDecimal(monto), 1, TipoAlicuotaIVA.EXENTO));
+        return facturaRepository.save(factura);
+    }
+}
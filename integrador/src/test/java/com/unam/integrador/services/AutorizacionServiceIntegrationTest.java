@@ -0,0 +1,280 @@
+package com.unam.integrador.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.unam.integrador.dto.ResumenAutorizacionDTO;
+import com.unam.integrador.model.*;
+import com.unam.integrador.model.enums.*;
+import com.unam.integrador.repositories.FacturaRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para AutorizacionService con el organismo fiscal simulado.
+ * Valida el armado de lotes por serie, el límite de lotes en vuelo, el orden
+ * de numeración y el tratamiento de rechazos y fallas, usando H2.
+ */
+@DataJpaTest
+@Import({AutorizacionService.class, ClienteAutorizacionLocal.class, TareasSegundoPlano.class,
+         CreadorFilasBloqueo.class})
+@DisplayName("Tests de integración para AutorizacionService")
+class AutorizacionServiceIntegrationTest {
+
+    private static final LocalDate EMISION = LocalDate.of(2025, 11, 5);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AutorizacionService autorizacionService;
+
+    @Autowired
+    private ClienteAutorizacionLocal clienteLocal;
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    private CuentaCliente cliente;
+    private int periodos;
+
+    @BeforeEach
+    void setUp() {
+        periodos = 0;
+        // El simulador recuerda la última numeración autorizada por serie
+        ReflectionTestUtils.setField(clienteLocal, "ultimoNumero", new ConcurrentHashMap<String, int[]>());
+        ReflectionTestUtils.setField(autorizacionService, "tamanioLote", 2);
+        ReflectionTestUtils.setField(autorizacionService, "maxEnVuelo", 2);
+
+        cliente = new CuentaCliente();
+        cliente.setNombre("Alfa Tech");
+        cliente.setRazonSocial("Alfa Tech S.A.");
+        cliente.setCuitDni("20111111111");
+        cliente.setDomicilio("Av. Corrientes 1234");
+        cliente.setTelefono("11-1234-5678");
+        cliente.setEmail("alfa@email.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        cliente.setSaldo(BigDecimal.ZERO);
+        entityManager.persist(cliente);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(autorizacionService, "clienteAutorizacion", clienteLocal);
+        ReflectionTestUtils.setField(autorizacionService, "tamanioLote", 100);
+        ReflectionTestUtils.setField(autorizacionService, "maxEnVuelo", 4);
+        ReflectionTestUtils.setField(autorizacionService, "maxPorSerie", 1000);
+    }
+
+    @Test
+    @DisplayName("Debería autorizar en lotes por serie respetando el límite en vuelo y la numeración")
+    void testAutorizarPendientesEnLotes() {
+        // Arrange
+        for (int numero = 1; numero <= 5; numero++) {
+            crearFactura(1, numero, TipoFactura.A, "1000");
+        }
+        crearFactura(2, 1, TipoFactura.B, "1000");
+        Factura conNota = crearFactura(2, 2, TipoFactura.B, "500");
+        NotaCredito nota = new NotaCredito(2, 1, EMISION, conNota.getTotal(), "Error", TipoFactura.B, conNota);
+        conNota.agregarNotaCredito(nota);
+        entityManager.flush();
+
+        AtomicInteger enVuelo = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        Set<String> seriesEnVuelo = ConcurrentHashMap.newKeySet();
+        AtomicInteger serieRepetida = new AtomicInteger();
+        ReflectionTestUtils.setField(autorizacionService, "clienteAutorizacion", (ClienteAutorizacion) lote -> {
+            String serie = lote.getComprobante() + "-" + lote.getSerie();
+            if (!seriesEnVuelo.add(serie)) {
+                serieRepetida.incrementAndGet();
+            }
+            maximo.accumulateAndGet(enVuelo.incrementAndGet(), Math::max);
+            return clienteLocal.solicitar(lote).whenComplete((r, e) -> {
+                seriesEnVuelo.remove(serie);
+                enVuelo.decrementAndGet();
+            });
+        });
+
+        // Act
+        ResumenAutorizacionDTO resumen = autorizacionService.autorizarPendientes();
+
+        // Assert
+        assertEquals(5, resumen.getLotesEnviados());
+        assertEquals(8, resumen.getAutorizados());
+        assertEquals(0, resumen.getRechazados());
+        assertEquals(0, resumen.getLotesFallidos());
+        assertTrue(maximo.get() <= 2);
+        assertEquals(0, serieRepetida.get());
+
+        entityManager.flush();
+        entityManager.clear();
+        Factura autorizada = entityManager.find(Factura.class, conNota.getIdFactura());
+        assertEquals(EstadoAutorizacion.AUTORIZADA, autorizada.getAutorizacion().getEstado());
+        assertTrue(autorizada.getAutorizacion().getCae().matches("\\d{14}"));
+        assertEquals(EMISION.plusDays(10), autorizada.getAutorizacion().getVencimientoCae());
+        assertEquals(EstadoAutorizacion.AUTORIZADA,
+            entityManager.find(NotaCredito.class, nota.getId()).getAutorizacion().getEstado());
+        assertEquals(0, autorizacionService.autorizarPendientes().getLotesEnviados());
+    }
+
+    @Test
+    @DisplayName("Debería registrar rechazos y dejar pendientes los lotes sin respuesta")
+    void testRechazosYFallas() {
+        // Arrange
+        Factura sinImporte = crearFactura(1, 1, TipoFactura.A, null);
+        Factura valida = crearFactura(1, 2, TipoFactura.A, "1000");
+        Factura otraSerie = crearFactura(2, 1, TipoFactura.B, "1000");
+        entityManager.flush();
+        // La serie 2 no obtiene respuesta
+        ReflectionTestUtils.setField(autorizacionService, "clienteAutorizacion", (ClienteAutorizacion) lote ->
+            lote.getSerie() == 2
+                ? CompletableFuture.failedFuture(new IllegalStateException("Sin conexión"))
+                : clienteLocal.solicitar(lote));
+
+        // Act
+        ResumenAutorizacionDTO resumen = autorizacionService.autorizarPendientes();
+
+        // Assert
+        assertEquals(1, resumen.getAutorizados());
+        assertEquals(1, resumen.getRechazados());
+        assertEquals(1, resumen.getLotesFallidos());
+        entityManager.flush();
+        entityManager.clear();
+        AutorizacionFiscal rechazo = entityManager.find(Factura.class, sinImporte.getIdFactura()).getAutorizacion();
+        assertEquals(EstadoAutorizacion.RECHAZADA, rechazo.getEstado());
+        assertNotNull(rechazo.getObservacion());
+        assertEquals(EstadoAutorizacion.AUTORIZADA,
+            entityManager.find(Factura.class, valida.getIdFactura()).getAutorizacion().getEstado());
+        assertTrue(entityManager.find(Factura.class, otraSerie.getIdFactura()).getAutorizacion().isPendiente());
+
+        // Al recuperar la conexión, la serie pendiente se autoriza en la próxima corrida
+        ReflectionTestUtils.setField(autorizacionService, "clienteAutorizacion", clienteLocal);
+        assertEquals(1, autorizacionService.autorizarPendientes().getAutorizados());
+    }
+
+    @Test
+    @DisplayName("Debería leer como máximo la cantidad configurada por serie y dejar el resto para otra corrida")
+    void testMaximoPorSerie() {
+        // Arrange
+        ReflectionTestUtils.setField(autorizacionService, "maxPorSerie", 2);
+        for (int numero = 1; numero <= 3; numero++) {
+            crearFactura(1, numero, TipoFactura.A, "1000");
+        }
+        crearFactura(2, 1, TipoFactura.B, "1000");
+        entityManager.flush();
+
+        // Act
+        ResumenAutorizacionDTO primera = autorizacionService.autorizarPendientes();
+        ResumenAutorizacionDTO segunda = autorizacionService.autorizarPendientes();
+
+        // Assert - La serie 2 no espera a que se termine la serie 1
+        assertEquals(3, primera.getAutorizados());
+        assertEquals(1, segunda.getAutorizados());
+        assertEquals(Boolean.FALSE, ReflectionTestUtils.getField(autorizacionService, "quedaronPendientes"));
+    }
+
+    @Test
+    @DisplayName("No debería enviar a autorizar los comprobantes anteriores a la autorización fiscal")
+    void testComprobantesAnterioresNoSeEnvian() {
+        // Arrange - Simular una factura emitida antes de las columnas de autorización
+        Factura anterior = crearFactura(1, 1, TipoFactura.A, "1000");
+        crearFactura(2, 1, TipoFactura.B, "1000");
+        entityManager.flush();
+        entityManager.getEntityManager()
+            .createNativeQuery("UPDATE factura SET estado_autorizacion = NULL WHERE id_factura = :id")
+            .setParameter("id", anterior.getIdFactura()).executeUpdate();
+        entityManager.clear();
+
+        // Act
+        int marcadas = facturaRepository.marcarAutorizacionNoRequerida();
+        ResumenAutorizacionDTO resumen = autorizacionService.autorizarPendientes();
+
+        // Assert
+        assertEquals(1, marcadas);
+        assertEquals(1, resumen.getLotesEnviados());
+        assertEquals(1, resumen.getAutorizados());
+        AutorizacionFiscal autorizacion = entityManager.find(Factura.class, anterior.getIdFactura()).getAutorizacion();
+        assertEquals(EstadoAutorizacion.NO_REQUERIDA, autorizacion.getEstado());
+        assertFalse(autorizacion.isPendiente());
+    }
+
+    @Test
+    @DisplayName("No debería permitir cambiar la autorización de un comprobante con CAE")
+    void testAutorizacionFiscalInmutable() {
+        // Arrange
+        AutorizacionFiscal autorizacion = new AutorizacionFiscal();
+        autorizacion.autorizar("70000000000001", EMISION.plusDays(10));
+
+        // Act & Assert
+        assertFalse(autorizacion.isPendiente());
+        assertThrows(IllegalStateException.class, () -> autorizacion.rechazar("Duplicado"));
+        assertThrows(IllegalStateException.class,
+            () -> autorizacion.autorizar("70000000000002", EMISION.plusDays(10)));
+        assertThrows(IllegalArgumentException.class, () -> new AutorizacionFiscal().autorizar(null, EMISION));
+    }
+
+    @Test
+    @DisplayName("Debería saltear las series reservadas por otra instancia")
+    void testSerieReservadaPorOtraInstancia() {
+        // Arrange
+        crearFactura(1, 1, TipoFactura.A, "1000");
+        Factura reservada = crearFactura(2, 1, TipoFactura.B, "1000");
+        // Las filas de reserva se crean en su propia transacción y pueden quedar de otros tests
+        ReservaAutorizacion otraInstancia = entityManager.find(ReservaAutorizacion.class, "FACTURA-2");
+        if (otraInstancia == null) {
+            otraInstancia = entityManager.persist(new ReservaAutorizacion("FACTURA-2"));
+        }
+        otraInstancia.reservar(LocalDateTime.now().plusMinutes(5));
+        entityManager.flush();
+
+        // Act
+        ResumenAutorizacionDTO resumen = autorizacionService.autorizarPendientes();
+
+        // Assert - La serie reservada no se envía y las reservas propias se liberan
+        assertEquals(1, resumen.getLotesEnviados());
+        assertEquals(1, resumen.getAutorizados());
+        entityManager.clear();
+        assertTrue(entityManager.find(Factura.class, reservada.getIdFactura()).getAutorizacion().isPendiente());
+        assertNull(entityManager.find(ReservaAutorizacion.class, "FACTURA-1").getReservadaHasta());
+        assertNotNull(entityManager.find(ReservaAutorizacion.class, "FACTURA-2").getReservadaHasta());
+    }
+
+    @Test
+    @DisplayName("No debería iniciar las corridas automáticas sin un cliente del organismo fiscal")
+    void testAutomaticaSinCliente() {
+        // Arrange
+        AutorizacionService sinCliente = new AutorizacionService();
+        ReflectionTestUtils.setField(sinCliente, "automatica", true);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, sinCliente::afterPropertiesSet);
+        assertThrows(IllegalStateException.class, sinCliente::autorizarPendientes);
+    }
+
+    // Métodos auxiliares
+
+    private Factura crearFactura(int serie, int numero, TipoFactura tipo, String precio) {
+        Factura factura = new Factura(serie, numero, cliente, EMISION, EMISION.plusDays(10),
+            EMISION.withDayOfMonth(1).minusMonths(periodos++), tipo);
+        if (precio != null) {
+            factura.agregarItem(new ItemFactura("Hosting", new BigDecimal(precio), 1, TipoAlicuotaIVA.IVA_21));
+        }
+        return entityManager.persist(factura);
+    }
+}
@@ -0,0 +1,113 @@
+package com.unam.integrador.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.unam.integrador.model.BloqueoPeriodo;
+import com.unam.integrador.model.Periodo;
+import com.unam.integrador.repositories.BloqueoPeriodoRepository;
+
+import java.time.YearMonth;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para BloqueoPeriodoService.
+ * Simulan dos instancias de la aplicación con dos transacciones concurrentes
+ * sobre la misma base H2; por eso no corren dentro de la transacción del test.
+ */
+@DataJpaTest
+@Import({BloqueoPeriodoService.class, CreadorFilasBloqueo.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Tests de integración para BloqueoPeriodoService")
+class BloqueoPeriodoServiceIntegrationTest {
+
+    private static final Periodo NOVIEMBRE = Periodo.of(YearMonth.of(2025, 11));
+
+    @Autowired
+    private BloqueoPeriodoService bloqueoPeriodoService;
+
+    @Autowired
+    private BloqueoPeriodoRepository bloqueoPeriodoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        bloqueoPeriodoRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Debería fallar de inmediato si otra transacción tiene el período bloqueado")
+    void testSegundaOperacionFallaRapido() throws Exception {
+        // Arrange: la "otra instancia" toma el bloqueo y lo mantiene
+        CountDownLatch bloqueado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<Void> otraInstancia = CompletableFuture.runAsync(() ->
+            new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+                bloqueoPeriodoService.bloquear(NOVIEMBRE, "Facturación masiva");
+                bloqueado.countDown();
+                try {
+                    liberar.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        assertTrue(bloqueado.await(10, TimeUnit.SECONDS));
+
+        try {
+            // Act
+            IllegalStateException error = assertThrows(IllegalStateException.class, () ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(
+                    estado -> bloqueoPeriodoService.bloquear(NOVIEMBRE, "Anulación de lote #1")));
+
+            // Assert: falla sin esperar a que termine la otra operación
+            // (PostgreSQL usa NOWAIT; H2 espera solo su tiempo de bloqueo por defecto)
+            assertTrue(error.getMessage().contains("está siendo procesado por otra operación"));
+            assertFalse(otraInstancia.isDone());
+        } finally {
+            liberar.countDown();
+            otraInstancia.get(10, TimeUnit.SECONDS);
+        }
+
+        // Al terminar la primera transacción, el período vuelve a estar disponible
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+            estado -> bloqueoPeriodoService.bloquear(NOVIEMBRE, "Anulación de lote #1"));
+        BloqueoPeriodo fila = bloqueoPeriodoRepository.findById(NOVIEMBRE.getPrimerDia()).orElseThrow();
+        assertEquals("Anulación de lote #1", fila.getOperacion());
+        assertEquals(1, bloqueoPeriodoRepository.count());
+    }
+
+    @Test
+    @DisplayName("Debería bloquear períodos distintos en paralelo y exigir una transacción activa")
+    void testPeriodosIndependientesYTransaccionObligatoria() {
+        // Arrange
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        TransactionTemplate otraTransaccion = new TransactionTemplate(transactionManager);
+        otraTransaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // Act & Assert
+        transaccion.executeWithoutResult(estado -> {
+            bloqueoPeriodoService.bloquear(NOVIEMBRE, "Facturación masiva");
+            otraTransaccion.executeWithoutResult(
+                otra -> bloqueoPeriodoService.bloquear(NOVIEMBRE.desplazar(1), "Facturación masiva"));
+        });
+        assertEquals(2, bloqueoPeriodoRepository.count());
+        assertThrows(IllegalTransactionStateException.class,
+            () -> bloqueoPeriodoService.bloquear(NOVIEMBRE, "Facturación masiva"));
+    }
+}
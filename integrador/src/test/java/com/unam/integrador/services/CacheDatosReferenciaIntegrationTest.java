@@ -0,0 +1,168 @@
+package com.unam.integrador.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.unam.integrador.dto.EstadisticaCacheDTO;
+import com.unam.integrador.eventos.ServicioModificado;
+import com.unam.integrador.eventos.ServiciosContratadosModificados;
+import com.unam.integrador.model.CuentaCliente;
+import com.unam.integrador.model.Servicio;
+import com.unam.integrador.model.ServicioContratado;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+import com.unam.integrador.model.enums.TipoCondicionIVA;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+import com.unam.integrador.repositories.ServicioRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para CacheDatosReferencia.
+ * Valida que los servicios se lean del caché de segundo nivel y que la
+ * invalidación se aplique recién al confirmar la transacción.
+ * Los datos se confirman en la base (sin la transacción del test) para que
+ * lleguen al caché, y se eliminan al finalizar cada test.
+ */
+@DataJpaTest
+@Import(CacheDatosReferencia.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Tests de integración para CacheDatosReferencia")
+class CacheDatosReferenciaIntegrationTest {
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private CuentaClienteRepositorie clienteRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CacheDatosReferencia cacheDatosReferencia;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    private Cache cache;
+    private Long servicioId;
+
+    @BeforeEach
+    void setUp() {
+        cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictAllRegions();
+        servicioId = servicioRepository.save(
+            new Servicio("Hosting", "Hosting web", new BigDecimal("1000.00"), TipoAlicuotaIVA.IVA_21))
+            .getIDServicio();
+    }
+
+    @AfterEach
+    void tearDown() {
+        clienteRepository.deleteAll();
+        servicioRepository.deleteAll();
+        cache.evictAllRegions();
+    }
+
+    @Test
+    @DisplayName("Debería leer el servicio desde el caché en una nueva sesión")
+    void testLecturaDesdeCache() {
+        // Arrange
+        servicioRepository.findById(servicioId);
+        long aciertosAntes = aciertosServicio();
+
+        // Act
+        Servicio servicio = servicioRepository.findById(servicioId).orElseThrow();
+
+        // Assert
+        assertEquals("Hosting", servicio.getNombre());
+        assertTrue(cache.containsEntity(Servicio.class, servicioId));
+        assertEquals(aciertosAntes + 1, aciertosServicio());
+    }
+
+    @Test
+    @DisplayName("Debería invalidar el servicio recién al confirmar la transacción")
+    void testInvalidarServicioLuegoDelCommit() {
+        // Arrange
+        servicioRepository.findById(servicioId);
+        assertTrue(cache.containsEntity(Servicio.class, servicioId));
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+
+        // Act: una transacción que se revierte no invalida el caché
+        transaccion.executeWithoutResult(status -> {
+            eventos.publishEvent(new ServicioModificado(servicioId));
+            status.setRollbackOnly();
+        });
+        boolean cacheadoTrasRollback = cache.containsEntity(Servicio.class, servicioId);
+
+        transaccion.executeWithoutResult(status -> eventos.publishEvent(new ServicioModificado(servicioId)));
+
+        // Assert
+        assertTrue(cacheadoTrasRollback);
+        assertFalse(cache.containsEntity(Servicio.class, servicioId));
+    }
+
+    @Test
+    @DisplayName("Debería invalidar solo la colección de contratos del cliente indicado")
+    void testInvalidarServiciosContratadosDeUnCliente() {
+        // Arrange
+        Servicio servicio = servicioRepository.findById(servicioId).orElseThrow();
+        Long clienteA = crearClienteConContrato("Alfa", "20111111111", servicio);
+        Long clienteB = crearClienteConContrato("Beta", "20222222222", servicio);
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        Long contratoA = transaccion.execute(status -> {
+            clienteRepository.findById(clienteB).orElseThrow().getServiciosContratados().size();
+            return clienteRepository.findById(clienteA).orElseThrow()
+                .getServiciosContratados().get(0).getIDServicioContratado();
+        });
+        String rol = CuentaCliente.class.getName() + ".serviciosContratados";
+        assertTrue(cache.containsCollection(rol, clienteA));
+
+        // Act
+        eventos.publishEvent(new ServiciosContratadosModificados(clienteA));
+
+        // Assert
+        assertFalse(cache.containsCollection(rol, clienteA));
+        assertTrue(cache.containsCollection(rol, clienteB));
+        assertTrue(cache.containsEntity(ServicioContratado.class, contratoA));
+    }
+
+    private Long crearClienteConContrato(String nombre, String cuit, Servicio servicio) {
+        CuentaCliente cliente = new CuentaCliente();
+        cliente.setNombre(nombre);
+        cliente.setRazonSocial(nombre + " S.A.");
+        cliente.setCuitDni(cuit);
+        cliente.setDomicilio("Av. Corrientes 1234");
+        cliente.setTelefono("11-1234-5678");
+        cliente.setEmail(nombre.toLowerCase() + "@email.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.contratarServicio(servicio);
+        return clienteRepository.save(cliente).getId();
+    }
+
+    private long aciertosServicio() {
+        return cacheDatosReferencia.obtenerEstadisticas().stream()
+            .filter(e -> e.getRegion().equals(CacheDatosReferencia.REGION_SERVICIO))
+            .mapToLong(EstadisticaCacheDTO::getAciertos)
+            .findFirst()
+            .orElse(0);
+    }
+}
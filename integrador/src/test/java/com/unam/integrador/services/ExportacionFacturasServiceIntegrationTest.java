@@ -0,0 +1,126 @@
+package com.unam.integrador.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.unam.integrador.dto.FiltroFacturasDTO;
+import com.unam.integrador.model.*;
+import com.unam.integrador.model.enums.*;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para ExportacionFacturasService.
+ * Valida los filtros, los formatos CSV y JSON Lines y que las facturas
+ * exportadas no queden en el contexto de persistencia, usando H2.
+ */
+@DataJpaTest
+@Import(ExportacionFacturasService.class)
+@DisplayName("Tests de integración para ExportacionFacturasService")
+class ExportacionFacturasServiceIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ExportacionFacturasService exportacionFacturasService;
+
+    private CuentaCliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new CuentaCliente();
+        cliente.setNombre("Alfa; Tech");
+        cliente.setRazonSocial("Alfa; Tech S.A.");
+        cliente.setCuitDni("20111111111");
+        cliente.setDomicilio("Av. Corrientes 1234");
+        cliente.setTelefono("11-1234-5678");
+        cliente.setEmail("alfa@email.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        cliente.setSaldo(BigDecimal.ZERO);
+        entityManager.persist(cliente);
+
+        crearFactura(1, LocalDate.of(2025, 10, 5), TipoFactura.A, false);
+        crearFactura(2, LocalDate.of(2025, 11, 5), TipoFactura.A, false);
+        crearFactura(3, LocalDate.of(2025, 11, 20), TipoFactura.B, true);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Debería exportar en CSV las facturas del período filtradas por estado")
+    void testExportarCsvFiltrado() {
+        // Arrange
+        StringWriter salida = new StringWriter();
+        FiltroFacturasDTO filtro = new FiltroFacturasDTO("pendiente", null, LocalDate.of(2025, 11, 1), null, null);
+
+        // Act
+        int facturas = exportacionFacturasService.exportarCsv(filtro, salida);
+
+        // Assert
+        String[] filas = salida.toString().split("\r\n");
+        assertEquals(1, facturas);
+        assertEquals(2, filas.length);
+        assertTrue(filas[0].startsWith("ID;Tipo;Comprobante;"));
+        assertTrue(filas[1].contains(";A;0001-00000002;2025-11-05;2025-11-15;Noviembre 2025;20111111111;\"Alfa; Tech S.A.\";PENDIENTE;1000.00;"));
+        assertTrue(filas[1].endsWith(";1210.00;1210.00"));
+    }
+
+    @Test
+    @DisplayName("Debería exportar en JSON Lines por rango de emisión sin retener entidades")
+    void testExportarJsonLinesPorRango() {
+        // Arrange
+        StringWriter salida = new StringWriter();
+        FiltroFacturasDTO filtro = new FiltroFacturasDTO(null, null, null,
+            LocalDate.of(2025, 11, 1), LocalDate.of(2025, 11, 30));
+
+        // Act
+        int facturas = exportacionFacturasService.exportarJsonLines(filtro, salida);
+
+        // Assert
+        String[] lineas = salida.toString().split("\n");
+        assertEquals(2, facturas);
+        assertEquals(2, lineas.length);
+        assertTrue(lineas[0].contains("\"comprobante\":\"0001-00000002\""));
+        assertTrue(lineas[0].contains("\"total\":1210.00"));
+        assertTrue(lineas[1].contains("\"tipo\":\"B\""));
+        assertTrue(lineas[1].contains("\"estado\":\"ANULADA\""));
+        assertTrue(lineas[1].contains("\"razonSocial\":\"Alfa; Tech S.A.\""));
+        assertFalse(entityManager.getEntityManager().contains(cliente));
+        assertEquals(0, entityManager.getEntityManager()
+            .unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar filtros inválidos")
+    void testExportarFiltroInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> exportacionFacturasService.exportarCsv(
+            new FiltroFacturasDTO("INEXISTENTE", null, null, null, null), new StringWriter()));
+        assertThrows(IllegalArgumentException.class, () -> exportacionFacturasService.exportarJsonLines(
+            new FiltroFacturasDTO(null, null, null, LocalDate.of(2025, 12, 1), LocalDate.of(2025, 11, 1)),
+            new StringWriter()));
+    }
+
+    // Métodos auxiliares
+
+    private void crearFactura(int numero, LocalDate fechaEmision, TipoFactura tipo, boolean anulada) {
+        Factura factura = new Factura(1, numero, cliente, fechaEmision, fechaEmision.plusDays(10),
+            fechaEmision.withDayOfMonth(1), tipo);
+        factura.agregarItem(new ItemFactura("Hosting", new BigDecimal("1000"), 1, TipoAlicuotaIVA.IVA_21));
+        if (anulada) {
+            factura.anular();
+        }
+        entityManager.persist(factura);
+    }
+}
@@ -0,0 +1,144 @@
+package com.unam.integrador.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.unam.integrador.model.*;
+import com.unam.integrador.model.enums.*;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para ExportacionRecibosService.
+ * Valida el agrupamiento de pagos combinados en recibos, el desglose por
+ * factura y método de pago y los formatos CSV y JSON Lines, usando H2.
+ */
+@DataJpaTest
+@Import(ExportacionRecibosService.class)
+@DisplayName("Tests de integración para ExportacionRecibosService")
+class ExportacionRecibosServiceIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ExportacionRecibosService exportacionRecibosService;
+
+    private LocalDate hoy;
+    private Pago pagoSinNumero;
+
+    @BeforeEach
+    void setUp() {
+        hoy = LocalDate.now();
+        CuentaCliente cliente = new CuentaCliente();
+        cliente.setNombre("Alfa Tech");
+        cliente.setRazonSocial("Alfa Tech S.A.");
+        cliente.setCuitDni("20111111111");
+        cliente.setDomicilio("Av. Corrientes 1234");
+        cliente.setTelefono("11-1234-5678");
+        cliente.setEmail("alfa@email.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        cliente.setSaldo(BigDecimal.ZERO);
+        entityManager.persist(cliente);
+
+        Factura f1 = crearFactura(cliente, 1, hoy.minusMonths(1));
+        Factura f2 = crearFactura(cliente, 2, hoy);
+
+        // Recibo combinado: saldo a favor + transferencia sobre la misma factura
+        f1.registrarPago(crearPago("200", MetodoPago.SALDO_A_FAVOR, null, "00000001"), new BigDecimal("200"));
+        f1.registrarPago(crearPago("1010", MetodoPago.TRANSFERENCIA, "TRF-1", "00000001"), new BigDecimal("1010"));
+        // Recibo con pago parcial y excedente sin detalle
+        f2.registrarPago(crearPago("500", MetodoPago.EFECTIVO, null, "00000002"), new BigDecimal("500"));
+        crearPago("100", MetodoPago.EFECTIVO, null, "00000002");
+        // Pago sin número de recibo: se exporta al final con su ID como número
+        pagoSinNumero = crearPago("300", MetodoPago.TARJETA, "VISA", null);
+        f2.registrarPago(pagoSinNumero, new BigDecimal("300"));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Debería exportar en CSV una fila por línea del desglose agrupando por recibo")
+    void testExportarCsv() {
+        // Arrange
+        StringWriter salida = new StringWriter();
+
+        // Act
+        int recibos = exportacionRecibosService.exportarCsv(hoy, hoy, salida);
+
+        // Assert
+        String[] filas = salida.toString().split("\r\n");
+        assertEquals(3, recibos);
+        assertEquals(6, filas.length);
+        assertTrue(filas[0].startsWith("Recibo;Fecha;Cliente;"));
+        assertEquals("00000001;" + hoy + ";Alfa Tech;20111111111;1210.00;TRANSFERENCIA + SALDO A FAVOR;TRF-1;"
+            + "SALDO_A_FAVOR;1-00000001;200.00", filas[1]);
+        assertTrue(filas[2].endsWith(";TRANSFERENCIA;1-00000001;1010.00"));
+        assertTrue(filas[3].startsWith("00000002;" + hoy + ";Alfa Tech;20111111111;600.00;EFECTIVO;;"));
+        assertTrue(filas[4].endsWith(";EFECTIVO;Excedente generado;100.00"));
+        assertTrue(filas[5].startsWith(String.format("%08d;", pagoSinNumero.getIdPago())));
+        assertTrue(filas[5].endsWith(";TARJETA;VISA;TARJETA;1-00000002;300.00"));
+    }
+
+    @Test
+    @DisplayName("Debería exportar en JSON Lines un recibo por línea con su desglose")
+    void testExportarJsonLines() {
+        // Arrange
+        StringWriter salida = new StringWriter();
+
+        // Act
+        int recibos = exportacionRecibosService.exportarJsonLines(hoy.minusDays(1), hoy, salida);
+
+        // Assert
+        String[] lineas = salida.toString().split("\n");
+        assertEquals(3, recibos);
+        assertEquals(3, lineas.length);
+        assertTrue(lineas[0].startsWith("{\"numero\":\"00000001\""));
+        assertTrue(lineas[0].contains("\"monto\":1210.00"));
+        assertTrue(lineas[0].contains("\"desglose\":[{\"metodoPago\":\"SALDO_A_FAVOR\",\"factura\":\"1-00000001\""));
+        assertTrue(lineas[1].contains("{\"metodoPago\":\"EFECTIVO\",\"factura\":\"Excedente generado\",\"facturaId\":null,\"monto\":100.00}"));
+    }
+
+    @Test
+    @DisplayName("Debería escribir solo el encabezado fuera de rango y rechazar rangos inválidos")
+    void testExportarRangoVacioEInvalido() {
+        // Arrange
+        StringWriter salida = new StringWriter();
+
+        // Act
+        int recibos = exportacionRecibosService.exportarCsv(hoy.minusYears(1), hoy.minusMonths(6), salida);
+
+        // Assert
+        assertEquals(0, recibos);
+        assertEquals(1, salida.toString().split("\r\n").length);
+        assertThrows(IllegalArgumentException.class,
+            () -> exportacionRecibosService.exportarCsv(hoy, hoy.minusDays(1), new StringWriter()));
+        assertThrows(IllegalArgumentException.class,
+            () -> exportacionRecibosService.exportarJsonLines(null, hoy, new StringWriter()));
+    }
+
+    // Métodos auxiliares
+
+    private Factura crearFactura(CuentaCliente cliente, int numero, LocalDate periodo) {
+        Factura factura = new Factura(1, numero, cliente, hoy, hoy.plusDays(10),
+            periodo.withDayOfMonth(1), TipoFactura.A);
+        factura.agregarItem(new ItemFactura("Hosting", new BigDecimal("1000"), 1, TipoAlicuotaIVA.IVA_21));
+        return entityManager.persist(factura);
+    }
+
+    private Pago crearPago(String monto, MetodoPago metodo, String referencia, String numeroRecibo) {
+        Pago pago = Pago.crearPago(new BigDecimal(monto), metodo, referencia);
+        pago.setNumeroRecibo(numeroRecibo);
+        return entityManager.persist(pago);
+    }
+}
@@ -48,6 +48,8 @@ class FacturaServiceIntegrationTest {
     @Autowired
     private ServicioRepository servicioRepository;
 
+    @Autowired
+    private ServicioService servicioService;
 
     private CuentaCliente cliente1;
     private CuentaCliente cliente2;
@@ -90,6 +92,52 @@ class FacturaServiceIntegrationTest {
         assertEquals(0, new BigDecimal("27830.00").compareTo(factura.getTotal()));
     }
 
+    @Test
+    @DisplayName("Debería rechazar precios especiales de contratos dados de baja o de servicios inactivos")
+    void testProgramarPrecioContratoInactivo() {
+        // Arrange
+        LocalDate periodoSiguiente = LocalDate.now().withDayOfMonth(1).plusMonths(1);
+        ServicioContratado contrato = cliente2.getServiciosContratados().get(0);
+        Servicio servicio = contrato.getServicio();
+        servicio.desactivar();
+        servicioRepository.save(servicio);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> servicioService.programarPrecioContrato(
+            contrato.getIDServicioContratado(), new BigDecimal("9000.00"), periodoSiguiente));
+
+        // Arrange
+        servicio.activar();
+        servicioRepository.save(servicio);
+        contrato.desvincular();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> servicioService.programarPrecioContrato(
+            contrato.getIDServicioContratado(), new BigDecimal("9000.00"), periodoSiguiente));
+    }
+
+    @Test
+    @DisplayName("Debería facturar el precio vigente en el período según el historial de precios")
+    void testEmitirFacturaConPrecioProgramado() {
+        // Arrange: Hosting Web pasa de 15000 a 18000 desde el mes próximo
+        LocalDate periodoActual = LocalDate.now().withDayOfMonth(1);
+        LocalDate periodoSiguiente = periodoActual.plusMonths(1);
+        Servicio hosting = servicioRepository.findByNombre("Hosting Web").orElseThrow();
+        servicioService.programarPrecio(hosting.getIDServicio(), new BigDecimal("18000.00"), periodoSiguiente);
+
+        // Act
+        Factura facturaActual = facturaService.emitirFacturaDesdeServiciosContratados(
+            cliente2.getId(), periodoActual, LocalDate.now(), LocalDate.now().plusDays(30), null, null);
+        Factura facturaSiguiente = facturaService.emitirFacturaDesdeServiciosContratados(
+            cliente2.getId(), periodoSiguiente, LocalDate.now(), LocalDate.now().plusDays(30), null, null);
+
+        // Assert: el contrato no se modificó, el precio se resolvió por período
+        assertEquals(0, new BigDecimal("15000.00").compareTo(facturaActual.getSubtotal()));
+        assertEquals(0, new BigDecimal("18000.00").compareTo(facturaSiguiente.getSubtotal()));
+        assertEquals(0, new BigDecimal("15000.00").compareTo(
+            cliente2.getServiciosContratados().get(0).getPrecioContratado()));
+    }
+
     @Test
     @DisplayName("Debería emitir factura con descuento del 15%")
     void testEmitirFacturaConDescuento() {
@@ -0,0 +1,391 @@
+package com.unam.integrador.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.unam.integrador.eventos.FacturasEmitidas;
+import com.unam.integrador.model.*;
+import com.unam.integrador.model.enums.*;
+import com.unam.integrador.repositories.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para FacturacionDistribuidaService.
+ * Simulan varias instancias con varios trabajadores concurrentes sobre la misma
+ * base H2; por eso no corren dentro de la transacción del test y el contexto
+ * se descarta al terminar (los datos quedan confirmados).
+ */
+@SpringBootTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@DisplayName("Tests de integración para FacturacionDistribuidaService")
+class FacturacionDistribuidaServiceIntegrationTest {
+
+    private static final int TRABAJADORES = 3;
+
+    @Autowired
+    private FacturacionDistribuidaService facturacionDistribuidaService;
+
+    @Autowired
+    private FacturaService facturaService;
+
+    @Autowired
+    private CuentaClienteRepositorie clienteRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private FacturaRepository facturaRepository;
+
+    @Autowired
+    private LoteFacturacionRepository loteFacturacionRepository;
+
+    @Autowired
+    private ItemFacturacionMasivaRepository itemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SerieFacturaRepository serieFacturaRepository;
+
+    private Servicio servicio;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(facturacionDistribuidaService, "tamanioItem", 3);
+        servicio = servicioRepository.findByNombre("Hosting Web").orElseGet(() -> servicioRepository.save(
+            new Servicio("Hosting Web", "Servicio de Hosting Web", new BigDecimal("15000.00"), TipoAlicuotaIVA.IVA_21)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(facturacionDistribuidaService, "tamanioItem", 500);
+    }
+
+    @Test
+    @DisplayName("Debería facturar cada cliente una sola vez con numeración correlativa usando varios trabajadores")
+    void testVariosTrabajadoresConcurrentes() throws Exception {
+        // Arrange: 10 clientes (A y B) y uno ya facturado individualmente
+        List<CuentaCliente> clientes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            clientes.add(crearCliente("Cliente " + i, i % 2 == 0
+                ? TipoCondicionIVA.RESPONSABLE_INSCRIPTO : TipoCondicionIVA.CONSUMIDOR_FINAL));
+        }
+        Periodo periodo = Periodo.actual().desplazar(1);
+        facturaService.emitirFacturaDesdeServiciosContratados(clientes.get(0).getId(), periodo.getPrimerDia(),
+            LocalDate.now(), LocalDate.now().plusDays(10), null, null);
+        int facturables = clienteRepository.findIdsFacturables().size();
+
+        // Act
+        LoteFacturacion lote = facturacionDistribuidaService.iniciarFacturacionMasiva(
+            periodo.getEtiqueta(), LocalDate.now().plusDays(30));
+        assertTrue(lote.isEnProceso());
+        assertEquals((facturables + 2) / 3, lote.getItemsPendientes());
+
+        CountDownLatch largada = new CountDownLatch(1);
+        List<CompletableFuture<Integer>> trabajadores = IntStream.range(0, TRABAJADORES)
+            .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                try {
+                    largada.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return facturacionDistribuidaService.procesarPendientes();
+            }))
+            .toList();
+        largada.countDown();
+        int procesados = 0;
+        for (CompletableFuture<Integer> trabajador : trabajadores) {
+            procesados += trabajador.get(30, TimeUnit.SECONDS);
+        }
+
+        // Assert: cada grupo se procesó una vez y el lote quedó finalizado
+        assertEquals(lote.getItemsPendientes(), procesados);
+        LoteFacturacion finalizado = loteFacturacionRepository.findById(lote.getId()).orElseThrow();
+        assertFalse(finalizado.isEnProceso());
+        assertNotNull(finalizado.getFechaFinalizacion());
+        assertEquals(facturables - 1, finalizado.getCantidadFacturas());
+        assertTrue(itemRepository.findByLoteIdOrderByIdAsc(lote.getId()).stream()
+            .allMatch(item -> item.getEstado() == EstadoItemFacturacion.COMPLETADO));
+
+        // Telemetría acumulada de todos los grupos
+        assertEquals(facturables, finalizado.getClientesProcesados());
+        assertNotNull(finalizado.getDuracionTotalMs());
+        assertNotNull(finalizado.getClientesPorSegundo());
+        assertTrue(finalizado.getDuracionArmadoMs() >= 0 && finalizado.getDuracionPersistenciaMs() >= 0);
+        assertTrue(finalizado.getDuracionNumeracionMs() >= 0);
+        assertTrue(finalizado.getMaximoFacturasPorGrupo() >= 1 && finalizado.getMaximoFacturasPorGrupo() <= 3);
+        assertTrue(finalizado.getTrabajadores() >= 1 && finalizado.getTrabajadores() <= TRABAJADORES);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+            List<Factura> facturas = facturaRepository.findAll();
+            List<Factura> delLote = facturas.stream()
+                .filter(f -> f.getLoteFacturacion() != null && f.getLoteFacturacion().getId().equals(lote.getId()))
+                .toList();
+            assertEquals(0, finalizado.getMontoTotal().compareTo(
+                delLote.stream().map(Factura::getTotal).reduce(BigDecimal.ZERO, BigDecimal::add)));
+
+            // El cliente facturado individualmente figura como omitido
+            List<OmisionFacturacion> omisiones = loteFacturacionRepository.findById(lote.getId())
+                .orElseThrow().getOmisiones();
+            assertEquals(1, omisiones.size());
+            assertEquals(clientes.get(0).getId(), omisiones.get(0).getClienteId());
+            assertEquals(TipoOmisionFacturacion.OMITIDO, omisiones.get(0).getTipo());
+            Map<TipoOmisionFacturacion, Long> porTipo = facturaService.contarOmisiones(lote.getId());
+            assertEquals(1L, porTipo.get(TipoOmisionFacturacion.OMITIDO));
+            assertEquals(0L, porTipo.get(TipoOmisionFacturacion.ERROR));
+            assertEquals(omisiones.get(0).getId(),
+                facturaService.listarOmisiones(lote.getId(), 0, 1).getContent().get(0).getId());
+
+            // Cada cliente tiene una sola factura en el período
+            Map<Long, Long> porCliente = facturas.stream()
+                .filter(f -> f.getPeriodo().equals(periodo.getPrimerDia()))
+                .collect(Collectors.groupingBy(f -> f.getCliente().getId(), Collectors.counting()));
+            assertEquals(facturables, porCliente.size());
+            assertTrue(porCliente.values().stream().allMatch(cantidad -> cantidad == 1));
+
+            // Numeración sin huecos ni duplicados en cada serie
+            Map<Integer, List<Integer>> numerosPorSerie = facturas.stream()
+                .collect(Collectors.groupingBy(Factura::getSerie,
+                    Collectors.mapping(Factura::getNroFactura, Collectors.toList())));
+            numerosPorSerie.values().forEach(numeros -> assertEquals(
+                IntStream.rangeClosed(1, numeros.size()).boxed().toList(), numeros.stream().sorted().toList()));
+        });
+
+        // Un nuevo intento para el mismo período se rechaza
+        assertThrows(IllegalStateException.class, () -> facturacionDistribuidaService.iniciarFacturacionMasiva(
+            periodo.getEtiqueta(), LocalDate.now().plusDays(30)));
+    }
+
+    @Test
+    @DisplayName("No debería permitir anular un lote mientras se procesa")
+    void testNoAnularLoteEnProceso() {
+        // Arrange
+        crearCliente("Cliente en proceso", TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        Periodo periodo = Periodo.actual().desplazar(2);
+        LoteFacturacion lote = facturacionDistribuidaService.iniciarFacturacionMasiva(
+            periodo.getEtiqueta(), LocalDate.now().plusDays(30));
+
+        // Act & Assert
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+            () -> facturaService.anularLoteFacturacion(lote.getId(), "Anulación de prueba"));
+        assertTrue(error.getMessage().contains("todavía se está procesando"));
+
+        facturacionDistribuidaService.procesarPendientes();
+        LoteFacturacion anulado = facturaService.anularLoteFacturacion(lote.getId(), "Anulación de prueba");
+        assertTrue(anulado.isAnulado());
+    }
+
+    @Test
+    @DisplayName("Debería marcar fallido un grupo que agota sus intentos y finalizar igual el lote")
+    void testGrupoFallidoTrasMaxIntentos() {
+        // Arrange - Toda transacción de grupo falla al publicar sus eventos
+        crearCliente("Cliente con falla", TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        Periodo periodo = Periodo.actual().desplazar(3);
+        LoteFacturacion lote = facturacionDistribuidaService.iniciarFacturacionMasiva(
+            periodo.getEtiqueta(), LocalDate.now().plusDays(30));
+        ApplicationEventPublisher eventos = (ApplicationEventPublisher) ReflectionTestUtils.getField(
+            facturacionDistribuidaService, "eventos");
+        ApplicationEventPublisher conFalla = evento -> {
+            throw new IllegalStateException("Falla simulada");
+        };
+        ReflectionTestUtils.setField(facturacionDistribuidaService, "eventos", conFalla);
+        ReflectionTestUtils.setField(facturacionDistribuidaService, "maxIntentos", 2);
+
+        try {
+            // Act - Cada llamado falla y registra el intento hasta que la cola queda vacía
+            int fallas = 0;
+            while (fallas < 100) {
+                try {
+                    if (!facturacionDistribuidaService.procesarSiguienteItem()) {
+                        break;
+                    }
+                } catch (IllegalStateException e) {
+                    assertEquals("Falla simulada", e.getMessage());
+                    fallas++;
+                }
+            }
+
+            // Assert
+            List<ItemFacturacionMasiva> grupos = itemRepository.findByLoteIdOrderByIdAsc(lote.getId());
+            assertEquals(2 * grupos.size(), fallas);
+            assertTrue(grupos.stream().allMatch(g -> g.getEstado() == EstadoItemFacturacion.FALLIDO
+                && g.getIntentos() == 2 && g.getUltimoError().contains("Falla simulada")));
+            LoteFacturacion finalizado = loteFacturacionRepository.findById(lote.getId()).orElseThrow();
+            assertFalse(finalizado.isEnProceso());
+            assertEquals(grupos.size(), finalizado.getItemsFallidos());
+            assertNotNull(finalizado.getFechaFinalizacion());
+            assertEquals(0, finalizado.getCantidadFacturas());
+
+            // Los números reservados por los intentos fallidos se devolvieron: no quedan huecos
+            for (SerieFactura serie : serieFacturaRepository.findAll()) {
+                Factura ultima = facturaRepository.findFirstBySerieOrderByNroFacturaDesc(serie.getSerie());
+                assertTrue(serie.getUltimoNumero() == null
+                    || serie.getUltimoNumero() == (ultima != null ? ultima.getNroFactura() : 0));
+            }
+        } finally {
+            ReflectionTestUtils.setField(facturacionDistribuidaService, "eventos", eventos);
+            ReflectionTestUtils.setField(facturacionDistribuidaService, "maxIntentos", 3);
+        }
+    }
+
+    @Test
+    @DisplayName("Debería leer los contratos de la base aunque otra instancia los haya cambiado después de cachearlos")
+    void testContratoCanceladoEnOtraInstancia() {
+        // Arrange - El contrato queda en el caché local y otra instancia lo cancela en la base
+        ReflectionTestUtils.setField(facturacionDistribuidaService, "tamanioItem", 500);
+        CuentaCliente activo = crearCliente("Cliente activo", TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        CuentaCliente cancelado = crearCliente("Cliente cancelado", TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        crearCliente("Cliente posterior", TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.executeWithoutResult(estado -> assertEquals(1,
+            clienteRepository.findById(cancelado.getId()).orElseThrow().getServiciosContratadosActivos().size()));
+        jdbcTemplate.update("UPDATE servicio_contratado SET activo = FALSE, fecha_baja = CURRENT_DATE "
+            + "WHERE cliente_id = ?", cancelado.getId());
+        Periodo periodo = Periodo.actual().desplazar(4);
+
+        // Act
+        LoteFacturacion lote = facturacionDistribuidaService.iniciarFacturacionMasiva(
+            periodo.getEtiqueta(), LocalDate.now().plusDays(30));
+        facturacionDistribuidaService.procesarPendientes();
+
+        // Assert
+        transaccion.executeWithoutResult(estado -> {
+            List<Long> facturados = facturaRepository.findAll().stream()
+                .filter(f -> f.getLoteFacturacion() != null && f.getLoteFacturacion().getId().equals(lote.getId()))
+                .map(f -> f.getCliente().getId())
+                .toList();
+            assertTrue(facturados.contains(activo.getId()));
+            assertFalse(facturados.contains(cancelado.getId()));
+        });
+    }
+
+    @Test
+    @DisplayName("No debería bloquear la numeración mientras un grupo guarda sus facturas")
+    void testEmisionIndividualDuranteUnGrupo() {
+        // Arrange - Al publicar sus eventos, el grupo ya guardó las facturas pero no confirmó
+        ReflectionTestUtils.setField(facturacionDistribuidaService, "tamanioItem", 500);
+        CuentaCliente individual = crearCliente("Cliente individual", TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        Periodo periodo = Periodo.actual().desplazar(5);
+        LoteFacturacion lote = facturacionDistribuidaService.iniciarFacturacionMasiva(
+            periodo.getEtiqueta(), LocalDate.now().plusDays(30));
+        ApplicationEventPublisher eventos = (ApplicationEventPublisher) ReflectionTestUtils.getField(
+            facturacionDistribuidaService, "eventos");
+        List<Factura> emitidas = new ArrayList<>();
+        ApplicationEventPublisher conEmision = evento -> {
+            if (evento instanceof FacturasEmitidas && emitidas.isEmpty()) {
+                emitidas.add(CompletableFuture.supplyAsync(() -> facturaService.emitirFacturaDesdeServiciosContratados(
+                        individual.getId(), periodo.desplazar(1).getPrimerDia(), LocalDate.now(),
+                        LocalDate.now().plusDays(10), null, null))
+                    .orTimeout(10, TimeUnit.SECONDS)
+                    .join());
+            }
+            eventos.publishEvent(evento);
+        };
+        ReflectionTestUtils.setField(facturacionDistribuidaService, "eventos", conEmision);
+
+        try {
+            // Act
+            facturacionDistribuidaService.procesarPendientes();
+        } finally {
+            ReflectionTestUtils.setField(facturacionDistribuidaService, "eventos", eventos);
+        }
+
+        // Assert - La emisión individual no esperó al grupo y tomó el número siguiente a su bloque
+        assertEquals(1, emitidas.size());
+        Factura emitida = emitidas.get(0);
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+            List<Integer> delGrupo = facturaRepository.findAll().stream()
+                .filter(f -> f.getLoteFacturacion() != null && f.getLoteFacturacion().getId().equals(lote.getId()))
+                .filter(f -> f.getSerie() == emitida.getSerie())
+                .map(Factura::getNroFactura)
+                .toList();
+            assertFalse(delGrupo.isEmpty());
+            assertTrue(delGrupo.stream().allMatch(numero -> numero < emitida.getNroFactura()));
+        });
+    }
+
+    @Test
+    @DisplayName("Debería numerar sin duplicados las notas de crédito de anulaciones simultáneas")
+    void testAnulacionesConcurrentes() throws Exception {
+        // Arrange
+        LocalDate periodo = Periodo.actual().desplazar(7).getPrimerDia();
+        List<Long> facturas = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            CuentaCliente cliente = crearCliente("Cliente a anular " + i, TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+            facturas.add(facturaService.emitirFacturaDesdeServiciosContratados(cliente.getId(), periodo,
+                LocalDate.now(), LocalDate.now().plusDays(10), null, null).getIdFactura());
+        }
+
+        // Act
+        CountDownLatch largada = new CountDownLatch(1);
+        List<CompletableFuture<Factura>> anulaciones = facturas.stream()
+            .map(id -> CompletableFuture.supplyAsync(() -> {
+                try {
+                    largada.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return facturaService.anularFactura(id, "Anulación simultánea");
+            }))
+            .toList();
+        largada.countDown();
+        for (CompletableFuture<Factura> anulacion : anulaciones) {
+            anulacion.get(30, TimeUnit.SECONDS);
+        }
+
+        // Assert
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+            List<Integer> numeros = facturaRepository.findAllById(facturas).stream()
+                .flatMap(f -> f.getNotasCredito().stream())
+                .map(NotaCredito::getNroNotaCredito)
+                .toList();
+            assertEquals(4, numeros.size());
+            assertEquals(4, numeros.stream().distinct().count());
+        });
+    }
+
+    // Métodos auxiliares
+
+    private CuentaCliente crearCliente(String nombre, TipoCondicionIVA condicionIva) {
+        CuentaCliente cliente = new CuentaCliente();
+        cliente.setNombre(nombre);
+        cliente.setRazonSocial(nombre + " S.A.");
+        cliente.setCuitDni(String.valueOf(30000000000L + clienteRepository.count()));
+        cliente.setDomicilio("Av. Corrientes 1234");
+        cliente.setEmail(nombre.toLowerCase().replace(" ", "") + "@email.com");
+        cliente.setCondicionIva(condicionIva);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        cliente.contratarServicio(servicio);
+        return clienteRepository.save(cliente);
+    }
+}
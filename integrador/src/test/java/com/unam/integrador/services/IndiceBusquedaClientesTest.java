@@ -0,0 +1,177 @@
+package com.unam.integrador.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.unam.integrador.dto.ClienteSugerenciaDTO;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitarios para IndiceBusquedaClientes.
+ * Valida búsqueda por subcadena, orden de relevancia, actualización incremental
+ * y reconciliación con la tabla.
+ */
+@DisplayName("Tests unitarios para IndiceBusquedaClientes")
+class IndiceBusquedaClientesTest {
+
+    private IndiceBusquedaClientes indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceBusquedaClientes();
+        indice.indexar(1L, "Zeta Tech", "20111111111", "ventas@zeta.com");
+        indice.indexar(2L, "Tech Solutions S.A.", "30222222222", "info@techsolutions.com");
+        indice.indexar(3L, "Alfa Tech", "20333333333", "alfa@mail.com");
+        indice.indexar(4L, "José Gómez", "27444444444", "jgomez@mail.com");
+    }
+
+    @Test
+    @DisplayName("Debería ordenar por prefijo de nombre y luego alfabéticamente")
+    void testBuscarOrdenRelevancia() {
+        // Act
+        List<Long> resultado = indice.buscar("TECH", 10);
+
+        // Assert
+        assertEquals(List.of(2L, 3L, 1L), resultado);
+    }
+
+    @Test
+    @DisplayName("Debería buscar por CUIT/DNI y email")
+    void testBuscarPorCuitYEmail() {
+        assertEquals(List.of(3L), indice.buscar("33333", 10));
+        assertEquals(List.of(1L), indice.buscar("@zeta", 10));
+    }
+
+    @Test
+    @DisplayName("Debería ignorar mayúsculas y acentos")
+    void testBuscarSinAcentos() {
+        assertEquals(List.of(4L), indice.buscar("gomez", 10));
+        assertEquals(List.of(4L), indice.buscar("JOSÉ", 10));
+    }
+
+    @Test
+    @DisplayName("Debería resolver criterios de menos de 3 caracteres")
+    void testBuscarCriterioCorto() {
+        assertEquals(List.of(3L), indice.buscar("al", 10));
+        assertTrue(indice.buscar("", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería respetar el límite de resultados")
+    void testBuscarConLimite() {
+        assertEquals(List.of(2L), indice.buscar("tech", 1));
+    }
+
+    @Test
+    @DisplayName("Debería buscar solo en el nombre")
+    void testBuscarPorNombre() {
+        // "mail" aparece en emails pero no en nombres
+        assertTrue(indice.buscarPorNombre("mail", 10).isEmpty());
+        assertEquals(List.of(3L), indice.buscarPorNombre("alfa", 10));
+    }
+
+    @Test
+    @DisplayName("Debería actualizar el índice al modificar un cliente")
+    void testReindexarCliente() {
+        // Act
+        indice.indexar(3L, "Beta Consultores", "20333333333", "beta@mail.com");
+
+        // Assert
+        assertEquals(List.of(2L, 1L), indice.buscar("tech", 10));
+        assertEquals(List.of(3L), indice.buscar("consultores", 10));
+        assertEquals(4, indice.getCantidadClientes());
+    }
+
+    @Test
+    @DisplayName("Debería mantener resultados correctos al crecer las tablas internas")
+    void testIndexarMuchosClientes() {
+        // Act
+        for (long id = 100; id < 2100; id++) {
+            indice.indexar(id, "Cliente " + id, "20" + id, "cliente" + id + "@mail.com");
+        }
+
+        // Assert
+        assertEquals(2004, indice.getCantidadClientes());
+        assertEquals(List.of(1234L), indice.buscar("cliente 1234", 10));
+        assertEquals(2000, indice.buscar("cliente", Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    @DisplayName("Debería devolver las coincidencias más relevantes en orden al aplicar el límite")
+    void testBuscarConLimiteEntreMuchasCoincidencias() {
+        // Arrange
+        for (long id = 2099; id >= 100; id--) {
+            indice.indexar(id, "Cliente " + id, "20" + id, "cliente" + id + "@mail.com");
+        }
+
+        // Act
+        List<Long> resultado = indice.buscar("cliente", 3);
+
+        // Assert
+        assertEquals(List.of(100L, 1000L, 1001L), resultado);
+    }
+
+    @Test
+    @DisplayName("Debería conservar los clientes indexados mientras se construye el índice")
+    void testConstruirConservaActualizacionesConcurrentes() {
+        // Arrange - Un alta y una modificación se confirman mientras se lee la tabla
+        CuentaClienteRepositorie repositorio = mock(CuentaClienteRepositorie.class);
+        when(repositorio.findAllParaIndice()).thenAnswer(invocacion -> {
+            indice.indexar(5L, "Cliente Nuevo", "20555555555", "nuevo@mail.com");
+            indice.indexar(3L, "Beta Consultores", "20333333333", "beta@mail.com");
+            return List.of(
+                new ClienteSugerenciaDTO(1L, "Zeta Tech", "20111111111", "ventas@zeta.com"),
+                new ClienteSugerenciaDTO(3L, "Alfa Tech", "20333333333", "alfa@mail.com"));
+        });
+        ReflectionTestUtils.setField(indice, "clienteRepository", repositorio);
+
+        // Act
+        indice.construir();
+
+        // Assert
+        assertTrue(indice.estaListo());
+        assertEquals(3, indice.getCantidadClientes());
+        assertEquals(List.of(5L), indice.buscar("nuevo", 10));
+        assertEquals(List.of(3L), indice.buscar("consultores", 10));
+        assertEquals(List.of(1L), indice.buscar("tech", 10));
+    }
+
+    @Test
+    @DisplayName("Debería reindexar los clientes modificados en otra instancia al reconciliar")
+    void testReconciliarConCambiosExternos() {
+        // Arrange - Zeta cambió de nombre y se dio de alta otro cliente sin eventos locales;
+        // Alfa se modificó localmente mientras se leía la tabla
+        CuentaClienteRepositorie repositorio = mock(CuentaClienteRepositorie.class);
+        when(repositorio.findAllParaIndice()).thenReturn(List.of(
+            new ClienteSugerenciaDTO(1L, "Zeta Tech", "20111111111", "ventas@zeta.com"),
+            new ClienteSugerenciaDTO(3L, "Alfa Tech", "20333333333", "alfa@mail.com")));
+        ReflectionTestUtils.setField(indice, "clienteRepository", repositorio);
+        indice.construir();
+        when(repositorio.findAllParaIndice()).thenAnswer(invocacion -> {
+            indice.indexar(3L, "Beta Consultores", "20333333333", "beta@mail.com");
+            return List.of(
+                new ClienteSugerenciaDTO(1L, "Omega Sistemas", "20111111111", "ventas@omega.com"),
+                new ClienteSugerenciaDTO(3L, "Alfa Tech", "20333333333", "alfa@mail.com"),
+                new ClienteSugerenciaDTO(6L, "Delta Redes", "20666666666", "delta@mail.com"));
+        });
+
+        // Act
+        indice.reconciliar();
+
+        // Assert
+        assertEquals(3, indice.getCantidadClientes());
+        assertEquals(List.of(1L), indice.buscar("omega", 10));
+        assertTrue(indice.buscar("zeta", 10).isEmpty());
+        assertEquals(List.of(6L), indice.buscar("delta", 10));
+        assertEquals(List.of(3L), indice.buscar("consultores", 10));
+        assertTrue(indice.buscar("alfa", 10).isEmpty());
+    }
+}
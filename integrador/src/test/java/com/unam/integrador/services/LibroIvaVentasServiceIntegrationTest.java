@@ -0,0 +1,137 @@
+package com.unam.integrador.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.unam.integrador.model.*;
+import com.unam.integrador.model.enums.*;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para LibroIvaVentasService.
+ * Valida la agrupación por alícuota, el descuento sobre el neto y las notas
+ * de crédito en negativo, usando H2.
+ */
+@DataJpaTest
+@Import(LibroIvaVentasService.class)
+@DisplayName("Tests de integración para LibroIvaVentasService")
+class LibroIvaVentasServiceIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private LibroIvaVentasService libroIvaVentasService;
+
+    private CuentaCliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new CuentaCliente();
+        cliente.setNombre("Alfa; Tech");
+        cliente.setRazonSocial("Alfa; Tech S.A.");
+        cliente.setCuitDni("20111111111");
+        cliente.setDomicilio("Av. Corrientes 1234");
+        cliente.setTelefono("11-1234-5678");
+        cliente.setEmail("alfa@email.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        cliente.setSaldo(BigDecimal.ZERO);
+        entityManager.persist(cliente);
+    }
+
+    @Test
+    @DisplayName("Debería generar una línea por factura y alícuota con el descuento aplicado al neto")
+    void testGenerarAgrupadoPorAlicuota() {
+        // Arrange
+        Factura factura = crearFactura(1, LocalDate.of(2025, 11, 5));
+        factura.agregarItem(new ItemFactura("Hosting", new BigDecimal("1000"), 1, TipoAlicuotaIVA.IVA_21));
+        factura.agregarItem(new ItemFactura("Email", new BigDecimal("500"), 2, TipoAlicuotaIVA.IVA_21));
+        factura.agregarItem(new ItemFactura("Soporte", new BigDecimal("200"), 1, TipoAlicuotaIVA.IVA_10_5));
+        factura.aplicarDescuento(10, "Cliente frecuente");
+        entityManager.persist(factura);
+        // Fuera del período: no debe aparecer
+        Factura otroMes = crearFactura(2, LocalDate.of(2025, 12, 1));
+        otroMes.agregarItem(new ItemFactura("Hosting", new BigDecimal("1000"), 1, TipoAlicuotaIVA.IVA_21));
+        entityManager.persist(otroMes);
+        entityManager.flush();
+        entityManager.clear();
+        StringWriter salida = new StringWriter();
+
+        // Act
+        int lineas = libroIvaVentasService.generar(Periodo.of(YearMonth.of(2025, 11)), salida);
+
+        // Assert
+        String[] filas = salida.toString().split("\r\n");
+        assertEquals(2, lineas);
+        assertEquals(3, filas.length);
+        assertEquals("2025-11-05;Factura;A;0001-00000001;20111111111;\"Alfa; Tech S.A.\";IVA 10.5%;180.00;21.00",
+            filas[1]);
+        assertEquals("2025-11-05;Factura;A;0001-00000001;20111111111;\"Alfa; Tech S.A.\";IVA 21%;1800.00;420.00",
+            filas[2]);
+    }
+
+    @Test
+    @DisplayName("Debería informar las notas de crédito en negativo intercaladas por fecha")
+    void testGenerarConNotaCredito() {
+        // Arrange
+        Factura factura = crearFactura(1, LocalDate.of(2025, 11, 3));
+        factura.agregarItem(new ItemFactura("Hosting", new BigDecimal("1000"), 1, TipoAlicuotaIVA.IVA_21));
+        // Factura de otro período de servicio, emitida más tarde en el mismo mes
+        Factura posterior = new Factura(1, 2, cliente, LocalDate.of(2025, 11, 20),
+            LocalDate.of(2025, 11, 30), LocalDate.of(2025, 10, 1), TipoFactura.A);
+        posterior.agregarItem(new ItemFactura("Email", new BigDecimal("300"), 1, TipoAlicuotaIVA.IVA_21));
+        factura.agregarNotaCredito(new NotaCredito(1, 1, LocalDate.of(2025, 11, 10),
+            factura.getTotal(), "Error de facturación", TipoFactura.A, factura));
+        entityManager.persist(factura);
+        entityManager.persist(posterior);
+        entityManager.flush();
+        entityManager.clear();
+        StringWriter salida = new StringWriter();
+
+        // Act
+        int lineas = libroIvaVentasService.generar(Periodo.of(YearMonth.of(2025, 11)), salida);
+
+        // Assert
+        String[] filas = salida.toString().split("\r\n");
+        assertEquals(3, lineas);
+        assertTrue(filas[1].startsWith("2025-11-03;Factura;A;0001-00000001;"));
+        assertTrue(filas[2].startsWith("2025-11-10;Nota de crédito;A;0001-00000001;"));
+        assertTrue(filas[2].endsWith(";IVA 21%;-1000.00;-210.00"));
+        assertTrue(filas[3].startsWith("2025-11-20;Factura;A;0001-00000002;"));
+    }
+
+    @Test
+    @DisplayName("Debería escribir solo el encabezado si no hay comprobantes")
+    void testGenerarPeriodoVacio() {
+        // Arrange
+        StringWriter salida = new StringWriter();
+
+        // Act
+        int lineas = libroIvaVentasService.generar(Periodo.of(YearMonth.of(2020, 1)), salida);
+
+        // Assert
+        assertEquals(0, lineas);
+        assertTrue(salida.toString().startsWith("Fecha;Comprobante;Tipo;"));
+        assertThrows(IllegalArgumentException.class,
+            () -> libroIvaVentasService.generar(null, new StringWriter()));
+    }
+
+    // Métodos auxiliares
+
+    private Factura crearFactura(int numero, LocalDate fechaEmision) {
+        return new Factura(1, numero, cliente, fechaEmision, fechaEmision.plusDays(10),
+            fechaEmision.withDayOfMonth(1), TipoFactura.A);
+    }
+}
@@ -0,0 +1,113 @@
+package com.unam.integrador.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.unam.integrador.model.*;
+import com.unam.integrador.model.enums.*;
+import com.unam.integrador.repositories.CuentaClienteRepositorie;
+import com.unam.integrador.repositories.ServicioRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para las métricas de facturación.
+ * Verifican los timers de los servicios y que los contadores solo cuenten
+ * operaciones confirmadas; por eso no corren dentro de la transacción del test.
+ */
+@SpringBootTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@DisplayName("Tests de integración para MetricasFacturacion")
+class MetricasFacturacionIntegrationTest {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private FacturaService facturaService;
+
+    @Autowired
+    private PagoService pagoService;
+
+    @Autowired
+    private CuentaClienteRepositorie clienteRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Test
+    @DisplayName("Debería medir emisiones y pagos y contar solo las operaciones confirmadas")
+    void testTimersYContadores() {
+        // Arrange
+        CuentaCliente cliente = crearCliente();
+        Periodo periodo = Periodo.actual().desplazar(3);
+        // El contexto puede venir de otros tests: se comparan diferencias
+        long emisionesAntes = mediciones(MetricasFacturacion.TIMER_FACTURACION, "emitir", "none");
+        long fallidasAntes = mediciones(MetricasFacturacion.TIMER_FACTURACION, "emitir", "IllegalStateException");
+        long pagosAntes = mediciones(MetricasFacturacion.TIMER_PAGOS, "pago-combinado", "none");
+        double emitidasAntes = contador("integrador.facturas.emitidas", "tipo", "A");
+        double montoAntes = contador("integrador.facturas.monto", "tipo", "A");
+        double cobradoAntes = contador("integrador.pagos.monto", "metodo", "TRANSFERENCIA");
+
+        // Act
+        Factura factura = facturaService.emitirFacturaDesdeServiciosContratados(cliente.getId(),
+            periodo.getPrimerDia(), LocalDate.now(), LocalDate.now().plusDays(10), null, null);
+        // La segunda emisión del período se revierte
+        assertThrows(IllegalStateException.class, () -> facturaService.emitirFacturaDesdeServiciosContratados(
+            cliente.getId(), periodo.getPrimerDia(), LocalDate.now(), LocalDate.now().plusDays(10), null, null));
+        pagoService.registrarPagoCombinado(List.of(factura.getIdFactura()), new BigDecimal("5000.00"),
+            BigDecimal.ZERO, MetodoPago.TRANSFERENCIA, "TRF-1");
+
+        // Assert
+        assertEquals(emisionesAntes + 1, mediciones(MetricasFacturacion.TIMER_FACTURACION, "emitir", "none"));
+        assertEquals(fallidasAntes + 1,
+            mediciones(MetricasFacturacion.TIMER_FACTURACION, "emitir", "IllegalStateException"));
+        assertEquals(pagosAntes + 1, mediciones(MetricasFacturacion.TIMER_PAGOS, "pago-combinado", "none"));
+
+        // La emisión revertida no se cuenta
+        assertEquals(emitidasAntes + 1, contador("integrador.facturas.emitidas", "tipo", "A"));
+        assertEquals(montoAntes + factura.getTotal().doubleValue(), contador("integrador.facturas.monto", "tipo", "A"));
+        assertEquals(cobradoAntes + 5000.0, contador("integrador.pagos.monto", "metodo", "TRANSFERENCIA"));
+    }
+
+    // Métodos auxiliares
+
+    private long mediciones(String timer, String operacion, String excepcion) {
+        Timer medido = registry.find(timer).tags("operacion", operacion, "exception", excepcion).timer();
+        return medido == null ? 0 : medido.count();
+    }
+
+    private double contador(String nombre, String etiqueta, String valor) {
+        Counter contador = registry.find(nombre).tag(etiqueta, valor).counter();
+        return contador == null ? 0 : contador.count();
+    }
+
+    private CuentaCliente crearCliente() {
+        Servicio servicio = servicioRepository.save(
+            new Servicio("Soporte Métricas", "Soporte técnico", new BigDecimal("10000.00"), TipoAlicuotaIVA.IVA_21));
+        CuentaCliente cliente = new CuentaCliente();
+        cliente.setNombre("Métricas S.A.");
+        cliente.setRazonSocial("Métricas S.A.");
+        cliente.setCuitDni("30999999990");
+        cliente.setDomicilio("Av. Corrientes 1234");
+        cliente.setEmail("metricas@email.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        cliente.contratarServicio(servicio);
+        return clienteRepository.save(cliente);
+    }
+}
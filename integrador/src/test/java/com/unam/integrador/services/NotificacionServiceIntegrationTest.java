@@ -0,0 +1,181 @@
+package com.unam.integrador.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.mail.MailSenderAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.unam.integrador.model.*;
+import com.unam.integrador.model.enums.*;
+import com.unam.integrador.repositories.NotificacionRepository;
+
+import jakarta.mail.internet.MimeMessage;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para NotificacionService contra un servidor SMTP local
+ * (GreenMail). Valida el registro en la bandeja de salida, el envío en lotes
+ * y los reintentos ante fallas del servidor de correo, usando H2.
+ */
+@DataJpaTest
+@Import({NotificacionService.class, TareasSegundoPlano.class})
+@ImportAutoConfiguration(MailSenderAutoConfiguration.class)
+@DisplayName("Tests de integración para NotificacionService")
+class NotificacionServiceIntegrationTest {
+
+    private static final LocalDate EMISION = LocalDate.of(2025, 11, 5);
+
+    @RegisterExtension
+    static GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NotificacionService notificacionService;
+
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    private CuentaCliente cliente;
+    private int periodos;
+
+    @BeforeEach
+    void setUp() {
+        periodos = 0;
+        ReflectionTestUtils.setField(notificacionService, "tamanioLote", 2);
+
+        cliente = new CuentaCliente();
+        cliente.setNombre("Alfa Tech");
+        cliente.setRazonSocial("Alfa Tech S.A.");
+        cliente.setCuitDni("20111111111");
+        cliente.setDomicilio("Av. Corrientes 1234");
+        cliente.setTelefono("11-1234-5678");
+        cliente.setEmail("alfa@email.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        cliente.setSaldo(BigDecimal.ZERO);
+        entityManager.persist(cliente);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(notificacionService, "tamanioLote", 200);
+        ReflectionTestUtils.setField(notificacionService, "maxIntentos", 5);
+    }
+
+    @Test
+    @DisplayName("Debería registrar los avisos de facturas y recibos y enviarlos en lotes")
+    void testRegistrarYDespacharEnLotes() throws Exception {
+        // Arrange
+        Factura primera = crearFactura(1, "1000");
+        Factura segunda = crearFactura(2, "500");
+        Factura tercera = crearFactura(3, "200");
+        notificacionService.registrarFacturasEmitidas(List.of(primera, segunda, tercera));
+        notificacionService.registrarReciboGenerado("00000001", cliente, new BigDecimal("1210.00"), List.of(primera));
+        entityManager.flush();
+
+        // Act
+        int enviadas = notificacionService.despacharPendientes();
+
+        // Assert
+        assertEquals(4, enviadas);
+        MimeMessage[] recibidos = smtp.getReceivedMessages();
+        assertEquals(4, recibidos.length);
+        assertEquals("Factura 1-00000001 - " + primera.getPeriodoFormateado(), recibidos[0].getSubject());
+        assertEquals("alfa@email.com", recibidos[0].getAllRecipients()[0].toString());
+        assertTrue(GreenMailUtil.getBody(recibidos[0]).contains("1210"));
+        assertEquals("Recibo 00000001", recibidos[3].getSubject());
+        assertEquals(4, notificacionRepository.countByEstado(EstadoNotificacion.ENVIADA));
+        assertEquals(0, notificacionService.despacharPendientes());
+    }
+
+    @Test
+    @DisplayName("Debería reintentar con espera si el servidor de correo no responde y descartar al agotar intentos")
+    void testReintentosAnteFallas() {
+        // Arrange
+        notificacionService.registrarFacturaEmitida(crearFactura(1, "1000"));
+        entityManager.flush();
+        smtp.stop();
+
+        // Act
+        int enviadas = notificacionService.despacharPendientes();
+
+        // Assert
+        assertEquals(0, enviadas);
+        Notificacion notificacion = notificacionRepository.findAll().get(0);
+        assertEquals(EstadoNotificacion.PENDIENTE, notificacion.getEstado());
+        assertEquals(1, notificacion.getIntentos());
+        assertNotNull(notificacion.getUltimoError());
+        assertTrue(notificacion.getProximoIntento().isAfter(LocalDateTime.now()));
+        // El reintento todavía no venció
+        assertEquals(0, notificacionService.despacharPendientes());
+
+        notificacion.registrarFallo("Sin conexión", LocalDateTime.now(), 2);
+        assertEquals(EstadoNotificacion.FALLIDA, notificacion.getEstado());
+    }
+
+    @Test
+    @DisplayName("Debería reservar el lote tomado para que otro despacho no lo vuelva a enviar")
+    void testLoteReservado() {
+        // Arrange
+        notificacionService.registrarFacturaEmitida(crearFactura(1, "1000"));
+        notificacionService.registrarFacturaEmitida(crearFactura(2, "500"));
+        entityManager.flush();
+        LocalDateTime ahora = LocalDateTime.now();
+        Notificacion tomada = notificacionRepository.reclamarPendientes(ahora, 1).get(0);
+        tomada.reservar(ahora.plusMinutes(5));
+        entityManager.flush();
+
+        // Act
+        int enviadas = notificacionService.despacharPendientes();
+
+        // Assert
+        assertEquals(1, enviadas);
+        assertEquals(1, smtp.getReceivedMessages().length);
+        assertEquals(EstadoNotificacion.PENDIENTE, notificacionRepository.findById(tomada.getId()).orElseThrow().getEstado());
+    }
+
+    @Test
+    @DisplayName("No debería registrar avisos para clientes sin email")
+    void testClienteSinEmail() {
+        // Arrange
+        cliente.setEmail(" ");
+        Factura factura = crearFactura(1, "1000");
+
+        // Act
+        notificacionService.registrarFacturaEmitida(factura);
+        notificacionService.registrarReciboGenerado("00000001", cliente, BigDecimal.TEN, List.of(factura));
+
+        // Assert
+        assertEquals(0, notificacionRepository.count());
+        assertThrows(IllegalArgumentException.class,
+            () -> Notificacion.crear(TipoNotificacion.RECIBO_GENERADO, "00000001", null, "Recibo", ""));
+    }
+
+    // Métodos auxiliares
+
+    private Factura crearFactura(int numero, String precio) {
+        Factura factura = new Factura(1, numero, cliente, EMISION, EMISION.plusDays(10),
+            EMISION.withDayOfMonth(1).minusMonths(periodos++), TipoFactura.A);
+        factura.agregarItem(new ItemFactura("Hosting", new BigDecimal(precio), 1, TipoAlicuotaIVA.IVA_21));
+        return entityManager.persist(factura);
+    }
+}
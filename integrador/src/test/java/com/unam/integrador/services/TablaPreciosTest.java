@@ -0,0 +1,84 @@
+package com.unam.integrador.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+
+import com.unam.integrador.model.PrecioServicio;
+import com.unam.integrador.model.Servicio;
+import com.unam.integrador.model.ServicioContratado;
+import com.unam.integrador.model.enums.TipoAlicuotaIVA;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para TablaPrecios.
+ * Valida la resolución del precio vigente y la prioridad de precios especiales.
+ */
+@DisplayName("Tests unitarios para TablaPrecios")
+class TablaPreciosTest {
+
+    private Servicio hosting;
+    private ServicioContratado contrato;
+    private ServicioContratado contratoEspecial;
+
+    @BeforeEach
+    void setUp() {
+        hosting = new Servicio("Hosting", "Hosting web", new BigDecimal("1000.00"), TipoAlicuotaIVA.IVA_21);
+        hosting.setIDServicio(1L);
+        contrato = crearContrato(10L, new BigDecimal("1000.00"));
+        contratoEspecial = crearContrato(11L, new BigDecimal("1000.00"));
+    }
+
+    @Test
+    @DisplayName("Debería usar el precio del contrato si no hay historial")
+    void testSinHistorial() {
+        assertEquals(new BigDecimal("1000.00"), TablaPrecios.vacia().resolver(contrato));
+    }
+
+    @Test
+    @DisplayName("Debería usar el precio general vigente del servicio")
+    void testPrecioGeneral() {
+        // Arrange
+        TablaPrecios tabla = new TablaPrecios(List.of(
+            crearPrecio(1L, null, LocalDate.of(2026, 3, 1), "1200.00")));
+
+        // Act & Assert
+        assertEquals(new BigDecimal("1200.00"), tabla.resolver(contrato));
+        assertEquals(new BigDecimal("1200.00"), tabla.resolver(contratoEspecial));
+    }
+
+    @Test
+    @DisplayName("Debería priorizar el precio especial del contrato sobre el general")
+    void testPrecioEspecial() {
+        // Arrange
+        TablaPrecios tabla = new TablaPrecios(List.of(
+            crearPrecio(1L, null, LocalDate.of(2026, 3, 1), "1200.00"),
+            crearPrecio(2L, contratoEspecial, LocalDate.of(2026, 4, 1), "900.00")));
+
+        // Act & Assert
+        assertEquals(new BigDecimal("900.00"), tabla.resolver(contratoEspecial));
+        assertEquals(new BigDecimal("1200.00"), tabla.resolver(contrato));
+    }
+
+    // Métodos auxiliares
+
+    private ServicioContratado crearContrato(Long id, BigDecimal precio) {
+        ServicioContratado sc = new ServicioContratado();
+        sc.setIDServicioContratado(id);
+        sc.setServicio(hosting);
+        sc.setPrecioContratado(precio);
+        sc.setActivo(true);
+        return sc;
+    }
+
+    private PrecioServicio crearPrecio(Long id, ServicioContratado contrato, LocalDate desde, String precio) {
+        PrecioServicio p = new PrecioServicio(hosting, contrato, desde, new BigDecimal(precio));
+        p.setId(id);
+        return p;
+    }
+}
@@ -0,0 +1,134 @@
+package com.unam.integrador.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import com.unam.integrador.dto.TableroDTO;
+import com.unam.integrador.dto.TotalAgrupadoDTO;
+import com.unam.integrador.eventos.FacturasEmitidas;
+import com.unam.integrador.model.*;
+import com.unam.integrador.model.enums.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de integración para TableroService.
+ * Valida los indicadores calculados con consultas agregadas y el uso de la
+ * instantánea en memoria.
+ */
+@DataJpaTest
+@Import(TableroService.class)
+@DisplayName("Tests de integración para TableroService")
+class TableroServiceIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TableroService tableroService;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    private CuentaCliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        cliente = new CuentaCliente();
+        cliente.setNombre("Alfa Tech");
+        cliente.setRazonSocial("Alfa Tech S.A.");
+        cliente.setCuitDni("20111111111");
+        cliente.setDomicilio("Av. Corrientes 1234");
+        cliente.setTelefono("11-1234-5678");
+        cliente.setEmail("alfa@email.com");
+        cliente.setCondicionIva(TipoCondicionIVA.RESPONSABLE_INSCRIPTO);
+        cliente.setEstado(EstadoCuenta.ACTIVA);
+        cliente.setSaldo(BigDecimal.ZERO);
+        entityManager.persist(cliente);
+    }
+
+    @Test
+    @DisplayName("Debería totalizar facturas, pagos del día, último lote y clientes")
+    void testRefrescar() {
+        // Arrange
+        crearFactura(1, "1000");
+        crearFactura(2, "500");
+        Factura pagada = crearFactura(3, "200");
+        pagada.setSaldoPendiente(BigDecimal.ZERO);
+        pagada.setEstado(EstadoFactura.PAGADA_TOTALMENTE);
+        entityManager.persist(Pago.crearPago(new BigDecimal("200"), MetodoPago.EFECTIVO, null));
+        entityManager.persist(Pago.crearPago(new BigDecimal("50"), MetodoPago.EFECTIVO, null));
+        LoteFacturacion lote = new LoteFacturacion(Periodo.of(YearMonth.of(2025, 11)),
+            LocalDate.of(2025, 11, 30));
+        entityManager.persist(lote);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        TableroDTO tablero = tableroService.refrescar();
+
+        // Assert
+        assertEquals(2, cantidad(tablero, EstadoFactura.PENDIENTE));
+        assertEquals(1, cantidad(tablero, EstadoFactura.PAGADA_TOTALMENTE));
+        assertEquals(0, new BigDecimal("1500").compareTo(tablero.getMontoPendiente()));
+        assertEquals(1, tablero.getPagosHoyPorMetodo().size());
+        assertEquals(2, tablero.getPagosHoyPorMetodo().get(0).getCantidad());
+        assertEquals(0, new BigDecimal("250").compareTo(tablero.getCobradoHoy()));
+        assertEquals("Noviembre 2025", tablero.getUltimoLotePeriodo());
+        assertEquals(0, tablero.getUltimoLoteAnuladas());
+        assertEquals(EstadoCuenta.ACTIVA, tablero.getClientesPorEstado().get(0).getClave());
+        assertEquals(1, tablero.getClientesPorEstado().get(0).getCantidad());
+    }
+
+    @Test
+    @DisplayName("Debería devolver la instantánea y recalcular solo al confirmarse un cambio")
+    void testInstantanea() {
+        // Arrange
+        TableroDTO inicial = tableroService.refrescar();
+        Factura factura = crearFactura(1, "1000");
+        entityManager.flush();
+
+        // Act: dentro de la transacción la marca se difiere hasta el commit
+        TableroDTO cacheado = tableroService.obtenerTablero();
+        eventos.publishEvent(FacturasEmitidas.individual(factura));
+        tableroService.verificar();
+        TableroDTO sinCommit = tableroService.obtenerTablero();
+
+        TestTransaction.end();
+        eventos.publishEvent(FacturasEmitidas.individual(factura));
+        tableroService.verificar();
+        TableroDTO actualizado = tableroService.obtenerTablero();
+
+        // Assert
+        assertSame(inicial, cacheado);
+        assertSame(inicial, sinCommit);
+        assertNotSame(inicial, actualizado);
+    }
+
+    // Métodos auxiliares
+
+    private Factura crearFactura(int mes, String monto) {
+        Factura factura = new Factura(1, mes, cliente, LocalDate.of(2025, mes, 1), LocalDate.of(2025, mes, 10),
+            LocalDate.of(2025, mes, 1), TipoFactura.B);
+        factura.agregarItem(new ItemFactura("Servicio", new BigDecimal(monto), 1, TipoAlicuotaIVA.EXENTO));
+        return entityManager.persist(factura);
+    }
+
+    private long cantidad(TableroDTO tablero, EstadoFactura estado) {
+        return tablero.getFacturasPorEstado().stream()
+            .filter(t -> t.getClave() == estado)
+            .mapToLong(TotalAgrupadoDTO::getCantidad)
+            .findFirst().orElse(0);
+    }
+}
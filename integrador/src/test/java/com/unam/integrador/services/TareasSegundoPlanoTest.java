@@ -0,0 +1,95 @@
+package com.unam.integrador.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios para TareasSegundoPlano.
+ */
+@DisplayName("Tests unitarios para TareasSegundoPlano")
+class TareasSegundoPlanoTest {
+
+    private TareasSegundoPlano tareas;
+
+    @BeforeEach
+    void setUp() {
+        tareas = new TareasSegundoPlano();
+        tareas.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tareas.destroy();
+    }
+
+    @Test
+    @DisplayName("Debería agrupar las solicitudes de una tarea en curso en una sola ejecución más")
+    void testAgruparSolicitudes() throws Exception {
+        // Arrange
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch segunda = new CountDownLatch(1);
+        AtomicInteger ejecuciones = new AtomicInteger();
+        AtomicInteger simultaneas = new AtomicInteger();
+        AtomicInteger maxSimultaneas = new AtomicInteger();
+        Runnable accion = () -> {
+            maxSimultaneas.accumulateAndGet(simultaneas.incrementAndGet(), Math::max);
+            try {
+                if (ejecuciones.incrementAndGet() == 1) {
+                    enCurso.countDown();
+                    liberar.await(5, TimeUnit.SECONDS);
+                } else {
+                    segunda.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                simultaneas.decrementAndGet();
+            }
+        };
+
+        // Act
+        tareas.programar("prueba", accion);
+        assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            tareas.programar("prueba", accion);
+        }
+        liberar.countDown();
+
+        // Assert
+        assertTrue(segunda.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(2, ejecuciones.get());
+        assertEquals(1, maxSimultaneas.get());
+    }
+
+    @Test
+    @DisplayName("Debería seguir programando la tarea después de una ejecución fallida")
+    void testTareaFallida() throws Exception {
+        // Arrange
+        AtomicInteger ejecuciones = new AtomicInteger();
+        CountDownLatch segunda = new CountDownLatch(2);
+        Runnable accion = () -> {
+            ejecuciones.incrementAndGet();
+            segunda.countDown();
+            throw new IllegalStateException("Falla simulada");
+        };
+
+        // Act
+        tareas.programar("fallida", accion);
+        Thread.sleep(100);
+        tareas.programar("fallida", accion);
+
+        // Assert
+        assertTrue(segunda.await(5, TimeUnit.SECONDS));
+        assertEquals(2, ejecuciones.get());
+    }
+}